@@ -197,6 +197,14 @@ public class JournalEntry extends AbstractAuditableCustom<AppUser, Long> {
         return this.paymentDetail;
     }
 
+    public boolean isManualEntry() {
+        return this.manualEntry;
+    }
+
+    public String getDescription() {
+        return this.description;
+    }
+
     public String getTransactionId() {
         return transactionId;
     }
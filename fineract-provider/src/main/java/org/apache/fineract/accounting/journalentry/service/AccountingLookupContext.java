@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Remembers the GL closures, offices, product to GL account mappings,
+ * financial activity accounts and GL accounts resolved while posting the
+ * journal entries of one command, so every accounting leg shares a single
+ * lookup instead of querying again. Lookups that found nothing are remembered
+ * too.
+ * 
+ * A context that is not memoising simply runs every lookup; it is used when
+ * no journal entry scope is open.
+ */
+public final class AccountingLookupContext {
+
+    private final boolean memoising;
+    private final Map<String, Object> resolved = new HashMap<>();
+
+    public AccountingLookupContext(final boolean memoising) {
+        this.memoising = memoising;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T lookup(final String key, final Callable<T> loader) {
+        if (this.memoising && this.resolved.containsKey(key)) { return (T) this.resolved.get(key); }
+        final T value;
+        try {
+            value = loader.call();
+        } catch (final RuntimeException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+        if (this.memoising) {
+            this.resolved.put(key, value);
+        }
+        return value;
+    }
+}
@@ -24,6 +24,7 @@ import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.fineract.accounting.closure.domain.GLClosure;
@@ -60,14 +61,11 @@ import org.apache.fineract.organisation.office.domain.OfficeRepository;
 import org.apache.fineract.portfolio.account.PortfolioAccountType;
 import org.apache.fineract.portfolio.account.service.AccountTransfersReadPlatformService;
 import org.apache.fineract.portfolio.client.domain.ClientTransaction;
-import org.apache.fineract.portfolio.client.domain.ClientTransactionRepositoryWrapper;
 import org.apache.fineract.portfolio.loanaccount.data.LoanTransactionEnumData;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
-import org.apache.fineract.portfolio.loanaccount.domain.LoanTransactionRepository;
 import org.apache.fineract.portfolio.paymentdetail.domain.PaymentDetail;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionEnumData;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
-import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransactionRepository;
 import org.joda.time.LocalDate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -85,30 +83,24 @@ public class AccountingProcessorHelper {
     private final GLClosureRepository closureRepository;
     private final GLAccountRepositoryWrapper accountRepositoryWrapper;
     private final OfficeRepository officeRepository;
-    private final LoanTransactionRepository loanTransactionRepository;
-    private final ClientTransactionRepositoryWrapper clientTransactionRepository;
-    private final SavingsAccountTransactionRepository savingsAccountTransactionRepository;
     private final AccountTransfersReadPlatformService accountTransfersReadPlatformService;
+    private final JournalEntryBatchWriter journalEntryBatchWriter;
 
     @Autowired
     public AccountingProcessorHelper(final JournalEntryRepository glJournalEntryRepository,
             final ProductToGLAccountMappingRepository accountMappingRepository, final GLClosureRepository closureRepository,
-            final OfficeRepository officeRepository, final LoanTransactionRepository loanTransactionRepository,
-            final SavingsAccountTransactionRepository savingsAccountTransactionRepository,
-            final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepository,
+            final OfficeRepository officeRepository, final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepository,
             final AccountTransfersReadPlatformService accountTransfersReadPlatformService,
             final GLAccountRepositoryWrapper accountRepositoryWrapper,
-            final ClientTransactionRepositoryWrapper clientTransactionRepositoryWrapper) {
+            final JournalEntryBatchWriter journalEntryBatchWriter) {
         this.glJournalEntryRepository = glJournalEntryRepository;
         this.accountMappingRepository = accountMappingRepository;
         this.closureRepository = closureRepository;
         this.officeRepository = officeRepository;
-        this.loanTransactionRepository = loanTransactionRepository;
-        this.savingsAccountTransactionRepository = savingsAccountTransactionRepository;
         this.financialActivityAccountRepository = financialActivityAccountRepository;
         this.accountTransfersReadPlatformService = accountTransfersReadPlatformService;
         this.accountRepositoryWrapper = accountRepositoryWrapper;
-        this.clientTransactionRepository = clientTransactionRepositoryWrapper;
+        this.journalEntryBatchWriter = journalEntryBatchWriter;
     }
 
     public LoanDTO populateLoanDtoFromMap(final Map<String, Object> accountingBridgeData, final boolean cashBasedAccountingEnabled,
@@ -465,11 +457,23 @@ public class AccountingProcessorHelper {
     }
 
     public GLClosure getLatestClosureByBranch(final long officeId) {
-        return this.closureRepository.getLatestGLClosureByBranch(officeId);
+        return this.journalEntryBatchWriter.lookups().lookup("closure:" + officeId, new Callable<GLClosure>() {
+
+            @Override
+            public GLClosure call() {
+                return AccountingProcessorHelper.this.closureRepository.getLatestGLClosureByBranch(officeId);
+            }
+        });
     }
 
     public Office getOfficeById(final long officeId) {
-        return this.officeRepository.findOne(officeId);
+        return this.journalEntryBatchWriter.lookups().lookup("office:" + officeId, new Callable<Office>() {
+
+            @Override
+            public Office call() {
+                return AccountingProcessorHelper.this.officeRepository.findOne(officeId);
+            }
+        });
     }
 
     private void createJournalEntriesForLoan(final Office office, final String currencyCode, final int accountTypeToDebitId,
@@ -599,14 +603,6 @@ public class AccountingProcessorHelper {
         }
     }
 
-    public LoanTransaction getLoanTransactionById(final long loanTransactionId) {
-        return this.loanTransactionRepository.findOne(loanTransactionId);
-    }
-
-    public SavingsAccountTransaction getSavingsTransactionById(final long savingsTransactionId) {
-        return this.savingsAccountTransactionRepository.findOne(savingsTransactionId);
-    }
-
     private void createCreditJournalEntryOrReversalForLoan(final Office office, final String currencyCode, final int accountMappingTypeId,
             final Long loanProductId, final Long paymentTypeId, final Long loanId, final String transactionId, final Date transactionDate,
             final BigDecimal amount, final Boolean isReversal) {
@@ -621,57 +617,46 @@ public class AccountingProcessorHelper {
     private void createCreditJournalEntryForClientPayments(final Office office, final String currencyCode, final GLAccount account,
             final Long clientId, final Long transactionId, final Date transactionDate, final BigDecimal amount) {
         final boolean manualEntry = false;
-        LoanTransaction loanTransaction = null;
-        SavingsAccountTransaction savingsAccountTransaction = null;
-        ClientTransaction clientTransaction = null;
         final PaymentDetail paymentDetail = null;
 
-        clientTransaction = this.clientTransactionRepository.findOneWithNotFoundDetection(clientId, transactionId);
-
         String modifiedTransactionId = transactionId.toString();
         modifiedTransactionId = CLIENT_TRANSACTION_IDENTIFIER + transactionId;
         final JournalEntry journalEntry = JournalEntry.createNew(office, paymentDetail, account, currencyCode, modifiedTransactionId,
                 manualEntry, transactionDate, JournalEntryType.CREDIT, amount, null, PortfolioProductType.CLIENT.getValue(), clientId, null,
-                loanTransaction, savingsAccountTransaction, clientTransaction);
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+                null, null, null);
+        this.journalEntryBatchWriter.writeForClientTransaction(journalEntry, transactionId);
     }
 
     private void createCreditJournalEntryForSavings(final Office office, final String currencyCode, final GLAccount account,
             final Long savingsId, final String transactionId, final Date transactionDate, final BigDecimal amount) {
         final boolean manualEntry = false;
-        LoanTransaction loanTransaction = null;
-        SavingsAccountTransaction savingsAccountTransaction = null;
-        ClientTransaction clientTransaction = null;
         final PaymentDetail paymentDetail = null;
+        Long savingsTransactionId = null;
         String modifiedTransactionId = transactionId;
         if (StringUtils.isNumeric(transactionId)) {
-            long id = Long.parseLong(transactionId);
-            savingsAccountTransaction = this.savingsAccountTransactionRepository.findOne(id);
+            savingsTransactionId = Long.parseLong(transactionId);
             modifiedTransactionId = SAVINGS_TRANSACTION_IDENTIFIER + transactionId;
         }
         final JournalEntry journalEntry = JournalEntry.createNew(office, paymentDetail, account, currencyCode, modifiedTransactionId,
                 manualEntry, transactionDate, JournalEntryType.CREDIT, amount, null, PortfolioProductType.SAVING.getValue(), savingsId,
-                null, loanTransaction, savingsAccountTransaction, clientTransaction);
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+                null, null, null, null);
+        this.journalEntryBatchWriter.writeForSavingsTransaction(journalEntry, savingsTransactionId);
     }
 
     private void createCreditJournalEntryForLoan(final Office office, final String currencyCode, final GLAccount account, final Long loanId,
             final String transactionId, final Date transactionDate, final BigDecimal amount) {
         final boolean manualEntry = false;
-        LoanTransaction loanTransaction = null;
-        SavingsAccountTransaction savingsAccountTransaction = null;
-        ClientTransaction clientTransaction = null;
         final PaymentDetail paymentDetail = null;
+        Long loanTransactionId = null;
         String modifiedTransactionId = transactionId;
         if (StringUtils.isNumeric(transactionId)) {
-            long id = Long.parseLong(transactionId);
-            loanTransaction = this.loanTransactionRepository.findOne(id);
+            loanTransactionId = Long.parseLong(transactionId);
             modifiedTransactionId = LOAN_TRANSACTION_IDENTIFIER + transactionId;
         }
         final JournalEntry journalEntry = JournalEntry.createNew(office, paymentDetail, account, currencyCode, modifiedTransactionId,
                 manualEntry, transactionDate, JournalEntryType.CREDIT, amount, null, PortfolioProductType.LOAN.getValue(), loanId, null,
-                loanTransaction, savingsAccountTransaction, clientTransaction);
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+                null, null, null);
+        this.journalEntryBatchWriter.writeForLoanTransaction(journalEntry, loanTransactionId);
     }
 
     public void createProvisioningDebitJournalEntry(Date transactionDate, Long provisioningentryId, Office office, String currencyCode, GLAccount account,BigDecimal amount) {
@@ -704,67 +689,56 @@ public class AccountingProcessorHelper {
     private void createDebitJournalEntryForLoan(final Office office, final String currencyCode, final GLAccount account, final Long loanId,
             final String transactionId, final Date transactionDate, final BigDecimal amount) {
         final boolean manualEntry = false;
-        LoanTransaction loanTransaction = null;
-        SavingsAccountTransaction savingsAccountTransaction = null;
-        ClientTransaction clientTransaction = null;
         final PaymentDetail paymentDetail = null;
+        Long loanTransactionId = null;
         String modifiedTransactionId = transactionId;
         if (StringUtils.isNumeric(transactionId)) {
-            long id = Long.parseLong(transactionId);
-            loanTransaction = this.loanTransactionRepository.findOne(id);
+            loanTransactionId = Long.parseLong(transactionId);
             modifiedTransactionId = LOAN_TRANSACTION_IDENTIFIER + transactionId;
         }
         final JournalEntry journalEntry = JournalEntry.createNew(office, paymentDetail, account, currencyCode, modifiedTransactionId,
                 manualEntry, transactionDate, JournalEntryType.DEBIT, amount, null, PortfolioProductType.LOAN.getValue(), loanId, null,
-                loanTransaction, savingsAccountTransaction, clientTransaction);
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+                null, null, null);
+        this.journalEntryBatchWriter.writeForLoanTransaction(journalEntry, loanTransactionId);
     }
 
     private void createDebitJournalEntryForSavings(final Office office, final String currencyCode, final GLAccount account,
             final Long savingsId, final String transactionId, final Date transactionDate, final BigDecimal amount) {
         final boolean manualEntry = false;
-        LoanTransaction loanTransaction = null;
-        SavingsAccountTransaction savingsAccountTransaction = null;
-        ClientTransaction clientTransaction = null;
         final PaymentDetail paymentDetail = null;
+        Long savingsTransactionId = null;
         String modifiedTransactionId = transactionId;
         if (StringUtils.isNumeric(transactionId)) {
-            long id = Long.parseLong(transactionId);
-            savingsAccountTransaction = this.savingsAccountTransactionRepository.findOne(id);
+            savingsTransactionId = Long.parseLong(transactionId);
             modifiedTransactionId = SAVINGS_TRANSACTION_IDENTIFIER + transactionId;
         }
         final JournalEntry journalEntry = JournalEntry.createNew(office, paymentDetail, account, currencyCode, modifiedTransactionId,
                 manualEntry, transactionDate, JournalEntryType.DEBIT, amount, null, PortfolioProductType.SAVING.getValue(), savingsId, null,
-                loanTransaction, savingsAccountTransaction, clientTransaction);
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+                null, null, null);
+        this.journalEntryBatchWriter.writeForSavingsTransaction(journalEntry, savingsTransactionId);
     }
 
     private void createDebitJournalEntryForClientPayments(final Office office, final String currencyCode, final GLAccount account,
             final Long clientId, final Long transactionId, final Date transactionDate, final BigDecimal amount) {
         final boolean manualEntry = false;
-        ClientTransaction clientTransaction = null;
-        LoanTransaction loanTransaction = null;
-        SavingsAccountTransaction savingsAccountTransaction = null;
         final PaymentDetail paymentDetail = null;
 
-        clientTransaction = this.clientTransactionRepository.findOneWithNotFoundDetection(clientId, transactionId);
         String modifiedTransactionId = transactionId.toString();
         modifiedTransactionId = CLIENT_TRANSACTION_IDENTIFIER + transactionId;
 
         final JournalEntry journalEntry = JournalEntry.createNew(office, paymentDetail, account, currencyCode, modifiedTransactionId,
                 manualEntry, transactionDate, JournalEntryType.DEBIT, amount, null, PortfolioProductType.CLIENT.getValue(), clientId, null,
-                loanTransaction, savingsAccountTransaction, clientTransaction);
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+                null, null, null);
+        this.journalEntryBatchWriter.writeForClientTransaction(journalEntry, transactionId);
     }
 
     private GLAccount getLinkedGLAccountForLoanProduct(final Long loanProductId, final int accountMappingTypeId, final Long paymentTypeId) {
         GLAccount glAccount = null;
         if (isOrganizationAccount(accountMappingTypeId)) {
-            FinancialActivityAccount financialActivityAccount = this.financialActivityAccountRepository
-                    .findByFinancialActivityTypeWithNotFoundDetection(accountMappingTypeId);
+            FinancialActivityAccount financialActivityAccount = findFinancialActivityAccount(accountMappingTypeId);
             glAccount = financialActivityAccount.getGlAccount();
         } else {
-            ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(loanProductId,
+            ProductToGLAccountMapping accountMapping = findCoreProductToFinAccountMapping(loanProductId,
                     PortfolioProductType.LOAN.getValue(), accountMappingTypeId);
 
             /****
@@ -773,8 +747,7 @@ public class AccountingProcessorHelper {
              * same for both cash and accrual accounts
              ***/
             if (accountMappingTypeId == CASH_ACCOUNTS_FOR_LOAN.FUND_SOURCE.getValue()) {
-                final ProductToGLAccountMapping paymentChannelSpecificAccountMapping = this.accountMappingRepository
-                        .findByProductIdAndProductTypeAndFinancialAccountTypeAndPaymentTypeId(loanProductId,
+                final ProductToGLAccountMapping paymentChannelSpecificAccountMapping = findPaymentTypeSpecificMapping(loanProductId,
                                 PortfolioProductType.LOAN.getValue(), accountMappingTypeId, paymentTypeId);
                 if (paymentChannelSpecificAccountMapping != null) {
                     accountMapping = paymentChannelSpecificAccountMapping;
@@ -789,7 +762,7 @@ public class AccountingProcessorHelper {
     }
 
     private GLAccount getLinkedGLAccountForLoanCharges(final Long loanProductId, final int accountMappingTypeId, final Long chargeId) {
-        ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(loanProductId,
+        ProductToGLAccountMapping accountMapping = findCoreProductToFinAccountMapping(loanProductId,
                 PortfolioProductType.LOAN.getValue(), accountMappingTypeId);
                 /*****
                  * Get more specific mappings for Charges and penalties (based
@@ -802,8 +775,7 @@ public class AccountingProcessorHelper {
         // Vishwas TODO: remove this condition as it should always be true
         if (accountMappingTypeId == CASH_ACCOUNTS_FOR_LOAN.INCOME_FROM_FEES.getValue()
                 || accountMappingTypeId == CASH_ACCOUNTS_FOR_LOAN.INCOME_FROM_PENALTIES.getValue()) {
-            final ProductToGLAccountMapping chargeSpecificIncomeAccountMapping = this.accountMappingRepository
-                    .findByProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(loanProductId, PortfolioProductType.LOAN.getValue(),
+            final ProductToGLAccountMapping chargeSpecificIncomeAccountMapping = findChargeSpecificMapping(loanProductId, PortfolioProductType.LOAN.getValue(),
                             accountMappingTypeId, chargeId);
             if (chargeSpecificIncomeAccountMapping != null) {
                 accountMapping = chargeSpecificIncomeAccountMapping;
@@ -814,7 +786,7 @@ public class AccountingProcessorHelper {
 
     private GLAccount getLinkedGLAccountForSavingsCharges(final Long savingsProductId, final int accountMappingTypeId,
             final Long chargeId) {
-        ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(savingsProductId,
+        ProductToGLAccountMapping accountMapping = findCoreProductToFinAccountMapping(savingsProductId,
                 PortfolioProductType.SAVING.getValue(), accountMappingTypeId);
                 /*****
                  * Get more specific mappings for Charges and penalties (based
@@ -827,8 +799,7 @@ public class AccountingProcessorHelper {
         // Vishwas TODO: remove this condition as it should always be true
         if (accountMappingTypeId == CASH_ACCOUNTS_FOR_SAVINGS.INCOME_FROM_FEES.getValue()
                 || accountMappingTypeId == CASH_ACCOUNTS_FOR_LOAN.INCOME_FROM_PENALTIES.getValue()) {
-            final ProductToGLAccountMapping chargeSpecificIncomeAccountMapping = this.accountMappingRepository
-                    .findByProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(savingsProductId,
+            final ProductToGLAccountMapping chargeSpecificIncomeAccountMapping = findChargeSpecificMapping(savingsProductId,
                             PortfolioProductType.SAVING.getValue(), accountMappingTypeId, chargeId);
             if (chargeSpecificIncomeAccountMapping != null) {
                 accountMapping = chargeSpecificIncomeAccountMapping;
@@ -841,11 +812,10 @@ public class AccountingProcessorHelper {
             final Long paymentTypeId) {
         GLAccount glAccount = null;
         if (isOrganizationAccount(accountMappingTypeId)) {
-            FinancialActivityAccount financialActivityAccount = this.financialActivityAccountRepository
-                    .findByFinancialActivityTypeWithNotFoundDetection(accountMappingTypeId);
+            FinancialActivityAccount financialActivityAccount = findFinancialActivityAccount(accountMappingTypeId);
             glAccount = financialActivityAccount.getGlAccount();
         } else {
-            ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(savingsProductId,
+            ProductToGLAccountMapping accountMapping = findCoreProductToFinAccountMapping(savingsProductId,
                     PortfolioProductType.SAVING.getValue(), accountMappingTypeId);
             /****
              * Get more specific mapping for FUND source accounts (based on
@@ -853,8 +823,7 @@ public class AccountingProcessorHelper {
              * same for both cash and accrual accounts
              ***/
             if (accountMappingTypeId == CASH_ACCOUNTS_FOR_SAVINGS.SAVINGS_REFERENCE.getValue()) {
-                final ProductToGLAccountMapping paymentChannelSpecificAccountMapping = this.accountMappingRepository
-                        .findByProductIdAndProductTypeAndFinancialAccountTypeAndPaymentTypeId(savingsProductId,
+                final ProductToGLAccountMapping paymentChannelSpecificAccountMapping = findPaymentTypeSpecificMapping(savingsProductId,
                                 PortfolioProductType.SAVING.getValue(), accountMappingTypeId, paymentTypeId);
                 if (paymentChannelSpecificAccountMapping != null) {
                     accountMapping = paymentChannelSpecificAccountMapping;
@@ -912,8 +881,7 @@ public class AccountingProcessorHelper {
 
     public void createDebitJournalEntryOrReversalForClientChargePayments(final Office office, final String currencyCode,
             final Long clientId, final Long transactionId, final Date transactionDate, final BigDecimal amount, final Boolean isReversal) {
-        final GLAccount account = financialActivityAccountRepository
-                .findByFinancialActivityTypeWithNotFoundDetection(FINANCIAL_ACTIVITY.ASSET_FUND_SOURCE.getValue()).getGlAccount();
+        final GLAccount account = findFinancialActivityAccount(FINANCIAL_ACTIVITY.ASSET_FUND_SOURCE.getValue()).getGlAccount();
         if (isReversal) {
             createCreditJournalEntryForClientPayments(office, currencyCode, account, clientId, transactionId, transactionDate, amount);
         } else {
@@ -922,6 +890,65 @@ public class AccountingProcessorHelper {
     }
 
     private GLAccount getGLAccountById(final Long accountId) {
-        return this.accountRepositoryWrapper.findOneWithNotFoundDetection(accountId);
+        return this.journalEntryBatchWriter.lookups().lookup("glAccount:" + accountId, new Callable<GLAccount>() {
+
+            @Override
+            public GLAccount call() {
+                return AccountingProcessorHelper.this.accountRepositoryWrapper.findOneWithNotFoundDetection(accountId);
+            }
+        });
+    }
+
+    private FinancialActivityAccount findFinancialActivityAccount(final int financialActivityType) {
+        return this.journalEntryBatchWriter.lookups().lookup("financialActivity:" + financialActivityType,
+                new Callable<FinancialActivityAccount>() {
+
+                    @Override
+                    public FinancialActivityAccount call() {
+                        return AccountingProcessorHelper.this.financialActivityAccountRepository
+                                .findByFinancialActivityTypeWithNotFoundDetection(financialActivityType);
+                    }
+                });
+    }
+
+    private ProductToGLAccountMapping findCoreProductToFinAccountMapping(final Long productId, final int productType,
+            final int accountMappingTypeId) {
+        final String key = "mapping:" + productId + ":" + productType + ":" + accountMappingTypeId;
+        return this.journalEntryBatchWriter.lookups().lookup(key, new Callable<ProductToGLAccountMapping>() {
+
+            @Override
+            public ProductToGLAccountMapping call() {
+                return AccountingProcessorHelper.this.accountMappingRepository.findCoreProductToFinAccountMapping(productId, productType,
+                        accountMappingTypeId);
+            }
+        });
+    }
+
+    private ProductToGLAccountMapping findPaymentTypeSpecificMapping(final Long productId, final int productType,
+            final int accountMappingTypeId, final Long paymentTypeId) {
+        final String key = "paymentTypeMapping:" + productId + ":" + productType + ":" + accountMappingTypeId + ":" + paymentTypeId;
+        return this.journalEntryBatchWriter.lookups().lookup(key, new Callable<ProductToGLAccountMapping>() {
+
+            @Override
+            public ProductToGLAccountMapping call() {
+                return AccountingProcessorHelper.this.accountMappingRepository
+                        .findByProductIdAndProductTypeAndFinancialAccountTypeAndPaymentTypeId(productId, productType, accountMappingTypeId,
+                                paymentTypeId);
+            }
+        });
+    }
+
+    private ProductToGLAccountMapping findChargeSpecificMapping(final Long productId, final int productType,
+            final int accountMappingTypeId, final Long chargeId) {
+        final String key = "chargeMapping:" + productId + ":" + productType + ":" + accountMappingTypeId + ":" + chargeId;
+        return this.journalEntryBatchWriter.lookups().lookup(key, new Callable<ProductToGLAccountMapping>() {
+
+            @Override
+            public ProductToGLAccountMapping call() {
+                return AccountingProcessorHelper.this.accountMappingRepository
+                        .findByProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(productId, productType, accountMappingTypeId,
+                                chargeId);
+            }
+        });
     }
 }
@@ -0,0 +1,180 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+
+import org.apache.fineract.accounting.journalentry.domain.JournalEntry;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryRepository;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the journal entries generated by the accounting processors.
+ * 
+ * Between {@link #begin()} and {@link #end(boolean)} entries are collected
+ * for the current thread and inserted with a single JDBC batch when the
+ * outermost scope completes, instead of one insert and persistence context
+ * flush per entry. Scopes nest, so a command posting entries for many loans
+ * (e.g. a collection sheet) writes them all in one batch. A nested scope that
+ * does not complete drops only the entries collected since it began. Outside
+ * a scope entries are inserted straight away.
+ * 
+ * Entries reference their loan, savings or client transaction by id, so the
+ * transactions are never loaded just to be linked.
+ * 
+ * The scope also carries the {@link AccountingLookupContext} shared by all
+ * accounting legs of the command.
+ */
+@Component
+public class JournalEntryBatchWriter {
+
+    private static final String INSERT_SQL = "insert into acc_gl_journal_entry (account_id, office_id, payment_details_id, currency_code, "
+            + "transaction_id, loan_transaction_id, savings_transaction_id, client_transaction_id, reversed, manual_entry, entry_date, "
+            + "type_enum, amount, description, entity_type_enum, entity_id, ref_num, createdby_id, created_date, lastmodifiedby_id, "
+            + "lastmodified_date) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final ThreadLocal<Batch> batches = new ThreadLocal<>();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JournalEntryRepository journalEntryRepository;
+    private final AuditorAware<AppUser> auditorAware;
+
+    @Autowired
+    public JournalEntryBatchWriter(final RoutingDataSource dataSource, final JournalEntryRepository journalEntryRepository,
+            final AuditorAware<AppUser> auditorAware) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.journalEntryRepository = journalEntryRepository;
+        this.auditorAware = auditorAware;
+    }
+
+    public void begin() {
+        Batch batch = this.batches.get();
+        if (batch == null) {
+            batch = new Batch();
+            this.batches.set(batch);
+        }
+        batch.marks.push(batch.entries.size());
+    }
+
+    /**
+     * Closes the current scope. A scope that did not complete discards the
+     * entries collected since its {@link #begin()}; when the outermost scope
+     * closes the remaining entries are inserted.
+     */
+    public void end(final boolean completed) {
+        final Batch batch = this.batches.get();
+        if (batch == null) { return; }
+        final int mark = batch.marks.pop();
+        if (!completed) {
+            batch.entries.subList(mark, batch.entries.size()).clear();
+        }
+        if (batch.marks.isEmpty()) {
+            this.batches.remove();
+            insert(batch.entries);
+        }
+    }
+
+    /**
+     * Returns the lookup context of the open scope, or a context that does not
+     * memoise anything when no scope is open.
+     */
+    public AccountingLookupContext lookups() {
+        final Batch batch = this.batches.get();
+        return batch == null ? new AccountingLookupContext(false) : batch.lookups;
+    }
+
+    public void writeForLoanTransaction(final JournalEntry journalEntry, final Long loanTransactionId) {
+        write(new PendingJournalEntry(journalEntry, loanTransactionId, null, null));
+    }
+
+    public void writeForSavingsTransaction(final JournalEntry journalEntry, final Long savingsTransactionId) {
+        write(new PendingJournalEntry(journalEntry, null, savingsTransactionId, null));
+    }
+
+    public void writeForClientTransaction(final JournalEntry journalEntry, final Long clientTransactionId) {
+        write(new PendingJournalEntry(journalEntry, null, null, clientTransactionId));
+    }
+
+    private void write(final PendingJournalEntry pendingEntry) {
+        final Batch batch = this.batches.get();
+        if (batch == null) {
+            insert(Collections.singletonList(pendingEntry));
+        } else {
+            batch.entries.add(pendingEntry);
+        }
+    }
+
+    private void insert(final List<PendingJournalEntry> pendingEntries) {
+        if (pendingEntries.isEmpty()) { return; }
+
+        // the referenced transactions may still be pending in the persistence
+        // context
+        this.journalEntryRepository.flush();
+
+        final AppUser currentUser = this.auditorAware.getCurrentAuditor();
+        final Long userId = currentUser == null ? null : currentUser.getId();
+        final Timestamp now = new Timestamp(new Date().getTime());
+
+        final List<Object[]> batchArgs = new ArrayList<>(pendingEntries.size());
+        for (final PendingJournalEntry pendingEntry : pendingEntries) {
+            final JournalEntry entry = pendingEntry.journalEntry;
+            final Long paymentDetailId = entry.getPaymentDetails() == null ? null : entry.getPaymentDetails().getId();
+            batchArgs.add(new Object[] { entry.getGlAccount().getId(), entry.getOffice().getId(), paymentDetailId,
+                    entry.getCurrencyCode(), entry.getTransactionId(), pendingEntry.loanTransactionId, pendingEntry.savingsTransactionId,
+                    pendingEntry.clientTransactionId, false, entry.isManualEntry(), new java.sql.Date(entry.getTransactionDate().getTime()),
+                    entry.getType(), entry.getAmount(), entry.getDescription(), entry.getEntityType(), entry.getEntityId(),
+                    entry.getReferenceNumber(), userId, now, userId, now });
+        }
+        this.jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+    }
+
+    private static final class Batch {
+
+        private final List<PendingJournalEntry> entries = new ArrayList<>();
+        private final AccountingLookupContext lookups = new AccountingLookupContext(true);
+        private final Deque<Integer> marks = new ArrayDeque<>();
+    }
+
+    private static final class PendingJournalEntry {
+
+        private final JournalEntry journalEntry;
+        private final Long loanTransactionId;
+        private final Long savingsTransactionId;
+        private final Long clientTransactionId;
+
+        PendingJournalEntry(final JournalEntry journalEntry, final Long loanTransactionId, final Long savingsTransactionId,
+                final Long clientTransactionId) {
+            this.journalEntry = journalEntry;
+            this.loanTransactionId = loanTransactionId;
+            this.savingsTransactionId = savingsTransactionId;
+            this.clientTransactionId = clientTransactionId;
+        }
+    }
+}
@@ -70,6 +70,7 @@ import org.apache.fineract.organisation.office.domain.Office;
 import org.apache.fineract.organisation.office.domain.OfficeRepository;
 import org.apache.fineract.organisation.office.domain.OrganisationCurrencyRepositoryWrapper;
 import org.apache.fineract.organisation.office.exception.OfficeNotFoundException;
+import org.apache.fineract.organisation.teller.service.CashierBalanceWritePlatformService;
 import org.apache.fineract.portfolio.client.domain.ClientTransaction;
 import org.apache.fineract.portfolio.paymentdetail.domain.PaymentDetail;
 import org.apache.fineract.portfolio.paymentdetail.service.PaymentDetailWritePlatformService;
@@ -103,6 +104,8 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
     private final PaymentDetailWritePlatformService paymentDetailWritePlatformService;
     private final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper;
     private final CashBasedAccountingProcessorForClientTransactions accountingProcessorForClientTransactions;
+    private final JournalEntryBatchWriter journalEntryBatchWriter;
+    private final CashierBalanceWritePlatformService cashierBalanceWritePlatformService;
 
     @Autowired
     public JournalEntryWritePlatformServiceJpaRepositoryImpl(final GLClosureRepository glClosureRepository,
@@ -115,7 +118,9 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
             final OrganisationCurrencyRepositoryWrapper organisationCurrencyRepository, final PlatformSecurityContext context,
             final PaymentDetailWritePlatformService paymentDetailWritePlatformService,
             final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper,
-            final CashBasedAccountingProcessorForClientTransactions accountingProcessorForClientTransactions) {
+            final CashBasedAccountingProcessorForClientTransactions accountingProcessorForClientTransactions,
+            final JournalEntryBatchWriter journalEntryBatchWriter,
+            final CashierBalanceWritePlatformService cashierBalanceWritePlatformService) {
         this.glClosureRepository = glClosureRepository;
         this.officeRepository = officeRepository;
         this.glJournalEntryRepository = glJournalEntryRepository;
@@ -131,6 +136,8 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
         this.paymentDetailWritePlatformService = paymentDetailWritePlatformService;
         this.financialActivityAccountRepositoryWrapper = financialActivityAccountRepositoryWrapper;
         this.accountingProcessorForClientTransactions = accountingProcessorForClientTransactions;
+        this.journalEntryBatchWriter = journalEntryBatchWriter;
+        this.cashierBalanceWritePlatformService = cashierBalanceWritePlatformService;
     }
 
     @Transactional
@@ -459,10 +466,18 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
                 "Validation errors exist.", dataValidationErrors); }
     }
 
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> transactionsOf(final Map<String, Object> accountingBridgeData, final String transactionsKey) {
+        return (List<Map<String, Object>>) accountingBridgeData.get(transactionsKey);
+    }
+
     @Transactional
     @Override
     public void createJournalEntriesForLoan(final Map<String, Object> accountingBridgeData) {
 
+        // every loan posting passes through here, accounting enabled or not
+        this.cashierBalanceWritePlatformService.syncLoanTransactions(transactionsOf(accountingBridgeData, "newLoanTransactions"));
+
         final boolean cashBasedAccountingEnabled = (Boolean) accountingBridgeData.get("cashBasedAccountingEnabled");
         final boolean upfrontAccrualBasedAccountingEnabled = (Boolean) accountingBridgeData.get("upfrontAccrualBasedAccountingEnabled");
         final boolean periodicAccrualBasedAccountingEnabled = (Boolean) accountingBridgeData.get("periodicAccrualBasedAccountingEnabled");
@@ -472,7 +487,14 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
                     upfrontAccrualBasedAccountingEnabled, periodicAccrualBasedAccountingEnabled);
             final AccountingProcessorForLoan accountingProcessorForLoan = this.accountingProcessorForLoanFactory
                     .determineProcessor(loanDTO);
-            accountingProcessorForLoan.createJournalEntriesForLoan(loanDTO);
+            boolean completed = false;
+            this.journalEntryBatchWriter.begin();
+            try {
+                accountingProcessorForLoan.createJournalEntriesForLoan(loanDTO);
+                completed = true;
+            } finally {
+                this.journalEntryBatchWriter.end(completed);
+            }
         }
     }
 
@@ -480,6 +502,8 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
     @Override
     public void createJournalEntriesForSavings(final Map<String, Object> accountingBridgeData) {
 
+        this.cashierBalanceWritePlatformService.syncSavingsTransactions(transactionsOf(accountingBridgeData, "newSavingsTransactions"));
+
         final boolean cashBasedAccountingEnabled = (Boolean) accountingBridgeData.get("cashBasedAccountingEnabled");
         final boolean accrualBasedAccountingEnabled = (Boolean) accountingBridgeData.get("accrualBasedAccountingEnabled");
 
@@ -488,7 +512,14 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
                     accrualBasedAccountingEnabled);
             final AccountingProcessorForSavings accountingProcessorForSavings = this.accountingProcessorForSavingsFactory
                     .determineProcessor(savingsDTO);
-            accountingProcessorForSavings.createJournalEntriesForSavings(savingsDTO);
+            boolean completed = false;
+            this.journalEntryBatchWriter.begin();
+            try {
+                accountingProcessorForSavings.createJournalEntriesForSavings(savingsDTO);
+                completed = true;
+            } finally {
+                this.journalEntryBatchWriter.end(completed);
+            }
         }
 
     }
@@ -680,7 +711,14 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
     @Override
     public void createJournalEntriesForClientTransactions(Map<String, Object> accountingBridgeData) {
         final ClientTransactionDTO clientTransactionDTO = this.helper.populateClientTransactionDtoFromMap(accountingBridgeData);
-        accountingProcessorForClientTransactions.createJournalEntriesForClientTransaction(clientTransactionDTO);
+        boolean completed = false;
+        this.journalEntryBatchWriter.begin();
+        try {
+            accountingProcessorForClientTransactions.createJournalEntriesForClientTransaction(clientTransactionDTO);
+            completed = true;
+        } finally {
+            this.journalEntryBatchWriter.end(completed);
+        }
     }
     
     private class OfficeCurrencyKey {
@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.fineract.commands.domain.CommandWrapper;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.service.AccountLockService;
+import org.apache.fineract.portfolio.account.AccountDetailConstants;
+import org.apache.fineract.portfolio.account.PortfolioAccountType;
+import org.apache.fineract.portfolio.collectionsheet.CollectionSheetConstants;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Works out the loan and savings accounts a command writes to, for
+ * serialising it against other commands on the same accounts through
+ * {@link AccountLockService}. Values that do not parse are ignored here and
+ * left to the command's own validation.
+ */
+final class CommandAccountLockKeys {
+
+    private CommandAccountLockKeys() {
+        //
+    }
+
+    static Collection<String> from(final CommandWrapper wrapper, final JsonCommand command) {
+        final Set<String> keys = new TreeSet<>();
+        addLoan(keys, wrapper.getLoanId());
+        addSavings(keys, wrapper.getSavingsId());
+        final String entityName = wrapper.getEntityName();
+        if ("LOAN".equals(entityName)) {
+            addLoan(keys, wrapper.getEntityId());
+        } else if ("SAVINGSACCOUNT".equals(entityName) || "FIXEDDEPOSITACCOUNT".equals(entityName)
+                || "RECURRINGDEPOSITACCOUNT".equals(entityName)) {
+            addSavings(keys, wrapper.getEntityId());
+        }
+
+        final JsonElement parsed = command == null ? null : command.parsedJson();
+        if (parsed == null || !parsed.isJsonObject()) { return keys; }
+        final JsonObject object = parsed.getAsJsonObject();
+
+        // account transfers
+        addAccount(keys, longValue(object, AccountDetailConstants.fromAccountTypeParamName),
+                longValue(object, AccountDetailConstants.fromAccountIdParamName));
+        addAccount(keys, longValue(object, AccountDetailConstants.toAccountTypeParamName),
+                longValue(object, AccountDetailConstants.toAccountIdParamName));
+
+        // collection sheets
+        for (final JsonObject transaction : objectsIn(object, CollectionSheetConstants.bulkRepaymentTransactionsParamName)) {
+            addLoan(keys, longValue(transaction, "loanId"));
+        }
+        for (final JsonObject transaction : objectsIn(object, CollectionSheetConstants.bulkDisbursementTransactionsParamName)) {
+            addLoan(keys, longValue(transaction, "loanId"));
+        }
+        for (final JsonObject transaction : objectsIn(object, CollectionSheetConstants.bulkSavingsDueTransactionsParamName)) {
+            addSavings(keys, longValue(transaction, "savingsId"));
+        }
+        return keys;
+    }
+
+    private static void addAccount(final Set<String> keys, final Long accountType, final Long accountId) {
+        if (accountType == null || accountId == null) { return; }
+        final PortfolioAccountType type = PortfolioAccountType.fromInt(accountType.intValue());
+        if (type.isLoanAccount()) {
+            addLoan(keys, accountId);
+        } else if (type.isSavingsAccount()) {
+            addSavings(keys, accountId);
+        }
+    }
+
+    private static void addLoan(final Set<String> keys, final Long loanId) {
+        if (loanId != null) {
+            keys.add(AccountLockService.loanKey(loanId));
+        }
+    }
+
+    private static void addSavings(final Set<String> keys, final Long savingsId) {
+        if (savingsId != null) {
+            keys.add(AccountLockService.savingsKey(savingsId));
+        }
+    }
+
+    private static Long longValue(final JsonObject object, final String name) {
+        final JsonElement element = object.get(name);
+        if (element == null || !element.isJsonPrimitive()) { return null; }
+        try {
+            return Long.valueOf(element.getAsString().trim());
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Collection<JsonObject> objectsIn(final JsonObject object, final String name) {
+        final List<JsonObject> objects = new ArrayList<>();
+        final JsonElement element = object.get(name);
+        if (element == null || !element.isJsonArray()) { return objects; }
+        final JsonArray array = element.getAsJsonArray();
+        for (final JsonElement item : array) {
+            if (item.isJsonObject()) {
+                objects.add(item.getAsJsonObject());
+            }
+        }
+        return objects;
+    }
+}
@@ -18,7 +18,9 @@
  */
 package org.apache.fineract.commands.service;
 
+import java.util.Collection;
 import java.util.Random;
+import java.util.concurrent.Callable;
 
 import org.apache.fineract.commands.domain.CommandSource;
 import org.apache.fineract.commands.domain.CommandSourceRepository;
@@ -29,6 +31,7 @@ import org.apache.fineract.commands.exception.RollbackTransactionAsCommandIsNotA
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.service.AccountLockService;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.service.SchedulerJobRunnerReadService;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
@@ -52,17 +55,20 @@ public class PortfolioCommandSourceWritePlatformServiceImpl implements Portfolio
     private final FromJsonHelper fromApiJsonHelper;
     private final CommandProcessingService processAndLogCommandService;
     private final SchedulerJobRunnerReadService schedulerJobRunnerReadService;
+    private final AccountLockService accountLockService;
     private final static Logger logger = LoggerFactory.getLogger(PortfolioCommandSourceWritePlatformServiceImpl.class);
 
     @Autowired
     public PortfolioCommandSourceWritePlatformServiceImpl(final PlatformSecurityContext context,
             final CommandSourceRepository commandSourceRepository, final FromJsonHelper fromApiJsonHelper,
-            final CommandProcessingService processAndLogCommandService, final SchedulerJobRunnerReadService schedulerJobRunnerReadService) {
+            final CommandProcessingService processAndLogCommandService, final SchedulerJobRunnerReadService schedulerJobRunnerReadService,
+            final AccountLockService accountLockService) {
         this.context = context;
         this.commandSourceRepository = commandSourceRepository;
         this.fromApiJsonHelper = fromApiJsonHelper;
         this.processAndLogCommandService = processAndLogCommandService;
         this.schedulerJobRunnerReadService = schedulerJobRunnerReadService;
+        this.accountLockService = accountLockService;
     }
 
     @Override
@@ -95,7 +101,7 @@ public class PortfolioCommandSourceWritePlatformServiceImpl implements Portfolio
                 wrapper.getTransactionId(), wrapper.getHref(), wrapper.getProductId());
         while (numberOfRetries <= maxNumberOfRetries) {
             try {
-                result = this.processAndLogCommandService.processAndLogCommand(wrapper, command, isApprovedByChecker);
+                result = processAndLogCommandLocked(wrapper, command, isApprovedByChecker);
                 numberOfRetries = maxNumberOfRetries + 1;
             } catch (CannotAcquireLockException | ObjectOptimisticLockingFailureException exception) {
                 logger.info("The following command " + command.json() + " has been retried  " + numberOfRetries + " time(s)");
@@ -148,7 +154,24 @@ public class PortfolioCommandSourceWritePlatformServiceImpl implements Portfolio
                 commandSourceInput.getResourceGetUrl(), commandSourceInput.getProductId());
 
         final boolean makerCheckerApproval = true;
-        return this.processAndLogCommandService.processAndLogCommand(wrapper, command, makerCheckerApproval);
+        return processAndLogCommandLocked(wrapper, command, makerCheckerApproval);
+    }
+
+    /**
+     * Processes the command while holding the locks of the loan and savings
+     * accounts it touches, so commands on the same account run one at a time.
+     */
+    private CommandProcessingResult processAndLogCommandLocked(final CommandWrapper wrapper, final JsonCommand command,
+            final boolean isApprovedByChecker) {
+        final Collection<String> accountKeys = CommandAccountLockKeys.from(wrapper, command);
+        return this.accountLockService.executeLocked(accountKeys, new Callable<CommandProcessingResult>() {
+
+            @Override
+            public CommandProcessingResult call() {
+                return PortfolioCommandSourceWritePlatformServiceImpl.this.processAndLogCommandService.processAndLogCommand(wrapper,
+                        command, isApprovedByChecker);
+            }
+        });
     }
 
     @Transactional
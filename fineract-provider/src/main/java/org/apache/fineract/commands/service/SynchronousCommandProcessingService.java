@@ -20,6 +20,7 @@ package org.apache.fineract.commands.service;
 
 import java.util.Map;
 
+import org.apache.fineract.accounting.journalentry.service.JournalEntryBatchWriter;
 import org.apache.fineract.commands.domain.CommandSource;
 import org.apache.fineract.commands.domain.CommandSourceRepository;
 import org.apache.fineract.commands.domain.CommandWrapper;
@@ -31,6 +32,7 @@ import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDoma
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.hooks.event.HookEvent;
@@ -53,13 +55,16 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
     private CommandSourceRepository commandSourceRepository;
     private final ConfigurationDomainService configurationDomainService;
     private final CommandHandlerProvider commandHandlerProvider;
+    private final FromJsonHelper fromApiJsonHelper;
+    private final JournalEntryBatchWriter journalEntryBatchWriter;
 
     @Autowired
     public SynchronousCommandProcessingService(final PlatformSecurityContext context, final ApplicationContext applicationContext,
             final ToApiJsonSerializer<Map<String, Object>> toApiJsonSerializer,
             final ToApiJsonSerializer<CommandProcessingResult> toApiResultJsonSerializer,
             final CommandSourceRepository commandSourceRepository, final ConfigurationDomainService configurationDomainService,
-            final CommandHandlerProvider commandHandlerProvider) {
+            final CommandHandlerProvider commandHandlerProvider, final FromJsonHelper fromApiJsonHelper,
+            final JournalEntryBatchWriter journalEntryBatchWriter) {
         this.context = context;
         this.context = context;
         this.applicationContext = applicationContext;
@@ -69,6 +74,8 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
         this.commandSourceRepository = commandSourceRepository;
         this.configurationDomainService = configurationDomainService;
         this.commandHandlerProvider = commandHandlerProvider;
+        this.fromApiJsonHelper = fromApiJsonHelper;
+        this.journalEntryBatchWriter = journalEntryBatchWriter;
     }
 
     @Transactional
@@ -80,7 +87,18 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
 
         final NewCommandSourceHandler handler = findCommandHandler(wrapper);
 
-        final CommandProcessingResult result = handler.processCommand(command);
+        // validators and deserializers reuse the tree parsed for the command
+        // instead of parsing command.json() again; journal entries posted by
+        // the command are written in one batch once it completes
+        CommandProcessingResult result = null;
+        this.fromApiJsonHelper.bindParsedJson(command.json(), command.parsedJson());
+        this.journalEntryBatchWriter.begin();
+        try {
+            result = handler.processCommand(command);
+        } finally {
+            this.journalEntryBatchWriter.end(result != null);
+            this.fromApiJsonHelper.unbindParsedJson();
+        }
 
         final AppUser maker = this.context.authenticatedUser(wrapper);
 
@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.api;
+
+import java.io.InputStream;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.UriInfo;
+
+import org.apache.fineract.infrastructure.bulkimport.data.BulkImportData;
+import org.apache.fineract.infrastructure.bulkimport.service.BulkImportReadPlatformService;
+import org.apache.fineract.infrastructure.bulkimport.service.BulkImportRecordReader;
+import org.apache.fineract.infrastructure.bulkimport.service.BulkImportWritePlatformService;
+import org.apache.fineract.infrastructure.core.api.ApiRequestParameterHelper;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
+import org.apache.fineract.infrastructure.core.serialization.DefaultToApiJsonSerializer;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts bulk imports of clients, savings accounts or loans and reports their
+ * progress. The request body is the file itself: CSV when sent as
+ * <code>text/csv</code> or with <code>format=csv</code>, JSON lines otherwise.
+ * Each record takes the parameters of the single create request; the
+ * <code>locale</code> and <code>dateFormat</code> query parameters apply to
+ * records that do not set their own.
+ */
+@Path("/bulkimports")
+@Consumes({ MediaType.APPLICATION_JSON })
+@Produces({ MediaType.APPLICATION_JSON })
+@Component
+@Scope("singleton")
+public class BulkImportApiResource {
+
+    private final String resourceNameForPermissions = "BULKIMPORT";
+
+    private final PlatformSecurityContext context;
+    private final BulkImportReadPlatformService readPlatformService;
+    private final BulkImportWritePlatformService writePlatformService;
+    private final DefaultToApiJsonSerializer<BulkImportData> toApiJsonSerializer;
+    private final ApiRequestParameterHelper apiRequestParameterHelper;
+
+    @Autowired
+    public BulkImportApiResource(final PlatformSecurityContext context, final BulkImportReadPlatformService readPlatformService,
+            final BulkImportWritePlatformService writePlatformService, final DefaultToApiJsonSerializer<BulkImportData> toApiJsonSerializer,
+            final ApiRequestParameterHelper apiRequestParameterHelper) {
+        this.context = context;
+        this.readPlatformService = readPlatformService;
+        this.writePlatformService = writePlatformService;
+        this.toApiJsonSerializer = toApiJsonSerializer;
+        this.apiRequestParameterHelper = apiRequestParameterHelper;
+    }
+
+    @POST
+    @Path("{entityType}")
+    @Consumes({ "text/csv", "application/x-ndjson", MediaType.TEXT_PLAIN, MediaType.APPLICATION_OCTET_STREAM, MediaType.APPLICATION_JSON })
+    public String startImport(@PathParam("entityType") final String entityType, @QueryParam("format") final String formatParam,
+            @QueryParam("locale") final String locale, @QueryParam("dateFormat") final String dateFormat,
+            @HeaderParam(HttpHeaders.CONTENT_TYPE) final String contentType, final InputStream input) {
+
+        String format = formatParam;
+        if (format == null) {
+            format = contentType != null && contentType.startsWith("text/csv") ? BulkImportRecordReader.CSV
+                    : BulkImportRecordReader.JSON_LINES;
+        }
+
+        final Long importId = this.writePlatformService.startImport(entityType, format, locale, dateFormat, input);
+
+        final CommandProcessingResult result = new CommandProcessingResultBuilder().withEntityId(importId).build();
+        return this.toApiJsonSerializer.serialize(result);
+    }
+
+    @GET
+    @Path("{importId}")
+    public String retrieveOne(@PathParam("importId") final Long importId,
+            @DefaultValue("true") @QueryParam("includeErrors") final boolean includeErrors, @Context final UriInfo uriInfo) {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+
+        final BulkImportData bulkImport = this.readPlatformService.retrieveOne(importId, includeErrors);
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.toApiJsonSerializer.serialize(settings, bulkImport);
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.data;
+
+import java.util.Collection;
+
+import org.apache.fineract.infrastructure.core.data.EnumOptionData;
+import org.joda.time.DateTime;
+
+/**
+ * Immutable data object representing the progress of a bulk import.
+ */
+@SuppressWarnings("unused")
+public class BulkImportData {
+
+    private final Long id;
+    private final String entityType;
+    private final EnumOptionData status;
+    private final Integer totalRows;
+    private final Integer processedRows;
+    private final Integer succeededRows;
+    private final Integer failedRows;
+    private final String failureReason;
+    private final DateTime createdDate;
+    private final DateTime completedDate;
+    private final Collection<BulkImportRowErrorData> errors;
+
+    public BulkImportData(final Long id, final String entityType, final EnumOptionData status, final Integer totalRows,
+            final Integer processedRows, final Integer succeededRows, final Integer failedRows, final String failureReason,
+            final DateTime createdDate, final DateTime completedDate, final Collection<BulkImportRowErrorData> errors) {
+        this.id = id;
+        this.entityType = entityType;
+        this.status = status;
+        this.totalRows = totalRows;
+        this.processedRows = processedRows;
+        this.succeededRows = succeededRows;
+        this.failedRows = failedRows;
+        this.failureReason = failureReason;
+        this.createdDate = createdDate;
+        this.completedDate = completedDate;
+        this.errors = errors;
+    }
+
+    public BulkImportData withErrors(final Collection<BulkImportRowErrorData> errors) {
+        return new BulkImportData(this.id, this.entityType, this.status, this.totalRows, this.processedRows, this.succeededRows,
+                this.failedRows, this.failureReason, this.createdDate, this.completedDate, errors);
+    }
+}
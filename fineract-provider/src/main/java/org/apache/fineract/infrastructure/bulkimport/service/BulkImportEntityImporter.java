@@ -0,0 +1,48 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.service;
+
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+
+/**
+ * Creates one kind of entity from the records of a bulk import, through the
+ * same validators and write services as the single create request.
+ */
+public interface BulkImportEntityImporter {
+
+    /**
+     * @return the entity type named in the import request, e.g.
+     *         <code>clients</code>
+     */
+    String entityType();
+
+    /**
+     * @return the permission a user needs to import this entity type
+     */
+    String createPermission();
+
+    /**
+     * Validates a record before its batch is written, so that an invalid
+     * record does not roll back the records imported alongside it.
+     */
+    void validate(String json);
+
+    CommandProcessingResult importRecord(JsonCommand command);
+}
@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+
+import org.apache.fineract.infrastructure.bulkimport.data.BulkImportData;
+import org.apache.fineract.infrastructure.bulkimport.data.BulkImportRowErrorData;
+import org.apache.fineract.infrastructure.bulkimport.domain.BulkImportStatus;
+import org.apache.fineract.infrastructure.bulkimport.exception.BulkImportNotFoundException;
+import org.apache.fineract.infrastructure.core.data.EnumOptionData;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.joda.time.DateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+@Service
+public class BulkImportReadPlatformServiceImpl implements BulkImportReadPlatformService {
+
+    private final PlatformSecurityContext context;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public BulkImportReadPlatformServiceImpl(final PlatformSecurityContext context, final RoutingDataSource dataSource) {
+        this.context = context;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public BulkImportData retrieveOne(final Long importId, final boolean includeErrors) {
+        this.context.authenticatedUser();
+        try {
+            final BulkImportMapper mapper = new BulkImportMapper();
+            final BulkImportData bulkImport = this.jdbcTemplate.queryForObject("select " + mapper.schema() + " where bi.id = ?", mapper,
+                    importId);
+            if (!includeErrors) { return bulkImport; }
+
+            final Collection<BulkImportRowErrorData> errors = this.jdbcTemplate.query(
+                    "select row_number, message from m_bulk_import_error where bulk_import_id = ? order by row_number, id",
+                    new RowErrorMapper(), importId);
+            return bulkImport.withErrors(errors);
+        } catch (final EmptyResultDataAccessException e) {
+            throw new BulkImportNotFoundException(importId);
+        }
+    }
+
+    private static final class BulkImportMapper implements RowMapper<BulkImportData> {
+
+        public String schema() {
+            return "bi.id as id, bi.entity_type as entityType, bi.status_enum as statusId, bi.total_rows as totalRows, "
+                    + "bi.processed_rows as processedRows, bi.succeeded_rows as succeededRows, bi.failed_rows as failedRows, "
+                    + "bi.failure_reason as failureReason, bi.created_date as createdDate, bi.completed_date as completedDate "
+                    + "from m_bulk_import bi";
+        }
+
+        @Override
+        public BulkImportData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final Long id = rs.getLong("id");
+            final String entityType = rs.getString("entityType");
+            final BulkImportStatus status = BulkImportStatus.fromInt(JdbcSupport.getInteger(rs, "statusId"));
+            final EnumOptionData statusData = new EnumOptionData(status.getValue().longValue(), status.getCode(), status.name());
+            final Integer totalRows = JdbcSupport.getInteger(rs, "totalRows");
+            final Integer processedRows = JdbcSupport.getInteger(rs, "processedRows");
+            final Integer succeededRows = JdbcSupport.getInteger(rs, "succeededRows");
+            final Integer failedRows = JdbcSupport.getInteger(rs, "failedRows");
+            final String failureReason = rs.getString("failureReason");
+            final DateTime createdDate = JdbcSupport.getDateTime(rs, "createdDate");
+            final DateTime completedDate = JdbcSupport.getDateTime(rs, "completedDate");
+
+            return new BulkImportData(id, entityType, statusData, totalRows, processedRows, succeededRows, failedRows, failureReason,
+                    createdDate, completedDate, null);
+        }
+    }
+
+    private static final class RowErrorMapper implements RowMapper<BulkImportRowErrorData> {
+
+        @Override
+        public BulkImportRowErrorData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new BulkImportRowErrorData(JdbcSupport.getInteger(rs, "row_number"), rs.getString("message"));
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Reads the records of a bulk import file one at a time, each as the JSON
+ * body the equivalent single create request would take.
+ * <p>
+ * A CSV file has a header row naming the JSON parameter of each column;
+ * empty cells are left out of the record and fields may be quoted as in RFC
+ * 4180. A JSON lines file has one JSON object per line. Blank lines are
+ * skipped in both. Records are numbered by the line they start on.
+ * </p>
+ */
+public class BulkImportRecordReader implements Closeable {
+
+    public static final String CSV = "csv";
+    public static final String JSON_LINES = "jsonl";
+
+    private final BufferedReader reader;
+    private final boolean csv;
+    private List<String> header;
+    private int lineNumber;
+    private int pushedBack = -1;
+
+    public BulkImportRecordReader(final Reader reader, final String format) {
+        this.reader = new BufferedReader(reader);
+        this.csv = CSV.equals(format);
+    }
+
+    /**
+     * @return the next record, or null at the end of the file
+     */
+    public Record next() throws IOException {
+        return this.csv ? nextCsvRecord() : nextJsonRecord();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    private Record nextJsonRecord() throws IOException {
+        String line;
+        while ((line = this.reader.readLine()) != null) {
+            this.lineNumber++;
+            if (!line.trim().isEmpty()) { return new Record(this.lineNumber, line.trim()); }
+        }
+        return null;
+    }
+
+    private Record nextCsvRecord() throws IOException {
+        if (this.header == null) {
+            final List<String> headerFields = readCsvFields();
+            if (headerFields == null) { return null; }
+            this.header = new ArrayList<>(headerFields.size());
+            for (final String name : headerFields) {
+                this.header.add(name.trim());
+            }
+        }
+
+        List<String> fields;
+        int startLine;
+        do {
+            startLine = this.lineNumber + 1;
+            fields = readCsvFields();
+            if (fields == null) { return null; }
+        } while (fields.size() == 1 && fields.get(0).trim().isEmpty());
+
+        final JsonObject record = new JsonObject();
+        for (int i = 0; i < fields.size() && i < this.header.size(); i++) {
+            final String value = fields.get(i);
+            if (!value.isEmpty() && !this.header.get(i).isEmpty()) {
+                record.addProperty(this.header.get(i), value);
+            }
+        }
+        return new Record(startLine, record.toString());
+    }
+
+    /**
+     * @return the fields of the next CSV line, which may span several
+     *         physical lines when a quoted field contains line breaks, or
+     *         null at the end of the file
+     */
+    private List<String> readCsvFields() throws IOException {
+        int c = read();
+        if (c == -1) { return null; }
+
+        final List<String> fields = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean atFieldStart = true;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    break;
+                } else if (c == '"') {
+                    final int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        this.lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == -1 || c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    final int following = read();
+                    if (following != '\n') {
+                        this.pushedBack = following;
+                    }
+                }
+                break;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                atFieldStart = true;
+                c = read();
+                continue;
+            } else if (c == '"' && atFieldStart) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+            atFieldStart = false;
+            c = read();
+        }
+        fields.add(field.toString());
+        this.lineNumber++;
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (this.pushedBack != -1) {
+            final int c = this.pushedBack;
+            this.pushedBack = -1;
+            return c;
+        }
+        return this.reader.read();
+    }
+
+    public static final class Record {
+
+        private final int rowNumber;
+        private final String json;
+
+        Record(final int rowNumber, final String json) {
+            this.rowNumber = rowNumber;
+            this.json = json;
+        }
+
+        public int getRowNumber() {
+            return this.rowNumber;
+        }
+
+        public String getJson() {
+            return this.json;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.service;
+
+import org.apache.fineract.infrastructure.core.service.TenantAwareTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs bulk imports apart from the shared {@link TenantAwareTaskExecutor}
+ * pool, so that a large import neither waits for batch jobs nor holds up
+ * their workers. Imports beyond the pool size wait for a worker in order.
+ * 
+ * The pool size defaults to 2 and can be overridden with the
+ * <code>fineract.bulkimport.poolSize</code> system property.
+ */
+@Component
+public class BulkImportTaskExecutor extends TenantAwareTaskExecutor {
+
+    public static final String POOL_SIZE_PROPERTY = "fineract.bulkimport.poolSize";
+
+    private static final int DEFAULT_POOL_SIZE = 2;
+
+    public BulkImportTaskExecutor() {
+        super("fineract-bulk-import-", Integer.getInteger(POOL_SIZE_PROPERTY, DEFAULT_POOL_SIZE), false);
+    }
+}
@@ -0,0 +1,433 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.service;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.apache.fineract.infrastructure.bulkimport.domain.BulkImportStatus;
+import org.apache.fineract.infrastructure.bulkimport.service.BulkImportRecordReader.Record;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.data.ApiParameterError;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.exception.AbstractPlatformDomainRuleException;
+import org.apache.fineract.infrastructure.core.exception.AbstractPlatformResourceNotFoundException;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
+import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.exception.UnrecognizedQueryParamException;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.service.ChunkedJobExecutor;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Imports clients and accounts from a CSV or JSON lines file in the
+ * background.
+ * <p>
+ * Each record is checked with the entity's validator first; the valid records
+ * of a batch are then created in a single transaction through the same write
+ * service as the single create request, without a command source entry per
+ * record. When a batch fails its records are retried one transaction each so
+ * that only the failing records are reported. Progress and the errors of
+ * each batch are written to <code>m_bulk_import</code> as the import runs.
+ * </p>
+ * <p>
+ * Imports run on their own {@link BulkImportTaskExecutor} and are refused
+ * while maker checker is enabled for the create permission of the entity, as
+ * the records would otherwise bypass the checker. An import whose node
+ * stopped reporting progress, for instance because it was restarted, is
+ * marked as failed on startup and whenever another import is started.
+ * Progress is reported with the time of the database, the one clock all nodes
+ * share, and only while the import is still in progress on this node; an
+ * import that was failed as abandoned in the meantime stops.
+ * </p>
+ */
+@Service
+public class BulkImportWritePlatformServiceImpl implements BulkImportWritePlatformService, ApplicationListener<ContextRefreshedEvent> {
+
+    private final static Logger logger = LoggerFactory.getLogger(BulkImportWritePlatformServiceImpl.class);
+
+    public static final String BATCH_SIZE_PROPERTY = "fineract.bulkimport.batchSize";
+    public static final String STALE_MINUTES_PROPERTY = "fineract.bulkimport.staleMinutes";
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final int DEFAULT_STALE_MINUTES = 10;
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    private final PlatformSecurityContext context;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BulkImportTaskExecutor taskExecutor;
+    private final FromJsonHelper fromApiJsonHelper;
+    private final List<BulkImportEntityImporter> importers;
+    private final ConfigurationDomainService configurationDomainService;
+    private final TenantDetailsService tenantDetailsService;
+
+    @Autowired
+    public BulkImportWritePlatformServiceImpl(final PlatformSecurityContext context, final RoutingDataSource dataSource,
+            final PlatformTransactionManager transactionManager, final BulkImportTaskExecutor taskExecutor,
+            final FromJsonHelper fromApiJsonHelper, final List<BulkImportEntityImporter> importers,
+            final ConfigurationDomainService configurationDomainService, final TenantDetailsService tenantDetailsService) {
+        this.context = context;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.fromApiJsonHelper = fromApiJsonHelper;
+        this.importers = importers;
+        this.configurationDomainService = configurationDomainService;
+        this.tenantDetailsService = tenantDetailsService;
+    }
+
+    @Override
+    public void onApplicationEvent(@SuppressWarnings("unused") final ContextRefreshedEvent event) {
+        for (final FineractPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+            try {
+                ThreadLocalContextUtil.setTenant(tenant);
+                failAbandonedImports();
+            } catch (final RuntimeException e) {
+                logger.error("Failing abandoned bulk imports failed for tenant " + tenant.getTenantIdentifier(), e);
+            } finally {
+                ThreadLocalContextUtil.clearTenant();
+            }
+        }
+    }
+
+    @Override
+    public Long startImport(final String entityType, final String format, final String locale, final String dateFormat,
+            final InputStream input) {
+        final BulkImportEntityImporter importer = importerFor(entityType);
+        if (!BulkImportRecordReader.CSV.equals(format) && !BulkImportRecordReader.JSON_LINES.equals(format)) { throw new UnrecognizedQueryParamException(
+                "format", format, BulkImportRecordReader.CSV, BulkImportRecordReader.JSON_LINES); }
+
+        final AppUser currentUser = this.context.authenticatedUser();
+        currentUser.validateHasPermissionTo(importer.createPermission());
+        if (this.configurationDomainService.isMakerCheckerEnabledForTask(importer.createPermission())) { throw new GeneralPlatformDomainRuleException(
+                "error.msg.bulkimport.maker.checker.enabled", "Bulk import of " + importer.entityType()
+                        + " is not possible while maker checker is enabled for " + importer.createPermission(),
+                importer.createPermission()); }
+
+        failAbandonedImports();
+        final File file = spool(input);
+        final Long importId = insertImport(importer.entityType(), currentUser.getId());
+
+        this.taskExecutor.submit(new Callable<Void>() {
+
+            @Override
+            public Void call() {
+                runImport(importId, importer, file, format, locale, dateFormat);
+                return null;
+            }
+        });
+        return importId;
+    }
+
+    private void runImport(final Long importId, final BulkImportEntityImporter importer, final File file, final String format,
+            final String locale, final String dateFormat) {
+        final int batchSize = Math.max(1, Integer.getInteger(BATCH_SIZE_PROPERTY, DEFAULT_BATCH_SIZE));
+        final Progress progress = new Progress();
+        try {
+            final int totalRows = countRecords(file, format);
+            if (this.jdbcTemplate.update("update m_bulk_import set status_enum = ?, total_rows = ?, last_updated = now() "
+                    + "where id = ? and status_enum = ? and node_name = ?", BulkImportStatus.IN_PROGRESS.getValue(), totalRows, importId,
+                    BulkImportStatus.PENDING.getValue(), ChunkedJobExecutor.nodeName()) == 0) {
+                logger.warn("Bulk import " + importId + " was failed as abandoned before it could start");
+                return;
+            }
+
+            try (BulkImportRecordReader reader = new BulkImportRecordReader(new InputStreamReader(new FileInputStream(file),
+                    StandardCharsets.UTF_8), format)) {
+                final List<Record> batch = new ArrayList<>(batchSize);
+                Record record;
+                while ((record = reader.next()) != null) {
+                    batch.add(record);
+                    if (batch.size() == batchSize) {
+                        if (!importBatch(importId, importer, batch, locale, dateFormat, progress)) {
+                            stopAbandoned(importId, progress);
+                            return;
+                        }
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty() && !importBatch(importId, importer, batch, locale, dateFormat, progress)) {
+                    stopAbandoned(importId, progress);
+                    return;
+                }
+            }
+
+            if (this.jdbcTemplate.update("update m_bulk_import set status_enum = ?, completed_date = now(), last_updated = now() "
+                    + "where id = ? and status_enum = ? and node_name = ?", BulkImportStatus.COMPLETED.getValue(), importId,
+                    BulkImportStatus.IN_PROGRESS.getValue(), ChunkedJobExecutor.nodeName()) == 0) {
+                stopAbandoned(importId, progress);
+            }
+        } catch (final Exception e) {
+            logger.error("Bulk import " + importId + " failed after " + progress.processed + " records", e);
+            // the import may fail before it is in progress
+            this.jdbcTemplate.update("update m_bulk_import set status_enum = ?, failure_reason = ?, completed_date = now(), "
+                    + "last_updated = now() where id = ? and status_enum in (?, ?) and node_name = ?", BulkImportStatus.FAILED.getValue(),
+                    truncate(messageOf(e)), importId, BulkImportStatus.PENDING.getValue(), BulkImportStatus.IN_PROGRESS.getValue(),
+                    ChunkedJobExecutor.nodeName());
+        } finally {
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    private static void stopAbandoned(final Long importId, final Progress progress) {
+        logger.warn("Bulk import " + importId + " was failed as abandoned while it was running, stopped after " + progress.processed
+                + " records");
+    }
+
+    /**
+     * @return false when the import is no longer in progress on this node, as
+     *         it was failed as abandoned in the meantime
+     */
+    private boolean importBatch(final Long importId, final BulkImportEntityImporter importer, final List<Record> batch,
+            final String locale, final String dateFormat, final Progress progress) {
+        final List<Object[]> errors = new ArrayList<>();
+        final List<Record> validRecords = new ArrayList<>(batch.size());
+        final List<JsonCommand> commands = new ArrayList<>(batch.size());
+        for (final Record record : batch) {
+            try {
+                final JsonCommand command = commandFor(importer, record, locale, dateFormat);
+                importer.validate(command.json());
+                validRecords.add(record);
+                commands.add(command);
+            } catch (final RuntimeException e) {
+                errors.add(new Object[] { importId, record.getRowNumber(), truncate(messageOf(e)) });
+            }
+        }
+
+        int succeeded = 0;
+        if (!commands.isEmpty()) {
+            try {
+                importInTransaction(importer, commands);
+                succeeded = commands.size();
+            } catch (final RuntimeException batchFailure) {
+                // find the records that failed, the others are imported on
+                // their own
+                for (int i = 0; i < commands.size(); i++) {
+                    // retrying record by record may take longer than the
+                    // import is given to report progress
+                    if (i > 0 && !touch(importId)) { return false; }
+                    try {
+                        importInTransaction(importer, commands.subList(i, i + 1));
+                        succeeded++;
+                    } catch (final RuntimeException e) {
+                        errors.add(new Object[] { importId, validRecords.get(i).getRowNumber(), truncate(messageOf(e)) });
+                    }
+                }
+            }
+        }
+
+        progress.processed += batch.size();
+        progress.succeeded += succeeded;
+        progress.failed += batch.size() - succeeded;
+        if (!errors.isEmpty()) {
+            this.jdbcTemplate.batchUpdate("insert into m_bulk_import_error (bulk_import_id, row_number, message) values (?, ?, ?)",
+                    errors);
+        }
+        if (this.jdbcTemplate.update("update m_bulk_import set processed_rows = ?, succeeded_rows = ?, failed_rows = ?, "
+                + "last_updated = now() where id = ? and status_enum = ? and node_name = ?", progress.processed, progress.succeeded,
+                progress.failed, importId, BulkImportStatus.IN_PROGRESS.getValue(), ChunkedJobExecutor.nodeName()) == 0) { return false; }
+        // imports queued behind this one on the same node are not abandoned
+        this.jdbcTemplate.update("update m_bulk_import set last_updated = now() where node_name = ? and status_enum = ?",
+                ChunkedJobExecutor.nodeName(), BulkImportStatus.PENDING.getValue());
+        return true;
+    }
+
+    private boolean touch(final Long importId) {
+        return this.jdbcTemplate.update("update m_bulk_import set last_updated = now() where id = ? and status_enum = ? and node_name = ?",
+                importId, BulkImportStatus.IN_PROGRESS.getValue(), ChunkedJobExecutor.nodeName()) == 1;
+    }
+
+    /**
+     * Fails the pending and running imports that have not reported progress
+     * within <code>fineract.bulkimport.staleMinutes</code>; their node was
+     * stopped or lost before finishing them.
+     */
+    private void failAbandonedImports() {
+        final int staleMinutes = Integer.getInteger(STALE_MINUTES_PROPERTY, DEFAULT_STALE_MINUTES);
+        final int failed = this.jdbcTemplate.update("update m_bulk_import set status_enum = ?, failure_reason = ?, "
+                + "completed_date = now(), last_updated = now() where status_enum in (?, ?) "
+                + "and coalesce(last_updated, created_date) < now() - interval ? minute", BulkImportStatus.FAILED.getValue(),
+                "Abandoned: no progress for " + staleMinutes + " minutes", BulkImportStatus.PENDING.getValue(),
+                BulkImportStatus.IN_PROGRESS.getValue(), staleMinutes);
+        if (failed > 0) {
+            logger.warn("Marked " + failed + " abandoned bulk imports as failed");
+        }
+    }
+
+    private void importInTransaction(final BulkImportEntityImporter importer, final List<JsonCommand> commands) {
+        this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+            @Override
+            protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                for (final JsonCommand command : commands) {
+                    importer.importRecord(command);
+                }
+            }
+        });
+    }
+
+    private JsonCommand commandFor(final BulkImportEntityImporter importer, final Record record, final String locale,
+            final String dateFormat) {
+        final JsonElement parsed = this.fromApiJsonHelper.parse(record.getJson());
+        if (parsed == null || !parsed.isJsonObject()) { throw new PlatformDataIntegrityException("error.msg.bulkimport.record.not.an.object",
+                "Record is not a JSON object"); }
+        final JsonObject object = parsed.getAsJsonObject();
+        if (locale != null && !object.has("locale")) {
+            object.addProperty("locale", locale);
+        }
+        if (dateFormat != null && !object.has("dateFormat")) {
+            object.addProperty("dateFormat", dateFormat);
+        }
+        final String json = object.toString();
+        return JsonCommand.from(json, object, this.fromApiJsonHelper, importer.entityType(), null, null, null, null, null, null, null,
+                "/bulkimports/" + importer.entityType(), null);
+    }
+
+    private BulkImportEntityImporter importerFor(final String entityType) {
+        final List<String> supported = new ArrayList<>(this.importers.size());
+        for (final BulkImportEntityImporter importer : this.importers) {
+            if (importer.entityType().equalsIgnoreCase(entityType)) { return importer; }
+            supported.add(importer.entityType());
+        }
+        throw new UnrecognizedQueryParamException("entityType", entityType, supported.toArray());
+    }
+
+    private static File spool(final InputStream input) {
+        try {
+            final File file = File.createTempFile("bulkimport", ".tmp");
+            try (OutputStream output = new FileOutputStream(file)) {
+                final byte[] buffer = new byte[8192];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    output.write(buffer, 0, read);
+                }
+            } catch (final IOException e) {
+                file.delete();
+                throw e;
+            }
+            return file;
+        } catch (final IOException e) {
+            throw new PlatformDataIntegrityException("error.msg.bulkimport.upload.failed", "Could not store the uploaded file: "
+                    + e.getMessage());
+        }
+    }
+
+    private static int countRecords(final File file, final String format) throws IOException {
+        int count = 0;
+        try (BulkImportRecordReader reader = new BulkImportRecordReader(new InputStreamReader(new FileInputStream(file),
+                StandardCharsets.UTF_8), format)) {
+            while (reader.next() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private Long insertImport(final String entityType, final Long userId) {
+        final KeyHolder keyHolder = new GeneratedKeyHolder();
+        this.jdbcTemplate.update(new PreparedStatementCreator() {
+
+            @Override
+            public PreparedStatement createPreparedStatement(final Connection connection) throws SQLException {
+                final PreparedStatement ps = connection.prepareStatement(
+                        "insert into m_bulk_import (entity_type, status_enum, node_name, createdby_id, created_date, last_updated) "
+                                + "values (?, ?, ?, ?, now(), now())",
+                        new String[] { "id" });
+                ps.setString(1, entityType);
+                ps.setInt(2, BulkImportStatus.PENDING.getValue());
+                ps.setString(3, ChunkedJobExecutor.nodeName());
+                ps.setLong(4, userId);
+                return ps;
+            }
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    private static String messageOf(final Throwable e) {
+        if (e instanceof PlatformApiDataValidationException) {
+            final StringBuilder message = new StringBuilder();
+            for (final ApiParameterError error : ((PlatformApiDataValidationException) e).getErrors()) {
+                if (message.length() > 0) {
+                    message.append("; ");
+                }
+                message.append(error.getDeveloperMessage());
+            }
+            return message.toString();
+        }
+        if (e instanceof AbstractPlatformDomainRuleException) { return ((AbstractPlatformDomainRuleException) e).getDefaultUserMessage(); }
+        if (e instanceof AbstractPlatformResourceNotFoundException) { return ((AbstractPlatformResourceNotFoundException) e)
+                .getDefaultUserMessage(); }
+        if (e instanceof PlatformDataIntegrityException) { return ((PlatformDataIntegrityException) e).getDefaultUserMessage(); }
+
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+    }
+
+    private static String truncate(final String message) {
+        return message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+
+    private static final class Progress {
+
+        int processed;
+        int succeeded;
+        int failed;
+    }
+}
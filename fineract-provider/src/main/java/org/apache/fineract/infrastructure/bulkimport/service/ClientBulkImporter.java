@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.service;
+
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.portfolio.client.data.ClientDataValidator;
+import org.apache.fineract.portfolio.client.service.ClientWritePlatformService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ClientBulkImporter implements BulkImportEntityImporter {
+
+    private final ClientDataValidator fromApiJsonDeserializer;
+    private final ClientWritePlatformService clientWritePlatformService;
+
+    @Autowired
+    public ClientBulkImporter(final ClientDataValidator fromApiJsonDeserializer,
+            final ClientWritePlatformService clientWritePlatformService) {
+        this.fromApiJsonDeserializer = fromApiJsonDeserializer;
+        this.clientWritePlatformService = clientWritePlatformService;
+    }
+
+    @Override
+    public String entityType() {
+        return "clients";
+    }
+
+    @Override
+    public String createPermission() {
+        return "CREATE_CLIENT";
+    }
+
+    @Override
+    public void validate(final String json) {
+        this.fromApiJsonDeserializer.validateForCreate(json);
+    }
+
+    @Override
+    public CommandProcessingResult importRecord(final JsonCommand command) {
+        return this.clientWritePlatformService.createClient(command);
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.service;
+
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.portfolio.loanaccount.service.LoanApplicationWritePlatformService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LoanBulkImporter implements BulkImportEntityImporter {
+
+    private final LoanApplicationWritePlatformService loanApplicationWritePlatformService;
+
+    @Autowired
+    public LoanBulkImporter(final LoanApplicationWritePlatformService loanApplicationWritePlatformService) {
+        this.loanApplicationWritePlatformService = loanApplicationWritePlatformService;
+    }
+
+    @Override
+    public String entityType() {
+        return "loans";
+    }
+
+    @Override
+    public String createPermission() {
+        return "CREATE_LOAN";
+    }
+
+    @Override
+    public void validate(@SuppressWarnings("unused") final String json) {
+        // loan applications are validated against their product, which the
+        // write service loads
+    }
+
+    @Override
+    public CommandProcessingResult importRecord(final JsonCommand command) {
+        return this.loanApplicationWritePlatformService.submitApplication(command);
+    }
+}
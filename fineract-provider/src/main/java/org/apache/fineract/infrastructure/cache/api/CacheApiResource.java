@@ -36,6 +36,7 @@ import org.apache.fineract.commands.domain.CommandWrapper;
 import org.apache.fineract.commands.service.CommandWrapperBuilder;
 import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
 import org.apache.fineract.infrastructure.cache.data.CacheData;
+import org.apache.fineract.infrastructure.cache.data.CacheRegionStatisticsData;
 import org.apache.fineract.infrastructure.cache.service.RuntimeDelegatingCacheManager;
 import org.apache.fineract.infrastructure.core.api.ApiRequestParameterHelper;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
@@ -55,10 +56,13 @@ import org.springframework.stereotype.Component;
 public class CacheApiResource {
 
     private final Set<String> RESPONSE_DATA_PARAMETERS = new HashSet<>(Arrays.asList("id"));
+    private final Set<String> REGION_STATISTICS_RESPONSE_DATA_PARAMETERS = new HashSet<>(Arrays.asList("regionName", "hits", "misses",
+            "puts", "hitRatio"));
     private final String resourceNameForPermissions = "CACHE";
 
     private final PlatformSecurityContext context;
     private final DefaultToApiJsonSerializer<CacheData> toApiJsonSerializer;
+    private final DefaultToApiJsonSerializer<CacheRegionStatisticsData> regionStatisticsSerializer;
     private final ApiRequestParameterHelper apiRequestParameterHelper;
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
     private final RuntimeDelegatingCacheManager cacheService;
@@ -67,10 +71,12 @@ public class CacheApiResource {
     public CacheApiResource(final PlatformSecurityContext context,
             @Qualifier("runtimeDelegatingCacheManager") final RuntimeDelegatingCacheManager cacheService,
             final DefaultToApiJsonSerializer<CacheData> toApiJsonSerializer, final ApiRequestParameterHelper apiRequestParameterHelper,
-            final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService) {
+            final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
+            final DefaultToApiJsonSerializer<CacheRegionStatisticsData> regionStatisticsSerializer) {
         this.context = context;
         this.cacheService = cacheService;
         this.toApiJsonSerializer = toApiJsonSerializer;
+        this.regionStatisticsSerializer = regionStatisticsSerializer;
         this.apiRequestParameterHelper = apiRequestParameterHelper;
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
     }
@@ -86,6 +92,18 @@ public class CacheApiResource {
         return this.toApiJsonSerializer.serialize(settings, codes, this.RESPONSE_DATA_PARAMETERS);
     }
 
+    @GET
+    @Path("statistics")
+    public String retrieveRegionStatistics(@Context final UriInfo uriInfo) {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+
+        final Collection<CacheRegionStatisticsData> regionStatistics = this.cacheService.retrieveRegionStatistics();
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.regionStatisticsSerializer.serialize(settings, regionStatistics, this.REGION_STATISTICS_RESPONSE_DATA_PARAMETERS);
+    }
+
     @PUT
     public String switchCache(final String apiRequestBodyAsJson) {
 
@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.data;
+
+/**
+ * Immutable data object representing the usage of a second level cache region.
+ */
+public class CacheRegionStatisticsData {
+
+    @SuppressWarnings("unused")
+    private final String regionName;
+    @SuppressWarnings("unused")
+    private final long hits;
+    @SuppressWarnings("unused")
+    private final long misses;
+    @SuppressWarnings("unused")
+    private final long puts;
+    @SuppressWarnings("unused")
+    private final double hitRatio;
+
+    public static CacheRegionStatisticsData instance(final String regionName, final long hits, final long misses, final long puts,
+            final double hitRatio) {
+        return new CacheRegionStatisticsData(regionName, hits, misses, puts, hitRatio);
+    }
+
+    private CacheRegionStatisticsData(final String regionName, final long hits, final long misses, final long puts,
+            final double hitRatio) {
+        this.regionName = regionName;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.hitRatio = hitRatio;
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.hibernate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hit, miss and put counts of a second level cache region since startup.
+ */
+public final class RegionStatistics {
+
+    private final String regionName;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong puts = new AtomicLong();
+
+    RegionStatistics(final String regionName) {
+        this.regionName = regionName;
+    }
+
+    void recordGet(final Object cached) {
+        if (cached == null) {
+            this.misses.incrementAndGet();
+        } else {
+            this.hits.incrementAndGet();
+        }
+    }
+
+    void recordPut() {
+        this.puts.incrementAndGet();
+    }
+
+    public String getRegionName() {
+        return this.regionName;
+    }
+
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    public long getPuts() {
+        return this.puts.get();
+    }
+
+    public double getHitRatio() {
+        final long hitCount = getHits();
+        final long lookups = hitCount + getMisses();
+        return lookups == 0 ? 0d : (double) hitCount / lookups;
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.hibernate;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.CacheDataDescription;
+import org.hibernate.cache.spi.EntityRegion;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cache.spi.access.EntityRegionAccessStrategy;
+import org.hibernate.cache.spi.access.SoftLock;
+
+/**
+ * Tenant aware entity region. Reads and loads go through the tenant key only
+ * while caching is switched on; locks, updates and removals always reach the
+ * underlying region so that it never holds a stale entity.
+ */
+final class TenantAwareEntityRegion extends TenantAwareRegion<EntityRegion> implements EntityRegion {
+
+    TenantAwareEntityRegion(final EntityRegion delegate, final RegionStatistics statistics) {
+        super(delegate, statistics);
+    }
+
+    @Override
+    public boolean isTransactionAware() {
+        return this.delegate.isTransactionAware();
+    }
+
+    @Override
+    public CacheDataDescription getCacheDataDescription() {
+        return this.delegate.getCacheDataDescription();
+    }
+
+    @Override
+    public EntityRegionAccessStrategy buildAccessStrategy(final AccessType accessType) throws CacheException {
+        return new AccessStrategy(this.delegate.buildAccessStrategy(accessType));
+    }
+
+    private final class AccessStrategy implements EntityRegionAccessStrategy {
+
+        private final EntityRegionAccessStrategy delegateStrategy;
+
+        AccessStrategy(final EntityRegionAccessStrategy delegateStrategy) {
+            this.delegateStrategy = delegateStrategy;
+        }
+
+        @Override
+        public EntityRegion getRegion() {
+            return TenantAwareEntityRegion.this;
+        }
+
+        @Override
+        public Object get(final Object key, final long txTimestamp) throws CacheException {
+            final TenantCacheKey tenantKey = tenantKey(key);
+            if (tenantKey == null) { return null; }
+            final Object cached = this.delegateStrategy.get(tenantKey, txTimestamp);
+            TenantAwareEntityRegion.this.statistics.recordGet(cached);
+            return cached;
+        }
+
+        @Override
+        public boolean putFromLoad(final Object key, final Object value, final long txTimestamp, final Object version)
+                throws CacheException {
+            final TenantCacheKey tenantKey = tenantKey(key);
+            if (tenantKey == null) { return false; }
+            return recordPut(this.delegateStrategy.putFromLoad(tenantKey, value, txTimestamp, version));
+        }
+
+        @Override
+        public boolean putFromLoad(final Object key, final Object value, final long txTimestamp, final Object version,
+                final boolean minimalPutOverride) throws CacheException {
+            final TenantCacheKey tenantKey = tenantKey(key);
+            if (tenantKey == null) { return false; }
+            return recordPut(this.delegateStrategy.putFromLoad(tenantKey, value, txTimestamp, version, minimalPutOverride));
+        }
+
+        @Override
+        public boolean insert(final Object key, final Object value, final Object version) throws CacheException {
+            final TenantCacheKey tenantKey = tenantKey(key);
+            if (tenantKey == null) { return false; }
+            return this.delegateStrategy.insert(tenantKey, value, version);
+        }
+
+        @Override
+        public boolean afterInsert(final Object key, final Object value, final Object version) throws CacheException {
+            final TenantCacheKey tenantKey = tenantKey(key);
+            if (tenantKey == null) { return false; }
+            return recordPut(this.delegateStrategy.afterInsert(tenantKey, value, version));
+        }
+
+        @Override
+        public boolean update(final Object key, final Object value, final Object currentVersion, final Object previousVersion)
+                throws CacheException {
+            final TenantCacheKey tenantKey = tenantKeyForRemoval(key);
+            if (tenantKey == null) { return false; }
+            return this.delegateStrategy.update(tenantKey, value, currentVersion, previousVersion);
+        }
+
+        @Override
+        public boolean afterUpdate(final Object key, final Object value, final Object currentVersion, final Object previousVersion,
+                final SoftLock lock) throws CacheException {
+            final TenantCacheKey tenantKey = tenantKeyForRemoval(key);
+            if (tenantKey == null) { return false; }
+            return this.delegateStrategy.afterUpdate(tenantKey, value, currentVersion, previousVersion, lock);
+        }
+
+        @Override
+        public SoftLock lockItem(final Object key, final Object version) throws CacheException {
+            final TenantCacheKey tenantKey = tenantKeyForRemoval(key);
+            if (tenantKey == null) { return null; }
+            return this.delegateStrategy.lockItem(tenantKey, version);
+        }
+
+        @Override
+        public SoftLock lockRegion() throws CacheException {
+            return this.delegateStrategy.lockRegion();
+        }
+
+        @Override
+        public void unlockItem(final Object key, final SoftLock lock) throws CacheException {
+            final TenantCacheKey tenantKey = tenantKeyForRemoval(key);
+            if (tenantKey == null) { return; }
+            this.delegateStrategy.unlockItem(tenantKey, lock);
+        }
+
+        @Override
+        public void unlockRegion(final SoftLock lock) throws CacheException {
+            this.delegateStrategy.unlockRegion(lock);
+        }
+
+        @Override
+        public void remove(final Object key) throws CacheException {
+            final TenantCacheKey tenantKey = tenantKeyForRemoval(key);
+            if (tenantKey == null) {
+                this.delegateStrategy.removeAll();
+            } else {
+                this.delegateStrategy.remove(tenantKey);
+            }
+        }
+
+        @Override
+        public void removeAll() throws CacheException {
+            this.delegateStrategy.removeAll();
+        }
+
+        @Override
+        public void evict(final Object key) throws CacheException {
+            final TenantCacheKey tenantKey = tenantKeyForRemoval(key);
+            if (tenantKey == null) {
+                this.delegateStrategy.evictAll();
+            } else {
+                this.delegateStrategy.evict(tenantKey);
+            }
+        }
+
+        @Override
+        public void evictAll() throws CacheException {
+            this.delegateStrategy.evictAll();
+        }
+
+        private boolean recordPut(final boolean put) {
+            if (put) {
+                TenantAwareEntityRegion.this.statistics.recordPut();
+            }
+            return put;
+        }
+    }
+}
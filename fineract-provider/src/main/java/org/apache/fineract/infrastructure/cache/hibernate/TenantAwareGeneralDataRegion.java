@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.hibernate;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.GeneralDataRegion;
+import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.cache.spi.TimestampsRegion;
+
+/**
+ * Tenant aware query results and update timestamps region.
+ */
+final class TenantAwareGeneralDataRegion extends TenantAwareRegion<GeneralDataRegion> implements QueryResultsRegion, TimestampsRegion {
+
+    TenantAwareGeneralDataRegion(final GeneralDataRegion delegate, final RegionStatistics statistics) {
+        super(delegate, statistics);
+    }
+
+    @Override
+    public Object get(final Object key) throws CacheException {
+        final TenantCacheKey tenantKey = tenantKey(key);
+        if (tenantKey == null) { return null; }
+        final Object cached = this.delegate.get(tenantKey);
+        this.statistics.recordGet(cached);
+        return cached;
+    }
+
+    @Override
+    public void put(final Object key, final Object value) throws CacheException {
+        final TenantCacheKey tenantKey = tenantKey(key);
+        if (tenantKey == null) { return; }
+        this.delegate.put(tenantKey, value);
+        this.statistics.recordPut();
+    }
+
+    @Override
+    public void evict(final Object key) throws CacheException {
+        final TenantCacheKey tenantKey = tenantKeyForRemoval(key);
+        if (tenantKey == null) {
+            this.delegate.evictAll();
+        } else {
+            this.delegate.evict(tenantKey);
+        }
+    }
+
+    @Override
+    public void evictAll() throws CacheException {
+        this.delegate.evictAll();
+    }
+}
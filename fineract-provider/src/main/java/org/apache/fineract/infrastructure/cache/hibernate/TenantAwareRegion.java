@@ -0,0 +1,111 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.hibernate;
+
+import java.util.Map;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.Region;
+
+/**
+ * Base of the region wrappers handed out by {@link TenantAwareRegionFactory}.
+ * Keys are qualified by the tenant of the current thread; without a tenant
+ * or while caching is switched off the region behaves as if it were empty.
+ */
+abstract class TenantAwareRegion<R extends Region> implements Region {
+
+    protected final R delegate;
+    protected final RegionStatistics statistics;
+
+    TenantAwareRegion(final R delegate, final RegionStatistics statistics) {
+        this.delegate = delegate;
+        this.statistics = statistics;
+    }
+
+    /**
+     * @return the key of the current tenant, or null when the region must not
+     *         be read from or written to
+     */
+    protected TenantCacheKey tenantKey(final Object key) {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (tenant == null || !TenantAwareRegionFactory.isEnabled()) { return null; }
+        return new TenantCacheKey(tenant.getTenantIdentifier(), key);
+    }
+
+    /**
+     * Keys of the current tenant for removals, which apply even while caching
+     * is switched off.
+     * 
+     * @return the key of the current tenant, or null when there is no tenant
+     */
+    protected TenantCacheKey tenantKeyForRemoval(final Object key) {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (tenant == null) { return null; }
+        return new TenantCacheKey(tenant.getTenantIdentifier(), key);
+    }
+
+    @Override
+    public String getName() {
+        return this.delegate.getName();
+    }
+
+    @Override
+    public void destroy() throws CacheException {
+        this.delegate.destroy();
+    }
+
+    @Override
+    public boolean contains(final Object key) {
+        final TenantCacheKey tenantKey = tenantKey(key);
+        return tenantKey != null && this.delegate.contains(tenantKey);
+    }
+
+    @Override
+    public long getSizeInMemory() {
+        return this.delegate.getSizeInMemory();
+    }
+
+    @Override
+    public long getElementCountInMemory() {
+        return this.delegate.getElementCountInMemory();
+    }
+
+    @Override
+    public long getElementCountOnDisk() {
+        return this.delegate.getElementCountOnDisk();
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public Map toMap() {
+        return this.delegate.toMap();
+    }
+
+    @Override
+    public long nextTimestamp() {
+        return this.delegate.nextTimestamp();
+    }
+
+    @Override
+    public int getTimeout() {
+        return this.delegate.getTimeout();
+    }
+}
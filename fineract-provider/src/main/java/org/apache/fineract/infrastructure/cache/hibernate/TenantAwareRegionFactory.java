@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.hibernate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.CacheDataDescription;
+import org.hibernate.cache.spi.CollectionRegion;
+import org.hibernate.cache.spi.EntityRegion;
+import org.hibernate.cache.spi.NaturalIdRegion;
+import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cache.spi.TimestampsRegion;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cfg.Settings;
+
+/**
+ * Hibernate second level cache {@link RegionFactory} that keeps the entries
+ * of each tenant apart, as the one persistence unit serves all tenant
+ * databases through the routing data source.
+ * 
+ * Regions are built by the ehcache region factory on the shared ehcache
+ * <code>CacheManager</code> also used by the Spring caches, so regions are
+ * configured in <code>ehcache.xml</code> and cleared with the other caches.
+ * Like the Spring caches, the regions are only used while the single node
+ * cache is switched on through the
+ * {@link org.apache.fineract.infrastructure.cache.service.RuntimeDelegatingCacheManager}.
+ */
+public class TenantAwareRegionFactory implements RegionFactory {
+
+    /**
+     * Property naming the {@link RegionFactory} building the underlying
+     * regions.
+     */
+    public static final String DELEGATE_FACTORY_CLASS = "fineract.cache.region.delegate_factory_class";
+    private static final String DEFAULT_DELEGATE_FACTORY_CLASS = "org.hibernate.cache.ehcache.SingletonEhCacheRegionFactory";
+
+    private static volatile boolean enabled = false;
+    private static final ConcurrentMap<String, RegionStatistics> statistics = new ConcurrentHashMap<>();
+
+    private RegionFactory delegate;
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(final boolean cacheEnabled) {
+        enabled = cacheEnabled;
+    }
+
+    /**
+     * @return the statistics of all regions ordered by region name
+     */
+    public static Collection<RegionStatistics> statistics() {
+        final List<RegionStatistics> regionStatistics = new ArrayList<>(statistics.values());
+        Collections.sort(regionStatistics, new Comparator<RegionStatistics>() {
+
+            @Override
+            public int compare(final RegionStatistics first, final RegionStatistics second) {
+                return first.getRegionName().compareTo(second.getRegionName());
+            }
+        });
+        return regionStatistics;
+    }
+
+    @Override
+    public void start(final Settings settings, final Properties properties) throws CacheException {
+        final String delegateClassName = properties.getProperty(DELEGATE_FACTORY_CLASS, DEFAULT_DELEGATE_FACTORY_CLASS);
+        try {
+            this.delegate = (RegionFactory) Class.forName(delegateClassName).newInstance();
+        } catch (final ClassNotFoundException | InstantiationException | IllegalAccessException e) {
+            throw new CacheException("Unable to instantiate region factory " + delegateClassName, e);
+        }
+        this.delegate.start(settings, properties);
+    }
+
+    @Override
+    public void stop() {
+        this.delegate.stop();
+    }
+
+    @Override
+    public boolean isMinimalPutsEnabledByDefault() {
+        return this.delegate.isMinimalPutsEnabledByDefault();
+    }
+
+    @Override
+    public AccessType getDefaultAccessType() {
+        return this.delegate.getDefaultAccessType();
+    }
+
+    @Override
+    public long nextTimestamp() {
+        return this.delegate.nextTimestamp();
+    }
+
+    @Override
+    public EntityRegion buildEntityRegion(final String regionName, final Properties properties, final CacheDataDescription metadata)
+            throws CacheException {
+        return new TenantAwareEntityRegion(this.delegate.buildEntityRegion(regionName, properties, metadata), statisticsFor(regionName));
+    }
+
+    @Override
+    public NaturalIdRegion buildNaturalIdRegion(final String regionName, @SuppressWarnings("unused") final Properties properties,
+            @SuppressWarnings("unused") final CacheDataDescription metadata) throws CacheException {
+        throw new CacheException("Natural id caching is not supported, region " + regionName);
+    }
+
+    @Override
+    public CollectionRegion buildCollectionRegion(final String regionName, @SuppressWarnings("unused") final Properties properties,
+            @SuppressWarnings("unused") final CacheDataDescription metadata) throws CacheException {
+        throw new CacheException("Collection caching is not supported, region " + regionName);
+    }
+
+    @Override
+    public QueryResultsRegion buildQueryResultsRegion(final String regionName, final Properties properties) throws CacheException {
+        return new TenantAwareGeneralDataRegion(this.delegate.buildQueryResultsRegion(regionName, properties), statisticsFor(regionName));
+    }
+
+    @Override
+    public TimestampsRegion buildTimestampsRegion(final String regionName, final Properties properties) throws CacheException {
+        return new TenantAwareGeneralDataRegion(this.delegate.buildTimestampsRegion(regionName, properties), statisticsFor(regionName));
+    }
+
+    private static RegionStatistics statisticsFor(final String regionName) {
+        final RegionStatistics regionStatistics = new RegionStatistics(regionName);
+        final RegionStatistics existing = statistics.putIfAbsent(regionName, regionStatistics);
+        return existing == null ? regionStatistics : existing;
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.hibernate;
+
+import java.io.Serializable;
+
+/**
+ * Cache key of a second level cache entry qualified by the tenant it was read
+ * from, as all tenant databases share one set of regions.
+ */
+final class TenantCacheKey implements Serializable {
+
+    private final String tenantIdentifier;
+    private final Object key;
+
+    TenantCacheKey(final String tenantIdentifier, final Object key) {
+        this.tenantIdentifier = tenantIdentifier;
+        this.key = key;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) { return true; }
+        if (!(obj instanceof TenantCacheKey)) { return false; }
+        final TenantCacheKey other = (TenantCacheKey) obj;
+        return this.tenantIdentifier.equals(other.tenantIdentifier) && this.key.equals(other.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.tenantIdentifier.hashCode() + this.key.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.tenantIdentifier + ":" + this.key;
+    }
+}
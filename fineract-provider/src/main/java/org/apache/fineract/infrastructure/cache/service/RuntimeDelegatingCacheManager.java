@@ -18,15 +18,20 @@
  */
 package org.apache.fineract.infrastructure.cache.service;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.fineract.infrastructure.cache.CacheApiConstants;
 import org.apache.fineract.infrastructure.cache.CacheEnumerations;
 import org.apache.fineract.infrastructure.cache.data.CacheData;
+import org.apache.fineract.infrastructure.cache.data.CacheRegionStatisticsData;
 import org.apache.fineract.infrastructure.cache.domain.CacheType;
+import org.apache.fineract.infrastructure.cache.hibernate.RegionStatistics;
+import org.apache.fineract.infrastructure.cache.hibernate.TenantAwareRegionFactory;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.Cache;
@@ -42,6 +47,9 @@ import org.springframework.stereotype.Component;
  * By default it is {@link NoOpCacheManager} but we can change that by checking
  * some persisted configuration in the database on startup and allow user to
  * switch implementation through UI/API
+ * 
+ * The Hibernate second level cache of reference entities
+ * ({@link TenantAwareRegionFactory}) is switched on and off along with it.
  */
 @Component(value = "runtimeDelegatingCacheManager")
 public class RuntimeDelegatingCacheManager implements CacheManager {
@@ -87,6 +95,15 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
         return caches;
     }
 
+    public Collection<CacheRegionStatisticsData> retrieveRegionStatistics() {
+        final List<CacheRegionStatisticsData> regionStatistics = new ArrayList<>();
+        for (final RegionStatistics statistics : TenantAwareRegionFactory.statistics()) {
+            regionStatistics.add(CacheRegionStatisticsData.instance(statistics.getRegionName(), statistics.getHits(),
+                    statistics.getMisses(), statistics.getPuts(), statistics.getHitRatio()));
+        }
+        return regionStatistics;
+    }
+
     public Map<String, Object> switchToCache(final boolean ehcacheEnabled, final CacheType toCacheType) {
 
         final Map<String, Object> changes = new HashMap<>();
@@ -102,6 +119,7 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
                     changes.put(CacheApiConstants.cacheTypeParameter, toCacheType.getValue());
                 }
                 this.currentCacheManager = this.noOpCacheManager;
+                TenantAwareRegionFactory.setEnabled(false);
             break;
             case SINGLE_NODE:
                 if (!ehcacheEnabled) {
@@ -109,6 +127,7 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
                     clearEhCache();
                 }
                 this.currentCacheManager = this.ehcacheCacheManager;
+                TenantAwareRegionFactory.setEnabled(true);
             break;
             case MULTI_NODE:
                 if (!distributedCacheEnabled) {
@@ -18,6 +18,9 @@
  */
 package org.apache.fineract.infrastructure.core.domain;
 
+import java.util.Collections;
+import java.util.List;
+
 public class FineractPlatformTenant {
 
     private final Long id;
@@ -25,14 +28,21 @@ public class FineractPlatformTenant {
     private final String name;
     private final String timezoneId;
     private final FineractPlatformTenantConnection connection;
+    private final List<FineractPlatformTenantReplica> replicas;
 
     public FineractPlatformTenant(final Long id, final String tenantIdentifier, final String name,
             final String timezoneId, final FineractPlatformTenantConnection connection) {
+        this(id, tenantIdentifier, name, timezoneId, connection, Collections.<FineractPlatformTenantReplica> emptyList());
+    }
+
+    public FineractPlatformTenant(final Long id, final String tenantIdentifier, final String name,
+            final String timezoneId, final FineractPlatformTenantConnection connection, final List<FineractPlatformTenantReplica> replicas) {
         this.id = id;
         this.tenantIdentifier = tenantIdentifier;
         this.name = name;
         this.timezoneId = timezoneId;
         this.connection = connection;
+        this.replicas = replicas;
     }
 
     public Long getId() {
@@ -55,4 +65,12 @@ public class FineractPlatformTenant {
         return connection;
     }
 
+    public List<FineractPlatformTenantReplica> getReplicas() {
+        return this.replicas;
+    }
+
+    public boolean hasReplicas() {
+        return !this.replicas.isEmpty();
+    }
+
 }
\ No newline at end of file
@@ -47,6 +47,14 @@ import com.google.gson.JsonParser;
 @Component
 public class FromJsonHelper {
 
+    /**
+     * The json of the command currently being processed on this thread along
+     * with its already parsed tree. Validators and deserializers that are
+     * handed {@link org.apache.fineract.infrastructure.core.api.JsonCommand#json()}
+     * reuse this tree rather than parsing the same payload again.
+     */
+    private static final ThreadLocal<ParsedJson> boundParsedJson = new ThreadLocal<>();
+
     private final Gson gsonConverter;
     private final JsonParserHelper helperDelegator;
     private final JsonParser parser;
@@ -84,6 +92,12 @@ public class FromJsonHelper {
     public void checkForUnsupportedParameters(final Type typeOfMap, final String json, final Set<String> supportedParams) {
         if (StringUtils.isBlank(json)) { throw new InvalidJsonException(); }
 
+        final JsonElement boundElement = boundParsedJsonFor(json);
+        if (boundElement != null && boundElement.isJsonObject()) {
+            checkForUnsupportedParameters(boundElement.getAsJsonObject(), supportedParams);
+            return;
+        }
+
         final Map<String, Object> requestMap = this.gsonConverter.fromJson(json, typeOfMap);
 
         final List<String> unsupportedParameterList = new ArrayList<>();
@@ -140,7 +154,36 @@ public class FromJsonHelper {
 
         JsonElement parsedElement = null;
         if (StringUtils.isNotBlank(json)) {
-            parsedElement = this.parser.parse(json);
+            parsedElement = boundParsedJsonFor(json);
+            if (parsedElement == null) {
+                parsedElement = this.parser.parse(json);
+            }
+        }
+        return parsedElement;
+    }
+
+    /**
+     * Binds an already parsed json payload to the current thread so that
+     * subsequent calls to {@link #parse(String)} and
+     * {@link #checkForUnsupportedParameters(Type, String, Set)} with the same
+     * json reuse the parsed tree. Callers must call
+     * {@link #unbindParsedJson()} once processing is complete.
+     */
+    public void bindParsedJson(final String json, final JsonElement parsedElement) {
+        if (StringUtils.isNotBlank(json) && parsedElement != null) {
+            boundParsedJson.set(new ParsedJson(json, parsedElement));
+        }
+    }
+
+    public void unbindParsedJson() {
+        boundParsedJson.remove();
+    }
+
+    private static JsonElement boundParsedJsonFor(final String json) {
+        final ParsedJson bound = boundParsedJson.get();
+        JsonElement parsedElement = null;
+        if (bound != null && bound.isFor(json)) {
+            parsedElement = bound.parsedElement;
         }
         return parsedElement;
     }
@@ -269,4 +312,18 @@ public class FromJsonHelper {
         return this.gsonConverter;
     }
 
-}
\ No newline at end of file
+    private static final class ParsedJson {
+
+        private final String json;
+        private final JsonElement parsedElement;
+
+        ParsedJson(final String json, final JsonElement parsedElement) {
+            this.json = json;
+            this.parsedElement = parsedElement;
+        }
+
+        boolean isFor(final String otherJson) {
+            return this.json == otherJson || this.json.equals(otherJson);
+        }
+    }
+}
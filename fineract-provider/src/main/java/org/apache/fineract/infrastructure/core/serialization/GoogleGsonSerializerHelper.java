@@ -21,6 +21,8 @@ package org.apache.fineract.infrastructure.core.serialization;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import org.apache.fineract.infrastructure.core.api.JodaDateTimeAdapter;
 import org.apache.fineract.infrastructure.core.api.JodaLocalDateAdapter;
@@ -33,16 +35,33 @@ import org.joda.time.LocalDate;
 import org.joda.time.MonthDay;
 import org.springframework.stereotype.Service;
 
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.gson.ExclusionStrategy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
 /**
  * Helper class for serialization of java objects into JSON using google-gson.
+ * 
+ * <p>
+ * {@link Gson} instances are thread-safe, so the serializers built for partial
+ * response filtering are cached by (pretty print, response parameters,
+ * supported parameters) and reused across requests instead of being rebuilt on
+ * every call.
+ * </p>
  */
 @Service
 public final class GoogleGsonSerializerHelper {
 
+    private static final int MAXIMUM_CACHED_SERIALIZERS = 500;
+
+    private final Cache<SerializerKey, Gson> partialResponseSerializers = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_CACHED_SERIALIZERS).build();
+
     public Gson createGsonBuilder(final boolean prettyPrint) {
         final GsonBuilder builder = new GsonBuilder();
         builder.registerTypeAdapter(LocalDate.class, new JodaLocalDateAdapter());
@@ -56,23 +75,20 @@ public final class GoogleGsonSerializerHelper {
 
     public Gson createGsonBuilderForPartialResponseFiltering(final boolean prettyPrint, final Set<String> responseParameters) {
 
-        final ExclusionStrategy strategy = new ParameterListInclusionStrategy(responseParameters);
+        final Set<String> parameterNamesToInclude = ImmutableSet.copyOf(responseParameters);
+        final SerializerKey key = new SerializerKey(prettyPrint, parameterNamesToInclude, null);
+        return cachedSerializer(key, new Callable<Gson>() {
 
-        final GsonBuilder builder = new GsonBuilder().addSerializationExclusionStrategy(strategy);
-        builder.registerTypeAdapter(LocalDate.class, new JodaLocalDateAdapter());
-        builder.registerTypeAdapter(DateTime.class, new JodaDateTimeAdapter());
-        builder.registerTypeAdapter(MonthDay.class, new JodaMonthDayAdapter());
-        if (prettyPrint) {
-            builder.setPrettyPrinting();
-        }
-        return builder.create();
+            @Override
+            public Gson call() {
+                return createGsonBuilder(prettyPrint, new ParameterListInclusionStrategy(parameterNamesToInclude));
+            }
+        });
     }
 
     public Gson createGsonBuilderWithParameterExclusionSerializationStrategy(final Set<String> supportedParameters,
             final boolean prettyPrint, final Set<String> responseParameters) {
 
-        final Set<String> parameterNamesToSkip = new HashSet<>();
-
         if (!responseParameters.isEmpty()) {
 
             // strip out all known support parameters from expected response to
@@ -82,12 +98,36 @@ public final class GoogleGsonSerializerHelper {
 
             if (!differentParametersDetectedSet.isEmpty()) { throw new UnsupportedParameterException(new ArrayList<>(
                     differentParametersDetectedSet)); }
+        }
 
-            parameterNamesToSkip.addAll(supportedParameters);
-            parameterNamesToSkip.removeAll(responseParameters);
+        final Set<String> supported = ImmutableSet.copyOf(supportedParameters);
+        final Set<String> requested = ImmutableSet.copyOf(responseParameters);
+        final SerializerKey key = new SerializerKey(prettyPrint, requested, supported);
+        return cachedSerializer(key, new Callable<Gson>() {
+
+            @Override
+            public Gson call() {
+                final Set<String> parameterNamesToSkip = new HashSet<>();
+                if (!requested.isEmpty()) {
+                    parameterNamesToSkip.addAll(supported);
+                    parameterNamesToSkip.removeAll(requested);
+                }
+                return createGsonBuilder(prettyPrint, new ParameterListExclusionStrategy(parameterNamesToSkip));
+            }
+        });
+    }
+
+    private Gson cachedSerializer(final SerializerKey key, final Callable<Gson> serializerFactory) {
+        try {
+            return this.partialResponseSerializers.get(key, serializerFactory);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (final UncheckedExecutionException e) {
+            throw new IllegalStateException(e.getCause());
         }
+    }
 
-        final ExclusionStrategy strategy = new ParameterListExclusionStrategy(parameterNamesToSkip);
+    private Gson createGsonBuilder(final boolean prettyPrint, final ExclusionStrategy strategy) {
 
         final GsonBuilder builder = new GsonBuilder().addSerializationExclusionStrategy(strategy);
         builder.registerTypeAdapter(LocalDate.class, new JodaLocalDateAdapter());
@@ -106,4 +146,31 @@ public final class GoogleGsonSerializerHelper {
     public String serializedJsonFrom(final Gson serializer, final Object singleDataObject) {
         return serializer.toJson(singleDataObject);
     }
+
+    private static final class SerializerKey {
+
+        private final boolean prettyPrint;
+        private final Set<String> responseParameters;
+        private final Set<String> supportedParameters;
+
+        SerializerKey(final boolean prettyPrint, final Set<String> responseParameters, final Set<String> supportedParameters) {
+            this.prettyPrint = prettyPrint;
+            this.responseParameters = responseParameters;
+            this.supportedParameters = supportedParameters;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) { return true; }
+            if (!(obj instanceof SerializerKey)) { return false; }
+            final SerializerKey other = (SerializerKey) obj;
+            return this.prettyPrint == other.prettyPrint && Objects.equal(this.responseParameters, other.responseParameters)
+                    && Objects.equal(this.supportedParameters, other.supportedParameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(this.prettyPrint, this.responseParameters, this.supportedParameters);
+        }
+    }
 }
\ No newline at end of file
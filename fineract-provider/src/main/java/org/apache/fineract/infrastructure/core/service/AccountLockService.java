@@ -0,0 +1,236 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * Serialises work on the same loan or savings account, so that conflicting
+ * writes wait for each other instead of failing on optimistic locks or
+ * deadlocking on row locks.
+ * <p>
+ * All keys of a unit of work are acquired up front in a fixed order, which
+ * rules out deadlocks between units of work locking several accounts. The
+ * locks are held until the work returns or, when it runs inside a
+ * transaction, until that transaction completes. Keys already held by the
+ * current thread are not acquired again. A lock that cannot be acquired
+ * within <code>fineract.accountLocks.timeoutSeconds</code> raises a
+ * {@link CannotAcquireLockException}, which the command pipeline retries.
+ * </p>
+ * <p>
+ * <code>fineract.accountLocks</code> selects the implementation:
+ * <code>local</code> (the default) uses striped in-process locks, which is
+ * enough for a single server; <code>database</code> locks rows of
+ * <code>m_account_lock</code> and is safe across a cluster; <code>none</code>
+ * turns the locking off. The database locks are taken in the transaction of
+ * the work, which is started here when none is active yet, so they need no
+ * connection of their own and are released by its commit or rollback.
+ * </p>
+ */
+@Service
+public class AccountLockService {
+
+    public static final String MODE_PROPERTY = "fineract.accountLocks";
+    public static final String TIMEOUT_PROPERTY = "fineract.accountLocks.timeoutSeconds";
+    public static final String STRIPES_PROPERTY = "fineract.accountLocks.stripes";
+
+    private static final String MODE_LOCAL = "local";
+    private static final String MODE_DATABASE = "database";
+    private static final String MODE_NONE = "none";
+
+    private static final ThreadLocal<Set<String>> heldKeys = new ThreadLocal<Set<String>>() {
+
+        @Override
+        protected Set<String> initialValue() {
+            return new HashSet<>();
+        }
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Striped<Lock> localLocks;
+
+    @Autowired
+    public AccountLockService(final RoutingDataSource dataSource, final PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.localLocks = Striped.lock(Integer.getInteger(STRIPES_PROPERTY, 1024));
+    }
+
+    public static String loanKey(final Long loanId) {
+        return "loan:" + loanId;
+    }
+
+    public static String savingsKey(final Long savingsId) {
+        return "savings:" + savingsId;
+    }
+
+    public <T> T executeLocked(final Collection<String> accountKeys, final Callable<T> work) {
+        final String mode = System.getProperty(MODE_PROPERTY, MODE_LOCAL);
+        final Set<String> keys = new TreeSet<>();
+        if (!MODE_NONE.equals(mode)) {
+            final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+            for (final String accountKey : accountKeys) {
+                final String key = tenantIdentifier + ":" + accountKey;
+                if (!heldKeys.get().contains(key)) {
+                    keys.add(key);
+                }
+            }
+        }
+        if (keys.isEmpty()) { return call(work); }
+        if (MODE_DATABASE.equals(mode)) { return executeDatabaseLocked(keys, work); }
+
+        final Release release = acquireLocalLocks(keys);
+        heldKeys.get().addAll(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(@SuppressWarnings("unused") final int status) {
+                    release(keys, release);
+                }
+            });
+            return call(work);
+        }
+        try {
+            return call(work);
+        } finally {
+            release(keys, release);
+        }
+    }
+
+    private static void release(final Set<String> keys, final Release release) {
+        heldKeys.get().removeAll(keys);
+        release.release();
+    }
+
+    private Release acquireLocalLocks(final Set<String> keys) {
+        final long timeoutSeconds = Long.getLong(TIMEOUT_PROPERTY, 30L);
+        // bulkGet hands the stripes back in a fixed order
+        final List<Lock> acquired = new ArrayList<>(keys.size());
+        try {
+            for (final Lock lock : this.localLocks.bulkGet(keys)) {
+                if (!lock.tryLock(timeoutSeconds, TimeUnit.SECONDS)) { throw new CannotAcquireLockException("Timed out waiting for account lock on "
+                        + keys); }
+                acquired.add(lock);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unlockAll(acquired);
+            throw new CannotAcquireLockException("Interrupted waiting for account lock on " + keys, e);
+        } catch (final RuntimeException e) {
+            unlockAll(acquired);
+            throw e;
+        }
+        return new Release() {
+
+            @Override
+            public void release() {
+                unlockAll(acquired);
+            }
+        };
+    }
+
+    private static void unlockAll(final List<Lock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    private <T> T executeDatabaseLocked(final Set<String> keys, final Callable<T> work) {
+        return this.transactionTemplate.execute(new TransactionCallback<T>() {
+
+            @Override
+            public T doInTransaction(@SuppressWarnings("unused") final TransactionStatus status) {
+                lockDatabaseRows(keys);
+                heldKeys.get().addAll(keys);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                    @Override
+                    public void afterCompletion(@SuppressWarnings("unused") final int completionStatus) {
+                        heldKeys.get().removeAll(keys);
+                    }
+                });
+                return call(work);
+            }
+        });
+    }
+
+    /**
+     * Locks the rows of the keys in the current transaction, creating the
+     * missing ones. The lock wait timeout of the session is only lowered
+     * while locking, as the connection goes back to the pool afterwards.
+     */
+    private void lockDatabaseRows(final Set<String> keys) {
+        final long timeoutSeconds = Math.max(1L, Long.getLong(TIMEOUT_PROPERTY, 30L));
+        final Long sessionTimeout = this.jdbcTemplate.queryForObject("select @@session.innodb_lock_wait_timeout", Long.class);
+        this.jdbcTemplate.execute("set session innodb_lock_wait_timeout = " + timeoutSeconds);
+        try {
+            final String lockSql = "select count(*) from m_account_lock where lock_key = ? for update";
+            for (final String key : keys) {
+                if (this.jdbcTemplate.queryForObject(lockSql, Integer.class, key) == 0) {
+                    this.jdbcTemplate.update("insert ignore into m_account_lock (lock_key) values (?)", key);
+                    this.jdbcTemplate.queryForObject(lockSql, Integer.class, key);
+                }
+            }
+        } catch (final PessimisticLockingFailureException e) {
+            // lock wait timeouts and deadlocks alike are retried
+            throw new CannotAcquireLockException("Could not lock accounts " + keys + ": " + e.getMessage(), e);
+        } finally {
+            this.jdbcTemplate.execute("set session innodb_lock_wait_timeout = " + sessionTimeout);
+        }
+    }
+
+    private static <T> T call(final Callable<T> work) {
+        try {
+            return work.call();
+        } catch (final RuntimeException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private interface Release {
+
+        void release();
+    }
+}
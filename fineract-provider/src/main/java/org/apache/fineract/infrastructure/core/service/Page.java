@@ -22,18 +22,46 @@ import java.util.List;
 
 public class Page<E> {
 
-    private final int totalFilteredRecords;
+    private final Integer totalFilteredRecords;
     private final List<E> pageItems;
+    private final String nextCursor;
 
     public Page(final List<E> pageItems, final int totalFilteredRecords) {
         this.pageItems = pageItems;
         this.totalFilteredRecords = totalFilteredRecords;
+        this.nextCursor = null;
     }
 
+    /**
+     * Page of a keyset paginated listing, which carries the cursor of the
+     * next page (null on the last page) instead of a total.
+     */
+    public Page(final List<E> pageItems, final String nextCursor) {
+        this.pageItems = pageItems;
+        this.totalFilteredRecords = null;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @throws IllegalStateException
+     *             on a keyset paginated page, which is not counted
+     */
     public int getTotalFilteredRecords() {
+        if (this.totalFilteredRecords == null) { throw new IllegalStateException("Keyset paginated pages carry no total"); }
+        return this.totalFilteredRecords;
+    }
+
+    /**
+     * @return the total, or null on a keyset paginated page
+     */
+    public Integer getTotalFilteredRecordsIfCounted() {
         return this.totalFilteredRecords;
     }
 
+    public String getNextCursor() {
+        return this.nextCursor;
+    }
+
     public List<E> getPageItems() {
         return this.pageItems;
     }
@@ -18,13 +18,30 @@
  */
 package org.apache.fineract.infrastructure.core.service;
 
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.zip.CRC32;
 
+import javax.xml.bind.DatatypeConverter;
+
+import org.apache.fineract.infrastructure.core.exception.UnrecognizedQueryParamException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 
 public class PaginationHelper<E> {
 
+    private static final byte CURSOR_VERSION = 1;
+    // version, key and checksum
+    private static final int CURSOR_LENGTH = 1 + 8 + 4;
+
+    /**
+     * Provides the key of a row of a keyset paginated listing.
+     */
+    public interface KeyExtractor<E> {
+
+        Long keyOf(E item);
+    }
+
     public Page<E> fetchPage(final JdbcTemplate jt, final String sqlCountRows, final String sqlFetchRows, final Object args[],
             final RowMapper<E> rowMapper) {
 
@@ -36,4 +53,80 @@ public class PaginationHelper<E> {
 
         return new Page<>(items, totalFilteredRecords);
     }
-}
\ No newline at end of file
+
+    /**
+     * Fetches a page of a keyset paginated listing whose query was completed
+     * with {@link #appendKeysetCriteria(StringBuilder, String, SearchParameters, List)}.
+     */
+    public Page<E> fetchPage(final JdbcTemplate jt, final String sqlFetchRows, final Object args[], final RowMapper<E> rowMapper,
+            final SearchParameters searchParameters, final KeyExtractor<E> keyExtractor) {
+
+        final List<E> items = jt.query(sqlFetchRows, args, rowMapper);
+
+        // one row more than the limit was selected to see if there is a next
+        // page
+        String nextCursor = null;
+        if (searchParameters.isLimited() && items.size() > searchParameters.getLimit()) {
+            items.subList(searchParameters.getLimit(), items.size()).clear();
+            nextCursor = encodeCursor(keyExtractor.keyOf(items.get(items.size() - 1)));
+        }
+
+        return new Page<>(items, nextCursor);
+    }
+
+    /**
+     * Restricts a query to the rows after the cursor and orders and limits
+     * it by the key column, so that deep pages cost the same as the first
+     * page. Keyset pagination only supports ordering by the key.
+     */
+    public static void appendKeysetCriteria(final StringBuilder sqlBuilder, final String keyColumn,
+            final SearchParameters searchParameters, final List<Object> params) {
+        if (searchParameters.isOrderByRequested() && !"id".equalsIgnoreCase(searchParameters.getOrderBy())) { throw new UnrecognizedQueryParamException(
+                "orderBy", searchParameters.getOrderBy(), "id"); }
+        final boolean descending = "desc".equalsIgnoreCase(searchParameters.getSortOrder());
+
+        final Long afterKey = decodeCursor(searchParameters.getCursor());
+        if (afterKey != null) {
+            sqlBuilder.append(" and ").append(keyColumn).append(descending ? " < ?" : " > ?");
+            params.add(afterKey);
+        }
+        sqlBuilder.append(" order by ").append(keyColumn).append(descending ? " desc" : " asc");
+        if (searchParameters.isLimited()) {
+            sqlBuilder.append(" limit ").append(searchParameters.getLimit() + 1);
+        }
+    }
+
+    /**
+     * Cursors are opaque to clients: a format version and the key, sealed
+     * with a checksum and encoded as URL safe base64, so that the format can
+     * change and edited cursors are rejected rather than silently followed.
+     */
+    static String encodeCursor(final Long key) {
+        final ByteBuffer buffer = ByteBuffer.allocate(CURSOR_LENGTH);
+        buffer.put(CURSOR_VERSION).putLong(key);
+        buffer.putInt(checksumOf(buffer.array(), CURSOR_LENGTH - 4));
+        return DatatypeConverter.printBase64Binary(buffer.array()).replace('+', '-').replace('/', '_').replace("=", "");
+    }
+
+    static Long decodeCursor(final String cursor) {
+        if (cursor == null || cursor.isEmpty()) { return null; }
+        final byte[] bytes;
+        try {
+            final String padding = "===".substring(0, (4 - cursor.length() % 4) % 4);
+            bytes = DatatypeConverter.parseBase64Binary(cursor.replace('-', '+').replace('_', '/') + padding);
+        } catch (final IllegalArgumentException e) {
+            throw new UnrecognizedQueryParamException("cursor", cursor);
+        }
+        if (bytes.length != CURSOR_LENGTH || bytes[0] != CURSOR_VERSION) { throw new UnrecognizedQueryParamException("cursor", cursor); }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt(CURSOR_LENGTH - 4) != checksumOf(bytes, CURSOR_LENGTH - 4)) { throw new UnrecognizedQueryParamException(
+                "cursor", cursor); }
+        return buffer.getLong(1);
+    }
+
+    private static int checksumOf(final byte[] bytes, final int length) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link JpaTransactionManager} that tells the {@link RoutingDataSource} what
+ * kind of transaction is acquiring its connection: read-only transactions may
+ * be served by a tenant read replica, while a read-write transaction pins the
+ * rest of the request to the primary database.
+ * 
+ * <p>
+ * A replica may lag behind the primary, so sessions that may be reading from
+ * one use the second level and query caches with {@link CacheMode#GET}: they
+ * read cached state, which came from the primary, but never put what they
+ * read from the replica into the caches shared with the rest of the node.
+ * </p>
+ */
+public class ReplicaAwareJpaTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(final Object transaction, final TransactionDefinition definition) {
+        final boolean readOnly = definition.isReadOnly();
+        if (!readOnly) {
+            ThreadLocalContextUtil.pinToPrimary();
+        }
+        // the connection is bound while the transaction begins, so the flag
+        // only has to be visible for the duration of doBegin
+        final boolean outerReadOnly = ThreadLocalContextUtil.isReadOnlyTransaction();
+        ThreadLocalContextUtil.setReadOnlyTransaction(readOnly);
+        try {
+            super.doBegin(transaction, definition);
+        } finally {
+            ThreadLocalContextUtil.setReadOnlyTransaction(outerReadOnly);
+        }
+
+        final EntityManagerHolder entityManagerHolder = (EntityManagerHolder) TransactionSynchronizationManager
+                .getResource(getEntityManagerFactory());
+        // set both ways, the entity manager may be shared with earlier
+        // transactions of the request
+        entityManagerHolder.getEntityManager().unwrap(Session.class)
+                .setCacheMode(isReplicaEligible(readOnly) ? CacheMode.GET : CacheMode.NORMAL);
+    }
+
+    // errs on the side of the replica: a session that fell back to the
+    // primary because of replica lag merely skips populating the caches
+    private static boolean isReplicaEligible(final boolean readOnly) {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        return readOnly && !ThreadLocalContextUtil.isPinnedToPrimary() && tenant != null && tenant.hasReplicas();
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Worker pool for API requests that fan out into independent reads.
+ * 
+ * <p>
+ * Kept apart from the {@link TenantAwareTaskExecutor} pool so that request
+ * latency does not depend on how busy batch jobs and imports keep that pool.
+ * The pool has no queue: a task submitted while every worker is busy runs on
+ * the request thread itself, so a request never waits on, or deadlocks
+ * against, other requests holding the workers.
+ * </p>
+ * 
+ * The pool size defaults to twice the number of available processors and can
+ * be overridden with the <code>fineract.requestExecutor.poolSize</code> system
+ * property.
+ */
+@Component
+public class RequestTaskExecutor extends TenantAwareTaskExecutor {
+
+    public static final String POOL_SIZE_PROPERTY = "fineract.requestExecutor.poolSize";
+
+    public RequestTaskExecutor() {
+        super("fineract-request-", Integer.getInteger(POOL_SIZE_PROPERTY, Runtime.getRuntime().availableProcessors() * 2), true);
+    }
+}
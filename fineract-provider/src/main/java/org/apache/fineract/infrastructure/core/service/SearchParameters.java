@@ -48,6 +48,8 @@ public final class SearchParameters {
     private final Long productId ;
     private final Long categoryId ;
 	private final boolean isSelfUser;
+    private final boolean keysetPaginated;
+    private final String cursor;
     
 	public static SearchParameters from(final String sqlSearch, final Long officeId, final String externalId, final String name,
             final String hierarchy) {
@@ -220,6 +222,8 @@ public final class SearchParameters {
         this.productId = null ;
         this.categoryId = null ;
         this.isSelfUser = isSelfUser;
+        this.keysetPaginated = false;
+        this.cursor = null;
       
     }
 
@@ -246,6 +250,8 @@ public final class SearchParameters {
         this.productId = productId ;
         this.categoryId = categoryId ;
         this.isSelfUser = false;
+        this.keysetPaginated = false;
+        this.cursor = null;
         
     }
     
@@ -274,6 +280,43 @@ public final class SearchParameters {
         this.productId = null ;
         this.categoryId = null ;
         this.isSelfUser = false;
+        this.keysetPaginated = false;
+        this.cursor = null;
+    }
+
+    private SearchParameters(final SearchParameters searchParameters, final String cursor) {
+        this.sqlSearch = searchParameters.sqlSearch;
+        this.officeId = searchParameters.officeId;
+        this.externalId = searchParameters.externalId;
+        this.name = searchParameters.name;
+        this.hierarchy = searchParameters.hierarchy;
+        this.firstname = searchParameters.firstname;
+        this.lastname = searchParameters.lastname;
+        this.offset = null;
+        this.limit = searchParameters.limit;
+        this.orderBy = searchParameters.orderBy;
+        this.sortOrder = searchParameters.sortOrder;
+        this.staffId = searchParameters.staffId;
+        this.accountNo = searchParameters.accountNo;
+        this.loanId = searchParameters.loanId;
+        this.savingsId = searchParameters.savingsId;
+        this.orphansOnly = searchParameters.orphansOnly;
+        this.currencyCode = searchParameters.currencyCode;
+        this.provisioningEntryId = searchParameters.provisioningEntryId;
+        this.productId = searchParameters.productId;
+        this.categoryId = searchParameters.categoryId;
+        this.isSelfUser = searchParameters.isSelfUser;
+        this.keysetPaginated = true;
+        this.cursor = cursor;
+    }
+
+    /**
+     * Pages by key instead of by offset: the page starts after the row the
+     * cursor of the previous page points at (the first page when null) and
+     * the total number of rows is not counted.
+     */
+    public SearchParameters withKeysetPagination(final String cursor) {
+        return new SearchParameters(this, cursor);
     }
 
     public boolean isOrderByRequested() {
@@ -424,6 +467,14 @@ public final class SearchParameters {
         return this.categoryId != null && this.categoryId != 0 ;
     }
 
+    public boolean isKeysetPaginated() {
+        return this.keysetPaginated;
+    }
+
+    public String getCursor() {
+        return this.cursor;
+    }
+
     public boolean isSelfUser() {
 		return this.isSelfUser;
 	}
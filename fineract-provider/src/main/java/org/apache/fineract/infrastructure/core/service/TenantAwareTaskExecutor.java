@@ -0,0 +1,224 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded worker pool for running independent pieces of work in parallel on
+ * behalf of the current request or job.
+ * 
+ * <p>
+ * The tenant, data source context, auth token and security context of the
+ * submitting thread are copied onto the worker thread for the duration of each
+ * task and cleared afterwards. Tasks submitted from a worker thread are run
+ * inline so nested use can never exhaust the pool.
+ * </p>
+ * 
+ * The pool size defaults to twice the number of available processors and can
+ * be overridden with the <code>fineract.taskExecutor.poolSize</code> system
+ * property. This is the pool of batch jobs and other background work;
+ * request threads fanning out use the {@link RequestTaskExecutor} so that they
+ * never queue behind it.
+ */
+@Component
+@Primary
+public class TenantAwareTaskExecutor implements DisposableBean {
+
+    public static final String POOL_SIZE_PROPERTY = "fineract.taskExecutor.poolSize";
+
+    private static final ThreadLocal<Boolean> workerThread = new ThreadLocal<>();
+
+    private final int poolSize;
+
+    private final boolean runInlineWhenSaturated;
+
+    private final ExecutorService executorService;
+
+    public TenantAwareTaskExecutor() {
+        this("fineract-task-", Integer.getInteger(POOL_SIZE_PROPERTY, Runtime.getRuntime().availableProcessors() * 2), false);
+    }
+
+    /**
+     * @param runInlineWhenSaturated
+     *            when set, the pool has no queue and a task submitted while
+     *            all workers are busy runs on the submitting thread instead of
+     *            waiting for one
+     */
+    protected TenantAwareTaskExecutor(final String threadNamePrefix, final int poolSize, final boolean runInlineWhenSaturated) {
+        this.poolSize = poolSize;
+        this.runInlineWhenSaturated = runInlineWhenSaturated;
+        final ThreadFactory threadFactory = new WorkerThreadFactory(threadNamePrefix);
+        if (runInlineWhenSaturated) {
+            this.executorService = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<Runnable>(),
+                    threadFactory);
+        } else {
+            this.executorService = Executors.newFixedThreadPool(poolSize, threadFactory);
+        }
+    }
+
+    public int getPoolSize() {
+        return this.poolSize;
+    }
+
+    /**
+     * Runs all tasks, in parallel where possible, and returns their results
+     * in the order of the given tasks. A {@link RuntimeException} thrown by a
+     * task is rethrown to the caller once all tasks have completed.
+     */
+    public <T> List<T> invokeAll(final Collection<? extends Callable<T>> tasks) {
+        final List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            futures.add(submit(task));
+        }
+
+        final List<T> results = new ArrayList<>(futures.size());
+        RuntimeException failure = null;
+        for (final Future<T> future : futures) {
+            try {
+                results.add(getResult(future));
+            } catch (final RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+                results.add(null);
+            }
+        }
+        if (failure != null) { throw failure; }
+        return results;
+    }
+
+    public <T> Future<T> submit(final Callable<T> task) {
+        if (Boolean.TRUE.equals(workerThread.get())) {
+            // already on a worker thread with the context in place
+            return runInline(task);
+        }
+        try {
+            return this.executorService.submit(withCurrentContext(task));
+        } catch (final RejectedExecutionException e) {
+            if (!this.runInlineWhenSaturated) { throw e; }
+            // the submitting thread already has the context in place
+            return runInline(task);
+        }
+    }
+
+    private static <T> Future<T> runInline(final Callable<T> task) {
+        final FutureTask<T> inlineTask = new FutureTask<>(task);
+        inlineTask.run();
+        return inlineTask;
+    }
+
+    public static <T> T getResult(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) { throw (RuntimeException) cause; }
+            if (cause instanceof Error) { throw (Error) cause; }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static <T> Callable<T> withCurrentContext(final Callable<T> task) {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final String dataSourceContext = ThreadLocalContextUtil.getDataSourceContext();
+        final String authToken = ThreadLocalContextUtil.getAuthToken();
+        final boolean replicaReadsAllowed = ThreadLocalContextUtil.isReplicaReadsAllowed();
+        final boolean pinnedToPrimary = ThreadLocalContextUtil.isPinnedToPrimary();
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+        return new Callable<T>() {
+
+            @Override
+            public T call() throws Exception {
+                try {
+                    if (tenant != null) {
+                        ThreadLocalContextUtil.setTenant(tenant);
+                    }
+                    ThreadLocalContextUtil.setDataSourceContext(dataSourceContext);
+                    ThreadLocalContextUtil.setAuthToken(authToken);
+                    ThreadLocalContextUtil.setReplicaReadsAllowed(replicaReadsAllowed);
+                    if (pinnedToPrimary) {
+                        ThreadLocalContextUtil.pinToPrimary();
+                    }
+                    SecurityContextHolder.setContext(securityContext);
+                    return task.call();
+                } finally {
+                    ThreadLocalContextUtil.clearTenant();
+                    ThreadLocalContextUtil.clearDataSourceContext();
+                    ThreadLocalContextUtil.setAuthToken(null);
+                    ThreadLocalContextUtil.clearReplicaRouting();
+                    SecurityContextHolder.clearContext();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void destroy() {
+        this.executorService.shutdown();
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+
+        private final String threadNamePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        private WorkerThreadFactory(final String threadNamePrefix) {
+            this.threadNamePrefix = threadNamePrefix;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    workerThread.set(Boolean.TRUE);
+                    runnable.run();
+                }
+            }, this.threadNamePrefix + this.threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -33,6 +33,12 @@ public class ThreadLocalContextUtil {
     private static final ThreadLocal<FineractPlatformTenant> tenantcontext = new ThreadLocal<>();
     
     private static final ThreadLocal<String> authTokenContext = new ThreadLocal<>();
+
+    private static final ThreadLocal<Boolean> replicaReadsAllowedContext = new ThreadLocal<>();
+
+    private static final ThreadLocal<Boolean> readOnlyTransactionContext = new ThreadLocal<>();
+
+    private static final ThreadLocal<Boolean> primaryPinnedContext = new ThreadLocal<>();
     
     public static void setTenant(final FineractPlatformTenant tenant) {
         Assert.notNull(tenant, "tenant cannot be null");
@@ -67,4 +73,41 @@ public class ThreadLocalContextUtil {
         return authTokenContext.get();
     }
 
-}
\ No newline at end of file
+    /**
+     * Marks the current request as one whose reads may be served by a read
+     * replica of the tenant database (GET and report requests).
+     */
+    public static void setReplicaReadsAllowed(final boolean replicaReadsAllowed) {
+        replicaReadsAllowedContext.set(replicaReadsAllowed);
+    }
+
+    public static boolean isReplicaReadsAllowed() {
+        return Boolean.TRUE.equals(replicaReadsAllowedContext.get());
+    }
+
+    public static void setReadOnlyTransaction(final boolean readOnlyTransaction) {
+        readOnlyTransactionContext.set(readOnlyTransaction);
+    }
+
+    public static boolean isReadOnlyTransaction() {
+        return Boolean.TRUE.equals(readOnlyTransactionContext.get());
+    }
+
+    /**
+     * Once a read-write transaction has started, every further connection of
+     * the request comes from the primary so the request reads its own writes.
+     */
+    public static void pinToPrimary() {
+        primaryPinnedContext.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(primaryPinnedContext.get());
+    }
+
+    public static void clearReplicaRouting() {
+        replicaReadsAllowedContext.remove();
+        readOnlyTransactionContext.remove();
+        primaryPinnedContext.remove();
+    }
+}
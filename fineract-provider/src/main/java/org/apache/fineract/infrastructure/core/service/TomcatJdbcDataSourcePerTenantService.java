@@ -18,17 +18,30 @@
  */
 package org.apache.fineract.infrastructure.core.service;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.sql.DataSource;
 
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantReplica;
 import org.apache.tomcat.jdbc.pool.PoolConfiguration;
 import org.apache.tomcat.jdbc.pool.PoolProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.stereotype.Service;
 
 /**
@@ -42,7 +55,15 @@ import org.springframework.stereotype.Service;
 @Service
 public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceService {
 
+    private final static Logger logger = LoggerFactory.getLogger(TomcatJdbcDataSourcePerTenantService.class);
+
+    // how long a measured replication lag is trusted before the replica is
+    // asked again
+    private static final long LAG_CHECK_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
     private final Map<Long, DataSource> tenantToDataSourceMap = new HashMap<>(1);
+    private final ConcurrentMap<Long, ReplicaLag> replicaLagMap = new ConcurrentHashMap<>();
+    private final AtomicInteger replicaCounter = new AtomicInteger();
     private final DataSource tenantDataSource;
 
     @Autowired
@@ -58,25 +79,102 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
 
         final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant(); 
         if (tenant != null) {
-            final FineractPlatformTenantConnection tenantConnection = tenant.getConnection();
-
-            synchronized (this.tenantToDataSourceMap) {
-                // if tenantConnection information available switch to
-                // appropriate
-                // datasource
-                // for that tenant.
-                if (this.tenantToDataSourceMap.containsKey(tenantConnection.getConnectionId())) {
-                    tenantDataSource = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
-                } else {
-                    tenantDataSource = createNewDataSourceFor(tenantConnection);
-                    this.tenantToDataSourceMap.put(tenantConnection.getConnectionId(), tenantDataSource);
-                }
+            if (isReplicaEligible(tenant)) {
+                final DataSource replicaDataSource = retrieveReplicaDataSource(tenant.getReplicas());
+                if (replicaDataSource != null) { return replicaDataSource; }
             }
+            tenantDataSource = dataSourceFor(tenant.getConnection());
         }
 
         return tenantDataSource;
     }
 
+    private DataSource dataSourceFor(final FineractPlatformTenantConnection tenantConnection) {
+        synchronized (this.tenantToDataSourceMap) {
+            // if tenantConnection information available switch to
+            // appropriate
+            // datasource
+            // for that tenant.
+            DataSource tenantDataSource = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
+            if (tenantDataSource == null) {
+                tenantDataSource = createNewDataSourceFor(tenantConnection);
+                this.tenantToDataSourceMap.put(tenantConnection.getConnectionId(), tenantDataSource);
+            }
+            return tenantDataSource;
+        }
+    }
+
+    /**
+     * Reads of GET and report requests and of read-only transactions may go to
+     * a replica, unless the request already started a read-write transaction
+     * and has to see its own writes.
+     */
+    private boolean isReplicaEligible(final FineractPlatformTenant tenant) {
+        return tenant.hasReplicas() && !ThreadLocalContextUtil.isPinnedToPrimary()
+                && (ThreadLocalContextUtil.isReplicaReadsAllowed() || ThreadLocalContextUtil.isReadOnlyTransaction());
+    }
+
+    /**
+     * Picks the replicas round robin and skips those lagging behind their
+     * threshold; returns null when no replica is usable so the caller falls
+     * back to the primary.
+     */
+    private DataSource retrieveReplicaDataSource(final List<FineractPlatformTenantReplica> replicas) {
+        final int start = (this.replicaCounter.getAndIncrement() & Integer.MAX_VALUE) % replicas.size();
+        for (int i = 0; i < replicas.size(); i++) {
+            final FineractPlatformTenantReplica replica = replicas.get((start + i) % replicas.size());
+            final DataSource replicaDataSource = dataSourceFor(replica.getConnection());
+            if (isWithinLagThreshold(replica, replicaDataSource)) { return replicaDataSource; }
+        }
+        return null;
+    }
+
+    private boolean isWithinLagThreshold(final FineractPlatformTenantReplica replica, final DataSource replicaDataSource) {
+        final Long connectionId = replica.getConnection().getConnectionId();
+        ReplicaLag lag = this.replicaLagMap.get(connectionId);
+        if (lag == null) {
+            final ReplicaLag newLag = new ReplicaLag();
+            lag = this.replicaLagMap.putIfAbsent(connectionId, newLag);
+            if (lag == null) {
+                lag = newLag;
+            }
+        }
+        synchronized (lag) {
+            final long now = System.currentTimeMillis();
+            if (now - lag.checkedAt > LAG_CHECK_INTERVAL_MILLIS) {
+                lag.secondsBehindPrimary = measureLag(replica, replicaDataSource);
+                lag.checkedAt = now;
+            }
+            return lag.secondsBehindPrimary != null && lag.secondsBehindPrimary <= replica.getMaxLagSeconds();
+        }
+    }
+
+    // an unknown lag (replication stopped, not a replica, server down) counts
+    // as lagging
+    private Long measureLag(final FineractPlatformTenantReplica replica, final DataSource replicaDataSource) {
+        try {
+            return new JdbcTemplate(replicaDataSource).query("SHOW SLAVE STATUS", new ResultSetExtractor<Long>() {
+
+                @Override
+                public Long extractData(final ResultSet rs) throws SQLException {
+                    if (!rs.next()) { return null; }
+                    final long secondsBehindMaster = rs.getLong("Seconds_Behind_Master");
+                    return rs.wasNull() ? null : secondsBehindMaster;
+                }
+            });
+        } catch (final DataAccessException e) {
+            logger.warn("Could not determine replication lag of " + replica.getConnection().getSchemaServer() + ", reading from primary",
+                    e);
+            return null;
+        }
+    }
+
+    private static final class ReplicaLag {
+
+        private long checkedAt;
+        private Long secondsBehindPrimary;
+    }
+
     // creates the data source oltp and report databases
     private DataSource createNewDataSourceFor(final FineractPlatformTenantConnection tenantConnectionObj) {
         // see
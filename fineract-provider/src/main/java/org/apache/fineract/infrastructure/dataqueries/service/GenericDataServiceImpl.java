@@ -55,8 +55,13 @@ public class GenericDataServiceImpl implements GenericDataService {
 
     @Override
     public GenericResultsetData fillGenericResultSet(final String sql) {
+        return fillGenericResultSet(sql, new Object[] {});
+    }
+
+    @Override
+    public GenericResultsetData fillGenericResultSet(final String sql, final Object[] args) {
 
-        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sql);
+        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sql, args);
 
         final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>();
         final List<ResultsetRowData> resultsetDataRows = new ArrayList<>();
@@ -27,9 +27,9 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import javax.sql.DataSource;
 import javax.ws.rs.core.StreamingOutput;
@@ -69,15 +69,17 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     private final DataSource dataSource;
     private final PlatformSecurityContext context;
     private final GenericDataService genericDataService;
+    private final ReportPlanCache reportPlanCache;
 
     @Autowired
     public ReadReportingServiceImpl(final PlatformSecurityContext context, final RoutingDataSource dataSource,
-            final GenericDataService genericDataService) {
+            final GenericDataService genericDataService, final ReportPlanCache reportPlanCache) {
 
         this.context = context;
         this.dataSource = dataSource;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
         this.genericDataService = genericDataService;
+        this.reportPlanCache = reportPlanCache;
     }
 
     @Override
@@ -167,59 +169,39 @@ public class ReadReportingServiceImpl implements ReadReportingService {
         final long startTime = System.currentTimeMillis();
         logger.info("STARTING REPORT: " + name + "   Type: " + type);
 
-        final String sql = getSQLtoRun(name, type, queryParams);
+        final ReportPlan.BoundQuery query = bindReportPlan(name, type, queryParams);
 
-        final GenericResultsetData result = this.genericDataService.fillGenericResultSet(sql);
+        final GenericResultsetData result = this.genericDataService.fillGenericResultSet(query.getSql(), query.getArgs());
 
         final long elapsed = System.currentTimeMillis() - startTime;
         logger.info("FINISHING Report/Request Name: " + name + " - " + type + "     Elapsed Time: " + elapsed);
         return result;
     }
 
-    private String getSQLtoRun(final String name, final String type, final Map<String, String> queryParams) {
+    private ReportPlan.BoundQuery bindReportPlan(final String name, final String type, final Map<String, String> queryParams) {
 
-        String sql = getSql(name, type);
-
-        final Set<String> keys = queryParams.keySet();
-        for (final String key : keys) {
-            final String pValue = queryParams.get(key);
-            // logger.info("(" + key + " : " + pValue + ")");
-            sql = this.genericDataService.replace(sql, key, pValue);
-        }
+        final ReportPlan plan = this.reportPlanCache.retrieve(type, name);
 
+        final Map<String, String> parameterValues = new HashMap<>(queryParams);
         final AppUser currentUser = this.context.authenticatedUser();
         // Allows sql query to restrict data by office hierarchy if required
-        sql = this.genericDataService.replace(sql, "${currentUserHierarchy}", currentUser.getOffice().getHierarchy());
+        parameterValues.put("${currentUserHierarchy}", currentUser.getOffice().getHierarchy());
         // Allows sql query to restrict data by current user Id if required
         // (typically used to return report lists containing only reports
         // permitted to be run by the user
-        sql = this.genericDataService.replace(sql, "${currentUserId}", currentUser.getId().toString());
-
-        sql = this.genericDataService.wrapSQL(sql);
-
-        return sql;
-
-    }
-
-    private String getSql(final String name, final String type) {
-
-        final String inputSql = "select " + type + "_sql as the_sql from stretchy_" + type + " where " + type + "_name = '" + name + "'";
-        final String inputSqlWrapped = this.genericDataService.wrapSQL(inputSql);
-
-        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(inputSqlWrapped);
+        parameterValues.put("${currentUserId}", currentUser.getId().toString());
 
-        if (rs.next() && rs.getString("the_sql") != null) { return rs.getString("the_sql"); }
-        throw new ReportNotFoundException(inputSql);
+        return plan.bind(parameterValues);
     }
 
     @Override
     public String getReportType(final String reportName) {
 
-        final String sql = "SELECT ifnull(report_type,'') as report_type FROM `stretchy_report` where report_name = '" + reportName + "'";
+        final String sql = "SELECT ifnull(report_type,'') as report_type FROM `stretchy_report` where report_name = ?";
 
         final String sqlWrapped = this.genericDataService.wrapSQL(sql);
 
-        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sqlWrapped);
+        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sqlWrapped, reportName);
 
         if (rs.next()) { return rs.getString("report_type"); }
         throw new ReportNotFoundException(sql);
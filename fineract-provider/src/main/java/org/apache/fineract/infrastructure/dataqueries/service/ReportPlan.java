@@ -0,0 +1,287 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+
+/**
+ * A stretchy report or parameter query compiled once into a prepared statement
+ * template.
+ * 
+ * Every <code>${name}</code> placeholder of the report SQL becomes a
+ * <code>?</code> bind marker:
+ * <ul>
+ * <li>a placeholder that is the whole of a string literal (
+ * <code>'${startDate}'</code>) is bound as a string</li>
+ * <li>a placeholder inside a longer literal (
+ * <code>'${currentUserHierarchy}%'</code>) turns the literal into a
+ * <code>concat(..)</code> of its parts</li>
+ * <li>an unquoted placeholder (<code>${officeId}</code>,
+ * <code>in (${reportListing})</code>) is bound as a number when the value is
+ * numeric and as a string otherwise; a comma separated value is expanded into
+ * one bind marker per element</li>
+ * </ul>
+ * Parameter values never become part of the SQL text.
+ */
+public final class ReportPlan {
+
+    private static final Pattern INTEGER = Pattern.compile("-?\\d{1,18}");
+    private static final Pattern DECIMAL = Pattern.compile("-?\\d+(\\.\\d+)?");
+
+    // sql text before, between and after the bind markers
+    private final List<String> fragments;
+    private final List<String> parameterNames;
+    private final List<Boolean> unquoted;
+    private final String preparedSql;
+
+    private ReportPlan(final List<String> fragments, final List<String> parameterNames, final List<Boolean> unquoted) {
+        this.fragments = fragments;
+        this.parameterNames = parameterNames;
+        this.unquoted = unquoted;
+        final StringBuilder sql = new StringBuilder(fragments.get(0));
+        for (int i = 1; i < fragments.size(); i++) {
+            sql.append('?').append(fragments.get(i));
+        }
+        this.preparedSql = sql.toString();
+    }
+
+    public static ReportPlan compile(final String sql) {
+        final Compiler compiler = new Compiler(sql);
+        compiler.run();
+        return new ReportPlan(compiler.fragments, compiler.parameterNames, compiler.unquoted);
+    }
+
+    public String getPreparedSql() {
+        return this.preparedSql;
+    }
+
+    public List<String> getParameterNames() {
+        return Collections.unmodifiableList(this.parameterNames);
+    }
+
+    public BoundQuery bind(final Map<String, String> parameterValues) {
+        final List<Object> args = new ArrayList<>(this.parameterNames.size());
+        StringBuilder expandedSql = null;
+        for (int i = 0; i < this.parameterNames.size(); i++) {
+            final String name = this.parameterNames.get(i);
+            final String value = parameterValues.get(name);
+            if (value == null) { throw new PlatformDataIntegrityException("error.msg.report.parameter.missing", "Report parameter "
+                    + name + " has not been supplied.", name); }
+
+            int markers = 1;
+            if (this.unquoted.get(i)) {
+                final List<Object> elements = splitValueList(value);
+                args.addAll(elements);
+                markers = elements.size();
+            } else {
+                args.add(value);
+            }
+
+            if (markers != 1 && expandedSql == null) {
+                expandedSql = new StringBuilder();
+                for (int j = 0; j < i; j++) {
+                    expandedSql.append(this.fragments.get(j)).append('?');
+                }
+            }
+            if (expandedSql != null) {
+                expandedSql.append(this.fragments.get(i)).append('?');
+                for (int j = 1; j < markers; j++) {
+                    expandedSql.append(", ?");
+                }
+            }
+        }
+
+        if (expandedSql == null) { return new BoundQuery(this.preparedSql, args.toArray()); }
+        expandedSql.append(this.fragments.get(this.fragments.size() - 1));
+        return new BoundQuery(expandedSql.toString(), args.toArray());
+    }
+
+    private static List<Object> splitValueList(final String value) {
+        final List<Object> elements = new ArrayList<>();
+        char quote = 0;
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == ',') {
+                elements.add(typedElement(value.substring(start, i)));
+                start = i + 1;
+            }
+        }
+        elements.add(typedElement(value.substring(start)));
+        return elements;
+    }
+
+    private static Object typedElement(final String rawElement) {
+        final String element = rawElement.trim();
+        if (element.length() >= 2) {
+            final char first = element.charAt(0);
+            if ((first == '\'' || first == '"') && element.charAt(element.length() - 1) == first) {
+                final String quote = String.valueOf(first);
+                return element.substring(1, element.length() - 1).replace(quote + quote, quote);
+            }
+        }
+        if (INTEGER.matcher(element).matches()) { return Long.valueOf(element); }
+        if (DECIMAL.matcher(element).matches()) { return new BigDecimal(element); }
+        return element;
+    }
+
+    public static final class BoundQuery {
+
+        private final String sql;
+        private final Object[] args;
+
+        private BoundQuery(final String sql, final Object[] args) {
+            this.sql = sql;
+            this.args = args;
+        }
+
+        public String getSql() {
+            return this.sql;
+        }
+
+        public Object[] getArgs() {
+            return this.args;
+        }
+    }
+
+    private static final class Compiler {
+
+        private final String sql;
+        private final List<String> fragments = new ArrayList<>();
+        private final List<String> parameterNames = new ArrayList<>();
+        private final List<Boolean> unquoted = new ArrayList<>();
+        private StringBuilder fragment = new StringBuilder();
+        private int position;
+
+        private Compiler(final String sql) {
+            this.sql = sql;
+        }
+
+        private void run() {
+            final int length = this.sql.length();
+            while (this.position < length) {
+                final char c = this.sql.charAt(this.position);
+                if (c == '\'' || c == '"') {
+                    literal(c);
+                } else if (c == '#' || this.sql.startsWith("-- ", this.position) || this.sql.startsWith("--\n", this.position)
+                        || this.sql.startsWith("--\r", this.position) || this.sql.startsWith("--\t", this.position)) {
+                    copyUpTo(this.sql.indexOf('\n', this.position), 0);
+                } else if (this.sql.startsWith("/*", this.position)) {
+                    copyUpTo(this.sql.indexOf("*/", this.position + 2), 2);
+                } else if (this.sql.startsWith("${", this.position) && this.sql.indexOf('}', this.position) > 0) {
+                    final int end = this.sql.indexOf('}', this.position);
+                    parameter(this.sql.substring(this.position, end + 1), true);
+                    this.position = end + 1;
+                } else {
+                    this.fragment.append(c);
+                    this.position++;
+                }
+            }
+            this.fragments.add(this.fragment.toString());
+        }
+
+        private void copyUpTo(final int end, final int terminatorLength) {
+            final int stop = end < 0 ? this.sql.length() : end + terminatorLength;
+            this.fragment.append(this.sql, this.position, stop);
+            this.position = stop;
+        }
+
+        private void literal(final char quote) {
+            int end = this.position + 1;
+            while (end < this.sql.length()) {
+                final char c = this.sql.charAt(end);
+                if (c == '\\') {
+                    end += 2;
+                } else if (c == quote && end + 1 < this.sql.length() && this.sql.charAt(end + 1) == quote) {
+                    end += 2;
+                } else if (c == quote) {
+                    break;
+                } else {
+                    end++;
+                }
+            }
+            if (end >= this.sql.length()) {
+                // unterminated literal, leave the rest for mysql to reject
+                copyUpTo(-1, 0);
+                return;
+            }
+
+            final String content = this.sql.substring(this.position + 1, end);
+            if (!content.contains("${") || content.indexOf('}', content.indexOf("${")) < 0) {
+                copyUpTo(end, 1);
+                return;
+            }
+
+            final List<String> parts = new ArrayList<>();
+            int start = 0;
+            int open;
+            while ((open = content.indexOf("${", start)) >= 0 && content.indexOf('}', open) > 0) {
+                final int close = content.indexOf('}', open);
+                parts.add(content.substring(start, open));
+                parts.add(content.substring(open, close + 1));
+                start = close + 1;
+            }
+            parts.add(content.substring(start));
+
+            if (parts.size() == 3 && parts.get(0).isEmpty() && parts.get(2).isEmpty()) {
+                parameter(parts.get(1), false);
+            } else {
+                this.fragment.append("concat(");
+                boolean first = true;
+                for (int i = 0; i < parts.size(); i++) {
+                    final String part = parts.get(i);
+                    if (i % 2 == 0 && part.isEmpty()) {
+                        continue;
+                    }
+                    if (!first) {
+                        this.fragment.append(", ");
+                    }
+                    first = false;
+                    if (i % 2 == 0) {
+                        this.fragment.append(quote).append(part).append(quote);
+                    } else {
+                        parameter(part, false);
+                    }
+                }
+                this.fragment.append(')');
+            }
+            this.position = end + 1;
+        }
+
+        private void parameter(final String name, final boolean isUnquoted) {
+            this.fragments.add(this.fragment.toString());
+            this.fragment = new StringBuilder();
+            this.parameterNames.add(name);
+            this.unquoted.add(isUnquoted);
+        }
+    }
+}
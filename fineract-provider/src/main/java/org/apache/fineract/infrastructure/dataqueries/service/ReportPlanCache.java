@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import org.apache.fineract.infrastructure.cache.service.RuntimeDelegatingCacheManager;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.dataqueries.exception.ReportNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache of compiled {@link ReportPlan}s keyed by tenant and stretchy report or
+ * parameter name, held in the <code>reportPlans</code> cache region.
+ * 
+ * Invalidated on this node whenever a report definition is written; other
+ * nodes pick up the change when their entries expire (see ehcache.xml).
+ */
+@Component
+public class ReportPlanCache {
+
+    public static final String CACHE_NAME = "reportPlans";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GenericDataService genericDataService;
+    private final RuntimeDelegatingCacheManager cacheManager;
+
+    @Autowired
+    public ReportPlanCache(final RoutingDataSource dataSource, final GenericDataService genericDataService,
+            final RuntimeDelegatingCacheManager cacheManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.genericDataService = genericDataService;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * @param type
+     *            <code>report</code> or <code>parameter</code>
+     */
+    public ReportPlan retrieve(final String type, final String name) {
+        final Cache cache = this.cacheManager.getCache(CACHE_NAME);
+        final String key = ThreadLocalContextUtil.getTenant().getTenantIdentifier() + ":" + type + ":" + name;
+        final ValueWrapper cached = cache == null ? null : cache.get(key);
+        if (cached != null) { return (ReportPlan) cached.get(); }
+
+        final ReportPlan plan = ReportPlan.compile(this.genericDataService.wrapSQL(retrieveSql(type, name)));
+        if (cache != null) {
+            cache.put(key, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Clears the plans of all tenants, now and again once the writing
+     * transaction completes, so that a plan compiled from the old definition
+     * in the meantime does not linger.
+     */
+    public void invalidate() {
+        clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(@SuppressWarnings("unused") final int status) {
+                    clear();
+                }
+            });
+        }
+    }
+
+    private void clear() {
+        final Cache cache = this.cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private String retrieveSql(final String type, final String name) {
+        if (!"report".equals(type) && !"parameter".equals(type)) { throw new ReportNotFoundException(type + " " + name); }
+
+        final String sql = "select " + type + "_sql as the_sql from stretchy_" + type + " where " + type + "_name = ?";
+        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sql, name);
+
+        if (rs.next() && rs.getString("the_sql") != null) { return rs.getString("the_sql"); }
+        throw new ReportNotFoundException(sql);
+    }
+}
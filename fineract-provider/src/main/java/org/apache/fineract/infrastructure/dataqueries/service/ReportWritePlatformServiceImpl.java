@@ -61,18 +61,20 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
     private final ReportParameterUsageRepository reportParameterUsageRepository;
     private final ReportParameterRepository reportParameterRepository;
     private final PermissionRepository permissionRepository;
+    private final ReportPlanCache reportPlanCache;
 
     @Autowired
     public ReportWritePlatformServiceImpl(final PlatformSecurityContext context,
             final ReportCommandFromApiJsonDeserializer fromApiJsonDeserializer, final ReportRepository reportRepository,
             final ReportParameterRepository reportParameterRepository, final ReportParameterUsageRepository reportParameterUsageRepository,
-            final PermissionRepository permissionRepository) {
+            final PermissionRepository permissionRepository, final ReportPlanCache reportPlanCache) {
         this.context = context;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.reportRepository = reportRepository;
         this.reportParameterRepository = reportParameterRepository;
         this.reportParameterUsageRepository = reportParameterUsageRepository;
         this.permissionRepository = permissionRepository;
+        this.reportPlanCache = reportPlanCache;
     }
 
     @Transactional
@@ -89,6 +91,7 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
             report.update(reportParameterUsages);
 
             this.reportRepository.save(report);
+            this.reportPlanCache.invalidate();
 
             final Permission permission = new Permission("report", report.getReportName(), "READ");
             this.permissionRepository.save(permission);
@@ -127,6 +130,7 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
 
             if (!changes.isEmpty()) {
                 this.reportRepository.saveAndFlush(report);
+                this.reportPlanCache.invalidate();
             }
 
             return new CommandProcessingResultBuilder() //
@@ -156,6 +160,7 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
         if (permission == null) { throw new PermissionNotFoundException("READ" + "_" + report.getReportName()); }
 
         this.reportRepository.delete(report);
+        this.reportPlanCache.invalidate();
         this.permissionRepository.delete(permission);
 
         return new CommandProcessingResultBuilder() //
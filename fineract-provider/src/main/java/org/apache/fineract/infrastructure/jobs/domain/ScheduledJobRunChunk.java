@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.domain;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.springframework.data.jpa.domain.AbstractPersistable;
+
+/**
+ * Timing of one chunk of work processed by a chunked job run.
+ */
+@Entity
+@Table(name = "job_run_history_chunk")
+public class ScheduledJobRunChunk extends AbstractPersistable<Long> {
+
+    @ManyToOne
+    @JoinColumn(name = "job_run_history_id", nullable = false)
+    private ScheduledJobRunHistory scheduledJobRunHistory;
+
+    @Column(name = "chunk_number", nullable = false)
+    private Integer chunkNumber;
+
+    @Column(name = "first_entity_id")
+    private Long firstEntityId;
+
+    @Column(name = "last_entity_id")
+    private Long lastEntityId;
+
+    @Column(name = "entity_count", nullable = false)
+    private Integer entityCount;
+
+    @Column(name = "failure_count", nullable = false)
+    private Integer failureCount;
+
+    @Column(name = "node_name")
+    private String nodeName;
+
+    @Column(name = "start_time", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date startTime;
+
+    @Column(name = "end_time", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date endTime;
+
+    protected ScheduledJobRunChunk() {
+        //
+    }
+
+    public ScheduledJobRunChunk(final Integer chunkNumber, final Long firstEntityId, final Long lastEntityId, final Integer entityCount,
+            final Integer failureCount, final String nodeName, final Date startTime, final Date endTime) {
+        this.chunkNumber = chunkNumber;
+        this.firstEntityId = firstEntityId;
+        this.lastEntityId = lastEntityId;
+        this.entityCount = entityCount;
+        this.failureCount = failureCount;
+        this.nodeName = nodeName;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    void updateRunHistory(final ScheduledJobRunHistory scheduledJobRunHistory) {
+        this.scheduledJobRunHistory = scheduledJobRunHistory;
+    }
+}
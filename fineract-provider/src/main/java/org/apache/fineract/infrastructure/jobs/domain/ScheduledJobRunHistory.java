@@ -18,12 +18,17 @@
  */
 package org.apache.fineract.infrastructure.jobs.domain;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 
+import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
@@ -61,6 +66,9 @@ public class ScheduledJobRunHistory extends AbstractPersistable<Long> {
     @Column(name = "error_log")
     private String errorLog;
 
+    @OneToMany(mappedBy = "scheduledJobRunHistory", cascade = CascadeType.ALL)
+    private List<ScheduledJobRunChunk> chunks = new ArrayList<>();
+
     public ScheduledJobRunHistory() {
 
     }
@@ -77,4 +85,10 @@ public class ScheduledJobRunHistory extends AbstractPersistable<Long> {
         this.errorLog = errorLog;
     }
 
+    public void addChunks(final Collection<ScheduledJobRunChunk> chunks) {
+        for (final ScheduledJobRunChunk chunk : chunks) {
+            chunk.updateRunHistory(this);
+            this.chunks.add(chunk);
+        }
+    }
 }
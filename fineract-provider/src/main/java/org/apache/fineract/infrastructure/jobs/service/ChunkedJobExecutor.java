@@ -0,0 +1,377 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.fineract.infrastructure.core.service.TenantAwareTaskExecutor;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobRunChunk;
+import org.apache.fineract.infrastructure.jobs.service.JobChunkQueue.QueuedChunk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the work of a batch job in chunks of consecutive entity ids on the
+ * {@link TenantAwareTaskExecutor}.
+ * 
+ * <p>
+ * When the scheduler is clustered, the chunks of jobs registered with
+ * {@link #registerDistributedJob(JobName, ChunkProcessorFactory)} are published
+ * to the {@link JobChunkQueue} and picked up by every live node (see
+ * {@link ClusteredChunkWorker}). A node renews its claim on a chunk every
+ * few entities; chunks whose claim was not renewed for
+ * <code>fineract.jobs.chunkClaimTimeoutSeconds</code> are handed back to the
+ * queue.
+ * </p>
+ * 
+ * <p>
+ * The timings of every chunk are recorded against the job thread and picked
+ * up by {@link SchedulerJobListener} into the run history of the job.
+ * </p>
+ */
+@Component
+public class ChunkedJobExecutor {
+
+    private final static Logger logger = LoggerFactory.getLogger(ChunkedJobExecutor.class);
+
+    public static final String CHUNK_SIZE_PROPERTY = "fineract.jobs.chunkSize";
+
+    public static final String CHUNK_CLAIM_TIMEOUT_PROPERTY = "fineract.jobs.chunkClaimTimeoutSeconds";
+
+    private static final int DEFAULT_CHUNK_SIZE = 100;
+
+    private static final int DEFAULT_CHUNK_CLAIM_TIMEOUT_SECONDS = 600;
+
+    private static final long QUEUE_POLL_INTERVAL_MILLIS = 2000;
+
+    static final int CLAIM_RENEWAL_INTERVAL_ENTITIES = 10;
+
+    private static final ThreadLocal<List<ScheduledJobRunChunk>> recordedChunks = new ThreadLocal<>();
+
+    private static final String NODE_NAME = createNodeName();
+
+    private final TenantAwareTaskExecutor taskExecutor;
+
+    private final JobChunkQueue chunkQueue;
+
+    private final ConcurrentHashMap<JobName, ChunkProcessorFactory> distributedJobs = new ConcurrentHashMap<>();
+
+    /**
+     * Processes a single entity of a chunk. Implementations append a message
+     * to <code>errors</code> and return false when the entity could not be
+     * processed.
+     */
+    public interface ChunkItemProcessor {
+
+        boolean process(Long entityId, StringBuilder errors);
+    }
+
+    /**
+     * Creates the processor for a chunk of entity ids. Factories of
+     * distributed jobs run on any node and must therefore load whatever state
+     * they need for the chunk themselves.
+     */
+    public interface ChunkProcessorFactory {
+
+        ChunkItemProcessor processorFor(List<Long> entityIds);
+    }
+
+    @Autowired
+    public ChunkedJobExecutor(final TenantAwareTaskExecutor taskExecutor, final JobChunkQueue chunkQueue) {
+        this.taskExecutor = taskExecutor;
+        this.chunkQueue = chunkQueue;
+    }
+
+    public void registerDistributedJob(final JobName jobName, final ChunkProcessorFactory processorFactory) {
+        this.distributedJobs.put(jobName, processorFactory);
+    }
+
+    ChunkProcessorFactory findDistributedJob(final JobName jobName) {
+        return this.distributedJobs.get(jobName);
+    }
+
+    /**
+     * Splits the entity ids into chunks and processes the chunks in parallel
+     * on this node.
+     * 
+     * @return the error messages of all chunks, empty when every entity was
+     *         processed
+     */
+    public String execute(final List<Long> entityIds, final ChunkItemProcessor processor) {
+        return executeLocally(splitIntoChunks(entityIds), new ChunkProcessorFactory() {
+
+            @Override
+            public ChunkItemProcessor processorFor(@SuppressWarnings("unused") final List<Long> chunkEntityIds) {
+                return processor;
+            }
+        });
+    }
+
+    /**
+     * Splits the entity ids into chunks and processes them with the factory
+     * registered for the job, spread across all nodes when the scheduler is
+     * clustered.
+     * 
+     * @return the error messages of all chunks, empty when every entity was
+     *         processed
+     */
+    public String execute(final JobName jobName, final List<Long> entityIds) {
+        final ChunkProcessorFactory processorFactory = this.distributedJobs.get(jobName);
+        if (processorFactory == null) { throw new IllegalStateException("No chunk processor registered for job " + jobName); }
+        final List<List<Long>> chunks = splitIntoChunks(entityIds);
+        if (!Boolean.getBoolean(SchedulerServiceConstants.CLUSTERED_PROPERTY)) {
+            if (chunks.isEmpty()) { return ""; }
+            return executeLocally(chunks, processorFactory);
+        }
+
+        // a run left behind by a coordinator that went away may still be
+        // worked on by other nodes; publishing a new run next to it would
+        // process its entities twice, so the entities of this trigger that
+        // are not part of it yet are added to it instead
+        String runKey = this.chunkQueue.retrieveUnfinishedRun(jobName);
+        if (runKey != null) {
+            logger.warn("Resuming unfinished run " + runKey + " of job " + jobName + " instead of starting a new one");
+            final Set<Long> queuedEntityIds = this.chunkQueue.retrieveEntityIds(runKey);
+            final List<Long> newEntityIds = new ArrayList<>();
+            for (final Long entityId : entityIds) {
+                if (!queuedEntityIds.contains(entityId)) {
+                    newEntityIds.add(entityId);
+                }
+            }
+            if (!newEntityIds.isEmpty()) {
+                this.chunkQueue.publish(runKey, jobName, splitIntoChunks(newEntityIds));
+            }
+        } else {
+            if (chunks.isEmpty()) { return ""; }
+            runKey = UUID.randomUUID().toString();
+            this.chunkQueue.publish(runKey, jobName, chunks);
+        }
+        final int claimTimeoutSeconds = Integer.getInteger(CHUNK_CLAIM_TIMEOUT_PROPERTY, DEFAULT_CHUNK_CLAIM_TIMEOUT_SECONDS);
+        while (true) {
+            processQueuedChunks(runKey, processorFactory);
+            if (this.chunkQueue.countUnfinished(runKey) == 0) {
+                break;
+            }
+            // the remaining chunks are being processed by other nodes
+            try {
+                Thread.sleep(QUEUE_POLL_INTERVAL_MILLIS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Interrupted while waiting for the chunks of run " + runKey);
+                break;
+            }
+            final int released = this.chunkQueue.releaseStale(runKey, claimTimeoutSeconds);
+            if (released > 0) {
+                logger.warn("Released " + released + " stale chunk(s) of run " + runKey);
+            }
+        }
+
+        final List<ScheduledJobRunChunk> results = new ArrayList<>();
+        final String errors = this.chunkQueue.drain(runKey, results);
+        for (final ScheduledJobRunChunk result : results) {
+            record(result);
+        }
+        return errors;
+    }
+
+    /**
+     * Claims and processes chunks of the run on this node until none is
+     * pending.
+     */
+    void processQueuedChunks(final String runKey, final ChunkProcessorFactory processorFactory) {
+        final List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < this.taskExecutor.getPoolSize(); i++) {
+            tasks.add(new QueuedChunkTask(runKey, processorFactory));
+        }
+        this.taskExecutor.invokeAll(tasks);
+    }
+
+    private String executeLocally(final List<List<Long>> chunks, final ChunkProcessorFactory processorFactory) {
+        final List<Callable<ChunkResult>> tasks = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            tasks.add(new ChunkTask(i + 1, chunks.get(i), processorFactory));
+        }
+
+        final StringBuilder errors = new StringBuilder();
+        for (final ChunkResult result : this.taskExecutor.invokeAll(tasks)) {
+            errors.append(result.errors);
+            record(result.chunk);
+        }
+        return errors.toString();
+    }
+
+    private static List<List<Long>> splitIntoChunks(final List<Long> entityIds) {
+        final List<Long> sortedIds = new ArrayList<>(entityIds);
+        Collections.sort(sortedIds);
+        final int chunkSize = chunkSize();
+        final List<List<Long>> chunks = new ArrayList<>();
+        for (int fromIndex = 0; fromIndex < sortedIds.size(); fromIndex += chunkSize) {
+            chunks.add(sortedIds.subList(fromIndex, Math.min(fromIndex + chunkSize, sortedIds.size())));
+        }
+        return chunks;
+    }
+
+    public static int chunkSize() {
+        return Integer.getInteger(CHUNK_SIZE_PROPERTY, DEFAULT_CHUNK_SIZE);
+    }
+
+    public static void record(final ScheduledJobRunChunk chunk) {
+        List<ScheduledJobRunChunk> chunks = recordedChunks.get();
+        if (chunks == null) {
+            chunks = new ArrayList<>();
+            recordedChunks.set(chunks);
+        }
+        chunks.add(chunk);
+    }
+
+    /**
+     * Returns and clears the chunks recorded by jobs on the current thread.
+     */
+    public static List<ScheduledJobRunChunk> drainRecordedChunks() {
+        final List<ScheduledJobRunChunk> chunks = recordedChunks.get();
+        recordedChunks.remove();
+        if (chunks == null) { return Collections.emptyList(); }
+        return chunks;
+    }
+
+    /**
+     * Identifies this JVM among the nodes of the cluster. Several JVMs may run
+     * on one host, so the host name alone does not do; the id is also used as
+     * the Quartz instance id of clustered schedulers.
+     */
+    public static String nodeName() {
+        return NODE_NAME;
+    }
+
+    private static String createNodeName() {
+        String hostName;
+        try {
+            hostName = InetAddress.getLocalHost().getHostName();
+        } catch (final UnknownHostException e) {
+            hostName = "unknown";
+        }
+        // the same shape as the ids Quartz generates for instanceId AUTO
+        return hostName + System.currentTimeMillis();
+    }
+
+    /**
+     * @param claim
+     *            the claim of this node on a queued chunk, renewed while the
+     *            chunk is processed; null for chunks processed locally
+     */
+    private ChunkResult processChunk(final int chunkNumber, final List<Long> entityIds, final ChunkProcessorFactory processorFactory,
+            final QueuedChunk claim) {
+        final Date startTime = new Date();
+        final StringBuilder errors = new StringBuilder();
+        int failureCount = 0;
+        try {
+            final ChunkItemProcessor processor = processorFactory.processorFor(entityIds);
+            for (int i = 0; i < entityIds.size(); i++) {
+                if (claim != null && i > 0 && i % CLAIM_RENEWAL_INTERVAL_ENTITIES == 0 && !this.chunkQueue.renew(claim, nodeName())) {
+                    // released as stale and possibly claimed by another
+                    // node already; stop before both work on the same entities
+                    logger.warn("Lost the claim on chunk " + chunkNumber + ", leaving its remaining entities to the node holding it");
+                    errors.append("Chunk ").append(chunkNumber).append(" was released after ").append(i).append(" entities. ");
+                    failureCount += entityIds.size() - i;
+                    break;
+                }
+                if (!processor.process(entityIds.get(i), errors)) {
+                    failureCount++;
+                }
+            }
+        } catch (final RuntimeException e) {
+            logger.error("Chunk " + chunkNumber + " failed", e);
+            errors.append("Chunk ").append(chunkNumber).append(" failed with message ").append(e.getMessage());
+            failureCount = entityIds.size();
+        }
+        final Date endTime = new Date();
+        final Long firstEntityId = entityIds.get(0);
+        final Long lastEntityId = entityIds.get(entityIds.size() - 1);
+        logger.info("Processed chunk " + chunkNumber + " (ids " + firstEntityId + " to " + lastEntityId + ") in "
+                + (endTime.getTime() - startTime.getTime()) + "ms with " + failureCount + " failure(s)");
+        final ScheduledJobRunChunk chunk = new ScheduledJobRunChunk(chunkNumber, firstEntityId, lastEntityId, entityIds.size(),
+                failureCount, nodeName(), startTime, endTime);
+        return new ChunkResult(chunk, errors.toString(), failureCount);
+    }
+
+    private final class ChunkTask implements Callable<ChunkResult> {
+
+        private final int chunkNumber;
+        private final List<Long> entityIds;
+        private final ChunkProcessorFactory processorFactory;
+
+        ChunkTask(final int chunkNumber, final List<Long> entityIds, final ChunkProcessorFactory processorFactory) {
+            this.chunkNumber = chunkNumber;
+            this.entityIds = entityIds;
+            this.processorFactory = processorFactory;
+        }
+
+        @Override
+        public ChunkResult call() {
+            return processChunk(this.chunkNumber, this.entityIds, this.processorFactory, null);
+        }
+    }
+
+    private final class QueuedChunkTask implements Callable<Void> {
+
+        private final String runKey;
+        private final ChunkProcessorFactory processorFactory;
+
+        QueuedChunkTask(final String runKey, final ChunkProcessorFactory processorFactory) {
+            this.runKey = runKey;
+            this.processorFactory = processorFactory;
+        }
+
+        @Override
+        public Void call() {
+            final String nodeName = nodeName();
+            QueuedChunk chunk = ChunkedJobExecutor.this.chunkQueue.claim(this.runKey, nodeName);
+            while (chunk != null) {
+                final ChunkResult result = processChunk(chunk.getChunkNumber(), chunk.getEntityIds(), this.processorFactory, chunk);
+                ChunkedJobExecutor.this.chunkQueue.complete(chunk, nodeName, result.failureCount, result.errors);
+                chunk = ChunkedJobExecutor.this.chunkQueue.claim(this.runKey, nodeName);
+            }
+            return null;
+        }
+    }
+
+    private static final class ChunkResult {
+
+        private final ScheduledJobRunChunk chunk;
+        private final String errors;
+        private final int failureCount;
+
+        ChunkResult(final ScheduledJobRunChunk chunk, final String errors, final int failureCount) {
+            this.chunk = chunk;
+            this.errors = errors;
+            this.failureCount = failureCount;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.service.ChunkedJobExecutor.ChunkProcessorFactory;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.apache.fineract.useradministration.domain.AppUserRepositoryWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
+import org.springframework.security.core.authority.mapping.NullAuthoritiesMapper;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Polls the {@link JobChunkQueue} of every tenant for chunks published by
+ * distributed jobs running on other nodes and processes them on this node.
+ * Only active when the scheduler is clustered.
+ */
+@Component
+public class ClusteredChunkWorker implements DisposableBean {
+
+    private final static Logger logger = LoggerFactory.getLogger(ClusteredChunkWorker.class);
+
+    private static final long POLL_INTERVAL_SECONDS = 5;
+
+    private final TenantDetailsService tenantDetailsService;
+    private final AppUserRepositoryWrapper userRepository;
+    private final JobChunkQueue chunkQueue;
+    private final ChunkedJobExecutor chunkedJobExecutor;
+    private final GrantedAuthoritiesMapper authoritiesMapper = new NullAuthoritiesMapper();
+
+    private ScheduledExecutorService poller;
+
+    @Autowired
+    public ClusteredChunkWorker(final TenantDetailsService tenantDetailsService, final AppUserRepositoryWrapper userRepository,
+            final JobChunkQueue chunkQueue, final ChunkedJobExecutor chunkedJobExecutor) {
+        this.tenantDetailsService = tenantDetailsService;
+        this.userRepository = userRepository;
+        this.chunkQueue = chunkQueue;
+        this.chunkedJobExecutor = chunkedJobExecutor;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!Boolean.getBoolean(SchedulerServiceConstants.CLUSTERED_PROPERTY)) { return; }
+        this.poller = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "fineract-chunk-worker");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.poller.scheduleWithFixedDelay(new Runnable() {
+
+            @Override
+            public void run() {
+                processPendingChunks();
+            }
+        }, POLL_INTERVAL_SECONDS, POLL_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (this.poller != null) {
+            this.poller.shutdownNow();
+        }
+    }
+
+    private void processPendingChunks() {
+        for (final FineractPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+            try {
+                ThreadLocalContextUtil.setTenant(tenant);
+                final List<String[]> pendingRuns = this.chunkQueue.retrievePendingRuns();
+                if (pendingRuns.isEmpty()) {
+                    continue;
+                }
+                final AppUser user = this.userRepository.fetchSystemUser();
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(user, user.getPassword(), this.authoritiesMapper.mapAuthorities(user
+                                .getAuthorities())));
+                for (final String[] pendingRun : pendingRuns) {
+                    final ChunkProcessorFactory processorFactory = this.chunkedJobExecutor.findDistributedJob(JobName
+                            .valueOf(pendingRun[1]));
+                    if (processorFactory != null) {
+                        this.chunkedJobExecutor.processQueuedChunks(pendingRun[0], processorFactory);
+                    }
+                }
+            } catch (final RuntimeException e) {
+                logger.error("Processing queued chunks failed for tenant " + tenant.getTenantIdentifier(), e);
+            } finally {
+                SecurityContextHolder.clearContext();
+                ThreadLocalContextUtil.clearTenant();
+            }
+        }
+    }
+}
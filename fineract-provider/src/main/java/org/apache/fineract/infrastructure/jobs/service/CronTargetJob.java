@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobDataMap;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.SchedulerException;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.quartz.JobMethodInvocationFailedException;
+import org.springframework.util.MethodInvoker;
+
+/**
+ * Quartz job invoking the {@link org.apache.fineract.infrastructure.jobs.annotation.CronTarget}
+ * method of a Spring bean.
+ * 
+ * <p>
+ * Unlike the jobs created by
+ * {@link org.springframework.scheduling.quartz.MethodInvokingJobDetailFactoryBean}
+ * only the bean and method names are kept in the job data, so the job can be
+ * stored in the clustered JDBC job store and run on any node.
+ * </p>
+ */
+@DisallowConcurrentExecution
+public class CronTargetJob implements Job {
+
+    public static final String TARGET_BEAN_NAME = "targetBeanName";
+    public static final String TARGET_METHOD = "targetMethod";
+    public static final String APPLICATION_CONTEXT_KEY = "applicationContext";
+
+    @Override
+    public void execute(final JobExecutionContext context) throws JobExecutionException {
+        final JobDataMap jobDataMap = context.getJobDetail().getJobDataMap();
+        final MethodInvoker methodInvoker = new MethodInvoker();
+        try {
+            final ApplicationContext applicationContext = (ApplicationContext) context.getScheduler().getContext()
+                    .get(APPLICATION_CONTEXT_KEY);
+            methodInvoker.setTargetObject(applicationContext.getBean(jobDataMap.getString(TARGET_BEAN_NAME)));
+            methodInvoker.setTargetMethod(jobDataMap.getString(TARGET_METHOD));
+            methodInvoker.prepare();
+            context.setResult(methodInvoker.invoke());
+        } catch (final InvocationTargetException e) {
+            if (e.getTargetException() instanceof JobExecutionException) { throw (JobExecutionException) e.getTargetException(); }
+            throw new JobMethodInvocationFailedException(methodInvoker, e.getTargetException());
+        } catch (final SchedulerException e) {
+            throw new JobExecutionException(e);
+        } catch (final Exception e) {
+            throw new JobMethodInvocationFailedException(methodInvoker, e);
+        }
+    }
+}
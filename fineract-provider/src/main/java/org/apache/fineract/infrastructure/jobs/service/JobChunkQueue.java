@@ -0,0 +1,236 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobRunChunk;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+/**
+ * Work queue (table <code>job_chunk_queue</code> of the tenant) through which
+ * the chunks of a job run are shared between the nodes of a clustered
+ * scheduler.
+ */
+@Component
+public class JobChunkQueue {
+
+    private static final String STATUS_PENDING = "pending";
+    private static final String STATUS_CLAIMED = "claimed";
+    private static final String STATUS_DONE = "done";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JobChunkQueue(final RoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Adds chunks to the run, numbered after the chunks the run already has.
+     */
+    public void publish(final String runKey, final JobName jobName, final List<List<Long>> chunks) {
+        final String sql = "insert into job_chunk_queue (run_key, job_name, chunk_number, entity_ids, status) values (?, ?, ?, ?, ?)";
+        final int lastChunkNumber = this.jdbcTemplate.queryForObject(
+                "select coalesce(max(chunk_number), 0) from job_chunk_queue where run_key = ?", Integer.class, runKey);
+        final List<Object[]> batchArgs = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            batchArgs.add(new Object[] { runKey, jobName.name(), lastChunkNumber + i + 1, StringUtils.join(chunks.get(i), ','),
+                    STATUS_PENDING });
+        }
+        this.jdbcTemplate.batchUpdate(sql, batchArgs);
+    }
+
+    /**
+     * @return the ids of all entities of the run, whatever the state of their
+     *         chunk
+     */
+    public Set<Long> retrieveEntityIds(final String runKey) {
+        final Set<Long> entityIds = new HashSet<>();
+        for (final String chunkEntityIds : this.jdbcTemplate.queryForList("select entity_ids from job_chunk_queue where run_key = ?",
+                String.class, runKey)) {
+            for (final String entityId : StringUtils.split(chunkEntityIds, ',')) {
+                entityIds.add(Long.valueOf(entityId));
+            }
+        }
+        return entityIds;
+    }
+
+    /**
+     * Claims a pending chunk of the run for the given node. Claims are stamped
+     * with the time of the database, the one clock all nodes share.
+     * 
+     * @return the claimed chunk, or null when no chunk of the run is pending
+     */
+    public QueuedChunk claim(final String runKey, final String nodeName) {
+        final String selectSql = "select id, chunk_number, entity_ids from job_chunk_queue where run_key = ? and status = ? order by id limit 5";
+        final String claimSql = "update job_chunk_queue set status = ?, node_name = ?, start_time = now(), renewed_at = now()"
+                + " where id = ? and status = ?";
+        List<QueuedChunk> candidates = this.jdbcTemplate.query(selectSql, new QueuedChunkMapper(), runKey, STATUS_PENDING);
+        while (!candidates.isEmpty()) {
+            for (final QueuedChunk candidate : candidates) {
+                // another node may have claimed the chunk in the meantime
+                if (this.jdbcTemplate.update(claimSql, STATUS_CLAIMED, nodeName, candidate.getId(), STATUS_PENDING) == 1) {
+                    return candidate;
+                }
+            }
+            candidates = this.jdbcTemplate.query(selectSql, new QueuedChunkMapper(), runKey, STATUS_PENDING);
+        }
+        return null;
+    }
+
+    /**
+     * Renews the claim of the node on a chunk it is still working on.
+     * 
+     * @return false when the claim was lost, that is the chunk was released
+     *         as stale and possibly claimed by another node
+     */
+    public boolean renew(final QueuedChunk chunk, final String nodeName) {
+        final String sql = "update job_chunk_queue set renewed_at = now() where id = ? and status = ? and node_name = ?";
+        return this.jdbcTemplate.update(sql, chunk.getId(), STATUS_CLAIMED, nodeName) == 1;
+    }
+
+    public void complete(final QueuedChunk chunk, final String nodeName, final int failureCount, final String errors) {
+        // a chunk released as stale and claimed again is completed by its new
+        // owner only
+        final String sql = "update job_chunk_queue set status = ?, end_time = now(), failure_count = ?, error_log = ?"
+                + " where id = ? and status = ? and node_name = ?";
+        this.jdbcTemplate.update(sql, STATUS_DONE, failureCount, StringUtils.defaultIfEmpty(errors, null), chunk.getId(),
+                STATUS_CLAIMED, nodeName);
+    }
+
+    /**
+     * Hands chunks whose claim was not renewed for
+     * <code>claimTimeoutSeconds</code> back to the queue, so that the work of
+     * a node which went away is picked up by the remaining nodes.
+     */
+    public int releaseStale(final String runKey, final int claimTimeoutSeconds) {
+        final String sql = "update job_chunk_queue set status = ?, node_name = null, start_time = null, renewed_at = null"
+                + " where run_key = ? and status = ? and renewed_at < now() - interval ? second";
+        return this.jdbcTemplate.update(sql, STATUS_PENDING, runKey, STATUS_CLAIMED, claimTimeoutSeconds);
+    }
+
+    /**
+     * Runs are removed from the queue by {@link #drain(String, List)} once
+     * finished, so any run still in the queue of a job whose coordinator is
+     * starting again was abandoned by a previous coordinator.
+     * 
+     * @return the key of the oldest run of the job still in the queue, or
+     *         null when there is none
+     */
+    public String retrieveUnfinishedRun(final JobName jobName) {
+        final String sql = "select run_key from job_chunk_queue where job_name = ? order by id limit 1";
+        final List<String> runKeys = this.jdbcTemplate.queryForList(sql, String.class, jobName.name());
+        return runKeys.isEmpty() ? null : runKeys.get(0);
+    }
+
+    public int countUnfinished(final String runKey) {
+        final String sql = "select count(*) from job_chunk_queue where run_key = ? and status <> ?";
+        return this.jdbcTemplate.queryForObject(sql, Integer.class, runKey, STATUS_DONE);
+    }
+
+    /**
+     * @return the runs with pending chunks as pairs of run key and job name
+     */
+    public List<String[]> retrievePendingRuns() {
+        final String sql = "select distinct run_key, job_name from job_chunk_queue where status = ?";
+        return this.jdbcTemplate.query(sql, new RowMapper<String[]>() {
+
+            @Override
+            public String[] mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+                return new String[] { rs.getString("run_key"), rs.getString("job_name") };
+            }
+        }, STATUS_PENDING);
+    }
+
+    /**
+     * Removes the chunks of a finished run from the queue.
+     * 
+     * @return the chunk timings and the concatenated error messages of the
+     *         run
+     */
+    public String drain(final String runKey, final List<ScheduledJobRunChunk> results) {
+        final String sql = "select chunk_number, entity_ids, failure_count, node_name, start_time, end_time, error_log"
+                + " from job_chunk_queue where run_key = ? order by chunk_number";
+        final StringBuilder errors = new StringBuilder();
+        this.jdbcTemplate.query(sql, new RowMapper<Void>() {
+
+            @Override
+            public Void mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+                final String[] entityIds = StringUtils.split(rs.getString("entity_ids"), ',');
+                results.add(new ScheduledJobRunChunk(rs.getInt("chunk_number"), Long.valueOf(entityIds[0]),
+                        Long.valueOf(entityIds[entityIds.length - 1]), entityIds.length, rs.getInt("failure_count"), rs
+                                .getString("node_name"), rs.getTimestamp("start_time"), rs.getTimestamp("end_time")));
+                if (rs.getString("error_log") != null) {
+                    errors.append(rs.getString("error_log"));
+                }
+                return null;
+            }
+        }, runKey);
+        this.jdbcTemplate.update("delete from job_chunk_queue where run_key = ?", runKey);
+        return errors.toString();
+    }
+
+    public static final class QueuedChunk {
+
+        private final Long id;
+        private final int chunkNumber;
+        private final List<Long> entityIds;
+
+        QueuedChunk(final Long id, final int chunkNumber, final List<Long> entityIds) {
+            this.id = id;
+            this.chunkNumber = chunkNumber;
+            this.entityIds = entityIds;
+        }
+
+        public Long getId() {
+            return this.id;
+        }
+
+        public int getChunkNumber() {
+            return this.chunkNumber;
+        }
+
+        public List<Long> getEntityIds() {
+            return this.entityIds;
+        }
+    }
+
+    private static final class QueuedChunkMapper implements RowMapper<QueuedChunk> {
+
+        @Override
+        public QueuedChunk mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final List<Long> entityIds = new ArrayList<>();
+            for (final String entityId : StringUtils.split(rs.getString("entity_ids"), ',')) {
+                entityIds.add(Long.valueOf(entityId));
+            }
+            return new QueuedChunk(rs.getLong("id"), rs.getInt("chunk_number"), entityIds);
+        }
+    }
+}
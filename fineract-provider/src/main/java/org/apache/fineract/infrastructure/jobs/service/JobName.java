@@ -38,7 +38,9 @@ public enum JobName {
     ADD_PERIODIC_ACCRUAL_ENTRIES("Add Periodic Accrual Transactions"),
     RECALCULATE_INTEREST_FOR_LOAN("Recalculate Interest For Loans"),
     GENERATE_RD_SCEHDULE("Generate Mandatory Savings Schedule"),
-    GENERATE_LOANLOSS_PROVISIONING("Generate Loan Loss Provisioning");
+    GENERATE_LOANLOSS_PROVISIONING("Generate Loan Loss Provisioning"),
+    SEND_PENDING_SMS("Send Pending SMS"),
+    VERIFY_SAVINGS_ACCOUNT_SUMMARIES("Verify Savings Account Summaries");
     
     private final String name;
 
@@ -20,12 +20,14 @@ package org.apache.fineract.infrastructure.jobs.service;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Properties;
 import java.util.TimeZone;
 
 import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
 
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.exception.PlatformInternalServerException;
@@ -36,6 +38,7 @@ import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobDetail;
 import org.apache.fineract.infrastructure.jobs.domain.SchedulerDetail;
 import org.apache.fineract.infrastructure.jobs.exception.JobNotFoundException;
 import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.quartz.JobBuilder;
 import org.quartz.JobDataMap;
 import org.quartz.JobDetail;
 import org.quartz.JobKey;
@@ -47,18 +50,25 @@ import org.quartz.TriggerListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.scheduling.quartz.CronTriggerFactoryBean;
-import org.springframework.scheduling.quartz.MethodInvokingJobDetailFactoryBean;
 import org.springframework.scheduling.quartz.SchedulerFactoryBean;
 import org.springframework.stereotype.Service;
 
 /**
  * Service class to create and load batch jobs to Scheduler using
- * {@link SchedulerFactoryBean} ,{@link MethodInvokingJobDetailFactoryBean} and
+ * {@link SchedulerFactoryBean}, {@link CronTargetJob} and
  * {@link CronTriggerFactoryBean}
+ * 
+ * <p>
+ * When the <code>fineract.scheduler.clustered</code> system property is set,
+ * the tenant schedulers keep their jobs and triggers in the clustered JDBC job
+ * store of the tenants database, so every trigger fires on exactly one node
+ * and the jobs of a failed node are recovered by the others.
+ * </p>
  */
 @Service
 public class JobRegisterServiceImpl implements JobRegisterService, ApplicationListener<ContextClosedEvent> {
@@ -77,6 +87,7 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
     private SchedulerJobListener schedulerJobListener;
     private SchedulerStopListener schedulerStopListener;
     private SchedulerTriggerListener globalSchedulerTriggerListener;
+    private DataSource tenantDataSource;
 
     private final HashMap<String, Scheduler> schedulers = new HashMap<>(4);
 
@@ -110,6 +121,11 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         this.globalSchedulerTriggerListener = globalTriggerListener;
     }
 
+    @Autowired
+    public void setTenantDataSource(@Qualifier("tenantDataSourceJndi") DataSource tenantDataSource) {
+        this.tenantDataSource = tenantDataSource;
+    }
+
     @PostConstruct
     public void loadAllJobs() {
         final List<FineractPlatformTenant> allTenants = this.tenantDetailsService.findAllTenants();
@@ -144,7 +160,7 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
             if (scheduler == null || !scheduler.checkExists(jobKey)) {
                 final JobDetail jobDetail = createJobDetail(scheduledJobDetail);
                 final String tempSchedulerName = "temp" + scheduledJobDetail.getId();
-                final Scheduler tempScheduler = createScheduler(tempSchedulerName, 1, schedulerJobListener, schedulerStopListener);
+                final Scheduler tempScheduler = createScheduler(tempSchedulerName, 1, false, schedulerJobListener, schedulerStopListener);
                 tempScheduler.addJob(jobDetail, true);
                 jobDataMap.put(SchedulerServiceConstants.SCHEDULER_NAME, tempSchedulerName);
                 this.schedulers.put(tempSchedulerName, tempScheduler);
@@ -264,7 +280,8 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
             final JobDetail jobDetail = createJobDetail(scheduledJobDetails);
             final Trigger trigger = createTrigger(scheduledJobDetails, jobDetail);
             final Scheduler scheduler = getScheduler(scheduledJobDetails);
-            scheduler.scheduleJob(jobDetail, trigger);
+            // replaces the job when it is already in the clustered job store
+            scheduler.scheduleJobs(Collections.singletonMap(jobDetail, Collections.singletonList(trigger)), true);
             scheduledJobDetails.updateJobKey(getJobKeyAsString(jobDetail.getKey()));
             scheduledJobDetails.updateNextRunTime(trigger.getNextFireTime());
             scheduledJobDetails.updateErrorLog(null);
@@ -296,7 +313,8 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
             if (scheduledJobDetail.getSchedulerGroup() > 0) {
                 noOfThreads = SchedulerServiceConstants.GROUP_THREAD_COUNT;
             }
-            scheduler = createScheduler(schedulername, noOfThreads, schedulerJobListener);
+            scheduler = createScheduler(schedulername, noOfThreads, Boolean.getBoolean(SchedulerServiceConstants.CLUSTERED_PROPERTY),
+                    schedulerJobListener);
             this.schedulers.put(schedulername, scheduler);
         }
         return scheduler;
@@ -322,14 +340,24 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         return sb.toString();
     }
 
-    private Scheduler createScheduler(final String name, final int noOfThreads, JobListener... jobListeners) throws Exception {
+    private Scheduler createScheduler(final String name, final int noOfThreads, final boolean clustered, JobListener... jobListeners)
+            throws Exception {
         final SchedulerFactoryBean schedulerFactoryBean = new SchedulerFactoryBean();
         schedulerFactoryBean.setSchedulerName(name);
+        schedulerFactoryBean.setApplicationContext(this.applicationContext);
+        schedulerFactoryBean.setApplicationContextSchedulerContextKey(CronTargetJob.APPLICATION_CONTEXT_KEY);
         schedulerFactoryBean.setGlobalJobListeners(jobListeners);
         final TriggerListener[] globalTriggerListeners = { globalSchedulerTriggerListener };
         schedulerFactoryBean.setGlobalTriggerListeners(globalTriggerListeners);
         final Properties quartzProperties = new Properties();
         quartzProperties.put(SchedulerFactoryBean.PROP_THREAD_COUNT, Integer.toString(noOfThreads));
+        if (clustered) {
+            schedulerFactoryBean.setDataSource(this.tenantDataSource);
+            quartzProperties.put("org.quartz.scheduler.instanceId", ChunkedJobExecutor.nodeName());
+            quartzProperties.put("org.quartz.jobStore.isClustered", "true");
+            quartzProperties.put("org.quartz.jobStore.clusterCheckinInterval", "20000");
+            quartzProperties.put("org.quartz.jobStore.driverDelegateClass", "org.quartz.impl.jdbcjobstore.StdJDBCDelegate");
+        }
         schedulerFactoryBean.setQuartzProperties(quartzProperties);
         schedulerFactoryBean.afterPropertiesSet();
         schedulerFactoryBean.start();
@@ -342,18 +370,15 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         if (jobDetails == null) { throw new IllegalArgumentException(
                 "Code has no @CronTarget with this job name (@see JobName); seems like DB/code are not in line: "
                         + scheduledJobDetail.getJobName()); }
-        final Object targetObject = getBeanObject(Class.forName(jobDetails.className));
-        final MethodInvokingJobDetailFactoryBean jobDetailFactoryBean = new MethodInvokingJobDetailFactoryBean();
-        jobDetailFactoryBean.setName(scheduledJobDetail.getJobName() + "JobDetail" + tenant.getId());
-        jobDetailFactoryBean.setTargetObject(targetObject);
-        jobDetailFactoryBean.setTargetMethod(jobDetails.methodName);
-        jobDetailFactoryBean.setGroup(scheduledJobDetail.getGroupName());
-        jobDetailFactoryBean.setConcurrent(false);
-        jobDetailFactoryBean.afterPropertiesSet();
-        return jobDetailFactoryBean.getObject();
+        final JobDataMap jobDataMap = new JobDataMap();
+        jobDataMap.put(CronTargetJob.TARGET_BEAN_NAME, getBeanName(Class.forName(jobDetails.className)));
+        jobDataMap.put(CronTargetJob.TARGET_METHOD, jobDetails.methodName);
+        return JobBuilder.newJob(CronTargetJob.class)
+                .withIdentity(scheduledJobDetail.getJobName() + "JobDetail" + tenant.getId(), scheduledJobDetail.getGroupName())
+                .usingJobData(jobDataMap).storeDurably().requestRecovery().build();
     }
 
-    private Object getBeanObject(final Class<?> classType) throws ClassNotFoundException {
+    private String getBeanName(final Class<?> classType) throws ClassNotFoundException {
         final List<Class<?>> typesList = new ArrayList<>();
         final Class<?>[] interfaceType = classType.getInterfaces();
         if (interfaceType.length > 0) {
@@ -369,17 +394,17 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         for (final Class<?> clazz : typesList) {
             beanNames.addAll(Arrays.asList(this.applicationContext.getBeanNamesForType(clazz)));
         }
-        Object targetObject = null;
+        String targetBeanName = null;
         for (final String beanName : beanNames) {
             final Object nextObject = this.applicationContext.getBean(beanName);
             String targetObjName = nextObject.toString();
             targetObjName = targetObjName.substring(0, targetObjName.lastIndexOf("@"));
             if (classType.getName().equals(targetObjName)) {
-                targetObject = nextObject;
+                targetBeanName = beanName;
                 break;
             }
         }
-        return targetObject;
+        return targetBeanName;
     }
 
     private Trigger createTrigger(final ScheduledJobDetail scheduledJobDetails, final JobDetail jobDetail) {
@@ -74,6 +74,7 @@ public class SchedulerJobListener implements JobListener {
         UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(user, user.getPassword(),
                 authoritiesMapper.mapAuthorities(user.getAuthorities()));
         SecurityContextHolder.getContext().setAuthentication(auth);
+        ChunkedJobExecutor.drainRecordedChunks();
     }
 
     @Override
@@ -121,6 +122,7 @@ public class SchedulerJobListener implements JobListener {
 
         final ScheduledJobRunHistory runHistory = new ScheduledJobRunHistory(scheduledJobDetails, version, context.getFireTime(),
                 new Date(), status, errorMessage, triggerType, errorLog);
+        runHistory.addChunks(ChunkedJobExecutor.drainRecordedChunks());
         // scheduledJobDetails.addRunHistory(runHistory);
 
         this.schedularService.saveOrUpdate(scheduledJobDetails, runHistory);
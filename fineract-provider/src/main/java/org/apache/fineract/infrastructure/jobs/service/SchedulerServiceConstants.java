@@ -37,5 +37,6 @@ public interface SchedulerServiceConstants {
     public static final int DEFAULT_THREAD_COUNT = 7;
     public static final int GROUP_THREAD_COUNT = 1;
     public static final String SCHEDULER_NAME = "schedulerName";
+    public static final String CLUSTERED_PROPERTY = "fineract.scheduler.clustered";
 
 }
\ No newline at end of file
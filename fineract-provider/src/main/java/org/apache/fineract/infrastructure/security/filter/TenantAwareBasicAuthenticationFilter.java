@@ -127,6 +127,8 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
                 final FineractPlatformTenant tenant = this.basicAuthTenantDetailsService.loadTenantById(tenantIdentifier, isReportRequest);
 
                 ThreadLocalContextUtil.setTenant(tenant);
+                ThreadLocalContextUtil.clearReplicaRouting();
+                ThreadLocalContextUtil.setReplicaReadsAllowed(isReportRequest || "GET".equalsIgnoreCase(request.getMethod()));
                 String authToken = request.getHeader("Authorization");
 
                 if (authToken != null && authToken.startsWith("Basic ")) {
@@ -155,6 +157,7 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
             response.addHeader("WWW-Authenticate", "Basic realm=\"" + "Fineract Platform API" + "\"");
             response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } finally {
+            ThreadLocalContextUtil.clearReplicaRouting();
             task.stop();
             final PlatformRequestLog log = PlatformRequestLog.from(task, request);
             logger.info(this.toApiJsonSerializer.serialize(log));
@@ -124,6 +124,8 @@ public class TenantAwareTenantIdentifierFilter extends GenericFilterBean {
                 final FineractPlatformTenant tenant = this.basicAuthTenantDetailsService.loadTenantById(tenantIdentifier, isReportRequest);
 
                 ThreadLocalContextUtil.setTenant(tenant);
+                ThreadLocalContextUtil.clearReplicaRouting();
+                ThreadLocalContextUtil.setReplicaReadsAllowed(isReportRequest || "GET".equalsIgnoreCase(request.getMethod()));
                 String authToken = request.getHeader("Authorization");
 
                 if (authToken != null && authToken.startsWith("bearer ")) {
@@ -152,6 +154,7 @@ public class TenantAwareTenantIdentifierFilter extends GenericFilterBean {
             response.addHeader("WWW-Authenticate", "Basic realm=\"" + "Fineract Platform API" + "\"");
             response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } finally {
+            ThreadLocalContextUtil.clearReplicaRouting();
             task.stop();
             final PlatformRequestLog log = PlatformRequestLog.from(task, request);
             logger.info(this.toApiJsonSerializer.serialize(log));
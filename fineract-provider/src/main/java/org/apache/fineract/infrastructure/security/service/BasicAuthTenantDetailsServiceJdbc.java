@@ -20,11 +20,13 @@ package org.apache.fineract.infrastructure.security.service;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 import javax.sql.DataSource;
 
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantReplica;
 import org.apache.fineract.infrastructure.security.exception.InvalidTenantIdentiferException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -48,20 +50,23 @@ public class BasicAuthTenantDetailsServiceJdbc implements BasicAuthTenantDetails
         this.jdbcTemplate = new JdbcTemplate(dataSource);
     }
 
+    private static final String CONNECTION_COLUMNS = new StringBuilder()//
+            .append(" ts.id as connectionId, ts.schema_name as schemaName, ts.schema_server as schemaServer,")//
+            .append(" ts.schema_server_port as schemaServerPort, ts.auto_update as autoUpdate,")//
+            .append(" ts.schema_username as schemaUsername, ts.schema_password as schemaPassword , ts.pool_initial_size as initialSize,")//
+            .append(" ts.pool_validation_interval as validationInterval, ts.pool_remove_abandoned as removeAbandoned, ts.pool_remove_abandoned_timeout as removeAbandonedTimeout,")//
+            .append(" ts.pool_log_abandoned as logAbandoned, ts.pool_abandon_when_percentage_full as abandonedWhenPercentageFull, ts.pool_test_on_borrow as testOnBorrow,")//
+            .append(" ts.pool_max_active as poolMaxActive, ts.pool_min_idle as poolMinIdle, ts.pool_max_idle as poolMaxIdle,")//
+            .append(" ts.pool_suspect_timeout as poolSuspectTimeout, ts.pool_time_between_eviction_runs_millis as poolTimeBetweenEvictionRunsMillis,")//
+            .append(" ts.pool_min_evictable_idle_time_millis as poolMinEvictableIdleTimeMillis,")//
+            .append(" ts.deadlock_max_retries as maxRetriesOnDeadlock,")//
+            .append(" ts.deadlock_max_retry_interval as maxIntervalBetweenRetries ").toString();
+
     private static final class TenantMapper implements RowMapper<FineractPlatformTenant> {
 
         private final boolean isReport;
-        private final StringBuilder sqlBuilder = new StringBuilder(" t.id, ts.id as connectionId , ")//
-                .append(" t.timezone_id as timezoneId , t.name,t.identifier, ts.schema_name as schemaName, ts.schema_server as schemaServer,")//
-                .append(" ts.schema_server_port as schemaServerPort, ts.auto_update as autoUpdate,")//
-                .append(" ts.schema_username as schemaUsername, ts.schema_password as schemaPassword , ts.pool_initial_size as initialSize,")//
-                .append(" ts.pool_validation_interval as validationInterval, ts.pool_remove_abandoned as removeAbandoned, ts.pool_remove_abandoned_timeout as removeAbandonedTimeout,")//
-                .append(" ts.pool_log_abandoned as logAbandoned, ts.pool_abandon_when_percentage_full as abandonedWhenPercentageFull, ts.pool_test_on_borrow as testOnBorrow,")//
-                .append(" ts.pool_max_active as poolMaxActive, ts.pool_min_idle as poolMinIdle, ts.pool_max_idle as poolMaxIdle,")//
-                .append(" ts.pool_suspect_timeout as poolSuspectTimeout, ts.pool_time_between_eviction_runs_millis as poolTimeBetweenEvictionRunsMillis,")//
-                .append(" ts.pool_min_evictable_idle_time_millis as poolMinEvictableIdleTimeMillis,")//
-                .append(" ts.deadlock_max_retries as maxRetriesOnDeadlock,")//
-                .append(" ts.deadlock_max_retry_interval as maxIntervalBetweenRetries ")//
+        private final StringBuilder sqlBuilder = new StringBuilder(" t.id, t.timezone_id as timezoneId , t.name,t.identifier, ")//
+                .append(CONNECTION_COLUMNS)//
                 .append(" from tenants t left join tenant_server_connections ts ");
 
         public TenantMapper(boolean isReport) {
@@ -86,50 +91,64 @@ public class BasicAuthTenantDetailsServiceJdbc implements BasicAuthTenantDetails
             final FineractPlatformTenantConnection connection = getDBConnection(rs);
             return new FineractPlatformTenant(id, tenantIdentifier, name, timezoneId, connection);
         }
+    }
+
+    private static final class ReplicaMapper implements RowMapper<FineractPlatformTenantReplica> {
 
-        // gets the DB connection
-        private FineractPlatformTenantConnection getDBConnection(ResultSet rs) throws SQLException {
-
-            final Long connectionId = rs.getLong("connectionId");
-            final String schemaName = rs.getString("schemaName");
-            final String schemaServer = rs.getString("schemaServer");
-            final String schemaServerPort = rs.getString("schemaServerPort");
-            final String schemaUsername = rs.getString("schemaUsername");
-            final String schemaPassword = rs.getString("schemaPassword");
-            final boolean autoUpdateEnabled = rs.getBoolean("autoUpdate");
-            final int initialSize = rs.getInt("initialSize");
-            final boolean testOnBorrow = rs.getBoolean("testOnBorrow");
-            final long validationInterval = rs.getLong("validationInterval");
-            final boolean removeAbandoned = rs.getBoolean("removeAbandoned");
-            final int removeAbandonedTimeout = rs.getInt("removeAbandonedTimeout");
-            final boolean logAbandoned = rs.getBoolean("logAbandoned");
-            final int abandonWhenPercentageFull = rs.getInt("abandonedWhenPercentageFull");
-            final int maxActive = rs.getInt("poolMaxActive");
-            final int minIdle = rs.getInt("poolMinIdle");
-            final int maxIdle = rs.getInt("poolMaxIdle");
-            final int suspectTimeout = rs.getInt("poolSuspectTimeout");
-            final int timeBetweenEvictionRunsMillis = rs.getInt("poolTimeBetweenEvictionRunsMillis");
-            final int minEvictableIdleTimeMillis = rs.getInt("poolMinEvictableIdleTimeMillis");
-            int maxRetriesOnDeadlock = rs.getInt("maxRetriesOnDeadlock");
-            int maxIntervalBetweenRetries = rs.getInt("maxIntervalBetweenRetries");
-
-            maxRetriesOnDeadlock = bindValueInMinMaxRange(maxRetriesOnDeadlock, 0, 15);
-            maxIntervalBetweenRetries = bindValueInMinMaxRange(maxIntervalBetweenRetries, 1, 15);
-
-            return new FineractPlatformTenantConnection(connectionId, schemaName, schemaServer, schemaServerPort, schemaUsername,
-                    schemaPassword, autoUpdateEnabled, initialSize, validationInterval, removeAbandoned, removeAbandonedTimeout,
-                    logAbandoned, abandonWhenPercentageFull, maxActive, minIdle, maxIdle, suspectTimeout, timeBetweenEvictionRunsMillis,
-                    minEvictableIdleTimeMillis, maxRetriesOnDeadlock, maxIntervalBetweenRetries, testOnBorrow);
+        public String schema() {
+            return " rr.max_lag_seconds as maxLagSeconds, " + CONNECTION_COLUMNS
+                    + " from tenant_read_replicas rr join tenant_server_connections ts on ts.id = rr.server_connection_id ";
         }
 
-        private int bindValueInMinMaxRange(final int value, int min, int max) {
-            if (value < min) {
-                return min;
-            } else if (value > max) { return max; }
-            return value;
+        @Override
+        public FineractPlatformTenantReplica mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final int maxLagSeconds = rs.getInt("maxLagSeconds");
+            return new FineractPlatformTenantReplica(getDBConnection(rs), maxLagSeconds);
         }
     }
 
+    // gets the DB connection
+    private static FineractPlatformTenantConnection getDBConnection(ResultSet rs) throws SQLException {
+
+        final Long connectionId = rs.getLong("connectionId");
+        final String schemaName = rs.getString("schemaName");
+        final String schemaServer = rs.getString("schemaServer");
+        final String schemaServerPort = rs.getString("schemaServerPort");
+        final String schemaUsername = rs.getString("schemaUsername");
+        final String schemaPassword = rs.getString("schemaPassword");
+        final boolean autoUpdateEnabled = rs.getBoolean("autoUpdate");
+        final int initialSize = rs.getInt("initialSize");
+        final boolean testOnBorrow = rs.getBoolean("testOnBorrow");
+        final long validationInterval = rs.getLong("validationInterval");
+        final boolean removeAbandoned = rs.getBoolean("removeAbandoned");
+        final int removeAbandonedTimeout = rs.getInt("removeAbandonedTimeout");
+        final boolean logAbandoned = rs.getBoolean("logAbandoned");
+        final int abandonWhenPercentageFull = rs.getInt("abandonedWhenPercentageFull");
+        final int maxActive = rs.getInt("poolMaxActive");
+        final int minIdle = rs.getInt("poolMinIdle");
+        final int maxIdle = rs.getInt("poolMaxIdle");
+        final int suspectTimeout = rs.getInt("poolSuspectTimeout");
+        final int timeBetweenEvictionRunsMillis = rs.getInt("poolTimeBetweenEvictionRunsMillis");
+        final int minEvictableIdleTimeMillis = rs.getInt("poolMinEvictableIdleTimeMillis");
+        int maxRetriesOnDeadlock = rs.getInt("maxRetriesOnDeadlock");
+        int maxIntervalBetweenRetries = rs.getInt("maxIntervalBetweenRetries");
+
+        maxRetriesOnDeadlock = bindValueInMinMaxRange(maxRetriesOnDeadlock, 0, 15);
+        maxIntervalBetweenRetries = bindValueInMinMaxRange(maxIntervalBetweenRetries, 1, 15);
+
+        return new FineractPlatformTenantConnection(connectionId, schemaName, schemaServer, schemaServerPort, schemaUsername,
+                schemaPassword, autoUpdateEnabled, initialSize, validationInterval, removeAbandoned, removeAbandonedTimeout,
+                logAbandoned, abandonWhenPercentageFull, maxActive, minIdle, maxIdle, suspectTimeout, timeBetweenEvictionRunsMillis,
+                minEvictableIdleTimeMillis, maxRetriesOnDeadlock, maxIntervalBetweenRetries, testOnBorrow);
+    }
+
+    private static int bindValueInMinMaxRange(final int value, int min, int max) {
+        if (value < min) {
+            return min;
+        } else if (value > max) { return max; }
+        return value;
+    }
+
     @Override
     @Cacheable(value = "tenantsById")
     public FineractPlatformTenant loadTenantById(final String tenantIdentifier, final boolean isReport) {
@@ -138,9 +157,19 @@ public class BasicAuthTenantDetailsServiceJdbc implements BasicAuthTenantDetails
             final TenantMapper rm = new TenantMapper(isReport);
             final String sql = "select  " + rm.schema() + " where t.identifier like ?";
 
-            return this.jdbcTemplate.queryForObject(sql, rm, new Object[] { tenantIdentifier });
+            final FineractPlatformTenant tenant = this.jdbcTemplate.queryForObject(sql, rm, new Object[] { tenantIdentifier });
+            final List<FineractPlatformTenantReplica> replicas = retrieveReplicas(tenant.getId());
+            if (replicas.isEmpty()) { return tenant; }
+            return new FineractPlatformTenant(tenant.getId(), tenant.getTenantIdentifier(), tenant.getName(), tenant.getTimezoneId(),
+                    tenant.getConnection(), replicas);
         } catch (final EmptyResultDataAccessException e) {
             throw new InvalidTenantIdentiferException("The tenant identifier: " + tenantIdentifier + " is not valid.");
         }
     }
-}
\ No newline at end of file
+
+    private List<FineractPlatformTenantReplica> retrieveReplicas(final Long tenantId) {
+        final ReplicaMapper rm = new ReplicaMapper();
+        final String sql = "select " + rm.schema() + " where rr.tenant_id = ? order by rr.id";
+        return this.jdbcTemplate.query(sql, rm, new Object[] { tenantId });
+    }
+}
@@ -61,4 +61,23 @@ public enum SmsMessageStatusType {
     public String getCode() {
         return this.code;
     }
+
+    public boolean isPending() {
+        return this.equals(PENDING);
+    }
+
+    /**
+     * A pending message is sent or fails at the gateway; a sent message is
+     * later reported delivered or failed. Delivered and failed are final.
+     */
+    public boolean canTransitionTo(final SmsMessageStatusType next) {
+        switch (this) {
+            case PENDING:
+                return next == SENT || next == FAILED;
+            case SENT:
+                return next == DELIVERED || next == FAILED;
+            default:
+                return false;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.sms.gateway;
+
+import java.util.List;
+
+/**
+ * A provider that outbound SMS messages are handed to by the dispatch job.
+ * Implementations are Spring beans; the one used is selected by its
+ * {@link #name()} through the <code>fineract.sms.gateway</code> system
+ * property.
+ */
+public interface SmsGateway {
+
+    String name();
+
+    /**
+     * Sends a batch of messages and returns one result per message. A
+     * {@link RuntimeException} means the outcome of the whole batch is unknown;
+     * its messages are retried once their claim times out.
+     */
+    List<SmsGatewayResult> send(List<SmsGatewayMessage> messages);
+}
@@ -0,0 +1,58 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.sms.gateway;
+
+import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
+
+/**
+ * Outcome of handing one message to a {@link SmsGateway}: {@link SmsMessageStatusType#SENT}
+ * with the id the gateway assigned, or {@link SmsMessageStatusType#FAILED}.
+ */
+public class SmsGatewayResult {
+
+    private final Long messageId;
+    private final SmsMessageStatusType status;
+    private final String externalId;
+
+    public static SmsGatewayResult sent(final Long messageId, final String externalId) {
+        return new SmsGatewayResult(messageId, SmsMessageStatusType.SENT, externalId);
+    }
+
+    public static SmsGatewayResult failed(final Long messageId) {
+        return new SmsGatewayResult(messageId, SmsMessageStatusType.FAILED, null);
+    }
+
+    private SmsGatewayResult(final Long messageId, final SmsMessageStatusType status, final String externalId) {
+        this.messageId = messageId;
+        this.status = status;
+        this.externalId = externalId;
+    }
+
+    public Long getMessageId() {
+        return this.messageId;
+    }
+
+    public SmsMessageStatusType getStatus() {
+        return this.status;
+    }
+
+    public String getExternalId() {
+        return this.externalId;
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.sms.gateway;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Gateway that sends nothing, for measuring the throughput of the dispatch
+ * job. Accepts every message with a mobile number containing a digit, after
+ * an optional simulated round trip of
+ * <code>fineract.sms.stub.latencyMillis</code> per batch.
+ */
+@Component
+public class StubSmsGateway implements SmsGateway {
+
+    public static final String NAME = "stub";
+
+    public static final String LATENCY_PROPERTY = "fineract.sms.stub.latencyMillis";
+
+    private final AtomicLong sentCount = new AtomicLong();
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<SmsGatewayResult> send(final List<SmsGatewayMessage> messages) {
+        final long latencyMillis = Long.getLong(LATENCY_PROPERTY, 0L);
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        final List<SmsGatewayResult> results = new ArrayList<>(messages.size());
+        for (final SmsGatewayMessage message : messages) {
+            if (message.getMobileNo() != null && message.getMobileNo().matches(".*\\d.*")) {
+                results.add(SmsGatewayResult.sent(message.getId(), NAME + "-" + this.sentCount.incrementAndGet()));
+            } else {
+                results.add(SmsGatewayResult.failed(message.getId()));
+            }
+        }
+        return results;
+    }
+
+    public long getSentCount() {
+        return this.sentCount.get();
+    }
+}
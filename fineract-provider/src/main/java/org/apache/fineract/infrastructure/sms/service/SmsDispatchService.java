@@ -0,0 +1,38 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.sms.service;
+
+import java.util.Map;
+
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
+
+public interface SmsDispatchService {
+
+    void dispatchPendingMessages() throws JobExecutionException;
+
+    /**
+     * Applies delivery reports received from the gateway, keyed by the
+     * external id the gateway assigned when the message was sent. Reports
+     * that are not a valid transition from the stored status are ignored.
+     * 
+     * @return the number of messages updated
+     */
+    int updateDeliveryStatus(Map<String, SmsMessageStatusType> statusByExternalId);
+}
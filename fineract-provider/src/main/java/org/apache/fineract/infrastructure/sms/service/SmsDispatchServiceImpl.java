@@ -0,0 +1,283 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.sms.service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.TenantAwareTaskExecutor;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
+import org.apache.fineract.infrastructure.sms.gateway.SmsGateway;
+import org.apache.fineract.infrastructure.sms.gateway.SmsGatewayMessage;
+import org.apache.fineract.infrastructure.sms.gateway.SmsGatewayResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+/**
+ * Sends pending outbound SMS through the configured {@link SmsGateway}.
+ * <p>
+ * Pending messages are claimed in blocks with a single update that stamps
+ * them with a claim token, so that concurrent runs (or nodes) never send the
+ * same message twice. A claimed block is split into gateway batches which are
+ * sent over a bounded number of parallel lanes, throttled to a shared rate,
+ * and the results are written back with one batch update per gateway batch.
+ * The claim is renewed before every gateway batch, and a throttled claim is
+ * no larger than can be sent within half the claim timeout, so that it does
+ * not time out while it is being sent. When a gateway call fails the claim is
+ * left in place and the messages become pending again once the claim times
+ * out.
+ * </p>
+ */
+@Service
+public class SmsDispatchServiceImpl implements SmsDispatchService {
+
+    private final static Logger logger = LoggerFactory.getLogger(SmsDispatchServiceImpl.class);
+
+    public static final String GATEWAY_PROPERTY = "fineract.sms.gateway";
+    public static final String CLAIM_SIZE_PROPERTY = "fineract.sms.dispatch.claimSize";
+    public static final String GATEWAY_BATCH_SIZE_PROPERTY = "fineract.sms.dispatch.gatewayBatchSize";
+    public static final String CONCURRENCY_PROPERTY = "fineract.sms.dispatch.concurrency";
+    public static final String RATE_PER_SECOND_PROPERTY = "fineract.sms.dispatch.ratePerSecond";
+    public static final String CLAIM_TIMEOUT_PROPERTY = "fineract.sms.dispatch.claimTimeoutSeconds";
+
+    private static final int DEFAULT_CLAIM_SIZE = 1000;
+    private static final int DEFAULT_GATEWAY_BATCH_SIZE = 100;
+    private static final int DEFAULT_CONCURRENCY = 4;
+    private static final int DEFAULT_CLAIM_TIMEOUT_SECONDS = 600;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantAwareTaskExecutor taskExecutor;
+    private final List<SmsGateway> gateways;
+
+    @Autowired
+    public SmsDispatchServiceImpl(final RoutingDataSource dataSource, final TenantAwareTaskExecutor taskExecutor,
+            final List<SmsGateway> gateways) {
+        this(new JdbcTemplate(dataSource), taskExecutor, gateways);
+    }
+
+    SmsDispatchServiceImpl(final JdbcTemplate jdbcTemplate, final TenantAwareTaskExecutor taskExecutor, final List<SmsGateway> gateways) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskExecutor = taskExecutor;
+        this.gateways = gateways;
+    }
+
+    @CronTarget(jobName = JobName.SEND_PENDING_SMS)
+    @Override
+    public void dispatchPendingMessages() throws JobExecutionException {
+        final SmsGateway gateway = configuredGateway();
+        if (gateway == null) {
+            logger.debug("No SMS gateway configured through " + GATEWAY_PROPERTY + ", pending messages are not sent");
+            return;
+        }
+
+        final int gatewayBatchSize = Math.max(1, Integer.getInteger(GATEWAY_BATCH_SIZE_PROPERTY, DEFAULT_GATEWAY_BATCH_SIZE));
+        final int concurrency = Math.max(1, Integer.getInteger(CONCURRENCY_PROPERTY, DEFAULT_CONCURRENCY));
+        final int ratePerSecond = Integer.getInteger(RATE_PER_SECOND_PROPERTY, 0);
+        final int claimTimeout = Integer.getInteger(CLAIM_TIMEOUT_PROPERTY, DEFAULT_CLAIM_TIMEOUT_SECONDS);
+        final RateLimiter rateLimiter = ratePerSecond > 0 ? RateLimiter.create(ratePerSecond) : null;
+        int claimSize = Math.max(1, Integer.getInteger(CLAIM_SIZE_PROPERTY, DEFAULT_CLAIM_SIZE));
+        if (ratePerSecond > 0) {
+            final long sendableInHalfTimeout = (long) ratePerSecond * claimTimeout / 2;
+            claimSize = (int) Math.max(1, Math.min(claimSize, sendableInHalfTimeout));
+        }
+
+        final StringBuilder errors = new StringBuilder();
+        List<SmsGatewayMessage> claimed = claimPendingMessages(claimSize, claimTimeout);
+        while (!claimed.isEmpty()) {
+            final List<List<SmsGatewayMessage>> batches = partition(claimed, gatewayBatchSize);
+            for (int from = 0; from < batches.size(); from += concurrency) {
+                final List<Callable<String>> lanes = new ArrayList<>();
+                for (final List<SmsGatewayMessage> batch : batches.subList(from, Math.min(from + concurrency, batches.size()))) {
+                    lanes.add(new Callable<String>() {
+
+                        @Override
+                        public String call() {
+                            return sendBatch(gateway, batch, rateLimiter);
+                        }
+                    });
+                }
+                for (final String error : this.taskExecutor.invokeAll(lanes)) {
+                    if (error != null) {
+                        errors.append(error).append(' ');
+                    }
+                }
+            }
+            if (claimed.size() < claimSize || errors.length() > 0) {
+                break;
+            }
+            claimed = claimPendingMessages(claimSize, claimTimeout);
+        }
+
+        if (errors.length() > 0) { throw new JobExecutionException(errors.toString().trim()); }
+    }
+
+    @Override
+    public int updateDeliveryStatus(final Map<String, SmsMessageStatusType> statusByExternalId) {
+        final List<Object[]> args = new ArrayList<>(statusByExternalId.size());
+        for (final Map.Entry<String, SmsMessageStatusType> entry : statusByExternalId.entrySet()) {
+            final SmsMessageStatusType next = entry.getValue();
+            if (!SmsMessageStatusType.SENT.canTransitionTo(next)) {
+                continue;
+            }
+            args.add(new Object[] { next.getValue(), entry.getKey(), SmsMessageStatusType.SENT.getValue() });
+        }
+        if (args.isEmpty()) { return 0; }
+
+        final int[] counts = this.jdbcTemplate.batchUpdate(
+                "update sms_messages_outbound set status_enum = ? where external_id = ? and status_enum = ?", args);
+        int updated = 0;
+        for (final int count : counts) {
+            if (count > 0) {
+                updated += count;
+            }
+        }
+        return updated;
+    }
+
+    private SmsGateway configuredGateway() {
+        final String name = System.getProperty(GATEWAY_PROPERTY);
+        if (name == null || name.trim().isEmpty()) { return null; }
+        for (final SmsGateway gateway : this.gateways) {
+            if (gateway.name().equalsIgnoreCase(name.trim())) { return gateway; }
+        }
+        logger.warn("Unknown SMS gateway " + name + " configured through " + GATEWAY_PROPERTY);
+        return null;
+    }
+
+    private List<SmsGatewayMessage> claimPendingMessages(final int claimSize, final int claimTimeout) {
+        final String claimToken = UUID.randomUUID().toString();
+
+        final int claimedCount = this.jdbcTemplate.update("update sms_messages_outbound set claim_token = ?, claimed_at = now() "
+                + "where status_enum = ? and (claim_token is null or claimed_at < now() - interval ? second) order by id limit ?",
+                claimToken, SmsMessageStatusType.PENDING.getValue(), claimTimeout, claimSize);
+        if (claimedCount == 0) { return Collections.emptyList(); }
+
+        return this.jdbcTemplate.query("select id, mobile_no, message, claim_token from sms_messages_outbound where claim_token = ? "
+                + "order by id", new ClaimedMessageMapper(), claimToken);
+    }
+
+    private String sendBatch(final SmsGateway gateway, final List<SmsGatewayMessage> batch, final RateLimiter rateLimiter) {
+        if (rateLimiter != null) {
+            rateLimiter.acquire(batch.size());
+        }
+
+        // renews what is left of the claim, this batch included
+        final String claimToken = ((ClaimedMessage) batch.get(0)).claimToken;
+        if (this.jdbcTemplate.update("update sms_messages_outbound set claimed_at = now() where claim_token = ? and status_enum = ?",
+                claimToken, SmsMessageStatusType.PENDING.getValue()) == 0) {
+            logger.warn("Claim on " + batch.size() + " SMS starting with id " + batch.get(0).getId()
+                    + " timed out and was taken over, leaving them to the run holding them");
+            return null;
+        }
+
+        final List<SmsGatewayResult> sendResults;
+        try {
+            sendResults = gateway.send(batch);
+        } catch (final RuntimeException e) {
+            logger.warn("SMS gateway " + gateway.name() + " failed to send " + batch.size() + " messages", e);
+            return "failed to send " + batch.size() + " SMS starting with id " + batch.get(0).getId() + " with message "
+                    + e.getMessage();
+        }
+
+        final List<SmsGatewayResult> results = new ArrayList<>(sendResults.size());
+        for (final SmsGatewayResult result : sendResults) {
+            if (SmsMessageStatusType.PENDING.canTransitionTo(result.getStatus())) {
+                results.add(result);
+            } else {
+                logger.warn("SMS gateway " + gateway.name() + " returned status " + result.getStatus() + " for message "
+                        + result.getMessageId() + ", leaving it to be retried once its claim times out");
+            }
+        }
+        if (results.isEmpty()) { return null; }
+
+        final Timestamp sentOn = new Timestamp(new Date().getTime());
+        final String writeBackSql = "update sms_messages_outbound set status_enum = ?, external_id = ?, sent_on = ?, "
+                + "claim_token = null, claimed_at = null where id = ? and claim_token = ?";
+        final int[] counts = this.jdbcTemplate.batchUpdate(writeBackSql, new BatchPreparedStatementSetter() {
+
+            @Override
+            public void setValues(final PreparedStatement ps, final int i) throws SQLException {
+                final SmsGatewayResult result = results.get(i);
+                final boolean sent = SmsMessageStatusType.SENT.equals(result.getStatus());
+                ps.setInt(1, result.getStatus().getValue());
+                ps.setString(2, result.getExternalId());
+                ps.setTimestamp(3, sent ? sentOn : null);
+                ps.setLong(4, result.getMessageId());
+                ps.setString(5, claimToken);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return results.size();
+            }
+        });
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                logger.warn("Claim on SMS " + results.get(i).getMessageId() + " was taken over before its result was written back");
+            }
+        }
+        return null;
+    }
+
+    private static <T> List<List<T>> partition(final List<T> list, final int size) {
+        final List<List<T>> partitions = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += size) {
+            partitions.add(list.subList(from, Math.min(from + size, list.size())));
+        }
+        return partitions;
+    }
+
+    private static final class ClaimedMessage extends SmsGatewayMessage {
+
+        private final String claimToken;
+
+        ClaimedMessage(final Long id, final String mobileNo, final String message, final String claimToken) {
+            super(id, mobileNo, message);
+            this.claimToken = claimToken;
+        }
+    }
+
+    private static final class ClaimedMessageMapper implements RowMapper<SmsGatewayMessage> {
+
+        @Override
+        public SmsGatewayMessage mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new ClaimedMessage(rs.getLong("id"), rs.getString("mobile_no"), rs.getString("message"), rs.getString("claim_token"));
+        }
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.mix.api;
 
+import java.io.OutputStream;
 import java.sql.Date;
 
 import javax.ws.rs.GET;
@@ -25,6 +26,7 @@ import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.fineract.mix.data.XBRLData;
 import org.apache.fineract.mix.service.XBRLBuilder;
@@ -49,11 +51,17 @@ public class MixReportApiResource {
 
     @GET
     @Produces({ MediaType.APPLICATION_XML })
-    public String retrieveXBRLReport(@QueryParam("startDate") final Date startDate, @QueryParam("endDate") final Date endDate,
+    public StreamingOutput retrieveXBRLReport(@QueryParam("startDate") final Date startDate, @QueryParam("endDate") final Date endDate,
             @QueryParam("currency") final String currency) {
 
         final XBRLData data = this.xbrlResultService.getXBRLResult(startDate, endDate, currency);
 
-        return this.xbrlBuilder.build(data);
+        return new StreamingOutput() {
+
+            @Override
+            public void write(final OutputStream out) {
+                MixReportApiResource.this.xbrlBuilder.write(data, out);
+            }
+        };
     }
 }
\ No newline at end of file
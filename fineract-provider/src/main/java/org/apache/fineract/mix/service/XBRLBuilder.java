@@ -18,38 +18,46 @@
  */
 package org.apache.fineract.mix.service;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.sql.Date;
 import java.text.SimpleDateFormat;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.apache.fineract.mix.data.ContextData;
 import org.apache.fineract.mix.data.MixTaxonomyData;
 import org.apache.fineract.mix.data.NamespaceData;
 import org.apache.fineract.mix.data.XBRLData;
 import org.apache.fineract.mix.exception.XBRLMappingInvalidException;
-import org.dom4j.Document;
-import org.dom4j.DocumentHelper;
-import org.dom4j.Element;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+/**
+ * Writes the XBRL instance document of a MIX report through a streaming
+ * {@link XMLStreamWriter}, so the document is never held in memory as a tree.
+ * Namespaces and contexts are resolved up front as they have to be declared
+ * before, or referenced from, the facts.
+ */
 @Component
 public class XBRLBuilder {
 
     private static final String SCHEME_URL = "http://www.themix.org";
+    private static final String SCHEMA_REF_URL = "http://www.themix.org/sites/default/files/Taxonomy2010/dct/dc-all_2010-08-31.xsd";
     private static final String IDENTIFIER = "000000";
     private static final String UNITID_PURE = "Unit1";
     private static final String UNITID_CUR = "Unit2";
+    private static final String ENCODING = "UTF-8";
 
-    private Element root;
-    private HashMap<ContextData, String> contextMap;
-    Date startDate;
-    Date endDate;
-    private Integer instantScenarioCounter = 1;
-    private Integer durationScenarioCounter = 1;
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
 
     @Autowired
     private NamespaceReadPlatformService readNamespaceService;
@@ -59,93 +67,117 @@ public class XBRLBuilder {
     }
 
     public String build(final Map<MixTaxonomyData, BigDecimal> map, final Date startDate, final Date endDate, final String currency) {
-        this.instantScenarioCounter = 1;
-        this.durationScenarioCounter = 1;
-        this.contextMap = new HashMap<>();
-        final Document doc = DocumentHelper.createDocument();
-        this.root = doc.addElement("xbrl");
-
-        this.root.addElement("schemaRef").addNamespace("link",
-                "http://www.themix.org/sites/default/files/Taxonomy2010/dct/dc-all_2010-08-31.xsd");
-
-        this.startDate = startDate;
-        this.endDate = endDate;
-
-        for (final Entry<MixTaxonomyData, BigDecimal> entry : map.entrySet()) {
-            final MixTaxonomyData taxonomy = entry.getKey();
-            final BigDecimal value = entry.getValue();
-            addTaxonomy(this.root, taxonomy, value);
-
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(map, startDate, endDate, currency, out);
+        try {
+            return out.toString(ENCODING);
+        } catch (final UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
         }
+    }
 
-        addContexts();
-        addCurrencyUnit(currency);
-        addNumberUnit();
-
-        doc.setXMLEncoding("UTF-8");
-
-        return doc.asXML();
+    public void write(final XBRLData xbrlData, final OutputStream out) {
+        write(xbrlData.getResultMap(), xbrlData.getStartDate(), xbrlData.getEndDate(), xbrlData.getCurrency(), out);
     }
 
-    Element addTaxonomy(final Element rootElement, final MixTaxonomyData taxonomy, final BigDecimal value) {
+    public void write(final Map<MixTaxonomyData, BigDecimal> map, final Date startDate, final Date endDate, final String currency,
+            final OutputStream out) {
 
         // throw an error is start / endate is null
-        if (this.startDate == null || this.endDate == null) { throw new XBRLMappingInvalidException(
+        if (!map.isEmpty() && (startDate == null || endDate == null)) { throw new XBRLMappingInvalidException(
                 "start date and end date should not be null"); }
 
-        final String prefix = taxonomy.getNamespace();
-        String qname = taxonomy.getName();
-        if (prefix != null && (!prefix.isEmpty())) {
-            final NamespaceData ns = this.readNamespaceService.retrieveNamespaceByPrefix(prefix);
-            if (ns != null) {
+        final Map<String, String> namespaces = resolveNamespaces(map);
+        final Map<ContextData, String> contextMap = assignContexts(map, startDate, endDate);
 
-                this.root.addNamespace(prefix, ns.url());
+        try {
+            final XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(out, ENCODING);
+            writer.writeStartDocument(ENCODING, "1.0");
+            writer.writeStartElement("xbrl");
+            for (final Entry<String, String> namespace : namespaces.entrySet()) {
+                if (namespace.getValue() != null) {
+                    writer.writeNamespace(namespace.getKey(), namespace.getValue());
+                }
             }
-            qname = prefix + ":" + taxonomy.getName();
 
-        }
-        final Element xmlElement = rootElement.addElement(qname);
+            writer.writeStartElement("schemaRef");
+            writer.writeNamespace("link", SCHEMA_REF_URL);
+            writer.writeEndElement();
 
-        final String dimension = taxonomy.getDimension();
-        final SimpleDateFormat timeFormat = new SimpleDateFormat("MM_dd_yyyy");
-
-        ContextData context = null;
-        if (dimension != null) {
-            final String[] dims = dimension.split(":");
-
-            if (dims.length == 2) {
-                context = new ContextData(dims[0], dims[1], taxonomy.getType());
-                if (this.contextMap.containsKey(context)) {
+            for (final Entry<MixTaxonomyData, BigDecimal> entry : map.entrySet()) {
+                writeTaxonomy(writer, entry.getKey(), entry.getValue(), contextMap);
+            }
 
-                } else {
+            writeContexts(writer, contextMap, startDate, endDate);
+            writeCurrencyUnit(writer, currency);
+            writeNumberUnit(writer);
 
-                }
-            }
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.flush();
+            writer.close();
+        } catch (final XMLStreamException e) {
+            throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage());
         }
+    }
 
-        if (context == null) {
-            context = new ContextData(null, null, taxonomy.getType());
+    private Map<String, String> resolveNamespaces(final Map<MixTaxonomyData, BigDecimal> map) {
+        final Map<String, String> namespaces = new LinkedHashMap<>();
+        for (final MixTaxonomyData taxonomy : map.keySet()) {
+            final String prefix = taxonomy.getNamespace();
+            if (prefix != null && !prefix.isEmpty() && !namespaces.containsKey(prefix)) {
+                final NamespaceData ns = this.readNamespaceService.retrieveNamespaceByPrefix(prefix);
+                namespaces.put(prefix, ns != null ? ns.url() : null);
+            }
         }
+        return namespaces;
+    }
 
-        if (!this.contextMap.containsKey(context)) {
-
-            final String startDateStr = timeFormat.format(this.startDate);
-            final String endDateStr = timeFormat.format(this.endDate);
+    private Map<ContextData, String> assignContexts(final Map<MixTaxonomyData, BigDecimal> map, final Date startDate, final Date endDate) {
+        final Map<ContextData, String> contextMap = new LinkedHashMap<>();
+        if (map.isEmpty()) { return contextMap; }
 
-            final String contextRefID = (context.getPeriodType() == 0) ? ("As_Of_" + endDateStr + (this.instantScenarioCounter++))
-                    : ("Duration_" + startDateStr + "_To_" + endDateStr + (this.durationScenarioCounter++));
+        final SimpleDateFormat timeFormat = new SimpleDateFormat("MM_dd_yyyy");
+        final String startDateStr = timeFormat.format(startDate);
+        final String endDateStr = timeFormat.format(endDate);
+        int instantScenarioCounter = 1;
+        int durationScenarioCounter = 1;
+
+        for (final MixTaxonomyData taxonomy : map.keySet()) {
+            final ContextData context = contextOf(taxonomy);
+            if (!contextMap.containsKey(context)) {
+                final String contextRefID = (context.getPeriodType() == 0) ? ("As_Of_" + endDateStr + (instantScenarioCounter++))
+                        : ("Duration_" + startDateStr + "_To_" + endDateStr + (durationScenarioCounter++));
+                contextMap.put(context, contextRefID);
+            }
+        }
+        return contextMap;
+    }
 
-            this.contextMap.put(context, contextRefID);
+    private ContextData contextOf(final MixTaxonomyData taxonomy) {
+        final String dimension = taxonomy.getDimension();
+        if (dimension != null) {
+            final String[] dims = dimension.split(":");
+            if (dims.length == 2) { return new ContextData(dims[0], dims[1], taxonomy.getType()); }
         }
+        return new ContextData(null, null, taxonomy.getType());
+    }
 
-        xmlElement.addAttribute("contextRef", this.contextMap.get(context));
-        xmlElement.addAttribute("unitRef", getUnitRef(taxonomy));
-        xmlElement.addAttribute("decimals", getNumberOfDecimalPlaces(value).toString());
+    private void writeTaxonomy(final XMLStreamWriter writer, final MixTaxonomyData taxonomy, final BigDecimal value,
+            final Map<ContextData, String> contextMap) throws XMLStreamException {
 
-        // add the child
-        xmlElement.addText(value.toPlainString());
+        final String prefix = taxonomy.getNamespace();
+        String qname = taxonomy.getName();
+        if (prefix != null && (!prefix.isEmpty())) {
+            qname = prefix + ":" + taxonomy.getName();
+        }
 
-        return xmlElement;
+        writer.writeStartElement(qname);
+        writer.writeAttribute("contextRef", contextMap.get(contextOf(taxonomy)));
+        writer.writeAttribute("unitRef", getUnitRef(taxonomy));
+        writer.writeAttribute("decimals", getNumberOfDecimalPlaces(value).toString());
+        writer.writeCharacters(value.toPlainString());
+        writer.writeEndElement();
     }
 
     private String getUnitRef(final MixTaxonomyData tx) {
@@ -153,53 +185,69 @@ public class XBRLBuilder {
     }
 
     /**
-     * Adds the generic number unit
+     * Writes the generic number unit
      */
-    void addNumberUnit() {
-        final Element numerUnit = this.root.addElement("unit");
-        numerUnit.addAttribute("id", UNITID_PURE);
-        final Element measure = numerUnit.addElement("measure");
-        measure.addText("xbrli:pure");
-
+    private void writeNumberUnit(final XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartElement("unit");
+        writer.writeAttribute("id", UNITID_PURE);
+        writeTextElement(writer, "measure", "xbrli:pure");
+        writer.writeEndElement();
     }
 
     /**
-     * Adds the currency unit to the document
+     * Writes the currency unit to the document
      * 
      * @param currencyCode
      */
-    public void addCurrencyUnit(final String currencyCode) {
-        final Element currencyUnitElement = this.root.addElement("unit");
-        currencyUnitElement.addAttribute("id", UNITID_CUR);
-        final Element measure = currencyUnitElement.addElement("measure");
-        measure.addText("iso4217:" + currencyCode);
-
+    private void writeCurrencyUnit(final XMLStreamWriter writer, final String currencyCode) throws XMLStreamException {
+        writer.writeStartElement("unit");
+        writer.writeAttribute("id", UNITID_CUR);
+        writeTextElement(writer, "measure", "iso4217:" + currencyCode);
+        writer.writeEndElement();
     }
 
-    public void addContexts() {
+    private void writeContexts(final XMLStreamWriter writer, final Map<ContextData, String> contextMap, final Date startDate,
+            final Date endDate) throws XMLStreamException {
         final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
-        for (final Entry<ContextData, String> entry : this.contextMap.entrySet()) {
+        for (final Entry<ContextData, String> entry : contextMap.entrySet()) {
             final ContextData context = entry.getKey();
-            final Element contextElement = this.root.addElement("context");
-            contextElement.addAttribute("id", entry.getValue());
-            contextElement.addElement("entity").addElement("identifier").addAttribute("scheme", SCHEME_URL).addText(IDENTIFIER);
+            writer.writeStartElement("context");
+            writer.writeAttribute("id", entry.getValue());
 
-            final Element periodElement = contextElement.addElement("period");
+            writer.writeStartElement("entity");
+            writer.writeStartElement("identifier");
+            writer.writeAttribute("scheme", SCHEME_URL);
+            writer.writeCharacters(IDENTIFIER);
+            writer.writeEndElement();
+            writer.writeEndElement();
 
+            writer.writeStartElement("period");
             if (context.getPeriodType() == 0) {
-                periodElement.addElement("instant").addText(format.format(this.endDate));
+                writeTextElement(writer, "instant", format.format(endDate));
             } else {
-                periodElement.addElement("startDate").addText(format.format(this.startDate));
-                periodElement.addElement("endDate").addText(format.format(this.endDate));
+                writeTextElement(writer, "startDate", format.format(startDate));
+                writeTextElement(writer, "endDate", format.format(endDate));
             }
+            writer.writeEndElement();
 
             final String dimension = context.getDimension();
             final String dimType = context.getDimensionType();
             if (dimType != null && dimension != null) {
-                contextElement.addElement("scenario").addElement("explicitMember").addAttribute("dimension", dimType).addText(dimension);
+                writer.writeStartElement("scenario");
+                writer.writeStartElement("explicitMember");
+                writer.writeAttribute("dimension", dimType);
+                writer.writeCharacters(dimension);
+                writer.writeEndElement();
+                writer.writeEndElement();
             }
+            writer.writeEndElement();
         }
+    }
 
+    private static void writeTextElement(final XMLStreamWriter writer, final String name, final String text) throws XMLStreamException {
+        writer.writeStartElement(name);
+        writer.writeCharacters(text);
+        writer.writeEndElement();
     }
 
     private Integer getNumberOfDecimalPlaces(final BigDecimal bigDecimal) {
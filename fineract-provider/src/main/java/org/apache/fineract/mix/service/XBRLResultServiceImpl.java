@@ -22,7 +22,11 @@ import java.math.BigDecimal;
 import java.sql.Date;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -30,7 +34,9 @@ import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
+import org.apache.fineract.infrastructure.core.service.RequestTaskExecutor;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.TenantAwareTaskExecutor;
 import org.apache.fineract.mix.data.MixTaxonomyData;
 import org.apache.fineract.mix.data.MixTaxonomyMappingData;
 import org.apache.fineract.mix.data.XBRLData;
@@ -50,14 +56,16 @@ public class XBRLResultServiceImpl implements XBRLResultService {
     private final MixTaxonomyMappingReadPlatformService readTaxonomyMappingService;
     private final MixTaxonomyReadPlatformService readTaxonomyService;
     private final JdbcTemplate jdbcTemplate;
-    private HashMap<String, BigDecimal> accountBalanceMap;
+    private final RequestTaskExecutor taskExecutor;
 
     @Autowired
     public XBRLResultServiceImpl(final RoutingDataSource dataSource,
-            final MixTaxonomyMappingReadPlatformService readTaxonomyMappingService, final MixTaxonomyReadPlatformService readTaxonomyService) {
+            final MixTaxonomyMappingReadPlatformService readTaxonomyMappingService, final MixTaxonomyReadPlatformService readTaxonomyService,
+            final RequestTaskExecutor taskExecutor) {
         this.readTaxonomyMappingService = readTaxonomyMappingService;
         this.readTaxonomyService = readTaxonomyService;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.taskExecutor = taskExecutor;
     }
 
     @Override
@@ -78,13 +86,35 @@ public class XBRLResultServiceImpl implements XBRLResultService {
             HashMap<String, String> configMap = new HashMap<>();
             configMap = new Gson().fromJson(config, configMap.getClass());
             if (configMap == null) { return null; }
+            // the balances and the taxonomies are independent, so both are
+            // loaded at the same time instead of one taxonomy per mapping
+            final Future<Map<String, BigDecimal>> balances = this.taskExecutor.submit(new Callable<Map<String, BigDecimal>>() {
+
+                @Override
+                public Map<String, BigDecimal> call() {
+                    return retrieveAccountBalances(startDate, endDate);
+                }
+            });
+            final Future<Map<Long, MixTaxonomyData>> taxonomies = this.taskExecutor.submit(new Callable<Map<Long, MixTaxonomyData>>() {
+
+                @Override
+                public Map<Long, MixTaxonomyData> call() {
+                    return retrieveTaxonomiesById();
+                }
+            });
+            final Map<String, BigDecimal> accountBalanceMap = TenantAwareTaskExecutor.getResult(balances);
+            final Map<Long, MixTaxonomyData> taxonomyMap = TenantAwareTaskExecutor.getResult(taxonomies);
+
             // <taxonomyId, value>
             final HashMap<MixTaxonomyData, BigDecimal> resultMap = new HashMap<>();
-            setupBalanceMap(getAccountSql(startDate, endDate));
             for (final Entry<String, String> entry : configMap.entrySet()) {
-                final BigDecimal value = processMappingString(entry.getValue());
+                final BigDecimal value = processMappingString(entry.getValue(), accountBalanceMap);
                 if (value != null) {
-                    final MixTaxonomyData taxonomy = this.readTaxonomyService.retrieveOne(Long.parseLong(entry.getKey()));
+                    final Long taxonomyId = Long.parseLong(entry.getKey());
+                    MixTaxonomyData taxonomy = taxonomyMap.get(taxonomyId);
+                    if (taxonomy == null) {
+                        taxonomy = this.readTaxonomyService.retrieveOne(taxonomyId);
+                    }
                     resultMap.put(taxonomy, value);
                 }
 
@@ -94,15 +124,22 @@ public class XBRLResultServiceImpl implements XBRLResultService {
         return null;
     }
 
-    private String getAccountSql(final Date startDate, final Date endDate) {
+    private Map<Long, MixTaxonomyData> retrieveTaxonomiesById() {
+        final List<MixTaxonomyData> taxonomies = this.readTaxonomyService.retrieveAll();
+        final Map<Long, MixTaxonomyData> taxonomyMap = new HashMap<>(taxonomies.size());
+        for (final MixTaxonomyData taxonomy : taxonomies) {
+            taxonomyMap.put(taxonomy.getId(), taxonomy);
+        }
+        return taxonomyMap;
+    }
+
+    private String getAccountSql() {
         final String sql = "select debits.glcode as 'glcode', debits.name as 'name', (ifnull(debits.debitamount,0)-ifnull(credits.creditamount,0)) as 'balance' "
                 + "from (select acc_gl_account.gl_code as 'glcode',name,sum(amount) as 'debitamount' "
                 + "from acc_gl_journal_entry,acc_gl_account "
                 + "where acc_gl_account.id = acc_gl_journal_entry.account_id "
-                + "and acc_gl_journal_entry.type_enum=2 " + "and acc_gl_journal_entry.entry_date <= "
-                + endDate
-                + " and acc_gl_journal_entry.entry_date > "
-                + startDate
+                + "and acc_gl_journal_entry.type_enum=2 " + "and acc_gl_journal_entry.entry_date <= ?"
+                + " and acc_gl_journal_entry.entry_date > ?"
                 +
                 // "and (acc_gl_journal_entry.office_id=${branch} or ${branch}=1) "
                 // +
@@ -113,10 +150,8 @@ public class XBRLResultServiceImpl implements XBRLResultService {
                 + "from acc_gl_journal_entry,acc_gl_account "
                 + "where acc_gl_account.id = acc_gl_journal_entry.account_id "
                 + "and acc_gl_journal_entry.type_enum=1 "
-                + "and acc_gl_journal_entry.entry_date <= "
-                + endDate
-                + " and acc_gl_journal_entry.entry_date > "
-                + startDate
+                + "and acc_gl_journal_entry.entry_date <= ?"
+                + " and acc_gl_journal_entry.entry_date > ?"
                 +
                 // "and (acc_gl_journal_entry.office_id=${branch} or ${branch}=1) "
                 // +
@@ -129,10 +164,8 @@ public class XBRLResultServiceImpl implements XBRLResultService {
                 + "from acc_gl_journal_entry,acc_gl_account "
                 + "where acc_gl_account.id = acc_gl_journal_entry.account_id "
                 + "and acc_gl_journal_entry.type_enum=2 "
-                + "and acc_gl_journal_entry.entry_date <= "
-                + endDate
-                + " and acc_gl_journal_entry.entry_date > "
-                + startDate
+                + "and acc_gl_journal_entry.entry_date <= ?"
+                + " and acc_gl_journal_entry.entry_date > ?"
                 +
                 // "and (acc_gl_journal_entry.office_id=${branch} or ${branch}=1) "
                 // +
@@ -143,31 +176,30 @@ public class XBRLResultServiceImpl implements XBRLResultService {
                 + "from acc_gl_journal_entry,acc_gl_account "
                 + "where acc_gl_account.id = acc_gl_journal_entry.account_id "
                 + "and acc_gl_journal_entry.type_enum=1 "
-                + "and acc_gl_journal_entry.entry_date <= "
-                + endDate
-                + " and acc_gl_journal_entry.entry_date > " + startDate +
+                + "and acc_gl_journal_entry.entry_date <= ?"
+                + " and acc_gl_journal_entry.entry_date > ?" +
                 // "and (acc_gl_journal_entry.office_id=${branch} or ${branch}=1) "
                 // +
                 " group by name " + "order by glcode) credits " + "on debits.glcode=credits.glcode;";
         return sql;
     }
 
-    private void setupBalanceMap(final String sql) {
-        if (this.accountBalanceMap == null) {
-            this.accountBalanceMap = new HashMap<>();
-            final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sql);
-            while (rs.next()) {
-                this.accountBalanceMap.put(rs.getString("glcode"), rs.getBigDecimal("balance"));
-            }
+    private Map<String, BigDecimal> retrieveAccountBalances(final Date startDate, final Date endDate) {
+        final Map<String, BigDecimal> accountBalanceMap = new HashMap<>();
+        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(getAccountSql(), endDate, startDate, endDate, startDate, endDate, startDate,
+                endDate, startDate);
+        while (rs.next()) {
+            accountBalanceMap.put(rs.getString("glcode"), rs.getBigDecimal("balance"));
         }
+        return accountBalanceMap;
     }
 
     // Calculate Taxonomy value from expression
-    private BigDecimal processMappingString(String mappingString) {
+    private BigDecimal processMappingString(String mappingString, final Map<String, BigDecimal> accountBalanceMap) {
         final ArrayList<String> glCodes = getGLCodes(mappingString);
         for (final String glcode : glCodes) {
 
-            final BigDecimal balance = this.accountBalanceMap.get(glcode);
+            final BigDecimal balance = accountBalanceMap.get(glcode);
             mappingString = mappingString.replaceAll("\\{" + glcode + "\\}", balance != null ? balance.toString() : "0");
         }
 
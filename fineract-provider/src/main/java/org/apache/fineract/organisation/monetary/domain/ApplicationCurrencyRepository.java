@@ -18,11 +18,15 @@
  */
 package org.apache.fineract.organisation.monetary.domain;
 
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface ApplicationCurrencyRepository extends JpaRepository<ApplicationCurrency, Long>,
         JpaSpecificationExecutor<ApplicationCurrency> {
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     ApplicationCurrency findOneByCode(String currencyCode);
 }
\ No newline at end of file
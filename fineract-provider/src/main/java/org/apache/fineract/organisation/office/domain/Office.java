@@ -39,10 +39,13 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.organisation.office.exception.CannotUpdateOfficeWithParentOfficeSameAsSelf;
 import org.apache.fineract.organisation.office.exception.RootOfficeParentCannotBeUpdated;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.joda.time.LocalDate;
 import org.springframework.data.jpa.domain.AbstractPersistable;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "m_office", uniqueConstraints = { @UniqueConstraint(columnNames = { "name" }, name = "name_org"),
         @UniqueConstraint(columnNames = { "external_id" }, name = "externalid_org") })
 public class Office extends AbstractPersistable<Long> {
@@ -178,6 +181,14 @@ public class Office extends AbstractPersistable<Long> {
 
         this.parent = newParent;
         generateHierarchy();
+        generateHierarchyOfChildren();
+    }
+
+    private void generateHierarchyOfChildren() {
+        for (final Office child : this.children) {
+            child.generateHierarchy();
+            child.generateHierarchyOfChildren();
+        }
     }
 
     public boolean identifiedBy(final Long id) {
@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.office.service;
+
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Maintains the office ancestor/descendant closure (table
+ * <code>m_office_closure</code>, one row per office and each of its
+ * ancestors, itself included).
+ * 
+ * Scoped queries restrict offices with {@link #inHierarchyCriteria(String, String)}
+ * instead of a <code>like</code> on <code>m_office.hierarchy</code>, and
+ * membership tests are answered from the table, which is only a primary key
+ * lookup, so that they always see the offices as committed.
+ */
+@Service
+public class OfficeHierarchyService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public OfficeHierarchyService(final RoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * @param officeIdColumn
+     *            the office id column to restrict, e.g. <code>o.id</code>
+     * @param ancestorIdParameter
+     *            the placeholder of the ancestor office id, <code>?</code> or
+     *            a named parameter
+     * @return a condition that holds for the ancestor office and the offices
+     *         below it
+     */
+    public static String inHierarchyCriteria(final String officeIdColumn, final String ancestorIdParameter) {
+        return officeIdColumn + " in (select oc.descendant_id from m_office_closure oc where oc.ancestor_id = " + ancestorIdParameter
+                + ")";
+    }
+
+    /**
+     * @return true when <code>officeId</code> is <code>ancestorOfficeId</code>
+     *         or one of the offices below it
+     */
+    public boolean isInHierarchyOf(final Long ancestorOfficeId, final Long officeId) {
+        final Integer count = this.jdbcTemplate.queryForObject(
+                "select count(*) from m_office_closure where ancestor_id = ? and descendant_id = ?", Integer.class, ancestorOfficeId,
+                officeId);
+        return count > 0;
+    }
+
+    public void officeCreated(final Long officeId, final Long parentId) {
+        this.jdbcTemplate.update("insert into m_office_closure (ancestor_id, descendant_id, depth) values (?, ?, 0)", officeId, officeId);
+        if (parentId != null) {
+            final String sql = "insert into m_office_closure (ancestor_id, descendant_id, depth)"
+                    + " select oc.ancestor_id, ?, oc.depth + 1 from m_office_closure oc where oc.descendant_id = ?";
+            this.jdbcTemplate.update(sql, officeId, parentId);
+        }
+    }
+
+    /**
+     * Moves the office and the offices below it under a new parent.
+     */
+    public void officeMoved(final Long officeId, final Long newParentId) {
+        // paths from the former ancestors into the moved subtree
+        final String deleteSql = "delete oc from m_office_closure oc"
+                + " join m_office_closure subtree on subtree.descendant_id = oc.descendant_id and subtree.ancestor_id = ?"
+                + " left join m_office_closure inside on inside.ancestor_id = ? and inside.descendant_id = oc.ancestor_id"
+                + " where inside.ancestor_id is null";
+        this.jdbcTemplate.update(deleteSql, officeId, officeId);
+
+        final String insertSql = "insert into m_office_closure (ancestor_id, descendant_id, depth)"
+                + " select supertree.ancestor_id, subtree.descendant_id, supertree.depth + subtree.depth + 1"
+                + " from m_office_closure supertree join m_office_closure subtree"
+                + " where supertree.descendant_id = ? and subtree.ancestor_id = ?";
+        this.jdbcTemplate.update(insertSql, newParentId, officeId);
+    }
+}
@@ -34,6 +34,7 @@ import org.apache.fineract.organisation.office.domain.Office;
 import org.apache.fineract.organisation.office.domain.OfficeRepository;
 import org.apache.fineract.organisation.office.domain.OfficeTransaction;
 import org.apache.fineract.organisation.office.domain.OfficeTransactionRepository;
+import org.apache.fineract.organisation.office.exception.CannotUpdateOfficeWithParentOfficeInOwnHierarchy;
 import org.apache.fineract.organisation.office.exception.OfficeNotFoundException;
 import org.apache.fineract.organisation.office.serialization.OfficeCommandFromApiJsonDeserializer;
 import org.apache.fineract.organisation.office.serialization.OfficeTransactionCommandFromApiJsonDeserializer;
@@ -58,19 +59,21 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
     private final OfficeRepository officeRepository;
     private final OfficeTransactionRepository officeTransactionRepository;
     private final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository;
+    private final OfficeHierarchyService officeHierarchyService;
 
     @Autowired
     public OfficeWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
             final OfficeCommandFromApiJsonDeserializer fromApiJsonDeserializer,
             final OfficeTransactionCommandFromApiJsonDeserializer moneyTransferCommandFromApiJsonDeserializer,
             final OfficeRepository officeRepository, final OfficeTransactionRepository officeMonetaryTransferRepository,
-            final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository) {
+            final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository, final OfficeHierarchyService officeHierarchyService) {
         this.context = context;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.moneyTransferCommandFromApiJsonDeserializer = moneyTransferCommandFromApiJsonDeserializer;
         this.officeRepository = officeRepository;
         this.officeTransactionRepository = officeMonetaryTransferRepository;
         this.applicationCurrencyRepository = applicationCurrencyRepository;
+        this.officeHierarchyService = officeHierarchyService;
     }
 
     @Transactional
@@ -100,6 +103,8 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
 
             this.officeRepository.save(office);
 
+            this.officeHierarchyService.officeCreated(office.getId(), parentId);
+
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
                     .withEntityId(office.getId()) //
@@ -135,6 +140,8 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
 
             if (changes.containsKey("parentId")) {
                 final Office parent = validateUserPriviledgeOnOfficeAndRetrieve(currentUser, parentId);
+                if (!office.identifiedBy(parentId) && this.officeHierarchyService.isInHierarchyOf(officeId, parentId)) { throw new CannotUpdateOfficeWithParentOfficeInOwnHierarchy(
+                        officeId, parentId); }
                 office.update(parent);
             }
 
@@ -142,6 +149,10 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
                 this.officeRepository.saveAndFlush(office);
             }
 
+            if (changes.containsKey("parentId")) {
+                this.officeHierarchyService.officeMoved(officeId, parentId);
+            }
+
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
                     .withEntityId(office.getId()) //
@@ -239,17 +250,11 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
     private Office validateUserPriviledgeOnOfficeAndRetrieve(final AppUser currentUser, final Long officeId) {
 
         final Long userOfficeId = currentUser.getOffice().getId();
-        final Office userOffice = this.officeRepository.findOne(userOfficeId);
-        if (userOffice == null) { throw new OfficeNotFoundException(userOfficeId); }
-
-        if (userOffice.doesNotHaveAnOfficeInHierarchyWithId(officeId)) { throw new NoAuthorizationException(
+        if (!this.officeHierarchyService.isInHierarchyOf(userOfficeId, officeId)) { throw new NoAuthorizationException(
                 "User does not have sufficient priviledges to act on the provided office."); }
 
-        Office officeToReturn = userOffice;
-        if (!userOffice.identifiedBy(officeId)) {
-            officeToReturn = this.officeRepository.findOne(officeId);
-            if (officeToReturn == null) { throw new OfficeNotFoundException(officeId); }
-        }
+        final Office officeToReturn = this.officeRepository.findOne(officeId);
+        if (officeToReturn == null) { throw new OfficeNotFoundException(officeId); }
 
         return officeToReturn;
     }
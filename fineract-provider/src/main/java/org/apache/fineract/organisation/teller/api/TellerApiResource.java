@@ -37,6 +37,7 @@ import org.apache.fineract.commands.service.CommandWrapperBuilder;
 import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.serialization.DefaultToApiJsonSerializer;
+import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.organisation.teller.data.CashierData;
 import org.apache.fineract.organisation.teller.data.CashierTransactionData;
@@ -266,7 +267,8 @@ public class TellerApiResource {
     @Consumes({ MediaType.APPLICATION_JSON })
     @Produces(MediaType.APPLICATION_JSON)
     public String getTransactionsWtihSummaryForCashier(@PathParam("tellerId") final Long tellerId,
-            @PathParam("cashierId") final Long cashierId, @QueryParam("currencyCode") final String currencyCode) {
+            @PathParam("cashierId") final Long cashierId, @QueryParam("currencyCode") final String currencyCode,
+            @QueryParam("offset") final Integer offset, @QueryParam("limit") final Integer limit) {
         final TellerData teller = this.readPlatformService.findTeller(tellerId);
         final CashierData cashier = this.readPlatformService.findCashier(cashierId);
 
@@ -274,7 +276,8 @@ public class TellerApiResource {
         final Date toDate = null;
 
         final CashierTransactionsWithSummaryData cashierTxnWithSummary = this.readPlatformService
-                .retrieveCashierTransactionsWithSummary(cashierId, false, fromDate, toDate, currencyCode);
+                .retrieveCashierTransactionsWithSummary(cashierId, false, fromDate, toDate, currencyCode,
+                        SearchParameters.forPagination(offset, limit));
 
         return this.jsonSerializer.serialize(cashierTxnWithSummary);
     }
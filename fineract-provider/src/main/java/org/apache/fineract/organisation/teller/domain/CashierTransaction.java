@@ -200,6 +200,16 @@ public class CashierTransaction extends AbstractPersistable<Long> {
         this.teller = teller;
     }
 
+    /**
+     * Returns the cashier of this cashier transaction.
+     *
+     * @return the cashier of this cashier transaction
+     * @see org.apache.fineract.organisation.teller.domain.Cashier
+     */
+    public Cashier getCashier() {
+        return cashier;
+    }
+
     /**
      * Returns the transaction type of this cashier transaction.
      * .
@@ -0,0 +1,51 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.teller.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.apache.fineract.organisation.teller.domain.CashierTransaction;
+
+/**
+ * Keeps <code>m_cashier_balance</code>, the running per-day totals of each
+ * cashier, up to date as cashier, savings and loan transactions are posted,
+ * so that cashier summaries do not have to be recomputed from the
+ * transaction tables.
+ */
+public interface CashierBalanceWritePlatformService {
+
+    void recordCashierTransaction(CashierTransaction cashierTransaction);
+
+    /**
+     * Brings the cashier balances in line with the given savings
+     * transactions, in the form they are handed to accounting: transactions
+     * not yet counted are added, reversed transactions that were counted are
+     * taken out again.
+     */
+    void syncSavingsTransactions(Collection<Map<String, Object>> transactions);
+
+    void syncLoanTransactions(Collection<Map<String, Object>> transactions);
+
+    /**
+     * Recomputes the balances of a cashier from the transaction tables, for
+     * when its staff or working period change.
+     */
+    void rebuildCashierBalances(Long cashierId);
+}
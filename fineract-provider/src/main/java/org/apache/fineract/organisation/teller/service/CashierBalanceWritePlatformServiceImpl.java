@@ -0,0 +1,231 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.teller.service;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.organisation.teller.domain.CashierTransaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CashierBalanceWritePlatformServiceImpl implements CashierBalanceWritePlatformService {
+
+    private static final String SAVINGS = "savings";
+    private static final String LOANS = "loans";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    public CashierBalanceWritePlatformServiceImpl(final RoutingDataSource dataSource) {
+        this(new JdbcTemplate(dataSource), new NamedParameterJdbcTemplate(dataSource));
+    }
+
+    CashierBalanceWritePlatformServiceImpl(final JdbcTemplate jdbcTemplate, final NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    @Override
+    public void recordCashierTransaction(final CashierTransaction cashierTransaction) {
+        // the summaries only ever select by currency
+        if (cashierTransaction.getCurrencyCode() == null) { return; }
+
+        final List<Object[]> deltas = new ArrayList<>(1);
+        deltas.add(new Object[] { cashierTransaction.getCashier().getId(), cashierTransaction.getCurrencyCode(),
+                cashierTransaction.getCashier().getTeller().getOffice().getId(), cashierTransaction.getTxnType(),
+                cashierTransaction.getTxnDate(), cashierTransaction.getTxnAmount(), 1 });
+        applyDeltas(deltas);
+    }
+
+    @Override
+    public void syncSavingsTransactions(final Collection<Map<String, Object>> transactions) {
+        sync(SAVINGS, savingsPostingsSchema(), transactions);
+    }
+
+    @Override
+    public void syncLoanTransactions(final Collection<Map<String, Object>> transactions) {
+        sync(LOANS, loanPostingsSchema(), transactions);
+    }
+
+    @Override
+    public void rebuildCashierBalances(final Long cashierId) {
+        this.jdbcTemplate.update("delete from m_cashier_account_posting where cashier_id = ?", cashierId);
+        this.jdbcTemplate.update("delete from m_cashier_balance where cashier_id = ?", cashierId);
+
+        final String postingColumns = "insert into m_cashier_account_posting (entity_type, transaction_id, cashier_id, currency_code, "
+                + "office_id, txn_type, txn_date, txn_amount) ";
+        this.namedParameterJdbcTemplate.update(postingColumns + savingsPostingsSchema() + " and c.id = :cashierId",
+                new MapSqlParameterSource("entityType", SAVINGS).addValue("cashierId", cashierId));
+        this.namedParameterJdbcTemplate.update(postingColumns + loanPostingsSchema() + " and c.id = :cashierId",
+                new MapSqlParameterSource("entityType", LOANS).addValue("cashierId", cashierId));
+
+        final StringBuilder sqlBuilder = new StringBuilder(600);
+        sqlBuilder.append("insert into m_cashier_balance (cashier_id, currency_code, office_id, txn_type, txn_date, txn_total, txn_count) ");
+        sqlBuilder.append("select txns.cashier_id, txns.currency_code, txns.office_id, txns.txn_type, txns.txn_date, ");
+        sqlBuilder.append("sum(txns.txn_amount), count(*) from ( ");
+        sqlBuilder.append("select txn.cashier_id, txn.currency_code, t.office_id, txn.txn_type, txn.txn_date, txn.txn_amount ");
+        sqlBuilder.append("from m_cashier_transactions txn ");
+        sqlBuilder.append("join m_cashiers c on c.id = txn.cashier_id ");
+        sqlBuilder.append("join m_tellers t on t.id = c.teller_id ");
+        sqlBuilder.append("where txn.cashier_id = ? and txn.currency_code is not null ");
+        sqlBuilder.append("union all ");
+        sqlBuilder.append("select p.cashier_id, p.currency_code, p.office_id, p.txn_type, p.txn_date, p.txn_amount ");
+        sqlBuilder.append("from m_cashier_account_posting p where p.cashier_id = ? ) txns ");
+        sqlBuilder.append("group by txns.cashier_id, txns.currency_code, txns.office_id, txns.txn_type, txns.txn_date");
+        this.jdbcTemplate.update(sqlBuilder.toString(), cashierId, cashierId);
+    }
+
+    /**
+     * The reversed flag is taken from the posted transaction itself: a
+     * reversal is usually not flushed yet, so the transaction table still
+     * shows the transaction as it was before.
+     */
+    private void sync(final String entityType, final String postingsSchema, final Collection<Map<String, Object>> transactions) {
+        if (transactions == null || transactions.isEmpty()) { return; }
+
+        final List<Long> postedIds = new ArrayList<>(transactions.size());
+        final List<Long> reversedIds = new ArrayList<>();
+        for (final Map<String, Object> transaction : transactions) {
+            final Long transactionId = (Long) transaction.get("id");
+            if (transactionId == null) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(transaction.get("reversed"))) {
+                reversedIds.add(transactionId);
+            } else {
+                postedIds.add(transactionId);
+            }
+        }
+        final PostingMapper mapper = new PostingMapper();
+
+        // newly counted: not posted to that cashier yet
+        List<Object[]> added = new ArrayList<>();
+        if (!postedIds.isEmpty()) {
+            final MapSqlParameterSource parameters = new MapSqlParameterSource("entityType", entityType).addValue("transactionIds",
+                    postedIds);
+            added = this.namedParameterJdbcTemplate.query(postingsSchema + " and txn.id in (:transactionIds) "
+                    + " and not exists (select 1 from m_cashier_account_posting p where p.entity_type = :entityType "
+                    + " and p.transaction_id = txn.id and p.cashier_id = c.id)", parameters, mapper);
+        }
+
+        // no longer counted: posted earlier and reversed now
+        List<Object[]> removed = new ArrayList<>();
+        if (!reversedIds.isEmpty()) {
+            final MapSqlParameterSource parameters = new MapSqlParameterSource("entityType", entityType).addValue("transactionIds",
+                    reversedIds);
+            removed = this.namedParameterJdbcTemplate.query("select p.entity_type, p.transaction_id, p.cashier_id, "
+                    + " p.currency_code, p.office_id, p.txn_type, p.txn_date, p.txn_amount from m_cashier_account_posting p "
+                    + " where p.entity_type = :entityType and p.transaction_id in (:transactionIds)", parameters, mapper);
+        }
+
+        if (!added.isEmpty()) {
+            this.jdbcTemplate.batchUpdate("insert into m_cashier_account_posting (entity_type, transaction_id, cashier_id, "
+                    + "currency_code, office_id, txn_type, txn_date, txn_amount) values (?, ?, ?, ?, ?, ?, ?, ?)", added);
+        }
+        if (!removed.isEmpty()) {
+            final List<Object[]> keys = new ArrayList<>(removed.size());
+            for (final Object[] posting : removed) {
+                keys.add(new Object[] { posting[0], posting[1], posting[2] });
+            }
+            this.jdbcTemplate.batchUpdate(
+                    "delete from m_cashier_account_posting where entity_type = ? and transaction_id = ? and cashier_id = ?", keys);
+        }
+
+        final List<Object[]> deltas = new ArrayList<>(added.size() + removed.size());
+        for (final Object[] posting : added) {
+            deltas.add(new Object[] { posting[2], posting[3], posting[4], posting[5], posting[6], posting[7], 1 });
+        }
+        for (final Object[] posting : removed) {
+            deltas.add(new Object[] { posting[2], posting[3], posting[4], posting[5], posting[6], ((BigDecimal) posting[7]).negate(), -1 });
+        }
+        applyDeltas(deltas);
+    }
+
+    private void applyDeltas(final List<Object[]> deltas) {
+        if (deltas.isEmpty()) { return; }
+        this.jdbcTemplate.batchUpdate("insert into m_cashier_balance (cashier_id, currency_code, office_id, txn_type, txn_date, "
+                + "txn_total, txn_count) values (?, ?, ?, ?, ?, ?, ?) on duplicate key update "
+                + "txn_total = txn_total + values(txn_total), txn_count = txn_count + values(txn_count)", deltas);
+    }
+
+    /**
+     * Savings transactions count towards the cashiers of the staff member who
+     * posted them, on the days those cashiers work: deposits, withdrawal fees
+     * and charge payments as cash in, withdrawals as cash out.
+     */
+    private static String savingsPostingsSchema() {
+        final StringBuilder sqlBuilder = new StringBuilder(600);
+        sqlBuilder.append("select :entityType as entity_type, txn.id as transaction_id, c.id as cashier_id, ");
+        sqlBuilder.append("sav.currency_code as currency_code, cl.office_id as office_id, ");
+        sqlBuilder.append("case when txn.transaction_type_enum = 2 then 104 else 103 end as txn_type, ");
+        sqlBuilder.append("txn.transaction_date as txn_date, txn.amount as txn_amount ");
+        sqlBuilder.append("from m_savings_account_transaction txn ");
+        sqlBuilder.append("join m_savings_account sav on sav.id = txn.savings_account_id ");
+        sqlBuilder.append("join m_client cl on cl.id = sav.client_id ");
+        sqlBuilder.append("join m_appuser u on u.id = txn.appuser_id ");
+        sqlBuilder.append("join m_cashiers c on c.staff_id = u.staff_id ");
+        sqlBuilder.append("where txn.is_reversed = 0 and txn.transaction_type_enum in (1, 2, 4, 7) ");
+        sqlBuilder.append("and txn.transaction_date between c.start_date and date_add(c.end_date, interval 1 day) ");
+        return sqlBuilder.toString();
+    }
+
+    /**
+     * Loan repayments count as cash in and disbursements as cash out, on the
+     * same terms as {@link #savingsPostingsSchema()}.
+     */
+    private static String loanPostingsSchema() {
+        final StringBuilder sqlBuilder = new StringBuilder(600);
+        sqlBuilder.append("select :entityType as entity_type, txn.id as transaction_id, c.id as cashier_id, ");
+        sqlBuilder.append("loan.currency_code as currency_code, cl.office_id as office_id, ");
+        sqlBuilder.append("case when txn.transaction_type_enum = 1 then 104 else 103 end as txn_type, ");
+        sqlBuilder.append("txn.transaction_date as txn_date, txn.amount as txn_amount ");
+        sqlBuilder.append("from m_loan_transaction txn ");
+        sqlBuilder.append("join m_loan loan on loan.id = txn.loan_id ");
+        sqlBuilder.append("join m_client cl on cl.id = loan.client_id ");
+        sqlBuilder.append("join m_appuser u on u.id = txn.appuser_id ");
+        sqlBuilder.append("join m_cashiers c on c.staff_id = u.staff_id ");
+        sqlBuilder.append("where txn.is_reversed = 0 and txn.transaction_type_enum in (1, 2, 5, 8) ");
+        sqlBuilder.append("and txn.transaction_date between c.start_date and date_add(c.end_date, interval 1 day) ");
+        return sqlBuilder.toString();
+    }
+
+    private static final class PostingMapper implements RowMapper<Object[]> {
+
+        @Override
+        public Object[] mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final Date txnDate = rs.getDate("txn_date");
+            return new Object[] { rs.getString("entity_type"), rs.getLong("transaction_id"), rs.getLong("cashier_id"),
+                    rs.getString("currency_code"), rs.getLong("office_id"), rs.getInt("txn_type"), txnDate, rs.getBigDecimal("txn_amount") };
+        }
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.organisation.teller.service;
 
+import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.organisation.teller.data.CashierData;
 import org.apache.fineract.organisation.teller.data.CashierTransactionData;
 import org.apache.fineract.organisation.teller.data.CashierTransactionsWithSummaryData;
@@ -63,7 +64,12 @@ public interface TellerManagementReadPlatformService {
     public Collection<CashierTransactionData> retrieveCashierTransactions(Long cashierId, boolean includeAllTellers, Date fromDate,
             Date toDate, String currencyCode);
 
+    /**
+     * @param searchParameters
+     *            the page of the cashier's transactions to list with the
+     *            totals
+     */
     public CashierTransactionsWithSummaryData retrieveCashierTransactionsWithSummary(Long cashierId, boolean includeAllTellers,
-            Date fromDate, Date toDate, String currencyCode);
+            Date fromDate, Date toDate, String currencyCode, SearchParameters searchParameters);
 
 }
@@ -29,6 +29,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.exception.UnrecognizedQueryParamException;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.organisation.monetary.data.CurrencyData;
 import org.apache.fineract.organisation.monetary.service.CurrencyReadPlatformService;
@@ -439,7 +440,8 @@ public class TellerManagementReadPlatformServiceImpl implements TellerManagement
 
     @Override
     public CashierTransactionsWithSummaryData retrieveCashierTransactionsWithSummary(final Long cashierId, final boolean includeAllTellers,
-            final Date fromDate, final Date toDate, final String currencyCode) {
+            @SuppressWarnings("unused") final Date fromDate, @SuppressWarnings("unused") final Date toDate, final String currencyCode,
+            final SearchParameters searchParameters) {
         CashierData cashierData = findCashier(cashierId);
         Long staffId = cashierData.getStaffId();
         StaffData staffData = staffReadPlatformService.retrieveStaff(staffId);
@@ -452,11 +454,10 @@ public class TellerManagementReadPlatformServiceImpl implements TellerManagement
             hierarchySearchString = hierarchy;
         }
         final CashierTransactionSummaryMapper ctsm = new CashierTransactionSummaryMapper();
-        final String sql = "select " + ctsm.cashierTxnSummarySchema() + " limit 1000";
+        final String sql = "select " + ctsm.cashierTxnSummarySchema();
 
         Collection<CashierTransactionTypeTotalsData> cashierTxnTypeTotals = this.jdbcTemplate.query(sql, ctsm, new Object[] { cashierId,
-                currencyCode, hierarchySearchString, cashierId, currencyCode, hierarchySearchString, cashierId, currencyCode,
-                hierarchySearchString });
+                currencyCode, hierarchySearchString });
 
         Iterator<CashierTransactionTypeTotalsData> itr = cashierTxnTypeTotals.iterator();
         BigDecimal allocAmount = new BigDecimal(0);
@@ -479,8 +480,10 @@ public class TellerManagementReadPlatformServiceImpl implements TellerManagement
             }
         }
 
-        final Collection<CashierTransactionData> cashierTransactions = retrieveCashierTransactions(cashierId, includeAllTellers, fromDate,
-                toDate, currencyCode);
+        // the totals come from the running balances; only a page of the
+        // transactions behind them is listed with them
+        final Collection<CashierTransactionData> cashierTransactions = retrieveCashierTransactions(cashierId, currencyCode,
+                hierarchySearchString, searchParameters);
 
         CashierTransactionData cashierTxnTemplate = retrieveCashierTxnTemplate(cashierId);
 
@@ -505,22 +508,40 @@ public class TellerManagementReadPlatformServiceImpl implements TellerManagement
             hierarchySearchString = hierarchy;
         }
 
+        return retrieveCashierTransactions(cashierId, currencyCode, hierarchySearchString, null);
+    }
+
+    /**
+     * @param searchParameters
+     *            when limited, only the page of transactions is read; every
+     *            part of the union is cut to the rows the page can draw on
+     */
+    private Collection<CashierTransactionData> retrieveCashierTransactions(final Long cashierId, final String currencyCode,
+            final String hierarchySearchString, final SearchParameters searchParameters) {
+        final boolean paged = searchParameters != null && searchParameters.isLimited();
+        final int offset = paged && searchParameters.isOffset() ? searchParameters.getOffset() : 0;
+        final String partLimit = paged ? " order by created_date limit " + (offset + searchParameters.getLimit()) : "";
+
         final CashierTransactionMapper ctm = new CashierTransactionMapper();
 
-        final String sql = "select * from (select " + ctm.cashierTxnSchema()
-                + " where txn.cashier_id = ? and txn.currency_code = ? and o.hierarchy like ? ) cashier_txns " + " union (select "
-                + ctm.savingsTxnSchema()
-                + " where sav_txn.is_reversed = 0 and c.id = ? and sav.currency_code = ? and o.hierarchy like ? and "
-                + " sav_txn.transaction_date between c.start_date and date_add(c.end_date, interval 1 day) "
-                + " and renum.enum_value in ('deposit','withdrawal fee', 'Pay Charge', 'withdrawal') ) " + " union (select "
-                + ctm.loansTxnSchema()
-                + " where loan_txn.is_reversed = 0 and c.id = ? and loan.currency_code = ? and o.hierarchy like ? and "
-                + " loan_txn.transaction_date between c.start_date and date_add(c.end_date, interval 1 day) "
-                + " and renum.enum_value in ('Repayment At Disbursement','Repayment', 'Recovery Payment','Disbursement') ) "
-                + " order by created_date ";
-
-        return this.jdbcTemplate.query(sql, ctm, new Object[] { cashierId, currencyCode, hierarchySearchString, cashierId, currencyCode,
-                hierarchySearchString, cashierId, currencyCode, hierarchySearchString });
+        final StringBuilder sqlBuilder = new StringBuilder(400);
+        sqlBuilder.append("(select ").append(ctm.cashierTxnSchema())
+                .append(" where txn.cashier_id = ? and txn.currency_code = ? and o.hierarchy like ? ").append(partLimit).append(") ")
+                .append(" union (select ").append(ctm.savingsTxnSchema())
+                .append(" where sav_txn.is_reversed = 0 and c.id = ? and sav.currency_code = ? and o.hierarchy like ? and ")
+                .append(" sav_txn.transaction_date between c.start_date and date_add(c.end_date, interval 1 day) ")
+                .append(" and renum.enum_value in ('deposit','withdrawal fee', 'Pay Charge', 'withdrawal') ").append(partLimit)
+                .append(") ").append(" union (select ").append(ctm.loansTxnSchema())
+                .append(" where loan_txn.is_reversed = 0 and c.id = ? and loan.currency_code = ? and o.hierarchy like ? and ")
+                .append(" loan_txn.transaction_date between c.start_date and date_add(c.end_date, interval 1 day) ")
+                .append(" and renum.enum_value in ('Repayment At Disbursement','Repayment', 'Recovery Payment','Disbursement') ")
+                .append(partLimit).append(") ").append(" order by created_date ");
+        if (paged) {
+            sqlBuilder.append(" limit ").append(searchParameters.getLimit()).append(" offset ").append(offset);
+        }
+
+        return this.jdbcTemplate.query(sqlBuilder.toString(), ctm, new Object[] { cashierId, currencyCode, hierarchySearchString,
+                cashierId, currencyCode, hierarchySearchString, cashierId, currencyCode, hierarchySearchString });
     }
 
     private static final class CashierMapper implements RowMapper<CashierData> {
@@ -686,89 +707,22 @@ public class TellerManagementReadPlatformServiceImpl implements TellerManagement
 
     private static final class CashierTransactionSummaryMapper implements RowMapper<CashierTransactionTypeTotalsData> {
 
+        /**
+         * Reads the running totals kept by
+         * {@link CashierBalanceWritePlatformService} rather than summing the
+         * cashier, savings and loan transactions.
+         */
         public String cashierTxnSummarySchema() {
 
             final StringBuilder sqlBuilder = new StringBuilder(400);
 
-            sqlBuilder.append(" cash_txn_type, sum(txn_amount) as txn_total from ");
-            sqlBuilder.append(" (select * from ");
-            sqlBuilder.append(" (select txn.id as txn_id, txn.cashier_id as cashier_id, ");
-            sqlBuilder.append("	txn.txn_type as cash_txn_type, ");
-            sqlBuilder.append("	txn.txn_amount as txn_amount, txn.txn_date as txn_date, txn.txn_note as txn_note, ");
-            sqlBuilder.append("	txn.entity_type as entity_type, txn.entity_id as entity_id, txn.created_date as created_date, ");
-            sqlBuilder
-                    .append("	o.id as office_id, o.name as office_name, t.id as teller_id, t.name as teller_name, s.display_name as cashier_name ");
-            sqlBuilder.append("	from m_cashier_transactions txn ");
-            sqlBuilder.append("	left join m_cashiers c on c.id = txn.cashier_id ");
-            sqlBuilder.append("	left join m_tellers t on t.id = c.teller_id ");
-            sqlBuilder.append("	left join m_office o on o.id = t.office_id ");
-            sqlBuilder.append("	left join m_staff s on s.id = c.staff_id ");
-            sqlBuilder.append("	where txn.cashier_id = ? ");
-            sqlBuilder.append(" and   txn.currency_code = ? ");
-            sqlBuilder.append("	and o.hierarchy like ?  ) cashier_txns ");
-            sqlBuilder.append("	UNION ");
-            sqlBuilder.append("	(select sav_txn.id as txn_id, c.id as cashier_id, ");
-            sqlBuilder.append("	case ");
-            sqlBuilder.append("		when renum.enum_value in ('deposit','withdrawal fee', 'Pay Charge') ");
-            sqlBuilder.append("			then 103 ");
-            sqlBuilder.append("		when renum.enum_value in ('withdrawal') ");
-            sqlBuilder.append("			then 104 ");
-            sqlBuilder.append("		else ");
-            sqlBuilder.append("			105 ");
-            sqlBuilder.append("	end as cash_txn_type, ");
-            sqlBuilder.append("	sav_txn.amount as txn_amount, sav_txn.transaction_date as txn_date, ");
-            sqlBuilder
-                    .append("	concat (renum.enum_value, ', Sav:', sav.id, '-', sav.account_no, ',Client:', cl.id, '-',cl.display_name) as txn_note, ");
-            sqlBuilder.append("	'savings' as entity_type, sav.id as entity_id, sav_txn.created_date as created_date, ");
-            sqlBuilder
-                    .append("	o.id as office_id, o.name as office_name, null as teller_id, null as teller_name, staff.display_name as cashier_name ");
-            sqlBuilder.append("	from m_savings_account_transaction sav_txn ");
-            sqlBuilder
-                    .append("	left join r_enum_value renum on sav_txn.transaction_type_enum = renum.enum_id and renum.enum_name = 'savings_transaction_type_enum' ");
-            sqlBuilder.append("	left join m_savings_account sav on sav_txn.savings_account_id = sav.id ");
-            sqlBuilder.append("	left join m_client cl on sav.client_id = cl.id ");
-            sqlBuilder.append("	left join m_office o on cl.office_id = o.id ");
-            sqlBuilder.append("	left join m_appuser user on sav_txn.appuser_id = user.id ");
-            sqlBuilder.append("	left join m_staff staff on user.staff_id = staff.id ");
-            sqlBuilder.append("	left join m_cashiers c on c.staff_id = staff.id ");
-            sqlBuilder.append("	where sav_txn.is_reversed = 0 and c.id = ? ");
-            sqlBuilder.append(" and sav.currency_code = ? ");
-            sqlBuilder.append("	and o.hierarchy like ? ");
-            sqlBuilder.append("	and sav_txn.transaction_date between c.start_date and date_add(c.end_date, interval 1 day) ");
-            sqlBuilder.append("	) ");
-            sqlBuilder.append("	UNION ");
-            sqlBuilder.append("	( ");
-            sqlBuilder.append("	select loan_txn.id as txn_id, c.id as cashier_id, ");
-            sqlBuilder.append("	case ");
-            sqlBuilder.append("		when renum.enum_value in ('Repayment At Disbursement','Repayment', 'Recovery Payment') ");
-            sqlBuilder.append("			then 103 ");
-            sqlBuilder.append("		when renum.enum_value in ('Disbursement') ");
-            sqlBuilder.append("			then 104 ");
-            sqlBuilder.append("		else ");
-            sqlBuilder.append("			105 ");
-            sqlBuilder.append("	end as cash_txn_type, ");
-            sqlBuilder.append("	loan_txn.amount as txn_amount, loan_txn.transaction_date as txn_date, ");
-            sqlBuilder
-                    .append("	concat (renum.enum_value, ', Loan:', loan.id, '-', loan.account_no, ',Client:', cl.id, '-',cl.display_name) as txn_note, ");
-            sqlBuilder.append("	'loans' as entity_type, loan.id as entity_id, loan_txn.created_date as created_date, ");
-            sqlBuilder
-                    .append("	o.id as office_id, o.name as office_name, null as teller_id, null as teller_name, staff.display_name as cashier_name ");
-            sqlBuilder.append("	from m_loan_transaction loan_txn ");
-            sqlBuilder
-                    .append("	left join r_enum_value renum on loan_txn.transaction_type_enum = renum.enum_id and renum.enum_name = 'transaction_type_enum' ");
-            sqlBuilder.append("	left join m_loan loan on loan_txn.loan_id = loan.id ");
-            sqlBuilder.append("	left join m_client cl on loan.client_id = cl.id ");
-            sqlBuilder.append("	left join m_office o on cl.office_id = o.id ");
-            sqlBuilder.append("	left join m_appuser user on loan_txn.appuser_id = user.id ");
-            sqlBuilder.append("	left join m_staff staff on user.staff_id = staff.id ");
-            sqlBuilder.append("	left join m_cashiers c on c.staff_id = staff.id ");
-            sqlBuilder.append("	where loan_txn.is_reversed = 0 and c.id = ? ");
-            sqlBuilder.append(" and loan.currency_code = ? ");
-            sqlBuilder.append("	and o.hierarchy like ? ");
-            sqlBuilder.append("	and loan_txn.transaction_date between c.start_date and date_add(c.end_date, interval 1 day) ");
-            sqlBuilder.append("	) ");
-            sqlBuilder.append("	) txns ");
-            sqlBuilder.append("	group by cash_txn_type ");
+            sqlBuilder.append(" bal.txn_type as cash_txn_type, sum(bal.txn_total) as txn_total ");
+            sqlBuilder.append(" from m_cashier_balance bal ");
+            sqlBuilder.append(" join m_office o on o.id = bal.office_id ");
+            sqlBuilder.append(" where bal.cashier_id = ? ");
+            sqlBuilder.append(" and bal.currency_code = ? ");
+            sqlBuilder.append(" and o.hierarchy like ? ");
+            sqlBuilder.append(" group by bal.txn_type ");
 
             return sqlBuilder.toString();
         }
@@ -37,6 +37,7 @@ import org.apache.fineract.infrastructure.security.service.PlatformSecurityConte
 import org.apache.fineract.organisation.office.domain.Office;
 import org.apache.fineract.organisation.office.domain.OfficeRepository;
 import org.apache.fineract.organisation.office.exception.OfficeNotFoundException;
+import org.apache.fineract.organisation.office.service.OfficeHierarchyService;
 import org.apache.fineract.organisation.staff.domain.Staff;
 import org.apache.fineract.organisation.staff.domain.StaffRepository;
 import org.apache.fineract.organisation.staff.exception.StaffNotFoundException;
@@ -76,6 +77,8 @@ public class TellerWritePlatformServiceJpaImpl implements TellerWritePlatformSer
     private final CashierTransactionRepository cashierTxnRepository;
     private final JournalEntryRepository glJournalEntryRepository;
     private final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper;
+    private final OfficeHierarchyService officeHierarchyService;
+    private final CashierBalanceWritePlatformService cashierBalanceWritePlatformService;
 
     @Autowired
     public TellerWritePlatformServiceJpaImpl(final PlatformSecurityContext context,
@@ -83,7 +86,9 @@ public class TellerWritePlatformServiceJpaImpl implements TellerWritePlatformSer
             final TellerRepositoryWrapper tellerRepositoryWrapper, final OfficeRepository officeRepository,
             final StaffRepository staffRepository, CashierRepository cashierRepository, CashierTransactionRepository cashierTxnRepository,
             JournalEntryRepository glJournalEntryRepository,
-            FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper) {
+            FinancialActivityAccountRepositoryWrapper financialActivityAccountRepositoryWrapper,
+            final OfficeHierarchyService officeHierarchyService,
+            final CashierBalanceWritePlatformService cashierBalanceWritePlatformService) {
         this.context = context;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.tellerRepository = tellerRepository;
@@ -94,6 +99,8 @@ public class TellerWritePlatformServiceJpaImpl implements TellerWritePlatformSer
         this.cashierTxnRepository = cashierTxnRepository;
         this.glJournalEntryRepository = glJournalEntryRepository;
         this.financialActivityAccountRepositoryWrapper = financialActivityAccountRepositoryWrapper;
+        this.officeHierarchyService = officeHierarchyService;
+        this.cashierBalanceWritePlatformService = cashierBalanceWritePlatformService;
     }
 
     @Override
@@ -167,13 +174,11 @@ public class TellerWritePlatformServiceJpaImpl implements TellerWritePlatformSer
     private Teller validateUserPriviledgeOnTellerAndRetrieve(final AppUser currentUser, final Long tellerId) {
 
         final Long userOfficeId = currentUser.getOffice().getId();
-        final Office userOffice = this.officeRepository.findOne(userOfficeId);
-        if (userOffice == null) { throw new OfficeNotFoundException(userOfficeId); }
 
         final Teller tellerToReturn = this.tellerRepository.findOne(tellerId);
         if (tellerToReturn != null) {
             final Long tellerOfficeId = tellerToReturn.officeId();
-            if (userOffice.doesNotHaveAnOfficeInHierarchyWithId(tellerOfficeId)) { throw new NoAuthorizationException(
+            if (!this.officeHierarchyService.isInHierarchyOf(userOfficeId, tellerOfficeId)) { throw new NoAuthorizationException(
                     "User does not have sufficient priviledges to act on the provided office."); }
         } else {
             throw new TellerNotFoundException(tellerId);
@@ -261,7 +266,9 @@ public class TellerWritePlatformServiceJpaImpl implements TellerWritePlatformSer
 
             final Cashier cashier = Cashier.fromJson(tellerOffice, teller, staff, startTime, endTime, command);
 
-            this.cashierRepository.save(cashier);
+            this.cashierRepository.saveAndFlush(cashier);
+            // count what the staff member already posted in this period
+            this.cashierBalanceWritePlatformService.rebuildCashierBalances(cashier.getId());
 
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
@@ -288,14 +295,17 @@ public class TellerWritePlatformServiceJpaImpl implements TellerWritePlatformSer
 
             final Cashier cashier = validateUserPriviledgeOnCashierAndRetrieve(currentUser, tellerId, cashierId);
 
+            final boolean staffChanged = !staff.getId().equals(cashier.getStaff().getId());
             cashier.setStaff(staff);
 
             // TODO - check if staff office and teller office match
 
             final Map<String, Object> changes = cashier.update(command);
 
-            if (!changes.isEmpty()) {
+            if (!changes.isEmpty() || staffChanged) {
                 this.cashierRepository.saveAndFlush(cashier);
+                // staff or working period may have changed
+                this.cashierBalanceWritePlatformService.rebuildCashierBalances(cashier.getId());
             }
 
             return new CommandProcessingResultBuilder() //
@@ -400,6 +410,7 @@ public class TellerWritePlatformServiceJpaImpl implements TellerWritePlatformSer
             cashierTxn.setTxnType(txnType.getId());
 
             this.cashierTxnRepository.save(cashierTxn);
+            this.cashierBalanceWritePlatformService.recordCashierTransaction(cashierTxn);
 
             // Pass the journal entries
             FinancialActivityAccount mainVaultFinancialActivityAccount = this.financialActivityAccountRepositoryWrapper
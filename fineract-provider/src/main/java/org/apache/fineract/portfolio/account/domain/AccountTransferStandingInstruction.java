@@ -51,9 +51,14 @@ import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.ApiParameterError;
 import org.apache.fineract.infrastructure.core.data.DataValidatorBuilder;
 import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
+import org.joda.time.Days;
 import org.joda.time.LocalDate;
 import org.joda.time.MonthDay;
+import org.joda.time.Months;
+import org.joda.time.Weeks;
+import org.joda.time.Years;
 import org.springframework.data.jpa.domain.AbstractPersistable;
 
 @Entity
@@ -106,6 +111,10 @@ public class AccountTransferStandingInstruction extends AbstractPersistable<Long
     @Column(name = "last_run_date")
     private Date latsRunDate;
 
+    @Temporal(TemporalType.DATE)
+    @Column(name = "next_execution_date", nullable = true)
+    private Date nextExecutionDate;
+
     protected AccountTransferStandingInstruction() {
 
     }
@@ -153,6 +162,7 @@ public class AccountTransferStandingInstruction extends AbstractPersistable<Long
 
         validateDependencies(baseDataValidator);
         if (!dataValidationErrors.isEmpty()) { throw new PlatformApiDataValidationException(dataValidationErrors); }
+        updateNextExecutionDate(DateUtils.getLocalDateOfTenant());
     }
 
     public Map<String, Object> update(JsonCommand command) {
@@ -237,6 +247,9 @@ public class AccountTransferStandingInstruction extends AbstractPersistable<Long
         }
         validateDependencies(baseDataValidator);
         if (!dataValidationErrors.isEmpty()) { throw new PlatformApiDataValidationException(dataValidationErrors); }
+        if (!actualChanges.isEmpty()) {
+            updateNextExecutionDate(DateUtils.getLocalDateOfTenant());
+        }
         return actualChanges;
     }
 
@@ -291,4 +304,99 @@ public class AccountTransferStandingInstruction extends AbstractPersistable<Long
     public void updateStatus(Integer status){
         this.status = status;
     }
+
+    /**
+     * Recomputes the date on which this instruction next falls due, on or
+     * after the given date. Instructions that recur as per loan dues have no
+     * fixed schedule, so their next execution date is left empty.
+     */
+    public void updateNextExecutionDate(final LocalDate fromDate) {
+        this.nextExecutionDate = null;
+        if (AccountTransferRecurrenceType.fromInt(this.recurrenceType).isPeriodicRecurrence() && this.recurrenceFrequency != null
+                && this.recurrenceInterval != null && this.validFrom != null) {
+            final LocalDate nextDate = nextExecutionDate(PeriodFrequencyType.fromInt(this.recurrenceFrequency), this.recurrenceInterval,
+                    LocalDate.fromDateFields(this.validFrom), this.recurrenceOnDay, this.recurrenceOnMonth, fromDate);
+            this.nextExecutionDate = nextDate.toDate();
+        }
+    }
+
+    /**
+     * The first date of the recurrence on or after <code>fromDate</code>.
+     * Monthly and yearly recurrences start on the first occurrence of the
+     * recurrence day (and month) on or after <code>validFrom</code>.
+     */
+    public static LocalDate nextExecutionDate(final PeriodFrequencyType frequencyType, final int recurrenceInterval,
+            final LocalDate validFrom, final Integer recurrenceOnDay, final Integer recurrenceOnMonth, final LocalDate fromDate) {
+        final LocalDate startDate = recurrenceStartDate(frequencyType, validFrom, recurrenceOnDay, recurrenceOnMonth);
+        if (!fromDate.isAfter(startDate)) { return startDate; }
+
+        int periods = periodsBetween(frequencyType, startDate, fromDate);
+        periods = periods - (periods % recurrenceInterval);
+        LocalDate nextDate = addPeriods(frequencyType, startDate, periods);
+        while (nextDate.isBefore(fromDate)) {
+            periods += recurrenceInterval;
+            nextDate = addPeriods(frequencyType, startDate, periods);
+        }
+        return nextDate;
+    }
+
+    public static LocalDate recurrenceStartDate(final PeriodFrequencyType frequencyType, final LocalDate validFrom,
+            final Integer recurrenceOnDay, final Integer recurrenceOnMonth) {
+        LocalDate startDate = validFrom;
+        if (frequencyType.isMonthly()) {
+            startDate = startDate.withDayOfMonth(recurrenceOnDay);
+            if (startDate.isBefore(validFrom)) {
+                startDate = startDate.plusMonths(1);
+            }
+        } else if (frequencyType.isYearly()) {
+            startDate = startDate.withDayOfMonth(recurrenceOnDay).withMonthOfYear(recurrenceOnMonth);
+            if (startDate.isBefore(validFrom)) {
+                startDate = startDate.plusYears(1);
+            }
+        }
+        return startDate;
+    }
+
+    private static int periodsBetween(final PeriodFrequencyType frequencyType, final LocalDate startDate, final LocalDate endDate) {
+        int periods = 0;
+        switch (frequencyType) {
+            case DAYS:
+                periods = Days.daysBetween(startDate, endDate).getDays();
+            break;
+            case WEEKS:
+                periods = Weeks.weeksBetween(startDate, endDate).getWeeks();
+            break;
+            case MONTHS:
+                periods = Months.monthsBetween(startDate, endDate).getMonths();
+            break;
+            case YEARS:
+                periods = Years.yearsBetween(startDate, endDate).getYears();
+            break;
+            case INVALID:
+            break;
+        }
+        return periods;
+    }
+
+    private static LocalDate addPeriods(final PeriodFrequencyType frequencyType, final LocalDate startDate, final int periods) {
+        LocalDate date = startDate;
+        switch (frequencyType) {
+            case DAYS:
+                date = startDate.plusDays(periods);
+            break;
+            case WEEKS:
+                date = startDate.plusWeeks(periods);
+            break;
+            case MONTHS:
+                date = startDate.plusMonths(periods);
+            break;
+            case YEARS:
+                date = startDate.plusYears(periods);
+            break;
+            case INVALID:
+                date = startDate.plusDays(periods);
+            break;
+        }
+        return date;
+    }
 }
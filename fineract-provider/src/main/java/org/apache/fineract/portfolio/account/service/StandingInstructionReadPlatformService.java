@@ -36,6 +36,14 @@ public interface StandingInstructionReadPlatformService {
 
     Collection<StandingInstructionData> retrieveAll(Integer status);
 
+    /**
+     * Standing instructions with the given status that may fall due today:
+     * periodic instructions whose next execution date has been reached (or
+     * is not yet known) and dues based instructions whose loan has an unpaid
+     * installment due today.
+     */
+    Collection<StandingInstructionData> retrieveAllDueForExecution(Integer status);
+
     StandingInstructionDuesData retriveLoanDuesData(Long loanId);
 
 }
\ No newline at end of file
@@ -340,6 +340,22 @@ public class StandingInstructionReadPlatformServiceImpl implements StandingInstr
         return this.jdbcTemplate.query(sqlBuilder.toString(), this.standingInstructionMapper, status);
     }
 
+    @Override
+    public Collection<StandingInstructionData> retrieveAllDueForExecution(final Integer status) {
+        final StringBuilder sqlBuilder = new StringBuilder(200);
+        sqlBuilder.append("select ");
+        sqlBuilder.append(this.standingInstructionMapper.schema());
+        sqlBuilder
+                .append(" where atsi.status=? and CURRENT_DATE() >= atsi.valid_from and (atsi.valid_till IS NULL or CURRENT_DATE() < atsi.valid_till) ")
+                .append(" and  (atsi.last_run_date <> CURRENT_DATE() or atsi.last_run_date IS NULL)")
+                .append(" and ((atsi.recurrence_type = ? and (atsi.next_execution_date IS NULL or atsi.next_execution_date <= CURRENT_DATE()))")
+                .append(" or (atsi.recurrence_type = ? and exists (select 1 from m_loan_repayment_schedule ls")
+                .append(" where ls.loan_id = atd.to_loan_account_id and ls.duedate = CURRENT_DATE() and ls.completed_derived <> 1)))")
+                .append(" ORDER BY atsi.priority DESC");
+        return this.jdbcTemplate.query(sqlBuilder.toString(), this.standingInstructionMapper, status,
+                AccountTransferRecurrenceType.PERIODIC.getValue(), AccountTransferRecurrenceType.AS_PER_DUES.getValue());
+    }
+
     @Override
     public StandingInstructionData retrieveOne(final Long instructionId) {
 
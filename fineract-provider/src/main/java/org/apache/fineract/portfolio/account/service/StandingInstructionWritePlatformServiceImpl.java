@@ -24,9 +24,13 @@ import static org.apache.fineract.portfolio.account.AccountDetailConstants.toAcc
 import static org.apache.fineract.portfolio.account.api.StandingInstructionApiConstants.statusParamName;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
@@ -34,7 +38,9 @@ import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuild
 import org.apache.fineract.infrastructure.core.exception.AbstractPlatformServiceUnavailableException;
 import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.service.AccountLockService;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.TenantAwareTaskExecutor;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
@@ -79,6 +85,8 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
     private final StandingInstructionReadPlatformService standingInstructionReadPlatformService;
     private final AccountTransfersWritePlatformService accountTransfersWritePlatformService;
     private final JdbcTemplate jdbcTemplate;
+    private final TenantAwareTaskExecutor taskExecutor;
+    private final AccountLockService accountLockService;
 
     @Autowired
     public StandingInstructionWritePlatformServiceImpl(final StandingInstructionDataValidator standingInstructionDataValidator,
@@ -86,7 +94,8 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
             final AccountTransferDetailRepository accountTransferDetailRepository,
             final StandingInstructionRepository standingInstructionRepository,
             final StandingInstructionReadPlatformService standingInstructionReadPlatformService,
-            final AccountTransfersWritePlatformService accountTransfersWritePlatformService, final RoutingDataSource dataSource) {
+            final AccountTransfersWritePlatformService accountTransfersWritePlatformService, final RoutingDataSource dataSource,
+            final TenantAwareTaskExecutor taskExecutor, final AccountLockService accountLockService) {
         this.standingInstructionDataValidator = standingInstructionDataValidator;
         this.standingInstructionAssembler = standingInstructionAssembler;
         this.accountTransferDetailRepository = accountTransferDetailRepository;
@@ -94,6 +103,8 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
         this.standingInstructionReadPlatformService = standingInstructionReadPlatformService;
         this.accountTransfersWritePlatformService = accountTransfersWritePlatformService;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.taskExecutor = taskExecutor;
+        this.accountLockService = accountLockService;
     }
 
     @Transactional
@@ -191,63 +202,152 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
     @CronTarget(jobName = JobName.EXECUTE_STANDING_INSTRUCTIONS)
     public void executeStandingInstructions() throws JobExecutionException {
         Collection<StandingInstructionData> instructionDatas = this.standingInstructionReadPlatformService
-                .retrieveAll(StandingInstructionStatus.ACTIVE.getValue());
-        final StringBuilder sb = new StringBuilder();
+                .retrieveAllDueForExecution(StandingInstructionStatus.ACTIVE.getValue());
+        final LocalDate transactionDate = new LocalDate();
+        final List<Object[]> nextExecutionDates = new ArrayList<>();
+        final StandingInstructionTransferGroups transferGroups = new StandingInstructionTransferGroups();
         for (StandingInstructionData data : instructionDatas) {
             boolean isDueForTransfer = false;
             AccountTransferRecurrenceType recurrenceType = data.recurrenceType();
             StandingInstructionType instructionType = data.instructionType();
-            LocalDate transactionDate = new LocalDate();
             if (recurrenceType.isPeriodicRecurrence()) {
                 final ScheduledDateGenerator scheduledDateGenerator = new DefaultScheduledDateGenerator();
                 PeriodFrequencyType frequencyType = data.recurrenceFrequency();
-                LocalDate startDate = data.validFrom();
-                if (frequencyType.isMonthly()) {
-                    startDate = startDate.withDayOfMonth(data.recurrenceOnDay());
-                    if (startDate.isBefore(data.validFrom())) {
-                        startDate = startDate.plusMonths(1);
-                    }
-                } else if (frequencyType.isYearly()) {
-                    startDate = startDate.withDayOfMonth(data.recurrenceOnDay()).withMonthOfYear(data.recurrenceOnMonth());
-                    if (startDate.isBefore(data.validFrom())) {
-                        startDate = startDate.plusYears(1);
-                    }
-                }
+                LocalDate startDate = AccountTransferStandingInstruction.recurrenceStartDate(frequencyType, data.validFrom(),
+                        data.recurrenceOnDay(), data.recurrenceOnMonth());
                 isDueForTransfer = scheduledDateGenerator.isDateFallsInSchedule(frequencyType, data.recurrenceInterval(), startDate,
                         transactionDate);
 
+            } else if (recurrenceType.isDuesRecurrence()) {
+                // only instructions with an unpaid installment due today are
+                // selected
+                isDueForTransfer = true;
             }
             BigDecimal transactionAmount = data.amount();
-            if (data.toAccountType().isLoanAccount()
-                    && (recurrenceType.isDuesRecurrence() || (isDueForTransfer && instructionType.isDuesAmoutTransfer()))) {
+            if (isDueForTransfer && data.toAccountType().isLoanAccount() && instructionType.isDuesAmoutTransfer()) {
                 StandingInstructionDuesData standingInstructionDuesData = this.standingInstructionReadPlatformService
                         .retriveLoanDuesData(data.toAccount().accountId());
-                if (data.instructionType().isDuesAmoutTransfer()) {
-                    transactionAmount = standingInstructionDuesData.totalDueAmount();
-                }
-                if (recurrenceType.isDuesRecurrence()) {
-                    isDueForTransfer = new LocalDate().equals(standingInstructionDuesData.dueDate());
-                }
+                transactionAmount = standingInstructionDuesData.totalDueAmount();
             }
 
             if (isDueForTransfer && transactionAmount != null && transactionAmount.compareTo(BigDecimal.ZERO) > 0) {
-                final AccountTransferDetails accountTransferDetails = this.accountTransferDetailRepository.findOne(data.accountDetailId());
-                final SavingsAccount fromSavingsAccount = null;
-                final boolean isRegularTransaction = true;
-                final boolean isExceptionForBalanceCheck = false;
-                accountTransferDetails.accountTransferStandingInstruction().updateLatsRunDate(transactionDate.toDate());
-                AccountTransferDTO accountTransferDTO = new AccountTransferDTO(transactionDate, transactionAmount, data.fromAccountType(),
-                        data.toAccountType(), data.fromAccount().accountId(), data.toAccount().accountId(), data.name()
-                                + " Standing instruction trasfer ", null, null, null, null, data.toTransferType(), null, null, data
-                                .transferType().getValue(), accountTransferDetails, null, null, null, null, fromSavingsAccount,
-                        isRegularTransaction, isExceptionForBalanceCheck);
-                transferAmount(sb, accountTransferDTO, data.getId());
+                transferGroups.add(data, transactionAmount);
+            } else if (recurrenceType.isPeriodicRecurrence()) {
+                final LocalDate nextExecutionDate = AccountTransferStandingInstruction.nextExecutionDate(data.recurrenceFrequency(),
+                        data.recurrenceInterval(), data.validFrom(), data.recurrenceOnDay(), data.recurrenceOnMonth(),
+                        transactionDate.plusDays(1));
+                nextExecutionDates.add(new Object[] { nextExecutionDate.toDate(), data.getId() });
             }
         }
+
+        final StringBuilder sb = new StringBuilder();
+        for (final String errors : this.taskExecutor.invokeAll(transferGroups.tasks(transactionDate))) {
+            sb.append(errors);
+        }
+
+        if (!nextExecutionDates.isEmpty()) {
+            this.jdbcTemplate.batchUpdate("update m_account_transfer_standing_instructions set next_execution_date = ? where id = ?",
+                    nextExecutionDates);
+        }
         if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
 
     }
 
+    private void executeTransfer(final StringBuilder sb, final StandingInstructionData data, final BigDecimal transactionAmount,
+            final LocalDate transactionDate) {
+        final AccountTransferDetails accountTransferDetails = this.accountTransferDetailRepository.findOne(data.accountDetailId());
+        final SavingsAccount fromSavingsAccount = null;
+        final boolean isRegularTransaction = true;
+        final boolean isExceptionForBalanceCheck = false;
+        accountTransferDetails.accountTransferStandingInstruction().updateLatsRunDate(transactionDate.toDate());
+        accountTransferDetails.accountTransferStandingInstruction().updateNextExecutionDate(transactionDate.plusDays(1));
+        AccountTransferDTO accountTransferDTO = new AccountTransferDTO(transactionDate, transactionAmount, data.fromAccountType(),
+                data.toAccountType(), data.fromAccount().accountId(), data.toAccount().accountId(), data.name()
+                        + " Standing instruction trasfer ", null, null, null, null, data.toTransferType(), null, null, data.transferType()
+                        .getValue(), accountTransferDetails, null, null, null, null, fromSavingsAccount, isRegularTransaction,
+                isExceptionForBalanceCheck);
+        transferAmount(sb, accountTransferDTO, data.getId());
+    }
+
+    /**
+     * Partitions due transfers into groups that share no account, so that each
+     * group can run on its own thread without contending for the same rows.
+     * Transfers within a group keep their priority order.
+     */
+    private final class StandingInstructionTransferGroups {
+
+        private final Map<String, String> parents = new HashMap<>();
+        private final List<StandingInstructionData> instructions = new ArrayList<>();
+        private final List<BigDecimal> transactionAmounts = new ArrayList<>();
+
+        void add(final StandingInstructionData data, final BigDecimal transactionAmount) {
+            this.instructions.add(data);
+            this.transactionAmounts.add(transactionAmount);
+            union(accountKey(data.fromAccountType(), data.fromAccount().accountId()),
+                    accountKey(data.toAccountType(), data.toAccount().accountId()));
+        }
+
+        List<Callable<String>> tasks(final LocalDate transactionDate) {
+            final Map<String, List<Integer>> groups = new LinkedHashMap<>();
+            for (int i = 0; i < this.instructions.size(); i++) {
+                final StandingInstructionData data = this.instructions.get(i);
+                final String group = find(accountKey(data.fromAccountType(), data.fromAccount().accountId()));
+                List<Integer> members = groups.get(group);
+                if (members == null) {
+                    members = new ArrayList<>();
+                    groups.put(group, members);
+                }
+                members.add(i);
+            }
+
+            final List<Callable<String>> tasks = new ArrayList<>(groups.size());
+            for (final List<Integer> members : groups.values()) {
+                tasks.add(new Callable<String>() {
+
+                    @Override
+                    public String call() {
+                        final StringBuilder sb = new StringBuilder();
+                        for (final Integer index : members) {
+                            executeTransfer(sb, StandingInstructionTransferGroups.this.instructions.get(index),
+                                    StandingInstructionTransferGroups.this.transactionAmounts.get(index), transactionDate);
+                        }
+                        return sb.toString();
+                    }
+                });
+            }
+            return tasks;
+        }
+
+        private String accountKey(final PortfolioAccountType accountType, final Long accountId) {
+            return accountType.name() + accountId;
+        }
+
+        private String find(final String key) {
+            String root = key;
+            String parent = this.parents.get(root);
+            while (parent != null && !parent.equals(root)) {
+                root = parent;
+                parent = this.parents.get(root);
+            }
+            if (parent == null) {
+                this.parents.put(key, key);
+            }
+            return root;
+        }
+
+        private void union(final String first, final String second) {
+            final String firstRoot = find(first);
+            final String secondRoot = find(second);
+            if (!firstRoot.equals(secondRoot)) {
+                this.parents.put(secondRoot, firstRoot);
+            }
+        }
+    }
+
+    private static String accountLockKey(final PortfolioAccountType accountType, final Long accountId) {
+        return accountType.isLoanAccount() ? AccountLockService.loanKey(accountId) : AccountLockService.savingsKey(accountId);
+    }
+
     /**
      * @param sb
      * @param accountTransferDTO
@@ -257,7 +357,17 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
         StringBuffer updateQuery = new StringBuffer(
                 "INSERT INTO `m_account_transfer_standing_instructions_history` (`standing_instruction_id`, `status`, `amount`,`execution_time`, `error_log`) VALUES (");
         try {
-            this.accountTransfersWritePlatformService.transferFunds(accountTransferDTO);
+            final List<String> accountKeys = new ArrayList<>(2);
+            accountKeys.add(accountLockKey(accountTransferDTO.getFromAccountType(), accountTransferDTO.getFromAccountId()));
+            accountKeys.add(accountLockKey(accountTransferDTO.getToAccountType(), accountTransferDTO.getToAccountId()));
+            this.accountLockService.executeLocked(accountKeys, new Callable<Long>() {
+
+                @Override
+                public Long call() {
+                    return StandingInstructionWritePlatformServiceImpl.this.accountTransfersWritePlatformService
+                            .transferFunds(accountTransferDTO);
+                }
+            });
         } catch (final PlatformApiDataValidationException e) {
             sb.append("Validation exception while trasfering funds for standing Instruction id").append(instructionId).append(" from ")
                     .append(accountTransferDTO.getFromAccountId()).append(" to ").append(accountTransferDTO.getToAccountId())
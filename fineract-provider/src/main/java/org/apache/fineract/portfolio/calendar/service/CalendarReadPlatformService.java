@@ -31,6 +31,12 @@ public interface CalendarReadPlatformService {
 
     Collection<CalendarData> retrieveCalendarsByEntity(final Long entityId, final Integer entityTypeId, List<Integer> calendarTypeOptions);
 
+    /**
+     * Retrieves the calendars attached to an entity under any of the given
+     * entity types with a single query.
+     */
+    Collection<CalendarData> retrieveCalendarsByEntity(final Long entityId, final List<Integer> entityTypeIds);
+
     Collection<CalendarData> retrieveParentCalendarsByEntity(final Long entityId, final Integer entityTypeId,
             List<Integer> calendarTypeOptions);
 
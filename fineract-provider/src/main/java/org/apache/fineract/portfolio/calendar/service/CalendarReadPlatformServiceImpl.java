@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
@@ -146,6 +147,14 @@ public class CalendarReadPlatformServiceImpl implements CalendarReadPlatformServ
         return result;
     }
 
+    @Override
+    public Collection<CalendarData> retrieveCalendarsByEntity(final Long entityId, final List<Integer> entityTypeIds) {
+        final CalendarDataMapper rm = new CalendarDataMapper();
+        final String sql = rm.schema() + " and ci.entity_id = ? and ci.entity_type_enum in ( " + StringUtils.join(entityTypeIds, ',')
+                + " ) order by c.start_date ";
+        return this.jdbcTemplate.query(sql, rm, new Object[] { entityId });
+    }
+
     @Override
     public CalendarData retrieveCollctionCalendarByEntity(final Long entityId, final Integer entityTypeId) {
         final CalendarDataMapper rm = new CalendarDataMapper();
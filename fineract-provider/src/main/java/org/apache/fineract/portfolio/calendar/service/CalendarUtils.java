@@ -23,9 +23,12 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import net.fortuna.ical4j.model.Date;
 import net.fortuna.ical4j.model.DateList;
@@ -49,18 +52,52 @@ import org.joda.time.LocalDate;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 public class CalendarUtils {
 
+    private static final int MAXIMUM_CACHED_RECURRENCES = 1000;
+
+    private static final int MAXIMUM_CACHED_RECURRING_DATES = 20000;
+
+    /**
+     * Parsed recurrences keyed by rule (and, for meeting synced repayments, the
+     * interval and frequency they were adjusted to). Cached instances are
+     * shared between threads so they must never be modified once cached.
+     */
+    private static final Cache<String, Optional<Recur>> recurrences = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_CACHED_RECURRENCES).build();
+
+    /**
+     * Recurring dates expanded for a rule, seed date, window and count and the
+     * next recurring date for a rule, seed date and start date.
+     */
+    private static final Cache<String, Optional<List<LocalDate>>> recurringDates = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_CACHED_RECURRING_DATES).build();
+
+    private static final Cache<String, Optional<LocalDate>> nextRecurringDates = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_CACHED_RECURRING_DATES).build();
+
     static {
         System.setProperty("net.fortuna.ical4j.timezone.date.floating", "true");
     }
 
     public static LocalDate getNextRecurringDate(final String recurringRule, final LocalDate seedDate, final LocalDate startDate) {
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
-        if (recur == null) { return null; }
-        LocalDate nextDate = getNextRecurringDate(recur, seedDate, startDate);
-        nextDate = adjustDate(nextDate, seedDate, getMeetingPeriodFrequencyType(recurringRule));
-        return nextDate;
+        final String key = recurringRule + "|" + seedDate + "|" + startDate;
+        return cached(nextRecurringDates, key, new Callable<Optional<LocalDate>>() {
+
+            @Override
+            public Optional<LocalDate> call() {
+                final Recur recur = getCachedRecur(recurringRule);
+                if (recur == null) { return Optional.absent(); }
+                LocalDate nextDate = getNextRecurringDate(recur, seedDate, startDate);
+                nextDate = adjustDate(nextDate, seedDate, getMeetingPeriodFrequencyType(recur));
+                return Optional.fromNullable(nextDate);
+            }
+        }).orNull();
     }
 
     public static LocalDate adjustDate(final LocalDate date, final LocalDate seedDate, final PeriodFrequencyType frequencyType) {
@@ -139,9 +176,20 @@ public class CalendarUtils {
     public static Collection<LocalDate> getRecurringDates(final String recurringRule, final LocalDate seedDate,
             final LocalDate periodStartDate, final LocalDate periodEndDate, final int maxCount) {
 
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
+        final String key = recurringRule + "|" + seedDate + "|" + periodStartDate + "|" + periodEndDate + "|" + maxCount;
+        final Optional<List<LocalDate>> dates = cached(recurringDates, key, new Callable<Optional<List<LocalDate>>>() {
+
+            @Override
+            public Optional<List<LocalDate>> call() {
+                final Collection<LocalDate> expanded = getRecurringDates(getCachedRecur(recurringRule), seedDate, periodStartDate,
+                        periodEndDate, maxCount);
+                if (expanded == null) { return Optional.absent(); }
+                return Optional.of(Collections.unmodifiableList(new ArrayList<>(expanded)));
+            }
+        });
 
-        return getRecurringDates(recur, seedDate, periodStartDate, periodEndDate, maxCount);
+        // callers are free to modify the returned collection
+        return dates.isPresent() ? new ArrayList<>(dates.get()) : null;
     }
 
     private static Collection<LocalDate> getRecurringDates(final Recur recur, final LocalDate seedDate, final LocalDate periodStartDate,
@@ -191,6 +239,70 @@ public class CalendarUtils {
         return null;
     }
 
+    private static Recur getCachedRecur(final String recurringRule) {
+        return cached(recurrences, recurringRule, new Callable<Optional<Recur>>() {
+
+            @Override
+            public Optional<Recur> call() {
+                return Optional.fromNullable(prepareForSharing(getICalRecur(recurringRule)));
+            }
+        }).orNull();
+    }
+
+    /**
+     * Returns the recurrence of the rule with its interval reset to the loan
+     * repayment interval and, for daily meetings, its frequency reset to the
+     * loan repayment frequency.
+     */
+    private static Recur getCachedRecur(final String recurringRule, final Integer loanRepaymentInterval, final String frequency) {
+        final String key = recurringRule + "|" + loanRepaymentInterval + "|" + frequency;
+        return cached(recurrences, key, new Callable<Optional<Recur>>() {
+
+            @Override
+            public Optional<Recur> call() {
+                final Recur recur = getICalRecur(recurringRule);
+                if (recur == null) { return Optional.absent(); }
+                recur.setInterval(loanRepaymentInterval);
+                if (recur.getFrequency().equals(Recur.DAILY)) {
+                    recur.setFrequency(frequency);
+                }
+                return Optional.of(prepareForSharing(recur));
+            }
+        }).orNull();
+    }
+
+    /**
+     * {@link Recur} creates its rule part lists lazily on first access;
+     * creating them up front means readers sharing a cached instance never
+     * write to it.
+     */
+    private static Recur prepareForSharing(final Recur recur) {
+        if (recur != null) {
+            recur.getSecondList();
+            recur.getMinuteList();
+            recur.getHourList();
+            recur.getDayList();
+            recur.getMonthDayList();
+            recur.getYearDayList();
+            recur.getWeekNoList();
+            recur.getMonthList();
+            recur.getSetPosList();
+        }
+        return recur;
+    }
+
+    private static <T> T cached(final Cache<String, T> cache, final String key, final Callable<T> loader) {
+        try {
+            return cache.get(key, loader);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (final UncheckedExecutionException e) {
+            // keep the exceptions ical4j raises for malformed rules
+            if (e.getCause() instanceof RuntimeException) { throw (RuntimeException) e.getCause(); }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
     public static String getRRuleReadable(final LocalDate startDate, final String recurringRule) {
 
         String humanReadable = "";
@@ -267,10 +379,8 @@ public class CalendarUtils {
 
     public static boolean isValidRedurringDate(final String recurringRule, final LocalDate seedDate, final LocalDate date) {
 
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
-        if (recur == null) { return false; }
-
-        return isValidRecurringDate(recur, seedDate, date);
+        final Collection<LocalDate> recurDate = getRecurringDates(recurringRule, seedDate, date, date.plusDays(1), 1);
+        return (recurDate == null || recurDate.isEmpty()) ? false : true;
     }
 
     public static boolean isValidRecurringDate(final Recur recur, final LocalDate seedDate, final LocalDate date) {
@@ -307,7 +417,7 @@ public class CalendarUtils {
     }
 
     public static PeriodFrequencyType getMeetingPeriodFrequencyType(final String recurringRule) {
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
+        final Recur recur = getCachedRecur(recurringRule);
         return getMeetingPeriodFrequencyType(recur);
     }
 
@@ -340,17 +450,17 @@ public class CalendarUtils {
     }
 
     public static int getInterval(final String recurringRule) {
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
+        final Recur recur = getCachedRecur(recurringRule);
         return recur.getInterval();
     }
 
     public static CalendarFrequencyType getFrequency(final String recurringRule) {
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
+        final Recur recur = getCachedRecur(recurringRule);
         return CalendarFrequencyType.fromString(recur.getFrequency());
     }
 
     public static CalendarWeekDaysType getRepeatsOnDay(final String recurringRule) {
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
+        final Recur recur = getCachedRecur(recurringRule);
         final WeekDayList weekDays = recur.getDayList();
         if (weekDays.isEmpty()) return CalendarWeekDaysType.INVALID;
         // supports only one day
@@ -360,29 +470,25 @@ public class CalendarUtils {
 
     public static LocalDate getFirstRepaymentMeetingDate(final Calendar calendar, final LocalDate disbursementDate,
             final Integer loanRepaymentInterval, final String frequency) {
-        final Recur recur = CalendarUtils.getICalRecur(calendar.getRecurrence());
-        if (recur == null) { return null; }
-        LocalDate startDate = disbursementDate;
-        final LocalDate seedDate = calendar.getStartDateLocalDate();
-        if (isValidRedurringDate(calendar.getRecurrence(), seedDate, startDate)) {
-            startDate = startDate.plusDays(1);
-        }
         // Recurring dates should follow loanRepaymentInterval.
         // e.g.
         // for weekly meeting interval is 1
         // where as for loan product with fortnightly frequency interval is 2
         // to generate currect set of meeting dates reset interval same as loan
         // repayment interval.
-        recur.setInterval(loanRepaymentInterval);
-
+        //
         // Recurring dates should follow loanRepayment frequency.
         // e.g.
         // daily meeting frequency should support all loan products with any
         // frequency type.
         // to generate currect set of meeting dates reset frequency same as loan
         // repayment frequency.
-        if (recur.getFrequency().equals(Recur.DAILY)) {
-            recur.setFrequency(frequency);
+        final Recur recur = getCachedRecur(calendar.getRecurrence(), loanRepaymentInterval, frequency);
+        if (recur == null) { return null; }
+        LocalDate startDate = disbursementDate;
+        final LocalDate seedDate = calendar.getStartDateLocalDate();
+        if (isValidRedurringDate(calendar.getRecurrence(), seedDate, startDate)) {
+            startDate = startDate.plusDays(1);
         }
 
         final LocalDate firstRepaymentDate = getNextRecurringDate(recur, seedDate, startDate);
@@ -392,19 +498,17 @@ public class CalendarUtils {
 
     public static LocalDate getNewRepaymentMeetingDate(final String recurringRule, final LocalDate seedDate,
             final LocalDate oldRepaymentDate, final Integer loanRepaymentInterval, final String frequency, final WorkingDays workingDays) {
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
-        if (recur == null) { return null; }
-        if (isValidRecurringDate(recur, seedDate, oldRepaymentDate)) { return oldRepaymentDate; }
+        if (getCachedRecur(recurringRule) == null) { return null; }
+        if (isValidRedurringDate(recurringRule, seedDate, oldRepaymentDate)) { return oldRepaymentDate; }
         return getNextRepaymentMeetingDate(recurringRule, seedDate, oldRepaymentDate, loanRepaymentInterval, frequency, workingDays);
     }
 
     public static LocalDate getNextRepaymentMeetingDate(final String recurringRule, final LocalDate seedDate,
             final LocalDate repaymentDate, final Integer loanRepaymentInterval, final String frequency, final WorkingDays workingDays) {
 
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
-        if (recur == null) { return null; }
+        if (getCachedRecur(recurringRule) == null) { return null; }
         LocalDate tmpDate = repaymentDate;
-        if (isValidRecurringDate(recur, seedDate, repaymentDate)) {
+        if (isValidRedurringDate(recurringRule, seedDate, repaymentDate)) {
             tmpDate = repaymentDate.plusDays(1);
         }
         /*
@@ -413,18 +517,13 @@ public class CalendarUtils {
          * e.g. The weekly meeting will have interval of 1, if the loan product
          * with fortnightly frequency will have interval of 2, to generate right
          * set of meeting dates reset interval same as loan repayment interval.
-         */
-        recur.setInterval(loanRepaymentInterval);
-
-        /*
+         * 
          * Recurring dates should follow loanRepayment frequency. //e.g. daily
          * meeting frequency should support all loan products with any type of
          * frequency. to generate right set of meeting dates reset frequency
          * same as loan repayment frequency.
          */
-        if (recur.getFrequency().equals(Recur.DAILY)) {
-            recur.setFrequency(frequency);
-        }
+        final Recur recur = getCachedRecur(recurringRule, loanRepaymentInterval, frequency);
 
         LocalDate newRepaymentDate = getNextRecurringDate(recur, seedDate, tmpDate);
         final LocalDate nextRepaymentDate = getNextRecurringDate(recur, seedDate, newRepaymentDate);
@@ -435,16 +534,16 @@ public class CalendarUtils {
     }
 
     public static boolean isFrequencySame(final String oldRRule, final String newRRule) {
-        final Recur oldRecur = getICalRecur(oldRRule);
-        final Recur newRecur = getICalRecur(newRRule);
+        final Recur oldRecur = getCachedRecur(oldRRule);
+        final Recur newRecur = getCachedRecur(newRRule);
 
         if (oldRecur == null || oldRecur.getFrequency() == null || newRecur == null || newRecur.getFrequency() == null) { return false; }
         return oldRecur.getFrequency().equals(newRecur.getFrequency());
     }
 
     public static boolean isIntervalSame(final String oldRRule, final String newRRule) {
-        final Recur oldRecur = getICalRecur(oldRRule);
-        final Recur newRecur = getICalRecur(newRRule);
+        final Recur oldRecur = getCachedRecur(oldRRule);
+        final Recur newRecur = getCachedRecur(newRRule);
 
         if (oldRecur == null || oldRecur.getFrequency() == null || newRecur == null || newRecur.getFrequency() == null) { return false; }
         return (oldRecur.getInterval() == newRecur.getInterval());
@@ -502,7 +601,7 @@ public class CalendarUtils {
 
     public static LocalDate getRecentEligibleMeetingDate(final String recurringRule, final LocalDate seedDate) {
         LocalDate currentDate = DateUtils.getLocalDateOfTenant();
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
+        final Recur recur = getCachedRecur(recurringRule);
         if (recur == null) { return null; }
 
         if (isValidRecurringDate(recur, seedDate, currentDate)) { return currentDate; }
@@ -521,7 +620,7 @@ public class CalendarUtils {
     }
 
     public static LocalDate getNextScheduleDate(final Calendar calendar, final LocalDate startDate) {
-        final Recur recur = CalendarUtils.getICalRecur(calendar.getRecurrence());
+        final Recur recur = getCachedRecur(calendar.getRecurrence());
         if (recur == null) { return null; }
         LocalDate date = startDate;
         final LocalDate seedDate = calendar.getStartDateLocalDate();
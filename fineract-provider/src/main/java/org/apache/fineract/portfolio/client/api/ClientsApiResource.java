@@ -128,10 +128,11 @@ public class ClientsApiResource {
             @QueryParam("lastName") final String lastname, @QueryParam("underHierarchy") final String hierarchy,
             @QueryParam("offset") final Integer offset, @QueryParam("limit") final Integer limit,
             @QueryParam("orderBy") final String orderBy, @QueryParam("sortOrder") final String sortOrder,
-            @QueryParam("orphansOnly") final Boolean orphansOnly) {
+            @QueryParam("orphansOnly") final Boolean orphansOnly, @DefaultValue("false") @QueryParam("keyset") final boolean keyset,
+            @QueryParam("cursor") final String cursor) {
 
         return this.retrieveAll(uriInfo, sqlSearch, officeId, externalId, displayName, firstname, 
-        		lastname, hierarchy, offset, limit, orderBy, sortOrder, orphansOnly, false);
+        		lastname, hierarchy, offset, limit, orderBy, sortOrder, orphansOnly, false, keyset || cursor != null, cursor);
     }
     
     public String retrieveAll(final UriInfo uriInfo, final String sqlSearch,
@@ -141,11 +142,25 @@ public class ClientsApiResource {
             final Integer offset, final Integer limit,
             final String orderBy, final String sortOrder,
             final Boolean orphansOnly, final boolean isSelfUser) {
+        return this.retrieveAll(uriInfo, sqlSearch, officeId, externalId, displayName, firstname, lastname, hierarchy, offset, limit,
+                orderBy, sortOrder, orphansOnly, isSelfUser, false, null);
+    }
+    
+    private String retrieveAll(final UriInfo uriInfo, final String sqlSearch,
+            final Long officeId, final String externalId,
+            final String displayName, final String firstname,
+            final String lastname, final String hierarchy,
+            final Integer offset, final Integer limit,
+            final String orderBy, final String sortOrder,
+            final Boolean orphansOnly, final boolean isSelfUser, final boolean keyset, final String cursor) {
 
         this.context.authenticatedUser().validateHasReadPermission(ClientApiConstants.CLIENT_RESOURCE_NAME);
 
-        final SearchParameters searchParameters = SearchParameters.forClients(sqlSearch, officeId, externalId, displayName, firstname,
+        SearchParameters searchParameters = SearchParameters.forClients(sqlSearch, officeId, externalId, displayName, firstname,
                 lastname, hierarchy, offset, limit, orderBy, sortOrder, orphansOnly, isSelfUser);
+        if (keyset) {
+            searchParameters = searchParameters.withKeysetPagination(cursor);
+        }
 
         final Page<ClientData> clientData = this.clientReadPlatformService.retrieveAll(searchParameters);
 
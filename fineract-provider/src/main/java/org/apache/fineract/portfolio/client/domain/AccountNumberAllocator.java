@@ -0,0 +1,135 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.client.domain;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.fineract.infrastructure.accountnumberformat.domain.EntityAccountType;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out the numbers used by {@link AccountNumberGenerator} from blocks
+ * reserved in the <code>m_account_number_sequence</code> table of the tenant,
+ * so that an account number is known before the entity is first inserted.
+ * 
+ * A block is reserved in a transaction of its own: numbers of a rolled back
+ * command are not reused and the sequence row is never locked for longer
+ * than the reservation. Numbers left in a block when the server stops are
+ * skipped.
+ */
+@Component
+public class AccountNumberAllocator {
+
+    static final int BLOCK_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentMap<String, Block> blocks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AccountNumberAllocator(final RoutingDataSource dataSource, final PlatformTransactionManager transactionManager) {
+        this(new JdbcTemplate(dataSource), transactionManager);
+    }
+
+    AccountNumberAllocator(final JdbcTemplate jdbcTemplate, final PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Long next(final EntityAccountType entityAccountType) {
+        final String sequenceName = sequenceFor(entityAccountType);
+        final String key = ThreadLocalContextUtil.getTenant().getTenantIdentifier() + ":" + sequenceName;
+        Block block = this.blocks.get(key);
+        if (block == null) {
+            final Block existing = this.blocks.putIfAbsent(key, new Block());
+            block = existing == null ? this.blocks.get(key) : existing;
+        }
+        synchronized (block) {
+            if (block.isExhausted()) {
+                block.refill(reserveBlock(sequenceName));
+            }
+            return block.take();
+        }
+    }
+
+    /**
+     * @return the first number of a newly reserved block of
+     *         {@link #BLOCK_SIZE} numbers
+     */
+    private long reserveBlock(final String sequenceName) {
+        return this.transactionTemplate.execute(new TransactionCallback<Long>() {
+
+            @Override
+            public Long doInTransaction(@SuppressWarnings("unused") final TransactionStatus status) {
+                // LAST_INSERT_ID(expr) hands the new value back on this
+                // connection without a locking read of the row
+                final String sql = "update m_account_number_sequence set next_value = last_insert_id(next_value + ?) where sequence_name = ?";
+                AccountNumberAllocator.this.jdbcTemplate.update(sql, BLOCK_SIZE, sequenceName);
+                final Long nextValue = AccountNumberAllocator.this.jdbcTemplate.queryForObject("select last_insert_id()", Long.class);
+                return nextValue - BLOCK_SIZE;
+            }
+        });
+    }
+
+    static String sequenceFor(final EntityAccountType entityAccountType) {
+        switch (entityAccountType) {
+            case CLIENT:
+                return "client";
+            case LOAN:
+                return "loan";
+            case SAVINGS:
+                return "savings";
+            case CENTER:
+            case GROUP:
+                return "group";
+            default:
+                throw new IllegalArgumentException("No account number sequence for " + entityAccountType);
+        }
+    }
+
+    private static final class Block {
+
+        private long next;
+        private long end;
+
+        boolean isExhausted() {
+            return this.next >= this.end;
+        }
+
+        void refill(final long first) {
+            this.next = first;
+            this.end = first + BLOCK_SIZE;
+        }
+
+        long take() {
+            return this.next++;
+        }
+    }
+}
@@ -24,16 +24,20 @@ import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fineract.infrastructure.accountnumberformat.domain.AccountNumberFormat;
 import org.apache.fineract.infrastructure.accountnumberformat.domain.AccountNumberFormatEnumerations.AccountNumberPrefixType;
+import org.apache.fineract.infrastructure.accountnumberformat.domain.EntityAccountType;
 import org.apache.fineract.infrastructure.codes.domain.CodeValue;
 import org.apache.fineract.portfolio.group.domain.Group;
 import org.apache.fineract.portfolio.loanaccount.domain.Loan;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
- * Example {@link AccountNumberGenerator} for clients that takes an entities
- * auto generated database id and zero fills it ensuring the identifier is
- * always of a given <code>maxLength</code>.
+ * Example {@link AccountNumberGenerator} that takes the next number of the
+ * entity type from the {@link AccountNumberAllocator} and zero fills it
+ * ensuring the identifier is always of a given <code>maxLength</code>. As the
+ * number does not depend on the database id, it can be generated before the
+ * entity is first saved.
  */
 @Component
 public class AccountNumberGenerator {
@@ -46,9 +50,16 @@ public class AccountNumberGenerator {
     private final static String LOAN_PRODUCT_SHORT_NAME = "loanProductShortName";
     private final static String SAVINGS_PRODUCT_SHORT_NAME = "savingsProductShortName";
 
+    private final AccountNumberAllocator accountNumberAllocator;
+
+    @Autowired
+    public AccountNumberGenerator(final AccountNumberAllocator accountNumberAllocator) {
+        this.accountNumberAllocator = accountNumberAllocator;
+    }
+
     public String generate(Client client, AccountNumberFormat accountNumberFormat) {
         Map<String, String> propertyMap = new HashMap<>();
-        propertyMap.put(ID, client.getId().toString());
+        propertyMap.put(ID, this.accountNumberAllocator.next(EntityAccountType.CLIENT).toString());
         propertyMap.put(OFFICE_NAME, client.getOffice().getName());
         CodeValue clientType = client.clientType();
         if (clientType != null) {
@@ -59,7 +70,7 @@ public class AccountNumberGenerator {
 
     public String generate(Loan loan, AccountNumberFormat accountNumberFormat) {
         Map<String, String> propertyMap = new HashMap<>();
-        propertyMap.put(ID, loan.getId().toString());
+        propertyMap.put(ID, this.accountNumberAllocator.next(EntityAccountType.LOAN).toString());
         propertyMap.put(OFFICE_NAME, loan.getOffice().getName());
         propertyMap.put(LOAN_PRODUCT_SHORT_NAME, loan.loanProduct().getShortName());
         return generateAccountNumber(propertyMap, accountNumberFormat);
@@ -67,7 +78,7 @@ public class AccountNumberGenerator {
 
     public String generate(SavingsAccount savingsAccount, AccountNumberFormat accountNumberFormat) {
         Map<String, String> propertyMap = new HashMap<>();
-        propertyMap.put(ID, savingsAccount.getId().toString());
+        propertyMap.put(ID, this.accountNumberAllocator.next(EntityAccountType.SAVINGS).toString());
         propertyMap.put(OFFICE_NAME, savingsAccount.office().getName());
         propertyMap.put(SAVINGS_PRODUCT_SHORT_NAME, savingsAccount.savingsProduct().getShortName());
         return generateAccountNumber(propertyMap, accountNumberFormat);
@@ -106,14 +117,14 @@ public class AccountNumberGenerator {
     
     public String generateGroupAccountNumber(Group group, AccountNumberFormat accountNumberFormat) {
     	Map<String, String> propertyMap = new HashMap<>();
-        propertyMap.put(ID, group.getId().toString());
+        propertyMap.put(ID, this.accountNumberAllocator.next(EntityAccountType.GROUP).toString());
         propertyMap.put(OFFICE_NAME, group.getOffice().getName());        
         return generateAccountNumber(propertyMap, accountNumberFormat);
     }
     
     public String generateCenterAccountNumber(Group group, AccountNumberFormat accountNumberFormat) {
     	Map<String, String> propertyMap = new HashMap<>();
-        propertyMap.put(ID, group.getId().toString());
+        propertyMap.put(ID, this.accountNumberAllocator.next(EntityAccountType.CENTER).toString());
         propertyMap.put(OFFICE_NAME, group.getOffice().getName());        
         return generateAccountNumber(propertyMap, accountNumberFormat);
     }
@@ -36,6 +36,7 @@ import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.organisation.office.data.OfficeData;
+import org.apache.fineract.organisation.office.service.OfficeHierarchyService;
 import org.apache.fineract.organisation.office.service.OfficeReadPlatformService;
 import org.apache.fineract.organisation.staff.data.StaffData;
 import org.apache.fineract.organisation.staff.service.StaffReadPlatformService;
@@ -135,8 +136,7 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     @Override
     public Page<ClientData> retrieveAll(final SearchParameters searchParameters) {
 
-        final String userOfficeHierarchy = this.context.officeHierarchy();
-        final String underHierarchySearchString = userOfficeHierarchy + "%";
+        final Long userOfficeId = this.context.authenticatedUser().getOffice().getId();
         final String appUserID = String.valueOf(context.authenticatedUser().getId());
 
         // if (searchParameters.isScopedByOfficeHierarchy()) {
@@ -145,12 +145,19 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
         // }
 
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
+        sqlBuilder.append("select ");
+        if (!searchParameters.isKeysetPaginated()) {
+            sqlBuilder.append("SQL_CALC_FOUND_ROWS ");
+        }
         sqlBuilder.append(this.clientMapper.schema());
-        sqlBuilder.append(" where (o.hierarchy like ? or transferToOffice.hierarchy like ?) ");
+        sqlBuilder.append(" where (" + OfficeHierarchyService.inHierarchyCriteria("o.id", "?") + " or " + OfficeHierarchyService.inHierarchyCriteria("transferToOffice.id", "?") + ") ");
+        final List<Object> params = new ArrayList<>();
+        params.add(userOfficeId);
+        params.add(userOfficeId);
         
         if(searchParameters.isSelfUser()){
         	sqlBuilder.append(" and c.id in (select umap.client_id from m_selfservice_user_client_mapping as umap where umap.appuser_id = ? ) ");
+        	params.add(appUserID);
         }
 
         final String extraCriteria = buildSqlStringFromClientCriteria(searchParameters);
@@ -159,6 +166,18 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
             sqlBuilder.append(" and (").append(extraCriteria).append(")");
         }
 
+        if (searchParameters.isKeysetPaginated()) {
+            PaginationHelper.appendKeysetCriteria(sqlBuilder, "c.id", searchParameters, params);
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), params.toArray(), this.clientMapper,
+                    searchParameters, new PaginationHelper.KeyExtractor<ClientData>() {
+
+                        @Override
+                        public Long keyOf(final ClientData client) {
+                            return client.id();
+                        }
+                    });
+        }
+
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
 
@@ -175,11 +194,7 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
         }
 
         final String sqlCountRows = "SELECT FOUND_ROWS()";
-        Object[] params = new Object[] {underHierarchySearchString, underHierarchySearchString };
-        if(searchParameters.isSelfUser()){
-            params = new Object[] {underHierarchySearchString, underHierarchySearchString, appUserID };
-        }
-        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), params, this.clientMapper);
+        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), params.toArray(), this.clientMapper);
     }
 
     private String buildSqlStringFromClientCriteria(final SearchParameters searchParameters) {
@@ -238,13 +253,12 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     @Override
     public ClientData retrieveOne(final Long clientId) {
         try {
-            final String hierarchy = this.context.officeHierarchy();
-            final String hierarchySearchString = hierarchy + "%";
+            final Long userOfficeId = this.context.authenticatedUser().getOffice().getId();
 
             final String sql = "select " + this.clientMapper.schema()
-                    + " where ( o.hierarchy like ? or transferToOffice.hierarchy like ?) and c.id = ?";
-            final ClientData clientData = this.jdbcTemplate.queryForObject(sql, this.clientMapper, new Object[] { hierarchySearchString,
-                    hierarchySearchString, clientId });
+                    + " where (" + OfficeHierarchyService.inHierarchyCriteria("o.id", "?") + " or " + OfficeHierarchyService.inHierarchyCriteria("transferToOffice.id", "?") + ") and c.id = ?";
+            final ClientData clientData = this.jdbcTemplate.queryForObject(sql, this.clientMapper, new Object[] { userOfficeId,
+                    userOfficeId, clientId });
 
             final String clientGroupsSql = "select " + this.clientGroupsMapper.parentGroupsSchema();
 
@@ -209,6 +209,9 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
                 rollbackTransaction = this.commandProcessingService.validateCommand(commandWrapper, currentUser);
             }
 
+            /* Generate account number if required */
+            generateAccountNumberIfRequired(newGroup);
+
             // pre-save to generate id for use in group hierarchy
             this.groupRepository.save(newGroup);
 
@@ -218,9 +221,6 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
              */
             newGroup.generateHierarchy();
 
-            /* Generate account number if required */
-            generateAccountNumberIfRequired(newGroup);
-
             this.groupRepository.saveAndFlush(newGroup);
             newGroup.captureStaffHistoryDuringCenterCreation(staff, activationDate);
             return new CommandProcessingResultBuilder() //
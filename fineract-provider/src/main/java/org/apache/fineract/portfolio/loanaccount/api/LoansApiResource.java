@@ -26,6 +26,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -58,6 +60,8 @@ import org.apache.fineract.infrastructure.core.serialization.DefaultToApiJsonSer
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
+import org.apache.fineract.infrastructure.core.service.RequestTaskExecutor;
+import org.apache.fineract.infrastructure.core.service.TenantAwareTaskExecutor;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.organisation.monetary.data.CurrencyData;
 import org.apache.fineract.organisation.staff.data.StaffData;
@@ -164,6 +168,7 @@ public class LoansApiResource {
     private final PortfolioAccountReadPlatformService portfolioAccountReadPlatformService;
     private final AccountAssociationsReadPlatformService accountAssociationsReadPlatformService;
     private final LoanScheduleHistoryReadPlatformService loanScheduleHistoryReadPlatformService;
+    private final RequestTaskExecutor taskExecutor;
 
     @Autowired
     public LoansApiResource(final PlatformSecurityContext context, final LoanReadPlatformService loanReadPlatformService,
@@ -182,7 +187,8 @@ public class LoansApiResource {
             final CalendarReadPlatformService calendarReadPlatformService, final NoteReadPlatformServiceImpl noteReadPlatformService,
             final PortfolioAccountReadPlatformService portfolioAccountReadPlatformServiceImpl,
             final AccountAssociationsReadPlatformService accountAssociationsReadPlatformService,
-            final LoanScheduleHistoryReadPlatformService loanScheduleHistoryReadPlatformService) {
+            final LoanScheduleHistoryReadPlatformService loanScheduleHistoryReadPlatformService,
+            final RequestTaskExecutor taskExecutor) {
         this.context = context;
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanProductReadPlatformService = loanProductReadPlatformService;
@@ -206,6 +212,7 @@ public class LoansApiResource {
         this.portfolioAccountReadPlatformService = portfolioAccountReadPlatformServiceImpl;
         this.accountAssociationsReadPlatformService = accountAssociationsReadPlatformService;
         this.loanScheduleHistoryReadPlatformService = loanScheduleHistoryReadPlatformService;
+        this.taskExecutor = taskExecutor;
     }
 
     /*
@@ -352,39 +359,57 @@ public class LoansApiResource {
 
         this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
 
-        LoanAccountData loanBasicDetails = this.loanReadPlatformService.retrieveOne(loanId);
-        if (loanBasicDetails.isInterestRecalculationEnabled()) {
-            Collection<CalendarData> interestRecalculationCalendarDatas = this.calendarReadPlatformService
-                    .retrieveCalendarsByEntity(loanBasicDetails.getInterestRecalculationDetailId(),
-                            CalendarEntityType.LOAN_RECALCULATION_REST_DETAIL.getValue(), null);
-            CalendarData calendarData = null;
-            if (!CollectionUtils.isEmpty(interestRecalculationCalendarDatas)) {
-                calendarData = interestRecalculationCalendarDatas.iterator().next();
-            }
-
-            Collection<CalendarData> interestRecalculationCompoundingCalendarDatas = this.calendarReadPlatformService
-                    .retrieveCalendarsByEntity(loanBasicDetails.getInterestRecalculationDetailId(),
-                            CalendarEntityType.LOAN_RECALCULATION_COMPOUNDING_DETAIL.getValue(), null);
-            CalendarData compoundingCalendarData = null;
-            if (!CollectionUtils.isEmpty(interestRecalculationCompoundingCalendarDatas)) {
-                compoundingCalendarData = interestRecalculationCompoundingCalendarDatas.iterator().next();
-            }
-            loanBasicDetails = LoanAccountData.withInterestRecalculationCalendarData(loanBasicDetails, calendarData,
-                    compoundingCalendarData);
+        final LoanAccountData loanDetails = this.loanReadPlatformService.retrieveOne(loanId);
+        LoanAccountData loanBasicDetails = loanDetails;
+
+        // everything below only depends on the loan itself, so the queries
+        // run concurrently and the response waits for the slowest of them
+        Future<Collection<CalendarData>> interestRecalculationCalendars = null;
+        if (loanDetails.isInterestRecalculationEnabled()) {
+            interestRecalculationCalendars = this.taskExecutor.submit(new Callable<Collection<CalendarData>>() {
+
+                @Override
+                public Collection<CalendarData> call() {
+                    return LoansApiResource.this.calendarReadPlatformService.retrieveCalendarsByEntity(
+                            loanDetails.getInterestRecalculationDetailId(),
+                            Arrays.asList(CalendarEntityType.LOAN_RECALCULATION_REST_DETAIL.getValue(),
+                                    CalendarEntityType.LOAN_RECALCULATION_COMPOUNDING_DETAIL.getValue()));
+                }
+            });
         }
+        final Future<Collection<InterestRatePeriodData>> interestRatesPeriodsResult = this.taskExecutor
+                .submit(new Callable<Collection<InterestRatePeriodData>>() {
 
-        Collection<InterestRatePeriodData> interestRatesPeriods = this.loanReadPlatformService.retrieveLoanInterestRatePeriodData(loanId);
+                    @Override
+                    public Collection<InterestRatePeriodData> call() {
+                        return LoansApiResource.this.loanReadPlatformService.retrieveLoanInterestRatePeriodData(loanId);
+                    }
+                });
+        final Future<Collection<ChargeData>> overdueChargesResult = this.taskExecutor.submit(new Callable<Collection<ChargeData>>() {
 
-        Collection<LoanTransactionData> loanRepayments = null;
-        LoanScheduleData repaymentSchedule = null;
-        Collection<LoanChargeData> charges = null;
-        Collection<GuarantorData> guarantors = null;
-        Collection<CollateralData> collateral = null;
-        CalendarData meeting = null;
-        Collection<NoteData> notes = null;
-        PortfolioAccountData linkedAccount = null;
-        Collection<DisbursementData> disbursementData = null;
-        Collection<LoanTermVariationsData> emiAmountVariations = null;
+            @Override
+            public Collection<ChargeData> call() {
+                return LoansApiResource.this.chargeReadPlatformService.retrieveLoanProductCharges(loanDetails.loanProductId(),
+                        ChargeTimeType.OVERDUE_INSTALLMENT);
+            }
+        });
+        final Future<PaidInAdvanceData> paidInAdvanceResult = this.taskExecutor.submit(new Callable<PaidInAdvanceData>() {
+
+            @Override
+            public PaidInAdvanceData call() {
+                return LoansApiResource.this.loanReadPlatformService.retrieveTotalPaidInAdvance(loanId);
+            }
+        });
+
+        Future<Collection<GuarantorData>> guarantorsResult = null;
+        Future<Collection<LoanTransactionData>> loanRepaymentsResult = null;
+        Future<Collection<DisbursementData>> disbursementDataResult = null;
+        Future<Collection<LoanTermVariationsData>> emiAmountVariationsResult = null;
+        Future<Collection<LoanChargeData>> chargesResult = null;
+        Future<Collection<CollateralData>> collateralResult = null;
+        Future<CalendarData> meetingResult = null;
+        Future<Collection<NoteData>> notesResult = null;
+        Future<PortfolioAccountData> linkedAccountResult = null;
 
         final Set<String> mandatoryResponseParameters = new HashSet<>();
         final Set<String> associationParameters = ApiParameterHelper.extractAssociationsForResponseIfProvided(uriInfo.getQueryParameters());
@@ -399,85 +424,153 @@ public class LoansApiResource {
 
             if (associationParameters.contains("guarantors")) {
                 mandatoryResponseParameters.add("guarantors");
-                guarantors = this.guarantorReadPlatformService.retrieveGuarantorsForLoan(loanId);
-                if (CollectionUtils.isEmpty(guarantors)) {
-                    guarantors = null;
-                }
+                guarantorsResult = this.taskExecutor.submit(new Callable<Collection<GuarantorData>>() {
+
+                    @Override
+                    public Collection<GuarantorData> call() {
+                        return LoansApiResource.this.guarantorReadPlatformService.retrieveGuarantorsForLoan(loanId);
+                    }
+                });
             }
 
             if (associationParameters.contains("transactions")) {
                 mandatoryResponseParameters.add("transactions");
-                final Collection<LoanTransactionData> currentLoanRepayments = this.loanReadPlatformService.retrieveLoanTransactions(loanId);
-                if (!CollectionUtils.isEmpty(currentLoanRepayments)) {
-                    loanRepayments = currentLoanRepayments;
-                }
+                loanRepaymentsResult = this.taskExecutor.submit(new Callable<Collection<LoanTransactionData>>() {
+
+                    @Override
+                    public Collection<LoanTransactionData> call() {
+                        return LoansApiResource.this.loanReadPlatformService.retrieveLoanTransactions(loanId);
+                    }
+                });
             }
 
             if (associationParameters.contains("multiDisburseDetails") || associationParameters.contains("repaymentSchedule")) {
                 mandatoryResponseParameters.add("multiDisburseDetails");
-                disbursementData = this.loanReadPlatformService.retrieveLoanDisbursementDetails(loanId);
+                disbursementDataResult = this.taskExecutor.submit(new Callable<Collection<DisbursementData>>() {
+
+                    @Override
+                    public Collection<DisbursementData> call() {
+                        return LoansApiResource.this.loanReadPlatformService.retrieveLoanDisbursementDetails(loanId);
+                    }
+                });
             }
 
             if (associationParameters.contains("emiAmountVariations") || associationParameters.contains("repaymentSchedule")) {
                 mandatoryResponseParameters.add("emiAmountVariations");
-                emiAmountVariations = this.loanReadPlatformService.retrieveLoanTermVariations(loanId,
-                        LoanTermVariationType.EMI_AMOUNT.getValue());
-            }
-
-            if (associationParameters.contains("repaymentSchedule")) {
-                mandatoryResponseParameters.add("repaymentSchedule");
-                final RepaymentScheduleRelatedLoanData repaymentScheduleRelatedData = loanBasicDetails.repaymentScheduleRelatedData();
-                repaymentSchedule = this.loanReadPlatformService.retrieveRepaymentSchedule(loanId, repaymentScheduleRelatedData,
-                        disbursementData, loanBasicDetails.isInterestRecalculationEnabled(), loanBasicDetails.getTotalPaidFeeCharges());
+                emiAmountVariationsResult = this.taskExecutor.submit(new Callable<Collection<LoanTermVariationsData>>() {
 
-                if (associationParameters.contains("futureSchedule") && loanBasicDetails.isInterestRecalculationEnabled()) {
-                    mandatoryResponseParameters.add("futureSchedule");
-                    this.calculationPlatformService.updateFutureSchedule(repaymentSchedule, loanId);
-                }
-
-                if (associationParameters.contains("originalSchedule") && loanBasicDetails.isInterestRecalculationEnabled()
-                        && loanBasicDetails.isActive()) {
-                    mandatoryResponseParameters.add("originalSchedule");
-                    LoanScheduleData loanScheduleData = this.loanScheduleHistoryReadPlatformService.retrieveRepaymentArchiveSchedule(
-                            loanId, repaymentScheduleRelatedData, disbursementData);
-                    loanBasicDetails = LoanAccountData.withOriginalSchedule(loanBasicDetails, loanScheduleData);
-                }
+                    @Override
+                    public Collection<LoanTermVariationsData> call() {
+                        return LoansApiResource.this.loanReadPlatformService.retrieveLoanTermVariations(loanId,
+                                LoanTermVariationType.EMI_AMOUNT.getValue());
+                    }
+                });
             }
 
             if (associationParameters.contains("charges")) {
                 mandatoryResponseParameters.add("charges");
-                charges = this.loanChargeReadPlatformService.retrieveLoanCharges(loanId);
-                if (CollectionUtils.isEmpty(charges)) {
-                    charges = null;
-                }
+                chargesResult = this.taskExecutor.submit(new Callable<Collection<LoanChargeData>>() {
+
+                    @Override
+                    public Collection<LoanChargeData> call() {
+                        return LoansApiResource.this.loanChargeReadPlatformService.retrieveLoanCharges(loanId);
+                    }
+                });
             }
 
             if (associationParameters.contains("collateral")) {
                 mandatoryResponseParameters.add("collateral");
-                collateral = this.loanCollateralReadPlatformService.retrieveCollaterals(loanId);
-                if (CollectionUtils.isEmpty(collateral)) {
-                    collateral = null;
-                }
+                collateralResult = this.taskExecutor.submit(new Callable<Collection<CollateralData>>() {
+
+                    @Override
+                    public Collection<CollateralData> call() {
+                        return LoansApiResource.this.loanCollateralReadPlatformService.retrieveCollaterals(loanId);
+                    }
+                });
             }
 
             if (associationParameters.contains("meeting")) {
                 mandatoryResponseParameters.add("meeting");
-                meeting = this.calendarReadPlatformService.retrieveLoanCalendar(loanId);
+                meetingResult = this.taskExecutor.submit(new Callable<CalendarData>() {
+
+                    @Override
+                    public CalendarData call() {
+                        return LoansApiResource.this.calendarReadPlatformService.retrieveLoanCalendar(loanId);
+                    }
+                });
             }
 
             if (associationParameters.contains("notes")) {
                 mandatoryResponseParameters.add("notes");
-                notes = this.noteReadPlatformService.retrieveNotesByResource(loanId, NoteType.LOAN.getValue());
-                if (CollectionUtils.isEmpty(notes)) {
-                    notes = null;
-                }
+                notesResult = this.taskExecutor.submit(new Callable<Collection<NoteData>>() {
+
+                    @Override
+                    public Collection<NoteData> call() {
+                        return LoansApiResource.this.noteReadPlatformService.retrieveNotesByResource(loanId, NoteType.LOAN.getValue());
+                    }
+                });
             }
 
             if (associationParameters.contains("linkedAccount")) {
                 mandatoryResponseParameters.add("linkedAccount");
-                linkedAccount = this.accountAssociationsReadPlatformService.retriveLoanLinkedAssociation(loanId);
+                linkedAccountResult = this.taskExecutor.submit(new Callable<PortfolioAccountData>() {
+
+                    @Override
+                    public PortfolioAccountData call() {
+                        return LoansApiResource.this.accountAssociationsReadPlatformService.retriveLoanLinkedAssociation(loanId);
+                    }
+                });
             }
+        }
 
+        if (interestRecalculationCalendars != null) {
+            CalendarData calendarData = null;
+            CalendarData compoundingCalendarData = null;
+            for (final CalendarData calendar : TenantAwareTaskExecutor.getResult(interestRecalculationCalendars)) {
+                final int entityType = calendar.getEntityType().getId().intValue();
+                if (calendarData == null && CalendarEntityType.LOAN_RECALCULATION_REST_DETAIL.getValue() == entityType) {
+                    calendarData = calendar;
+                } else if (compoundingCalendarData == null
+                        && CalendarEntityType.LOAN_RECALCULATION_COMPOUNDING_DETAIL.getValue() == entityType) {
+                    compoundingCalendarData = calendar;
+                }
+            }
+            loanBasicDetails = LoanAccountData.withInterestRecalculationCalendarData(loanBasicDetails, calendarData,
+                    compoundingCalendarData);
+        }
+
+        final Collection<InterestRatePeriodData> interestRatesPeriods = TenantAwareTaskExecutor.getResult(interestRatesPeriodsResult);
+        final Collection<GuarantorData> guarantors = emptyAsNull(resultOf(guarantorsResult));
+        final Collection<LoanTransactionData> loanRepayments = emptyAsNull(resultOf(loanRepaymentsResult));
+        final Collection<DisbursementData> disbursementData = resultOf(disbursementDataResult);
+        final Collection<LoanTermVariationsData> emiAmountVariations = resultOf(emiAmountVariationsResult);
+        final Collection<LoanChargeData> charges = emptyAsNull(resultOf(chargesResult));
+        final Collection<CollateralData> collateral = emptyAsNull(resultOf(collateralResult));
+        final CalendarData meeting = resultOf(meetingResult);
+        final Collection<NoteData> notes = emptyAsNull(resultOf(notesResult));
+        PortfolioAccountData linkedAccount = resultOf(linkedAccountResult);
+
+        // the schedule needs the disbursement details, so it is generated
+        // once the concurrent queries are in
+        LoanScheduleData repaymentSchedule = null;
+        if (associationParameters.contains("repaymentSchedule")) {
+            mandatoryResponseParameters.add("repaymentSchedule");
+            final RepaymentScheduleRelatedLoanData repaymentScheduleRelatedData = loanBasicDetails.repaymentScheduleRelatedData();
+            repaymentSchedule = this.loanReadPlatformService.retrieveRepaymentSchedule(loanId, repaymentScheduleRelatedData,
+                    disbursementData, loanBasicDetails.isInterestRecalculationEnabled(), loanBasicDetails.getTotalPaidFeeCharges());
+
+            if (associationParameters.contains("futureSchedule") && loanBasicDetails.isInterestRecalculationEnabled()) {
+                mandatoryResponseParameters.add("futureSchedule");
+                this.calculationPlatformService.updateFutureSchedule(repaymentSchedule, loanId);
+            }
+
+            if (associationParameters.contains("originalSchedule") && loanBasicDetails.isInterestRecalculationEnabled()
+                    && loanBasicDetails.isActive()) {
+                mandatoryResponseParameters.add("originalSchedule");
+                LoanScheduleData loanScheduleData = this.loanScheduleHistoryReadPlatformService.retrieveRepaymentArchiveSchedule(
+                        loanId, repaymentScheduleRelatedData, disbursementData);
+                loanBasicDetails = LoanAccountData.withOriginalSchedule(loanBasicDetails, loanScheduleData);
+            }
         }
 
         Collection<LoanProductData> productOptions = null;
@@ -552,10 +645,9 @@ public class LoansApiResource {
 
         }
 
-        Collection<ChargeData> overdueCharges = this.chargeReadPlatformService.retrieveLoanProductCharges(loanBasicDetails.loanProductId(),
-                ChargeTimeType.OVERDUE_INSTALLMENT);
+        final Collection<ChargeData> overdueCharges = TenantAwareTaskExecutor.getResult(overdueChargesResult);
 
-        paidInAdvanceTemplate = this.loanReadPlatformService.retrieveTotalPaidInAdvance(loanId);
+        paidInAdvanceTemplate = TenantAwareTaskExecutor.getResult(paidInAdvanceResult);
 
         final LoanAccountData loanAccount = LoanAccountData.associationsAndTemplate(loanBasicDetails, repaymentSchedule, loanRepayments,
                 charges, collateral, guarantors, meeting, productOptions, loanTermFrequencyTypeOptions, repaymentFrequencyTypeOptions,
@@ -569,6 +661,16 @@ public class LoansApiResource {
         return this.toApiJsonSerializer.serialize(settings, loanAccount, this.LOAN_DATA_PARAMETERS);
     }
 
+    private static <T> T resultOf(final Future<T> future) {
+        if (future == null) { return null; }
+        return TenantAwareTaskExecutor.getResult(future);
+    }
+
+    private static <T> Collection<T> emptyAsNull(final Collection<T> collection) {
+        if (CollectionUtils.isEmpty(collection)) { return null; }
+        return collection;
+    }
+
     @GET
     @Consumes({ MediaType.APPLICATION_JSON })
     @Produces({ MediaType.APPLICATION_JSON })
@@ -578,12 +680,16 @@ public class LoansApiResource {
             // @QueryParam("underHierarchy") final String hierarchy,
             @QueryParam("offset") final Integer offset, @QueryParam("limit") final Integer limit,
             @QueryParam("orderBy") final String orderBy, @QueryParam("sortOrder") final String sortOrder,
-            @QueryParam("accountNo") final String accountNo) {
+            @QueryParam("accountNo") final String accountNo, @DefaultValue("false") @QueryParam("keyset") final boolean keyset,
+            @QueryParam("cursor") final String cursor) {
 
         this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
 
-        final SearchParameters searchParameters = SearchParameters.forLoans(sqlSearch, externalId, offset, limit, orderBy, sortOrder,
+        SearchParameters searchParameters = SearchParameters.forLoans(sqlSearch, externalId, offset, limit, orderBy, sortOrder,
                 accountNo);
+        if (keyset || cursor != null) {
+            searchParameters = searchParameters.withKeysetPagination(cursor);
+        }
 
         final Page<LoanAccountData> loanBasicDetails = this.loanReadPlatformService.retrieveAll(searchParameters);
 
@@ -602,7 +708,7 @@ public class LoansApiResource {
             final JsonElement parsedQuery = this.fromJsonHelper.parse(apiRequestBodyAsJson);
             final JsonQuery query = JsonQuery.from(apiRequestBodyAsJson, parsedQuery, this.fromJsonHelper);
 
-            final LoanScheduleModel loanSchedule = this.calculationPlatformService.calculateLoanSchedule(query, true);
+            final LoanScheduleModel loanSchedule = this.calculationPlatformService.previewLoanSchedule(query);
 
             final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
             return this.loanScheduleToApiJsonSerializer.serialize(settings, loanSchedule.toData(), new HashSet<String>());
@@ -1411,6 +1411,10 @@ public class LoanAccountData {
                 this.feeChargesAtDisbursementCharged);
     }
 
+    public Long getId() {
+        return this.id;
+    }
+
     public Long officeId() {
         Long officeId = this.clientOfficeId;
         if (officeId == null) {
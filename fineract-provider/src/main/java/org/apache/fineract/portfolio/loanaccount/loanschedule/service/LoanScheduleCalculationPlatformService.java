@@ -26,6 +26,13 @@ public interface LoanScheduleCalculationPlatformService {
 
     LoanScheduleModel calculateLoanSchedule(JsonQuery query, Boolean validateParams);
 
+    /**
+     * Validates and calculates a schedule preview, reusing a previously
+     * calculated schedule for the same terms when one is cached. The returned
+     * model may be shared and must not be modified.
+     */
+    LoanScheduleModel previewLoanSchedule(JsonQuery query);
+
     void updateFutureSchedule(LoanScheduleData loanScheduleData, Long loanId);
 
     LoanScheduleData generateLoanScheduleForVariableInstallmentRequest(Long loanId, String json);
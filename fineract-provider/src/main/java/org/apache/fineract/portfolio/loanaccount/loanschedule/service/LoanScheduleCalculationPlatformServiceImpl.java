@@ -77,6 +77,7 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
     private final ConfigurationDomainService configurationDomainService;
     private final CurrencyReadPlatformService currencyReadPlatformService;
     private final LoanUtilService loanUtilService;
+    private final LoanSchedulePreviewCache loanSchedulePreviewCache;
 
     @Autowired
     public LoanScheduleCalculationPlatformServiceImpl(final CalculateLoanScheduleQueryFromApiJsonHelper fromApiJsonDeserializer,
@@ -86,7 +87,7 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
             final LoanAssembler loanAssembler,
             final LoanRepaymentScheduleTransactionProcessorFactory loanRepaymentScheduleTransactionProcessorFactory,
             final ConfigurationDomainService configurationDomainService, final CurrencyReadPlatformService currencyReadPlatformService,
-            final LoanUtilService loanUtilService) {
+            final LoanUtilService loanUtilService, final LoanSchedulePreviewCache loanSchedulePreviewCache) {
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.loanScheduleAssembler = loanScheduleAssembler;
         this.fromJsonHelper = fromJsonHelper;
@@ -99,11 +100,33 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
         this.configurationDomainService = configurationDomainService;
         this.currencyReadPlatformService = currencyReadPlatformService;
         this.loanUtilService = loanUtilService;
+        this.loanSchedulePreviewCache = loanSchedulePreviewCache;
     }
 
     @Override
     public LoanScheduleModel calculateLoanSchedule(final JsonQuery query, Boolean validateParams) {
+        return calculateLoanSchedule(query, validateParams, findLoanProduct(query));
+    }
+
+    @Override
+    public LoanScheduleModel previewLoanSchedule(final JsonQuery query) {
+
+        final String cacheKey = this.loanSchedulePreviewCache.keyFor(query.parsedJson());
+        final LoanScheduleModel cachedSchedule = this.loanSchedulePreviewCache.get(cacheKey);
+        if (cachedSchedule != null) { return cachedSchedule; }
+
+        final LoanProduct loanProduct = findLoanProduct(query);
+        final LoanScheduleModel loanSchedule = calculateLoanSchedule(query, true, loanProduct);
 
+        // borrower cycle terms depend on the client's loan counter which is
+        // not part of the request so those previews are never reused
+        if (!loanProduct.useBorrowerCycle()) {
+            this.loanSchedulePreviewCache.put(cacheKey, loanSchedule);
+        }
+        return loanSchedule;
+    }
+
+    private LoanProduct findLoanProduct(final JsonQuery query) {
         /***
          * TODO: Vishwas, this is probably not required, test and remove the
          * same
@@ -111,6 +134,10 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
         final Long productId = this.fromJsonHelper.extractLongNamed("productId", query.parsedJson());
         final LoanProduct loanProduct = this.loanProductRepository.findOne(productId);
         if (loanProduct == null) { throw new LoanProductNotFoundException(productId); }
+        return loanProduct;
+    }
+
+    private LoanScheduleModel calculateLoanSchedule(final JsonQuery query, final Boolean validateParams, final LoanProduct loanProduct) {
 
         if (validateParams) {
             boolean isMeetingMandatoryForJLGLoans = configurationDomainService.isMeetingMandatoryForJLGLoans();
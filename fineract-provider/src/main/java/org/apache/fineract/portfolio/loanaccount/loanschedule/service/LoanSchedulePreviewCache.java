@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.loanschedule.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.fineract.infrastructure.cache.service.RuntimeDelegatingCacheManager;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.event.HookEvent;
+import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Holds previously calculated loan schedule previews keyed by a hash of the
+ * canonical (key sorted) request terms, the tenant and the tenant's business
+ * date.
+ * 
+ * Entries are stored in the <code>loanSchedulePreviews</code> cache of the
+ * {@link RuntimeDelegatingCacheManager} so they are bounded and expire as
+ * configured in ehcache.xml and are only kept when caching is switched on.
+ * The whole cache is cleared whenever a command that can change a generated
+ * schedule (products, charges, holidays, working days, floating rates,
+ * calendars, configuration or a client/group changing office) is processed.
+ */
+@Component
+public class LoanSchedulePreviewCache implements ApplicationListener<HookEvent> {
+
+    public static final String CACHE_NAME = "loanSchedulePreviews";
+
+    private static final Set<String> INVALIDATING_ENTITIES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("LOANPRODUCT",
+            "CHARGE", "HOLIDAY", "WORKINGDAYS", "FLOATINGRATE", "CALENDAR", "CONFIGURATION", "CURRENCY")));
+
+    private static final Set<String> INVALIDATING_TRANSFER_ACTIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "PROPOSEANDACCEPTTRANSFER", "ACCEPTTRANSFER", "TRANSFERCLIENTS")));
+
+    private final RuntimeDelegatingCacheManager cacheManager;
+
+    @Autowired
+    public LoanSchedulePreviewCache(@Qualifier("runtimeDelegatingCacheManager") final RuntimeDelegatingCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public String keyFor(final JsonElement terms) {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final String termsHash = Hashing.sha256().hashString(canonicalJson(terms), Charsets.UTF_8).toString();
+        return tenantIdentifier + ":" + DateUtils.getLocalDateOfTenant() + ":" + termsHash;
+    }
+
+    public LoanScheduleModel get(final String key) {
+        final Cache cache = this.cacheManager.getCache(CACHE_NAME);
+        if (cache == null) { return null; }
+        final ValueWrapper value = cache.get(key);
+        return value == null ? null : (LoanScheduleModel) value.get();
+    }
+
+    public void put(final String key, final LoanScheduleModel loanSchedule) {
+        final Cache cache = this.cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.put(key, loanSchedule);
+        }
+    }
+
+    public void invalidate() {
+        final Cache cache = this.cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(final HookEvent event) {
+        final HookEventSource source = event.getSource();
+        if (INVALIDATING_ENTITIES.contains(source.getEntityName()) || INVALIDATING_TRANSFER_ACTIONS.contains(source.getActionName())) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Renders the json with object members sorted by name so that requests
+     * carrying the same terms in a different order share a cache entry.
+     */
+    static String canonicalJson(final JsonElement element) {
+        final StringBuilder json = new StringBuilder();
+        appendCanonical(json, element);
+        return json.toString();
+    }
+
+    private static void appendCanonical(final StringBuilder json, final JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            json.append("null");
+        } else if (element.isJsonObject()) {
+            final JsonObject object = element.getAsJsonObject();
+            final List<String> names = new ArrayList<>();
+            for (final Map.Entry<String, JsonElement> member : object.entrySet()) {
+                names.add(member.getKey());
+            }
+            Collections.sort(names);
+            json.append('{');
+            for (int i = 0; i < names.size(); i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append('"').append(names.get(i)).append("\":");
+                appendCanonical(json, object.get(names.get(i)));
+            }
+            json.append('}');
+        } else if (element.isJsonArray()) {
+            final JsonArray array = element.getAsJsonArray();
+            json.append('[');
+            for (int i = 0; i < array.size(); i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                appendCanonical(json, array.get(i));
+            }
+            json.append(']');
+        } else {
+            json.append(element.toString());
+        }
+    }
+}
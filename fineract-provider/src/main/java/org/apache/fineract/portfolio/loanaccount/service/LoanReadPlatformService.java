@@ -89,7 +89,13 @@ public interface LoanReadPlatformService {
      * result overdue installments with this charge already applied are not
      * returned.
      */
-    Collection<OverdueLoanScheduleData> retrieveAllLoansWithOverdueInstallments(final Long penaltyWaitPeriod, final Boolean backdatePenalties);
+    /**
+     * @param loanIds
+     *            restricts the result to these loans; may be null to consider
+     *            all loans
+     */
+    Collection<OverdueLoanScheduleData> retrieveAllLoansWithOverdueInstallments(final Long penaltyWaitPeriod, final Boolean backdatePenalties,
+            final Collection<Long> loanIds);
 
     Integer retriveLoanCounter(Long groupId, Integer loanType, Long productId);
 
@@ -48,6 +48,7 @@ import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
 import org.apache.fineract.organisation.monetary.domain.ApplicationCurrencyRepositoryWrapper;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.office.service.OfficeHierarchyService;
 import org.apache.fineract.organisation.staff.data.StaffData;
 import org.apache.fineract.organisation.staff.service.StaffReadPlatformService;
 import org.apache.fineract.portfolio.account.data.AccountTransferData;
@@ -187,8 +188,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 
         try {
             final AppUser currentUser = this.context.authenticatedUser();
-            final String hierarchy = currentUser.getOffice().getHierarchy();
-            final String hierarchySearchString = hierarchy + "%";
+            final Long userOfficeId = currentUser.getOffice().getId();
 
             final LoanMapper rm = new LoanMapper();
 
@@ -197,10 +197,9 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
             sqlBuilder.append(rm.loanSchema());
             sqlBuilder.append(" join m_office o on (o.id = c.office_id or o.id = g.office_id) ");
             sqlBuilder.append(" left join m_office transferToOffice on transferToOffice.id = c.transfer_to_office_id ");
-            sqlBuilder.append(" where l.id=? and ( o.hierarchy like ? or transferToOffice.hierarchy like ?)");
+            sqlBuilder.append(" where l.id=? and (" + OfficeHierarchyService.inHierarchyCriteria("o.id", "?") + " or " + OfficeHierarchyService.inHierarchyCriteria("transferToOffice.id", "?") + ")");
 
-            return this.jdbcTemplate.queryForObject(sqlBuilder.toString(), rm, new Object[] { loanId, hierarchySearchString,
-                    hierarchySearchString });
+            return this.jdbcTemplate.queryForObject(sqlBuilder.toString(), rm, new Object[] { loanId, userOfficeId, userOfficeId });
         } catch (final EmptyResultDataAccessException e) {
             throw new LoanNotFoundException(loanId);
         }
@@ -251,11 +250,13 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
     public Page<LoanAccountData> retrieveAll(final SearchParameters searchParameters) {
 
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
+        final Long userOfficeId = currentUser.getOffice().getId();
 
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
+        sqlBuilder.append("select ");
+        if (!searchParameters.isKeysetPaginated()) {
+            sqlBuilder.append("SQL_CALC_FOUND_ROWS ");
+        }
         sqlBuilder.append(this.loaanLoanMapper.loanSchema());
 
         // TODO - for time being this will data scope list of loans returned to
@@ -265,12 +266,12 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         // but that at present is an edge case
         sqlBuilder.append(" join m_office o on o.id = c.office_id");
         sqlBuilder.append(" left join m_office transferToOffice on transferToOffice.id = c.transfer_to_office_id ");
-        sqlBuilder.append(" where ( o.hierarchy like ? or transferToOffice.hierarchy like ?)");
+        sqlBuilder.append(" where (" + OfficeHierarchyService.inHierarchyCriteria("o.id", "?") + " or " + OfficeHierarchyService.inHierarchyCriteria("transferToOffice.id", "?") + ")");
 
         int arrayPos = 2;
         List<Object> extraCriterias = new ArrayList<>();
-        extraCriterias.add(hierarchySearchString);
-        extraCriterias.add(hierarchySearchString);
+        extraCriterias.add(userOfficeId);
+        extraCriterias.add(userOfficeId);
 
         String sqlQueryCriteria = searchParameters.getSqlSearch();
         if (StringUtils.isNotBlank(sqlQueryCriteria)) {
@@ -290,6 +291,18 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
             arrayPos = arrayPos + 1;
         }
 
+        if (searchParameters.isKeysetPaginated()) {
+            PaginationHelper.appendKeysetCriteria(sqlBuilder, "l.id", searchParameters, extraCriterias);
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), extraCriterias.toArray(),
+                    this.loaanLoanMapper, searchParameters, new PaginationHelper.KeyExtractor<LoanAccountData>() {
+
+                        @Override
+                        public Long keyOf(final LoanAccountData loan) {
+                            return loan.getId();
+                        }
+                    });
+        }
+
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
 
@@ -1454,22 +1467,38 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 
     @Override
     public Collection<OverdueLoanScheduleData> retrieveAllLoansWithOverdueInstallments(final Long penaltyWaitPeriod,
-            final Boolean backdatePenalties) {
+            final Boolean backdatePenalties, final Collection<Long> loanIds) {
         final MusoniOverdueLoanScheduleMapper rm = new MusoniOverdueLoanScheduleMapper();
 
         final StringBuilder sqlBuilder = new StringBuilder(400);
+        final List<Object> params = new ArrayList<>();
         sqlBuilder.append("select ").append(rm.schema()).append(" where DATE_SUB(CURDATE(),INTERVAL ? DAY) > ls.duedate ")
                 .append(" and ls.completed_derived <> 1 and mc.charge_applies_to_enum =1 ")
                 .append(" and ls.recalculated_interest_component <> 1 ")
                 .append(" and mc.charge_time_enum = 9 and ml.loan_status_id = 300 ");
+        params.add(penaltyWaitPeriod);
 
-        if (backdatePenalties) { return this.jdbcTemplate.query(sqlBuilder.toString(), rm, new Object[] { penaltyWaitPeriod }); }
-        // Only apply for duedate = yesterday (so that we don't apply
-        // penalties on the duedate itself)
-        sqlBuilder.append(" and ls.duedate >= DATE_SUB(CURDATE(),INTERVAL (? + 1) DAY)");
+        if (loanIds != null) {
+            if (loanIds.isEmpty()) { return new ArrayList<>(); }
+            sqlBuilder.append(" and ml.id in (").append(StringUtils.join(loanIds, ',')).append(")");
+        }
 
-        return this.jdbcTemplate.query(sqlBuilder.toString(), rm, new Object[] { penaltyWaitPeriod, penaltyWaitPeriod });
+        if (backdatePenalties) {
+            // a one-shot penalty is only ever applied once to an installment,
+            // so skip installments that already carry it (overdue penalties
+            // are recorded in m_loan_overdue_installment_charge); recurring
+            // penalties are revisited every run
+            sqlBuilder.append(" and (mc.fee_frequency is not null or not exists (select 1 from m_loan_overdue_installment_charge oic ")
+                    .append(" join m_loan_charge lc on lc.id = oic.loan_charge_id ")
+                    .append(" where oic.loan_schedule_id = ls.id and lc.charge_id = mc.id and lc.is_active = 1))");
+        } else {
+            // Only apply for duedate = yesterday (so that we don't apply
+            // penalties on the duedate itself)
+            sqlBuilder.append(" and ls.duedate >= DATE_SUB(CURDATE(),INTERVAL (? + 1) DAY)");
+            params.add(penaltyWaitPeriod);
+        }
 
+        return this.jdbcTemplate.query(sqlBuilder.toString(), rm, params.toArray());
     }
 
     @SuppressWarnings("deprecation")
@@ -25,6 +25,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
+import javax.annotation.PostConstruct;
+
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.data.ApiParameterError;
 import org.apache.fineract.infrastructure.core.exception.AbstractPlatformDomainRuleException;
@@ -32,6 +34,9 @@ import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidati
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.ChunkedJobExecutor;
+import org.apache.fineract.infrastructure.jobs.service.ChunkedJobExecutor.ChunkItemProcessor;
+import org.apache.fineract.infrastructure.jobs.service.ChunkedJobExecutor.ChunkProcessorFactory;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
 import org.apache.fineract.portfolio.loanaccount.loanschedule.data.OverdueLoanScheduleData;
 import org.slf4j.Logger;
@@ -48,67 +53,102 @@ public class LoanSchedularServiceImpl implements LoanSchedularService {
     private final ConfigurationDomainService configurationDomainService;
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanWritePlatformService loanWritePlatformService;
+    private final ChunkedJobExecutor chunkedJobExecutor;
 
     @Autowired
     public LoanSchedularServiceImpl(final ConfigurationDomainService configurationDomainService,
-            final LoanReadPlatformService loanReadPlatformService, final LoanWritePlatformService loanWritePlatformService) {
+            final LoanReadPlatformService loanReadPlatformService, final LoanWritePlatformService loanWritePlatformService,
+            final ChunkedJobExecutor chunkedJobExecutor) {
         this.configurationDomainService = configurationDomainService;
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanWritePlatformService = loanWritePlatformService;
+        this.chunkedJobExecutor = chunkedJobExecutor;
+    }
+
+    @PostConstruct
+    public void registerDistributedJobs() {
+        this.chunkedJobExecutor.registerDistributedJob(JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT, new ChunkProcessorFactory() {
+
+            @Override
+            public ChunkItemProcessor processorFor(final List<Long> loanIds) {
+                final Map<Long, Collection<OverdueLoanScheduleData>> overdueScheduleData = retrieveOverdueInstallmentsByLoan(loanIds);
+                return new ChunkItemProcessor() {
+
+                    @Override
+                    public boolean process(final Long loanId, final StringBuilder sb) {
+                        final Collection<OverdueLoanScheduleData> overdueInstallments = overdueScheduleData.get(loanId);
+                        // the installments may have been paid in the meantime
+                        if (overdueInstallments == null) { return true; }
+                        return applyOverdueChargesForLoan(loanId, overdueInstallments, sb);
+                    }
+                };
+            }
+        });
     }
 
     @Override
     @CronTarget(jobName = JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT)
     public void applyChargeForOverdueLoans() throws JobExecutionException {
 
+        final Map<Long, Collection<OverdueLoanScheduleData>> overdueScheduleData = retrieveOverdueInstallmentsByLoan(null);
+
+        if (!overdueScheduleData.isEmpty()) {
+            // loans are independent of each other, so chunks of loans are
+            // processed in parallel, across the cluster when clustered, with
+            // a transaction per loan
+            final String errors = this.chunkedJobExecutor.execute(JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT, new ArrayList<>(
+                    overdueScheduleData.keySet()));
+            if (errors.length() > 0) { throw new JobExecutionException(errors); }
+        }
+    }
+
+    private Map<Long, Collection<OverdueLoanScheduleData>> retrieveOverdueInstallmentsByLoan(final List<Long> loanIds) {
         final Long penaltyWaitPeriodValue = this.configurationDomainService.retrievePenaltyWaitPeriod();
         final Boolean backdatePenalties = this.configurationDomainService.isBackdatePenaltiesEnabled();
         final Collection<OverdueLoanScheduleData> overdueLoanScheduledInstallments = this.loanReadPlatformService
-                .retrieveAllLoansWithOverdueInstallments(penaltyWaitPeriodValue,backdatePenalties);
-
-        if (!overdueLoanScheduledInstallments.isEmpty()) {
-            final StringBuilder sb = new StringBuilder();
-            final Map<Long, Collection<OverdueLoanScheduleData>> overdueScheduleData = new HashMap<>();
-            for (final OverdueLoanScheduleData overdueInstallment : overdueLoanScheduledInstallments) {
-                if (overdueScheduleData.containsKey(overdueInstallment.getLoanId())) {
-                    overdueScheduleData.get(overdueInstallment.getLoanId()).add(overdueInstallment);
-                } else {
-                    Collection<OverdueLoanScheduleData> loanData = new ArrayList<>();
-                    loanData.add(overdueInstallment);
-                    overdueScheduleData.put(overdueInstallment.getLoanId(), loanData);
-                }
+                .retrieveAllLoansWithOverdueInstallments(penaltyWaitPeriodValue, backdatePenalties, loanIds);
+
+        final Map<Long, Collection<OverdueLoanScheduleData>> overdueScheduleData = new HashMap<>();
+        for (final OverdueLoanScheduleData overdueInstallment : overdueLoanScheduledInstallments) {
+            if (overdueScheduleData.containsKey(overdueInstallment.getLoanId())) {
+                overdueScheduleData.get(overdueInstallment.getLoanId()).add(overdueInstallment);
+            } else {
+                Collection<OverdueLoanScheduleData> loanData = new ArrayList<>();
+                loanData.add(overdueInstallment);
+                overdueScheduleData.put(overdueInstallment.getLoanId(), loanData);
             }
+        }
+        return overdueScheduleData;
+    }
 
-            for (final Long loanId : overdueScheduleData.keySet()) {
-                try {
-                    this.loanWritePlatformService.applyOverdueChargesForLoan(loanId, overdueScheduleData.get(loanId));
-
-                } catch (final PlatformApiDataValidationException e) {
-                    final List<ApiParameterError> errors = e.getErrors();
-                    for (final ApiParameterError error : errors) {
-                        logger.error("Apply Charges due for overdue loans failed for account:" + loanId + " with message "
-                                + error.getDeveloperMessage());
-                        sb.append("Apply Charges due for overdue loans failed for account:").append(loanId).append(" with message ")
-                                .append(error.getDeveloperMessage());
-                    }
-                } catch (final AbstractPlatformDomainRuleException ex) {
-                    logger.error("Apply Charges due for overdue loans failed for account:" + loanId + " with message "
-                            + ex.getDefaultUserMessage());
-                    sb.append("Apply Charges due for overdue loans failed for account:").append(loanId).append(" with message ")
-                            .append(ex.getDefaultUserMessage());
-                } catch (Exception e) {
-                    Throwable realCause = e;
-                    if (e.getCause() != null) {
-                        realCause = e.getCause();
-                    }
-                    logger.error("Apply Charges due for overdue loans failed for account:" + loanId + " with message "
-                            + realCause.getMessage());
-                    sb.append("Apply Charges due for overdue loans failed for account:").append(loanId).append(" with message ")
-                            .append(realCause.getMessage());
-                }
+    private boolean applyOverdueChargesForLoan(final Long loanId, final Collection<OverdueLoanScheduleData> overdueInstallments,
+            final StringBuilder sb) {
+        try {
+            this.loanWritePlatformService.applyOverdueChargesForLoan(loanId, overdueInstallments);
+            return true;
+        } catch (final PlatformApiDataValidationException e) {
+            final List<ApiParameterError> errors = e.getErrors();
+            for (final ApiParameterError error : errors) {
+                logger.error("Apply Charges due for overdue loans failed for account:" + loanId + " with message "
+                        + error.getDeveloperMessage());
+                sb.append("Apply Charges due for overdue loans failed for account:").append(loanId).append(" with message ")
+                        .append(error.getDeveloperMessage());
+            }
+        } catch (final AbstractPlatformDomainRuleException ex) {
+            logger.error("Apply Charges due for overdue loans failed for account:" + loanId + " with message "
+                    + ex.getDefaultUserMessage());
+            sb.append("Apply Charges due for overdue loans failed for account:").append(loanId).append(" with message ")
+                    .append(ex.getDefaultUserMessage());
+        } catch (Exception e) {
+            Throwable realCause = e;
+            if (e.getCause() != null) {
+                realCause = e.getCause();
             }
-            if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
+            logger.error("Apply Charges due for overdue loans failed for account:" + loanId + " with message " + realCause.getMessage());
+            sb.append("Apply Charges due for overdue loans failed for account:").append(loanId).append(" with message ")
+                    .append(realCause.getMessage());
         }
+        return false;
     }
 
 	@Override
@@ -179,8 +179,8 @@ public class DepositAccountDomainServiceJpa implements DepositAccountDomainServi
             this.depositAccountAssembler.assignSavingAccountHelpers(reinvestedDeposit);
             reinvestedDeposit.updateMaturityDateAndAmountBeforeAccountActivation(mc, isPreMatureClosure,
                     isSavingsInterestPostingAtCurrentPeriodEnd, financialYearBeginningMonth);
-            this.savingsAccountRepository.save(reinvestedDeposit);
             autoGenerateAccountNumber(reinvestedDeposit);
+            this.savingsAccountRepository.save(reinvestedDeposit);
             final SavingsAccountTransaction withdrawal = this.handleWithdrawal(account, fmt, closedDate, account.getAccountBalance(),
                     paymentDetail, false, isRegularTransaction);
             savingsTransactionId = withdrawal.getId();
@@ -246,6 +246,7 @@ public class DepositAccountDomainServiceJpa implements DepositAccountDomainServi
             reinvestedDeposit.processAccountUponActivation(fmt, user);
             reinvestedDeposit.updateMaturityDateAndAmount(mc, isPreMatureClosure, isSavingsInterestPostingAtCurrentPeriodEnd,
                     financialYearBeginningMonth);
+            autoGenerateAccountNumber(reinvestedDeposit);
             this.savingsAccountRepository.save(reinvestedDeposit);
 
             Money amountForDeposit = reinvestedDeposit.activateWithBalance();
@@ -256,7 +257,6 @@ public class DepositAccountDomainServiceJpa implements DepositAccountDomainServi
             reinvestedDeposit.updateMaturityDateAndAmount(mc, isPreMatureClosure, isSavingsInterestPostingAtCurrentPeriodEnd,
                     financialYearBeginningMonth);
             this.savingsAccountRepository.save(reinvestedDeposit);
-            autoGenerateAccountNumber(reinvestedDeposit);
 
             final SavingsAccountTransaction withdrawal = this.handleWithdrawal(account, fmt, closedDate, account.getAccountBalance(),
                     paymentDetail, false, isRegularTransaction);
@@ -296,7 +296,6 @@ public class DepositAccountDomainServiceJpa implements DepositAccountDomainServi
         if (account.isAccountNumberRequiresAutoGeneration()) {
             final AccountNumberFormat accountNumberFormat = this.accountNumberFormatRepository.findByAccountType(EntityAccountType.SAVINGS);
             account.updateAccountNo(this.accountNumberGenerator.generate(account, accountNumberFormat));
-            this.savingsAccountRepository.save(account);
         }
     }
 
@@ -641,8 +641,9 @@ public class SavingsAccount extends AbstractPersistable<Long> {
         this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
                 isTransferInterestToOtherAccount());
 
+        // transaction totals are kept up to date as transactions are added or
+        // reversed, only the interest earned depends on the posting periods
         this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods);
-        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
 
         return allPostingPeriods;
     }
@@ -798,7 +799,7 @@ public class SavingsAccount extends AbstractPersistable<Long> {
                 transactionDTO.getTransactionDate(), amount, transactionDTO.getCreatedDate(), transactionDTO.getAppUser());
         this.transactions.add(transaction);
 
-        this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+        this.summary.applyTransaction(this.currency, transaction);
 
         return transaction;
     }
@@ -880,6 +881,7 @@ public class SavingsAccount extends AbstractPersistable<Long> {
                 transactionDTO.getPaymentDetail(), transactionDTO.getTransactionDate(), transactionAmountMoney,
                 transactionDTO.getCreatedDate(), transactionDTO.getAppUser());
         this.transactions.add(transaction);
+        this.summary.applyTransaction(this.currency, transaction);
 
         if (applyWithdrawFee) {
             // auto pay withdrawal fee
@@ -1731,6 +1733,7 @@ public class SavingsAccount extends AbstractPersistable<Long> {
 
         validateAttemptToUndoTransferRelatedTransactions(transactionToUndo);
         validateActivityNotBeforeClientOrGroupTransferDate(SavingsEvent.SAVINGS_UNDO_TRANSACTION, transactionToUndo.transactionLocalDate());
+        this.summary.reverseTransaction(this.currency, transactionToUndo);
         transactionToUndo.reverse();
         if (transactionToUndo.isChargeTransaction() || transactionToUndo.isWaiveCharge()) {
             // undo charge
@@ -2137,6 +2140,15 @@ public class SavingsAccount extends AbstractPersistable<Long> {
         return (LocalDate) ObjectUtils.defaultIfNull(new LocalDate(this.closedOnDate), null);
     }
 
+    /**
+     * Rebuilds the summary totals from the full transaction history.
+     * 
+     * @return true when the stored totals had drifted from the history
+     */
+    public boolean rebuildSummary() {
+        return this.summary.rebuildSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
+    }
+
     public SavingsAccountSummary getSummary() {
         return this.summary;
     }
@@ -2432,6 +2444,7 @@ public class SavingsAccount extends AbstractPersistable<Long> {
                 .getAmount(this.getCurrency()).getAmount());
         transaction.getSavingsAccountChargesPaid().add(chargePaidBy);
         this.getTransactions().add(transaction);
+        this.summary.applyTransaction(this.currency, transaction);
     }
 
     private SavingsAccountCharge getCharge(final Long savingsAccountChargeId) {
@@ -91,9 +91,91 @@ public final class SavingsAccountSummary {
         this.totalPenaltyChargesWaived = wrapper.calculateTotalPenaltyChargeWaived(currency, transactions);
         this.totalOverdraftInterestDerived = wrapper.calculateTotalOverdraftInterest(currency, transactions);
 
+        updateAccountBalance(currency);
+    }
+
+    /**
+     * Rebuilds the summary from the full transaction history.
+     * 
+     * @return true when any persisted total differed from the rebuilt value
+     */
+    public boolean rebuildSummary(final MonetaryCurrency currency, final SavingsAccountTransactionSummaryWrapper wrapper,
+            final List<SavingsAccountTransaction> transactions) {
+        final BigDecimal[] before = persistedTotals();
+        updateSummary(currency, wrapper, transactions);
+        final BigDecimal[] after = persistedTotals();
+        for (int i = 0; i < before.length; i++) {
+            if (Money.of(currency, before[i]).isNotEqualTo(Money.of(currency, after[i]))) { return true; }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a newly recorded transaction to the running totals without
+     * revisiting the rest of the account's transactions.
+     */
+    public void applyTransaction(final MonetaryCurrency currency, final SavingsAccountTransaction transaction) {
+        if (transaction.isReversed()) { return; }
+        adjustTotals(currency, transaction, transaction.getAmount(currency));
+    }
+
+    /**
+     * Removes a transaction that is about to be reversed from the running
+     * totals. Must be called before the transaction is marked as reversed.
+     */
+    public void reverseTransaction(final MonetaryCurrency currency, final SavingsAccountTransaction transaction) {
+        if (transaction.isReversed()) { return; }
+        adjustTotals(currency, transaction, transaction.getAmount(currency).negated());
+    }
+
+    private void adjustTotals(final MonetaryCurrency currency, final SavingsAccountTransaction transaction, final Money amount) {
+        if (transaction.isDeposit()) {
+            this.totalDeposits = plus(currency, this.totalDeposits, amount);
+        }
+        if (transaction.isWithdrawal()) {
+            this.totalWithdrawals = plus(currency, this.totalWithdrawals, amount);
+        }
+        if (transaction.isInterestPostingAndNotReversed()) {
+            this.totalInterestPosted = plus(currency, this.totalInterestPosted, amount);
+        }
+        if (transaction.isWithdrawalFeeAndNotReversed()) {
+            this.totalWithdrawalFees = plus(currency, this.totalWithdrawalFees, amount);
+        }
+        if (transaction.isAnnualFeeAndNotReversed()) {
+            this.totalAnnualFees = plus(currency, this.totalAnnualFees, amount);
+        }
+        if (transaction.isFeeChargeAndNotReversed()) {
+            this.totalFeeCharge = plus(currency, this.totalFeeCharge, amount);
+        }
+        if (transaction.isPenaltyChargeAndNotReversed()) {
+            this.totalPenaltyCharge = plus(currency, this.totalPenaltyCharge, amount);
+        }
+        if (transaction.isWaiveFeeChargeAndNotReversed()) {
+            this.totalFeeChargesWaived = plus(currency, this.totalFeeChargesWaived, amount);
+        }
+        if (transaction.isWaivePenaltyChargeAndNotReversed()) {
+            this.totalPenaltyChargesWaived = plus(currency, this.totalPenaltyChargesWaived, amount);
+        }
+        if (transaction.isOverdraftInterestAndNotReversed()) {
+            this.totalOverdraftInterestDerived = plus(currency, this.totalOverdraftInterestDerived, amount);
+        }
+        updateAccountBalance(currency);
+    }
+
+    private static BigDecimal plus(final MonetaryCurrency currency, final BigDecimal total, final Money amount) {
+        return Money.of(currency, total).plus(amount).getAmountDefaultedToNullIfZero();
+    }
+
+    private void updateAccountBalance(final MonetaryCurrency currency) {
         this.accountBalance = Money.of(currency, this.totalDeposits).plus(this.totalInterestPosted).minus(this.totalWithdrawals)
                 .minus(this.totalWithdrawalFees).minus(this.totalAnnualFees).minus(this.totalFeeCharge).minus(this.totalPenaltyCharge)
-                .minus(totalOverdraftInterestDerived).getAmount();
+                .minus(this.totalOverdraftInterestDerived).getAmount();
+    }
+
+    private BigDecimal[] persistedTotals() {
+        return new BigDecimal[] { this.totalDeposits, this.totalWithdrawals, this.totalInterestPosted, this.totalWithdrawalFees,
+                this.totalAnnualFees, this.totalFeeCharge, this.totalPenaltyCharge, this.totalOverdraftInterestDerived,
+                this.accountBalance };
     }
 
     public void updateFromInterestPeriodSummaries(final MonetaryCurrency currency, final List<PostingPeriod> allPostingPeriods) {
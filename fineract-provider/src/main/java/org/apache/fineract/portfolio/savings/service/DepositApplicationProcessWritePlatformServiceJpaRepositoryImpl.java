@@ -202,15 +202,14 @@ public class DepositApplicationProcessWritePlatformServiceJpaRepositoryImpl impl
 
             account.updateMaturityDateAndAmountBeforeAccountActivation(mc, isPreMatureClosure, isSavingsInterestPostingAtCurrentPeriodEnd,
                     financialYearBeginningMonth);
-            this.fixedDepositAccountRepository.save(account);
 
             if (account.isAccountNumberRequiresAutoGeneration()) {
                 AccountNumberFormat accountNumberFormat = this.accountNumberFormatRepository.findByAccountType(EntityAccountType.CLIENT);
                 account.updateAccountNo(this.accountNumberGenerator.generate(account, accountNumberFormat));
-
-                this.savingAccountRepository.save(account);
             }
 
+            this.fixedDepositAccountRepository.save(account);
+
             // Save linked account information
             final Long savingsAccountId = command.longValueOfParameterNamed(DepositsApiConstants.linkedAccountParamName);
             if (savingsAccountId != null) {
@@ -253,14 +252,14 @@ public class DepositApplicationProcessWritePlatformServiceJpaRepositoryImpl impl
             final RecurringDepositAccount account = (RecurringDepositAccount) this.depositAccountAssembler.assembleFrom(command,
                     submittedBy, DepositAccountType.RECURRING_DEPOSIT);
 
-            this.recurringDepositAccountRepository.save(account);
-
             if (account.isAccountNumberRequiresAutoGeneration()) {
                 final AccountNumberFormat accountNumberFormat = this.accountNumberFormatRepository
                         .findByAccountType(EntityAccountType.SAVINGS);
                 account.updateAccountNo(this.accountNumberGenerator.generate(account, accountNumberFormat));
             }
 
+            this.recurringDepositAccountRepository.save(account);
+
             final Long savingsId = account.getId();
             final CalendarInstance calendarInstance = getCalendarInstance(command, account);
             this.calendarInstanceRepository.save(calendarInstance);
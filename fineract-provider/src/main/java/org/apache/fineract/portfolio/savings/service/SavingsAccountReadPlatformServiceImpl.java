@@ -35,6 +35,7 @@ import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.organisation.monetary.data.CurrencyData;
+import org.apache.fineract.organisation.office.service.OfficeHierarchyService;
 import org.apache.fineract.organisation.staff.data.StaffData;
 import org.apache.fineract.organisation.staff.service.StaffReadPlatformService;
 import org.apache.fineract.portfolio.account.data.AccountTransferData;
@@ -135,18 +136,17 @@ public class SavingsAccountReadPlatformServiceImpl implements SavingsAccountRead
     public Page<SavingsAccountData> retrieveAll(final SearchParameters searchParameters) {
 
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
+        final Long userOfficeId = currentUser.getOffice().getId();
 
         final StringBuilder sqlBuilder = new StringBuilder(200);
         sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
         sqlBuilder.append(this.savingAccountMapper.schema());
 
         sqlBuilder.append(" join m_office o on o.id = c.office_id");
-        sqlBuilder.append(" where o.hierarchy like ?");
+        sqlBuilder.append(" where " + OfficeHierarchyService.inHierarchyCriteria("o.id", "?"));
 
         final Object[] objectArray = new Object[2];
-        objectArray[0] = hierarchySearchString;
+        objectArray[0] = userOfficeId;
         int arrayPos = 1;
 
         String sqlQueryCriteria = searchParameters.getSqlSearch();
@@ -79,4 +79,12 @@ public interface SavingsAccountWritePlatformService {
             Set<Long> existingReversedTransactionIds);
 
     void postInterest(SavingsAccount account);
+
+    /**
+     * Rebuilds the summary totals of the account from its full transaction
+     * history and saves them when they had drifted.
+     * 
+     * @return true when the stored totals were corrected
+     */
+    boolean rebuildSummary(Long savingsId);
 }
\ No newline at end of file
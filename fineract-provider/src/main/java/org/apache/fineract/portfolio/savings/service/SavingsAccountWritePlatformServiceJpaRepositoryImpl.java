@@ -408,6 +408,17 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         }
     }
 
+    @Transactional
+    @Override
+    public boolean rebuildSummary(final Long savingsId) {
+        final SavingsAccount account = this.savingAccountAssembler.assembleFrom(savingsId);
+        final boolean corrected = account.rebuildSummary();
+        if (corrected) {
+            this.savingAccountRepository.save(account);
+        }
+        return corrected;
+    }
+
     @Override
     public CommandProcessingResult undoTransaction(final Long savingsId, final Long transactionId,
             final boolean allowAccountTransferModification) {
@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.service;
+
+import java.util.List;
+
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SavingsJobCandidateReadPlatformServiceImpl implements SavingsJobCandidateReadPlatformService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SavingsJobCandidateReadPlatformServiceImpl(final RoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Active accounts that earn interest on a positive balance or are charged
+     * interest on an overdraft; interest posting does nothing for the rest.
+     */
+    @Override
+    public List<Long> retrieveAccountIdsForInterestPosting() {
+        final StringBuilder sqlBuilder = new StringBuilder(300);
+        sqlBuilder.append("select sa.id from m_savings_account sa ");
+        sqlBuilder.append("where sa.status_enum = ? ");
+        sqlBuilder.append("and (sa.nominal_annual_interest_rate > 0 ");
+        sqlBuilder.append("or (sa.allow_overdraft = 1 and ifnull(sa.nominal_annual_interest_rate_overdraft, 0) > 0)) ");
+        sqlBuilder.append("order by sa.id");
+
+        return this.jdbcTemplate.queryForList(sqlBuilder.toString(), Long.class, SavingsAccountStatusType.ACTIVE.getValue());
+    }
+
+    @Override
+    public List<Long> retrieveActiveAccountIds() {
+        return this.jdbcTemplate.queryForList("select sa.id from m_savings_account sa where sa.status_enum = ? order by sa.id",
+                Long.class, SavingsAccountStatusType.ACTIVE.getValue());
+    }
+}
@@ -25,4 +25,6 @@ public interface SavingsSchedularService {
 
     void postInterestForAccounts() throws JobExecutionException;
 
+    void verifyAccountSummaries() throws JobExecutionException;
+
 }
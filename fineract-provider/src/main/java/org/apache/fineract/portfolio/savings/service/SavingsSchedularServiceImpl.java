@@ -25,47 +25,79 @@ import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountAssembler;
-import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepository;
-import org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
 public class SavingsSchedularServiceImpl implements SavingsSchedularService {
 
+    private final static Logger logger = LoggerFactory.getLogger(SavingsSchedularServiceImpl.class);
+
     private final SavingsAccountAssembler savingAccountAssembler;
     private final SavingsAccountWritePlatformService savingsAccountWritePlatformService;
-    private final SavingsAccountRepository savingAccountRepository;
+    private final SavingsJobCandidateReadPlatformService savingsJobCandidateReadPlatformService;
 
     @Autowired
     public SavingsSchedularServiceImpl(final SavingsAccountAssembler savingAccountAssembler,
             final SavingsAccountWritePlatformService savingsAccountWritePlatformService,
-            final SavingsAccountRepository savingAccountRepository) {
+            final SavingsJobCandidateReadPlatformService savingsJobCandidateReadPlatformService) {
         this.savingAccountAssembler = savingAccountAssembler;
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
-        this.savingAccountRepository = savingAccountRepository;
+        this.savingsJobCandidateReadPlatformService = savingsJobCandidateReadPlatformService;
     }
 
     @CronTarget(jobName = JobName.POST_INTEREST_FOR_SAVINGS)
     @Override
     public void postInterestForAccounts() throws JobExecutionException {
-        final List<SavingsAccount> savingsAccounts = this.savingAccountRepository.findSavingAccountByStatus(SavingsAccountStatusType.ACTIVE
-                .getValue());
+        // accounts are loaded one at a time, and only those that earn interest
+        final List<Long> savingsIds = this.savingsJobCandidateReadPlatformService.retrieveAccountIdsForInterestPosting();
         StringBuffer sb = new StringBuffer();
-        for (final SavingsAccount savingsAccount : savingsAccounts) {
+        for (final Long savingsId : savingsIds) {
             try {
-                this.savingAccountAssembler.assignSavingAccountHelpers(savingsAccount);
+                final SavingsAccount savingsAccount = this.savingAccountAssembler.assembleFrom(savingsId);
                 this.savingsAccountWritePlatformService.postInterest(savingsAccount);
             } catch (Exception e) {
                 Throwable realCause = e;
                 if (e.getCause() != null) {
                     realCause = e.getCause();
                 }
-                sb.append("failed to post interest for Savings with id " + savingsAccount.getId() + " with message "
-                        + realCause.getMessage());
+                sb.append("failed to post interest for Savings with id " + savingsId + " with message " + realCause.getMessage());
             }
         }
         
         if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
     }
+
+    /**
+     * Summary totals are maintained incrementally as transactions are added
+     * or reversed; this rebuilds them from the full history of every active
+     * account and corrects any that have drifted.
+     */
+    @CronTarget(jobName = JobName.VERIFY_SAVINGS_ACCOUNT_SUMMARIES)
+    @Override
+    public void verifyAccountSummaries() throws JobExecutionException {
+        final List<Long> savingsIds = this.savingsJobCandidateReadPlatformService.retrieveActiveAccountIds();
+        final StringBuilder sb = new StringBuilder();
+        int corrected = 0;
+        for (final Long savingsId : savingsIds) {
+            try {
+                if (this.savingsAccountWritePlatformService.rebuildSummary(savingsId)) {
+                    corrected++;
+                }
+            } catch (Exception e) {
+                Throwable realCause = e;
+                if (e.getCause() != null) {
+                    realCause = e.getCause();
+                }
+                sb.append("failed to verify summary for Savings with id " + savingsId + " with message " + realCause.getMessage());
+            }
+        }
+
+        if (corrected > 0) {
+            logger.warn("Corrected summary totals of " + corrected + " of " + savingsIds.size() + " savings accounts");
+        }
+        if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
+    }
 }
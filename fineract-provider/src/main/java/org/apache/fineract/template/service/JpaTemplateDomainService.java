@@ -49,6 +49,9 @@ public class JpaTemplateDomainService implements TemplateDomainService {
     @Autowired
     private TemplateRepository templateRepository;
 
+    @Autowired
+    private TemplateMergeService templateMergeService;
+
     @Override
     public List<Template> getAll() {
         return this.templateRepository.findAll();
@@ -115,6 +118,7 @@ public class JpaTemplateDomainService implements TemplateDomainService {
         template.setMappers(mappersList);
 
         this.templateRepository.saveAndFlush(template);
+        this.templateMergeService.evict(templateId);
 
         return new CommandProcessingResultBuilder()
                 .withCommandId(command.commandId())
@@ -127,6 +131,7 @@ public class JpaTemplateDomainService implements TemplateDomainService {
         final Template template = findOneById(templateId);
 
         this.templateRepository.delete(template);
+        this.templateMergeService.evict(templateId);
 
         return new CommandProcessingResultBuilder().withEntityId(templateId)
                 .build();
@@ -135,7 +140,9 @@ public class JpaTemplateDomainService implements TemplateDomainService {
     @Transactional
     @Override
     public Template updateTemplate(final Template template) {
-        return this.templateRepository.saveAndFlush(template);
+        final Template updated = this.templateRepository.saveAndFlush(template);
+        this.templateMergeService.evict(updated.getId());
+        return updated;
     }
 
     @Override
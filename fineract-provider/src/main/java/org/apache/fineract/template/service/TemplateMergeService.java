@@ -24,95 +24,204 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.StringReader;
 import java.io.StringWriter;
-import java.net.Authenticator;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
-import java.net.PasswordAuthentication;
 import java.net.URL;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.RequestTaskExecutor;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.template.domain.Template;
 import org.apache.fineract.template.domain.TemplateFunctions;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
 import com.github.mustachejava.MustacheFactory;
+import com.sun.jersey.core.util.Base64;
 
+/**
+ * Merges a {@link Template} with the data of its mappers.
+ * 
+ * Compiled templates are cached per tenant and template id and are recompiled
+ * when the text or mappers they were compiled from change. Mapper URLs are
+ * fetched concurrently on the {@link RequestTaskExecutor}; a mapper whose URL
+ * refers to the result of an earlier mapper waits for it. The fetches usually
+ * loop back into this server, whose handlers fan out themselves, so they run
+ * on the calling thread when the request pool is saturated and are bounded by
+ * connect and read timeouts.
+ */
 @Service
 public class TemplateMergeService {
 	private final static Logger logger = LoggerFactory.getLogger(TemplateMergeService.class);
-	
 
-    // private final FromJsonHelper fromApiJsonHelper;
-    private Map<String, Object> scopes;
-    private String authToken;
+    // the names a mustache tag refers to, e.g. loan in {{#loan.clientId}}
+    private static final Pattern TAG_NAME = Pattern.compile("\\{\\{\\s*[#^/&{]?\\s*([^}.\\s]+)");
+
+    public static final String CONNECT_TIMEOUT_PROPERTY = "fineract.templateMerge.connectTimeoutMillis";
+    public static final String READ_TIMEOUT_PROPERTY = "fineract.templateMerge.readTimeoutMillis";
 
-    // @Autowired
-    // public TemplateMergeService(final FromJsonHelper fromApiJsonHelper) {
-    // this.fromApiJsonHelper = fromApiJsonHelper;
-    //
+    private static final int CONNECT_TIMEOUT_MILLIS = Integer.getInteger(CONNECT_TIMEOUT_PROPERTY, 5000);
+    private static final int READ_TIMEOUT_MILLIS = Integer.getInteger(READ_TIMEOUT_PROPERTY, 30000);
+
+    private final RequestTaskExecutor taskExecutor;
+    private final MustacheFactory mustacheFactory = new DefaultMustacheFactory();
+    private final ConcurrentMap<String, CompiledTemplate> compiledTemplates = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> authToken = new ThreadLocal<>();
+
+    @Autowired
+    public TemplateMergeService(final RequestTaskExecutor taskExecutor) {
+        this.taskExecutor = taskExecutor;
+    }
 
+    /**
+     * Sets the basic auth token used to fetch the mapper URLs of the next
+     * {@link #compile(Template, Map)} on the current thread.
+     */
     public void setAuthToken(final String authToken) {
-        //final String auth = ThreadLocalContextUtil.getAuthToken();
-    	this.authToken =  authToken;
+        this.authToken.set(authToken);
     }
-    
 
     public String compile(final Template template, final Map<String, Object> scopes) throws MalformedURLException, IOException {
-        this.scopes = scopes;
-        this.scopes.put("static", new TemplateFunctions());
-        
-        final MustacheFactory mf = new DefaultMustacheFactory();
-        final Mustache mustache = mf.compile(new StringReader(template.getText()), template.getName());
+        try {
+            final CompiledTemplate compiled = compiledTemplateOf(template);
+            scopes.put("static", new TemplateFunctions());
 
-        final Map<String, Object> mappers = getCompiledMapFromMappers(template.getMappersAsMap());
-        this.scopes.putAll(mappers);
+            fetchMappers(compiled, scopes, authorizationHeader());
 
-        expandMapArrays(scopes);
+            expandMapArrays(scopes);
 
-        final StringWriter stringWriter = new StringWriter();
-        mustache.execute(stringWriter, this.scopes);
+            final StringWriter stringWriter = new StringWriter();
+            compiled.mustache.execute(stringWriter, scopes);
 
-        return stringWriter.toString();
+            return stringWriter.toString();
+        } finally {
+            this.authToken.remove();
+        }
     }
 
-	private Map<String, Object> getCompiledMapFromMappers(final Map<String, String> data) {
-        final MustacheFactory mf = new DefaultMustacheFactory();
+    /**
+     * Drops the compiled form of a template after it was updated or deleted.
+     */
+    public void evict(final Long templateId) {
+        this.compiledTemplates.remove(cacheKey(templateId));
+    }
 
-        if (data != null) {
-            for (final Map.Entry<String, String> entry : data.entrySet()) {
-                final Mustache mappersMustache = mf.compile(new StringReader(entry.getValue()), "");
-                final StringWriter stringWriter = new StringWriter();
+    private CompiledTemplate compiledTemplateOf(final Template template) {
+        if (template.getId() == null) { return compile(template); }
 
-                mappersMustache.execute(stringWriter, this.scopes);
-                String url = stringWriter.toString();
-                if (!url.startsWith("http")) {
-                    url = this.scopes.get("BASE_URI") + url;
-                }
-                try {
-                    this.scopes.put(entry.getKey(), getMapFromUrl(url));
-                } catch (final IOException e) {
-                	logger.error("getCompiledMapFromMappers() failed", e);
+        final String key = cacheKey(template.getId());
+        CompiledTemplate compiled = this.compiledTemplates.get(key);
+        if (compiled == null || !compiled.isCompiledFrom(template)) {
+            compiled = compile(template);
+            this.compiledTemplates.put(key, compiled);
+        }
+        return compiled;
+    }
+
+    private CompiledTemplate compile(final Template template) {
+        final Mustache mustache = this.mustacheFactory.compile(new StringReader(template.getText()), template.getName());
+        final Map<String, String> mapperSources = template.getMappersAsMap();
+        final Map<String, Mustache> mappers = new LinkedHashMap<>();
+        for (final Entry<String, String> entry : mapperSources.entrySet()) {
+            mappers.put(entry.getKey(), this.mustacheFactory.compile(new StringReader(entry.getValue()), ""));
+        }
+        return new CompiledTemplate(template.getText(), mapperSources, mustache, mappers);
+    }
+
+    private static String cacheKey(final Long templateId) {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        return (tenant == null ? "" : tenant.getTenantIdentifier()) + ":" + templateId;
+    }
+
+    /**
+     * Fetches the mappers in order, running consecutive mappers concurrently
+     * as long as none of them refers to the key of another mapper of the same
+     * batch.
+     */
+    private void fetchMappers(final CompiledTemplate compiled, final Map<String, Object> scopes, final String authorization) {
+        final List<String> batch = new ArrayList<>();
+        final Set<String> batchKeys = new HashSet<>();
+        for (final String key : compiled.mappers.keySet()) {
+            if (!batch.isEmpty() && refersTo(compiled.mapperSources.get(key), batchKeys)) {
+                fetchBatch(compiled, batch, scopes, authorization);
+                batch.clear();
+                batchKeys.clear();
+            }
+            batch.add(key);
+            batchKeys.add(key);
+        }
+        if (!batch.isEmpty()) {
+            fetchBatch(compiled, batch, scopes, authorization);
+        }
+    }
+
+    private static boolean refersTo(final String mapperSource, final Set<String> keys) {
+        final Matcher matcher = TAG_NAME.matcher(mapperSource);
+        while (matcher.find()) {
+            if (keys.contains(matcher.group(1))) { return true; }
+        }
+        return false;
+    }
+
+    private void fetchBatch(final CompiledTemplate compiled, final List<String> keys, final Map<String, Object> scopes,
+            final String authorization) {
+        final List<Callable<Map<String, Object>>> fetches = new ArrayList<>(keys.size());
+        for (final String key : keys) {
+            final StringWriter stringWriter = new StringWriter();
+            compiled.mappers.get(key).execute(stringWriter, scopes);
+            String url = stringWriter.toString();
+            if (!url.startsWith("http")) {
+                url = scopes.get("BASE_URI") + url;
+            }
+            final String mapperUrl = url;
+            fetches.add(new Callable<Map<String, Object>>() {
+
+                @Override
+                public Map<String, Object> call() {
+                    try {
+                        return getMapFromUrl(mapperUrl, authorization);
+                    } catch (final IOException e) {
+                        logger.error("getCompiledMapFromMappers() failed", e);
+                        return null;
+                    }
                 }
+            });
+        }
+
+        final List<Map<String, Object>> results = this.taskExecutor.invokeAll(fetches);
+        for (int i = 0; i < keys.size(); i++) {
+            if (results.get(i) != null) {
+                scopes.put(keys.get(i), results.get(i));
             }
         }
-        return this.scopes;
     }
 
     @SuppressWarnings("unchecked")
-    private Map<String, Object> getMapFromUrl(final String url) throws MalformedURLException, IOException {
-        final HttpURLConnection connection = getConnection(url);
+    private Map<String, Object> getMapFromUrl(final String url, final String authorization) throws MalformedURLException, IOException {
+        final HttpURLConnection connection = getConnection(url, authorization);
 
         final String response = getStringFromInputStream(connection.getInputStream());
         HashMap<String, Object> result = new HashMap<>();
@@ -124,24 +233,25 @@ public class TemplateMergeService {
         return result;
     }
 
-    private HttpURLConnection getConnection(final String url) {
-        if (this.authToken == null) {
-            final String name = SecurityContextHolder.getContext().getAuthentication().getName();
-            final String password = SecurityContextHolder.getContext().getAuthentication().getCredentials().toString();
+    // resolved on the calling thread, the mapper fetches run on worker threads
+    private String authorizationHeader() {
+        final String token = this.authToken.get();
+        if (token != null) { return "Basic " + token; }
 
-            Authenticator.setDefault(new Authenticator() {
-                @Override
-                protected PasswordAuthentication getPasswordAuthentication() {
-                    return new PasswordAuthentication(name, password.toCharArray());
-                }
-            });
-        }
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication.getCredentials() == null) { return null; }
+        final String credentials = authentication.getName() + ":" + authentication.getCredentials().toString();
+        return "Basic " + new String(Base64.encode(credentials));
+    }
 
+    private HttpURLConnection getConnection(final String url, final String authorization) {
         HttpURLConnection connection = null;
         try {
             connection = (HttpURLConnection) new URL(url).openConnection();
-            if (this.authToken != null) {
-                connection.setRequestProperty("Authorization", "Basic " + this.authToken);
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+            if (authorization != null) {
+                connection.setRequestProperty("Authorization", authorization);
             }
             TrustModifier.relaxHostChecking(connection);
 
@@ -210,4 +320,25 @@ public class TemplateMergeService {
 		}		
 	}
 
+    private static final class CompiledTemplate {
+
+        private final String text;
+        private final Map<String, String> mapperSources;
+        private final Mustache mustache;
+        private final Map<String, Mustache> mappers;
+
+        private CompiledTemplate(final String text, final Map<String, String> mapperSources, final Mustache mustache,
+                final Map<String, Mustache> mappers) {
+            this.text = text;
+            this.mapperSources = mapperSources;
+            this.mustache = mustache;
+            this.mappers = mappers;
+        }
+
+        // stands in for a template version: a template updated on another
+        // node is recompiled here on first use
+        private boolean isCompiledFrom(final Template template) {
+            return this.text.equals(template.getText()) && this.mapperSources.equals(template.getMappersAsMap());
+        }
+    }
 }
@@ -19,6 +19,7 @@
 package org.apache.fineract.useradministration.domain;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
@@ -39,6 +40,7 @@ import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
+import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
 
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
@@ -121,6 +123,15 @@ public class AppUser extends AbstractPersistable<Long> implements PlatformUser {
 
     @Column(name = "is_self_service_user", nullable = false)
 	private boolean isSelfServiceUser;
+
+    /**
+     * Effective permissions of all roles, compiled on first use; see
+     * {@link PermissionCodeIndex}. The bits and the generation they were
+     * compiled for are published together, so a thread never pairs the bits
+     * of one generation with the number of another.
+     */
+    @Transient
+    private volatile CompiledPermissions permissionBits;
     
     @LazyCollection(LazyCollectionOption.FALSE)
     @OneToMany(cascade = CascadeType.ALL,  orphanRemoval = true)
@@ -220,6 +231,7 @@ public class AppUser extends AbstractPersistable<Long> implements PlatformUser {
         if (!allRoles.isEmpty()) {
             this.roles.clear();
             this.roles = allRoles;
+            PermissionCodeIndex.permissionsChanged();
         }
     }
 
@@ -355,6 +367,7 @@ public class AppUser extends AbstractPersistable<Long> implements PlatformUser {
         this.firstTimeLoginRemaining = true;
         this.username = getId() + "_DELETED_" + this.username;
         this.roles.clear();
+        PermissionCodeIndex.permissionsChanged();
     }
 
     public boolean isDeleted() {
@@ -509,27 +522,35 @@ public class AppUser extends AbstractPersistable<Long> implements PlatformUser {
     }
 
     private boolean hasPermissionTo(final String permissionCode) {
-        boolean hasPermission = hasAllFunctionsPermission();
-        if (!hasPermission) {
-            for (final Role role : this.roles) {
-                if (role.hasPermissionTo(permissionCode)) {
-                    hasPermission = true;
-                    break;
-                }
-            }
+        final BitSet bits = permissionBits();
+        if (hasAllFunctionsPermission(bits)) { return true; }
+        final int index = PermissionCodeIndex.lookup(permissionCode);
+        return index != PermissionCodeIndex.NOT_INDEXED && bits.get(index);
+    }
+
+    private static boolean hasAllFunctionsPermission(final BitSet bits) {
+        return bits.get(PermissionCodeIndex.ALL_FUNCTIONS);
+    }
+
+    private BitSet permissionBits() {
+        final long generation = PermissionCodeIndex.generation();
+        CompiledPermissions compiled = this.permissionBits;
+        if (compiled == null || compiled.generation != generation) {
+            compiled = new CompiledPermissions(PermissionCodeIndex.compile(this.roles), generation);
+            this.permissionBits = compiled;
         }
-        return hasPermission;
+        return compiled.bits;
     }
 
-    private boolean hasAllFunctionsPermission() {
-        boolean match = false;
-        for (final Role role : this.roles) {
-            if (role.hasPermissionTo("ALL_FUNCTIONS")) {
-                match = true;
-                break;
-            }
+    private static final class CompiledPermissions {
+
+        private final BitSet bits;
+        private final long generation;
+
+        CompiledPermissions(final BitSet bits, final long generation) {
+            this.bits = bits;
+            this.generation = generation;
         }
-        return match;
     }
 
     public boolean hasIdOf(final Long userId) {
@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.useradministration.domain;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gives every permission code a small, process wide index, so a user's
+ * effective permissions can be held as a {@link BitSet} and checked
+ * with a single bit test. Codes compare case insensitively, as
+ * {@link Permission#hasCode(String)} does.
+ * <p>
+ * The generation counter moves on whenever a role's permissions or a user's
+ * roles change, telling compiled permission sets to rebuild.
+ * </p>
+ */
+final class PermissionCodeIndex {
+
+    static final int NOT_INDEXED = -1;
+
+    private static final ConcurrentMap<String, Integer> indexes = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextIndex = new AtomicInteger();
+    private static final AtomicLong generation = new AtomicLong();
+
+    static final int ALL_FUNCTIONS = intern("ALL_FUNCTIONS");
+
+    private PermissionCodeIndex() {
+        //
+    }
+
+    /**
+     * Returns the index of the code, assigning one if it has none yet.
+     */
+    static int intern(final String permissionCode) {
+        final String key = key(permissionCode);
+        final Integer index = indexes.get(key);
+        if (index != null) { return index; }
+        final Integer assigned = nextIndex.getAndIncrement();
+        final Integer existing = indexes.putIfAbsent(key, assigned);
+        return existing == null ? assigned : existing;
+    }
+
+    /**
+     * Returns the index of the code, or {@link #NOT_INDEXED} when no role
+     * has ever been compiled with it, in which case no user holds it.
+     */
+    static int lookup(final String permissionCode) {
+        // codes are upper case nearly always, so try them as they are first
+        Integer index = indexes.get(permissionCode);
+        if (index == null) {
+            index = indexes.get(key(permissionCode));
+        }
+        return index == null ? NOT_INDEXED : index;
+    }
+
+    static BitSet compile(final Collection<Role> roles) {
+        final BitSet bits = new BitSet();
+        for (final Role role : roles) {
+            for (final Permission permission : role.getPermissions()) {
+                bits.set(intern(permission.getCode()));
+            }
+        }
+        return bits;
+    }
+
+    static long generation() {
+        return generation.get();
+    }
+
+    static void permissionsChanged() {
+        generation.incrementAndGet();
+    }
+
+    private static String key(final String permissionCode) {
+        return permissionCode.toUpperCase(Locale.ENGLISH);
+    }
+}
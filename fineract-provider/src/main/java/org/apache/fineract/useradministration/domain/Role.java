@@ -103,10 +103,12 @@ public class Role extends AbstractPersistable<Long> {
     }
 
     private boolean addPermission(final Permission permission) {
+        PermissionCodeIndex.permissionsChanged();
         return this.permissions.add(permission);
     }
 
     private boolean removePermission(final Permission permission) {
+        PermissionCodeIndex.permissionsChanged();
         return this.permissions.remove(permission);
     }
 
@@ -0,0 +1,3 @@
+ALTER TABLE `m_account_transfer_standing_instructions`
+	ADD COLUMN `next_execution_date` DATE NULL DEFAULT NULL AFTER `last_run_date`,
+	ADD INDEX `idx_standing_instruction_due` (`status`, `next_execution_date`);
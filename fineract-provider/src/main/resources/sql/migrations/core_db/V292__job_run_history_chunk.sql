@@ -0,0 +1,15 @@
+CREATE TABLE `job_run_history_chunk` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`job_run_history_id` BIGINT(20) NOT NULL,
+	`chunk_number` INT(11) NOT NULL,
+	`first_entity_id` BIGINT(20) NULL DEFAULT NULL,
+	`last_entity_id` BIGINT(20) NULL DEFAULT NULL,
+	`entity_count` INT(11) NOT NULL,
+	`failure_count` INT(11) NOT NULL DEFAULT '0',
+	`node_name` VARCHAR(100) NULL DEFAULT NULL,
+	`start_time` DATETIME NOT NULL,
+	`end_time` DATETIME NOT NULL,
+	PRIMARY KEY (`id`),
+	INDEX `FK_job_run_history_chunk_history` (`job_run_history_id`),
+	CONSTRAINT `FK_job_run_history_chunk_history` FOREIGN KEY (`job_run_history_id`) REFERENCES `job_run_history` (`id`)
+);
@@ -0,0 +1,18 @@
+CREATE TABLE `job_chunk_queue` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`run_key` VARCHAR(50) NOT NULL,
+	`job_name` VARCHAR(100) NOT NULL,
+	`chunk_number` INT(11) NOT NULL,
+	`entity_ids` TEXT NOT NULL,
+	`status` VARCHAR(10) NOT NULL,
+	`node_name` VARCHAR(100) NULL DEFAULT NULL,
+	`start_time` DATETIME NULL DEFAULT NULL,
+	`end_time` DATETIME NULL DEFAULT NULL,
+	`failure_count` INT(11) NULL DEFAULT NULL,
+	`error_log` TEXT NULL,
+	PRIMARY KEY (`id`),
+	INDEX `idx_job_chunk_queue_run` (`run_key`, `status`),
+	INDEX `idx_job_chunk_queue_status` (`status`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
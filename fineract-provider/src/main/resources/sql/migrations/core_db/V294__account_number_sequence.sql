@@ -0,0 +1,13 @@
+CREATE TABLE `m_account_number_sequence` (
+	`sequence_name` VARCHAR(20) NOT NULL,
+	`next_value` BIGINT(20) NOT NULL,
+	PRIMARY KEY (`sequence_name`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+-- continue after the ids used as account numbers so far, groups and centers share one sequence as they share m_group
+INSERT INTO `m_account_number_sequence` (`sequence_name`, `next_value`) SELECT 'client', IFNULL(MAX(`id`), 0) + 1 FROM `m_client`;
+INSERT INTO `m_account_number_sequence` (`sequence_name`, `next_value`) SELECT 'loan', IFNULL(MAX(`id`), 0) + 1 FROM `m_loan`;
+INSERT INTO `m_account_number_sequence` (`sequence_name`, `next_value`) SELECT 'savings', IFNULL(MAX(`id`), 0) + 1 FROM `m_savings_account`;
+INSERT INTO `m_account_number_sequence` (`sequence_name`, `next_value`) SELECT 'group', IFNULL(MAX(`id`), 0) + 1 FROM `m_group`;
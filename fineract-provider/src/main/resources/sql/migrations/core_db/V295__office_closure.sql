@@ -0,0 +1,17 @@
+CREATE TABLE `m_office_closure` (
+	`ancestor_id` BIGINT(20) NOT NULL,
+	`descendant_id` BIGINT(20) NOT NULL,
+	`depth` INT(11) NOT NULL,
+	PRIMARY KEY (`ancestor_id`, `descendant_id`),
+	INDEX `idx_office_closure_descendant` (`descendant_id`),
+	CONSTRAINT `FK_office_closure_ancestor` FOREIGN KEY (`ancestor_id`) REFERENCES `m_office` (`id`),
+	CONSTRAINT `FK_office_closure_descendant` FOREIGN KEY (`descendant_id`) REFERENCES `m_office` (`id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+-- every office is its own ancestor at depth 0
+INSERT INTO `m_office_closure` (`ancestor_id`, `descendant_id`, `depth`)
+SELECT a.`id`, d.`id`, (LENGTH(d.`hierarchy`) - LENGTH(REPLACE(d.`hierarchy`, '.', ''))) - (LENGTH(a.`hierarchy`) - LENGTH(REPLACE(a.`hierarchy`, '.', '')))
+FROM `m_office` a
+JOIN `m_office` d ON d.`hierarchy` LIKE CONCAT(a.`hierarchy`, '%');
@@ -0,0 +1,11 @@
+-- claim columns for the batched outbound sms dispatch
+ALTER TABLE `sms_messages_outbound`
+	ADD COLUMN `external_id` VARCHAR(100) NULL DEFAULT NULL AFTER `message`,
+	ADD COLUMN `sent_on` DATETIME NULL DEFAULT NULL AFTER `external_id`,
+	ADD COLUMN `claim_token` VARCHAR(36) NULL DEFAULT NULL AFTER `sent_on`,
+	ADD COLUMN `claimed_at` DATETIME NULL DEFAULT NULL AFTER `claim_token`,
+	ADD INDEX `idx_sms_status_id` (`status_enum`, `id`),
+	ADD INDEX `idx_sms_claim_token` (`claim_token`),
+	ADD INDEX `idx_sms_external_id` (`external_id`);
+
+INSERT INTO `job` (`name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`) VALUES ('Send Pending SMS', 'Send Pending SMS', '0 0/1 * 1/1 * ? *', now(), 5, NULL, NULL, NULL, NULL, NULL, 1, 0, 1, 0, 0);
@@ -0,0 +1,2 @@
+-- savings summary totals are maintained incrementally, this job rebuilds and corrects them
+INSERT INTO `job` (`name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`) VALUES ('Verify Savings Account Summaries', 'Verify Savings Account Summaries', '0 0 2 1/1 * ? *', now(), 5, NULL, NULL, NULL, NULL, NULL, 0, 0, 1, 0, 0);
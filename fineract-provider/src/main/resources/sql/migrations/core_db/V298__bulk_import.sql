@@ -0,0 +1,32 @@
+-- background bulk import of clients and accounts from csv or json lines files
+CREATE TABLE `m_bulk_import` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`entity_type` VARCHAR(50) NOT NULL,
+	`status_enum` SMALLINT(5) NOT NULL,
+	`total_rows` INT(11) NULL DEFAULT NULL,
+	`processed_rows` INT(11) NOT NULL DEFAULT 0,
+	`succeeded_rows` INT(11) NOT NULL DEFAULT 0,
+	`failed_rows` INT(11) NOT NULL DEFAULT 0,
+	`failure_reason` VARCHAR(1000) NULL DEFAULT NULL,
+	`createdby_id` BIGINT(20) NULL DEFAULT NULL,
+	`created_date` DATETIME NOT NULL,
+	`completed_date` DATETIME NULL DEFAULT NULL,
+	PRIMARY KEY (`id`),
+	CONSTRAINT `FK_m_bulk_import_createdby` FOREIGN KEY (`createdby_id`) REFERENCES `m_appuser` (`id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+CREATE TABLE `m_bulk_import_error` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`bulk_import_id` BIGINT(20) NOT NULL,
+	`row_number` INT(11) NOT NULL,
+	`message` VARCHAR(1000) NOT NULL,
+	PRIMARY KEY (`id`),
+	INDEX `idx_bulk_import_error_row` (`bulk_import_id`, `row_number`),
+	CONSTRAINT `FK_m_bulk_import_error_import` FOREIGN KEY (`bulk_import_id`) REFERENCES `m_bulk_import` (`id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+INSERT INTO `m_permission` (`grouping`, `code`, `entity_name`, `action_name`, `can_maker_checker`) VALUES ('portfolio', 'READ_BULKIMPORT', 'BULKIMPORT', 'READ', 0);
@@ -0,0 +1,7 @@
+-- rows locked by the database backed account lock, one per loan or savings account key
+CREATE TABLE `m_account_lock` (
+	`lock_key` VARCHAR(100) NOT NULL,
+	PRIMARY KEY (`lock_key`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
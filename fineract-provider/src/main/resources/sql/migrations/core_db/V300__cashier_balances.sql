@@ -0,0 +1,61 @@
+CREATE TABLE `m_cashier_account_posting` (
+	`entity_type` VARCHAR(10) NOT NULL,
+	`transaction_id` BIGINT(20) NOT NULL,
+	`cashier_id` BIGINT(20) NOT NULL,
+	`currency_code` VARCHAR(3) NOT NULL,
+	`office_id` BIGINT(20) NOT NULL,
+	`txn_type` SMALLINT(5) NOT NULL,
+	`txn_date` DATE NOT NULL,
+	`txn_amount` DECIMAL(19,6) NOT NULL,
+	PRIMARY KEY (`entity_type`, `transaction_id`, `cashier_id`),
+	INDEX `IK_m_cashier_account_posting_m_cashier` (`cashier_id`),
+	CONSTRAINT `FK_m_cashier_account_posting_m_cashiers` FOREIGN KEY (`cashier_id`) REFERENCES `m_cashiers` (`id`) ON UPDATE CASCADE ON DELETE CASCADE
+);
+
+CREATE TABLE `m_cashier_balance` (
+	`cashier_id` BIGINT(20) NOT NULL,
+	`currency_code` VARCHAR(3) NOT NULL,
+	`office_id` BIGINT(20) NOT NULL,
+	`txn_type` SMALLINT(5) NOT NULL,
+	`txn_date` DATE NOT NULL,
+	`txn_total` DECIMAL(19,6) NOT NULL,
+	`txn_count` INT(11) NOT NULL,
+	PRIMARY KEY (`cashier_id`, `currency_code`, `office_id`, `txn_type`, `txn_date`),
+	CONSTRAINT `FK_m_cashier_balance_m_cashiers` FOREIGN KEY (`cashier_id`) REFERENCES `m_cashiers` (`id`) ON UPDATE CASCADE ON DELETE CASCADE
+);
+
+INSERT INTO `m_cashier_account_posting` (`entity_type`, `transaction_id`, `cashier_id`, `currency_code`, `office_id`, `txn_type`, `txn_date`, `txn_amount`)
+SELECT 'savings', sav_txn.id, c.id, sav.currency_code, cl.office_id,
+	CASE WHEN sav_txn.transaction_type_enum = 2 THEN 104 ELSE 103 END, sav_txn.transaction_date, sav_txn.amount
+FROM m_savings_account_transaction sav_txn
+JOIN m_savings_account sav ON sav.id = sav_txn.savings_account_id
+JOIN m_client cl ON cl.id = sav.client_id
+JOIN m_appuser u ON u.id = sav_txn.appuser_id
+JOIN m_cashiers c ON c.staff_id = u.staff_id
+WHERE sav_txn.is_reversed = 0 AND sav_txn.transaction_type_enum IN (1, 2, 4, 7)
+AND sav_txn.transaction_date BETWEEN c.start_date AND DATE_ADD(c.end_date, INTERVAL 1 DAY);
+
+INSERT INTO `m_cashier_account_posting` (`entity_type`, `transaction_id`, `cashier_id`, `currency_code`, `office_id`, `txn_type`, `txn_date`, `txn_amount`)
+SELECT 'loans', loan_txn.id, c.id, loan.currency_code, cl.office_id,
+	CASE WHEN loan_txn.transaction_type_enum = 1 THEN 104 ELSE 103 END, loan_txn.transaction_date, loan_txn.amount
+FROM m_loan_transaction loan_txn
+JOIN m_loan loan ON loan.id = loan_txn.loan_id
+JOIN m_client cl ON cl.id = loan.client_id
+JOIN m_appuser u ON u.id = loan_txn.appuser_id
+JOIN m_cashiers c ON c.staff_id = u.staff_id
+WHERE loan_txn.is_reversed = 0 AND loan_txn.transaction_type_enum IN (1, 2, 5, 8)
+AND loan_txn.transaction_date BETWEEN c.start_date AND DATE_ADD(c.end_date, INTERVAL 1 DAY);
+
+INSERT INTO `m_cashier_balance` (`cashier_id`, `currency_code`, `office_id`, `txn_type`, `txn_date`, `txn_total`, `txn_count`)
+SELECT txns.cashier_id, txns.currency_code, txns.office_id, txns.txn_type, txns.txn_date, SUM(txns.txn_amount), COUNT(*)
+FROM (
+	SELECT txn.cashier_id, txn.currency_code, t.office_id, txn.txn_type, txn.txn_date, txn.txn_amount
+	FROM m_cashier_transactions txn
+	JOIN m_cashiers c ON c.id = txn.cashier_id
+	JOIN m_tellers t ON t.id = c.teller_id
+	WHERE txn.currency_code IS NOT NULL
+	UNION ALL
+	SELECT p.cashier_id, p.currency_code, p.office_id, p.txn_type, p.txn_date, p.txn_amount
+	FROM m_cashier_account_posting p
+) txns
+GROUP BY txns.cashier_id, txns.currency_code, txns.office_id, txns.txn_type, txns.txn_date;
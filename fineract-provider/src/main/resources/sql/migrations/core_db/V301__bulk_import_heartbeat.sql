@@ -0,0 +1,4 @@
+-- the node running a bulk import and when it last reported progress, so that imports of a stopped node can be failed
+ALTER TABLE `m_bulk_import`
+	ADD COLUMN `node_name` VARCHAR(100) NULL DEFAULT NULL AFTER `failure_reason`,
+	ADD COLUMN `last_updated` DATETIME NULL DEFAULT NULL AFTER `completed_date`;
@@ -0,0 +1,3 @@
+-- when the node working on a chunk last renewed its claim, so that only chunks of nodes which stopped renewing are handed back
+ALTER TABLE `job_chunk_queue`
+	ADD COLUMN `renewed_at` DATETIME NULL DEFAULT NULL AFTER `start_time`;
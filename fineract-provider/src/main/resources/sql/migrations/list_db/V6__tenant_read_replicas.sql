@@ -0,0 +1,15 @@
+-- read replicas of a tenant database; GET and report requests are routed to a
+-- replica while its replication lag stays within max_lag_seconds
+
+CREATE TABLE tenant_read_replicas (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`tenant_id` BIGINT(20) NOT NULL,
+	`server_connection_id` BIGINT(20) NOT NULL,
+	`max_lag_seconds` INT(5) NOT NULL DEFAULT '5',
+	PRIMARY KEY (`id`),
+	UNIQUE INDEX `uk_tenant_replica` (`tenant_id`, `server_connection_id`),
+	CONSTRAINT `fk_replica_tenant_id` FOREIGN KEY (`tenant_id`) REFERENCES `tenants` (`id`),
+	CONSTRAINT `fk_replica_server_connection_id` FOREIGN KEY (`server_connection_id`) REFERENCES `tenant_server_connections` (`id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
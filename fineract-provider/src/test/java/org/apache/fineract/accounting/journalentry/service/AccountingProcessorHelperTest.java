@@ -0,0 +1,170 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.fineract.accounting.closure.domain.GLClosure;
+import org.apache.fineract.accounting.closure.domain.GLClosureRepository;
+import org.apache.fineract.accounting.common.AccountingConstants.CASH_ACCOUNTS_FOR_LOAN;
+import org.apache.fineract.accounting.financialactivityaccount.domain.FinancialActivityAccountRepositoryWrapper;
+import org.apache.fineract.accounting.glaccount.domain.GLAccount;
+import org.apache.fineract.accounting.glaccount.domain.GLAccountRepositoryWrapper;
+import org.apache.fineract.accounting.journalentry.data.ChargePaymentDTO;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntry;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryRepository;
+import org.apache.fineract.accounting.producttoaccountmapping.domain.ProductToGLAccountMapping;
+import org.apache.fineract.accounting.producttoaccountmapping.domain.ProductToGLAccountMappingRepository;
+import org.apache.fineract.organisation.office.domain.Office;
+import org.apache.fineract.organisation.office.domain.OfficeRepository;
+import org.apache.fineract.portfolio.account.service.AccountTransfersReadPlatformService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class AccountingProcessorHelperTest {
+
+    private static final Long LOAN_PRODUCT_ID = 1L;
+    private static final Long LOAN_ID = 10L;
+    private static final int FEES = CASH_ACCOUNTS_FOR_LOAN.INCOME_FROM_FEES.getValue();
+
+    private ProductToGLAccountMappingRepository accountMappingRepository;
+    private GLClosureRepository closureRepository;
+    private OfficeRepository officeRepository;
+    private JournalEntryBatchWriter journalEntryBatchWriter;
+    private AccountingProcessorHelper helper;
+
+    private final GLAccount feeIncomeAccount = Mockito.mock(GLAccount.class);
+    private final GLAccount registrationFeeAccount = Mockito.mock(GLAccount.class);
+    private final Office office = Mockito.mock(Office.class);
+
+    @Before
+    public void setUp() {
+        this.accountMappingRepository = Mockito.mock(ProductToGLAccountMappingRepository.class);
+        this.closureRepository = Mockito.mock(GLClosureRepository.class);
+        this.officeRepository = Mockito.mock(OfficeRepository.class);
+        this.journalEntryBatchWriter = Mockito.mock(JournalEntryBatchWriter.class);
+
+        this.helper = new AccountingProcessorHelper(Mockito.mock(JournalEntryRepository.class), this.accountMappingRepository,
+                this.closureRepository, this.officeRepository, Mockito.mock(FinancialActivityAccountRepositoryWrapper.class),
+                Mockito.mock(AccountTransfersReadPlatformService.class), Mockito.mock(GLAccountRepositoryWrapper.class),
+                this.journalEntryBatchWriter);
+
+        final ProductToGLAccountMapping feeMapping = mapping(this.feeIncomeAccount);
+        when(this.accountMappingRepository.findCoreProductToFinAccountMapping(LOAN_PRODUCT_ID, 1, FEES)).thenReturn(feeMapping);
+        final ProductToGLAccountMapping registrationFeeMapping = mapping(this.registrationFeeAccount);
+        when(this.accountMappingRepository.findByProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(LOAN_PRODUCT_ID, 1, FEES, 7L))
+                .thenReturn(registrationFeeMapping);
+        when(this.officeRepository.findOne(2L)).thenReturn(this.office);
+        when(this.closureRepository.getLatestGLClosureByBranch(2L)).thenReturn(Mockito.mock(GLClosure.class));
+    }
+
+    @Test
+    public void memoisedLookupsProduceIdenticalJournalEntries() {
+        final List<String> withoutMemoisation = postChargePayments(new AccountingLookupContext(false));
+        final List<String> withMemoisation = postChargePayments(new AccountingLookupContext(true));
+
+        assertEquals(4, withMemoisation.size());
+        assertEquals(withoutMemoisation, withMemoisation);
+    }
+
+    @Test
+    public void mappingsAreResolvedOncePerContext() {
+        postChargePayments(new AccountingLookupContext(true));
+
+        verify(this.accountMappingRepository, times(1)).findCoreProductToFinAccountMapping(LOAN_PRODUCT_ID, 1, FEES);
+        verify(this.accountMappingRepository, times(1)).findByProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(
+                LOAN_PRODUCT_ID, 1, FEES, 7L);
+        verify(this.accountMappingRepository, times(1)).findByProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(
+                LOAN_PRODUCT_ID, 1, FEES, 8L);
+    }
+
+    @Test
+    public void mappingsAreResolvedPerCallWithoutScope() {
+        postChargePayments(new AccountingLookupContext(false));
+
+        verify(this.accountMappingRepository, times(6)).findCoreProductToFinAccountMapping(LOAN_PRODUCT_ID, 1, FEES);
+        verify(this.accountMappingRepository, times(2)).findByProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(
+                LOAN_PRODUCT_ID, 1, FEES, 8L);
+    }
+
+    @Test
+    public void officesAndClosuresAreResolvedOncePerContext() {
+        when(this.journalEntryBatchWriter.lookups()).thenReturn(new AccountingLookupContext(true));
+
+        final GLClosure closure = this.helper.getLatestClosureByBranch(2L);
+        assertSame(closure, this.helper.getLatestClosureByBranch(2L));
+        assertSame(this.office, this.helper.getOfficeById(2L));
+        assertSame(this.office, this.helper.getOfficeById(2L));
+
+        verify(this.closureRepository, times(1)).getLatestGLClosureByBranch(2L);
+        verify(this.officeRepository, times(1)).findOne(2L);
+    }
+
+    /**
+     * Posts a fee payment covering three charges, two of which fall back to
+     * the product's fee income account, followed by its reversal.
+     */
+    private List<String> postChargePayments(final AccountingLookupContext lookups) {
+        Mockito.reset(this.journalEntryBatchWriter);
+        when(this.journalEntryBatchWriter.lookups()).thenReturn(lookups);
+
+        final List<ChargePaymentDTO> chargePayments = Arrays.asList(new ChargePaymentDTO(8L, 100L, new BigDecimal("10")),
+                new ChargePaymentDTO(7L, 101L, new BigDecimal("25")), new ChargePaymentDTO(9L, 102L, new BigDecimal("5")));
+        final Date transactionDate = new Date(0);
+        this.helper.createCreditJournalEntryOrReversalForLoanCharges(this.office, "USD", FEES, LOAN_PRODUCT_ID, LOAN_ID, "55",
+                transactionDate, new BigDecimal("40"), false, chargePayments);
+        this.helper.createCreditJournalEntryOrReversalForLoanCharges(this.office, "USD", FEES, LOAN_PRODUCT_ID, LOAN_ID, "56",
+                transactionDate, new BigDecimal("40"), true, chargePayments);
+
+        final ArgumentCaptor<JournalEntry> entries = ArgumentCaptor.forClass(JournalEntry.class);
+        final ArgumentCaptor<Long> loanTransactionIds = ArgumentCaptor.forClass(Long.class);
+        verify(this.journalEntryBatchWriter, times(4)).writeForLoanTransaction(entries.capture(), loanTransactionIds.capture());
+
+        final List<String> output = new ArrayList<>();
+        for (int i = 0; i < entries.getAllValues().size(); i++) {
+            output.add(describe(entries.getAllValues().get(i), loanTransactionIds.getAllValues().get(i)));
+        }
+        return output;
+    }
+
+    private String describe(final JournalEntry entry, final Long loanTransactionId) {
+        final String account = entry.getGlAccount() == this.feeIncomeAccount ? "fees" : entry.getGlAccount() == this.registrationFeeAccount
+                ? "registration" : "other";
+        return account + "|" + entry.getType() + "|" + entry.getAmount().toPlainString() + "|" + entry.getTransactionId() + "|"
+                + entry.getEntityId() + "|" + loanTransactionId;
+    }
+
+    private static ProductToGLAccountMapping mapping(final GLAccount account) {
+        final ProductToGLAccountMapping mapping = Mockito.mock(ProductToGLAccountMapping.class);
+        when(mapping.getGlAccount()).thenReturn(account);
+        return mapping;
+    }
+}
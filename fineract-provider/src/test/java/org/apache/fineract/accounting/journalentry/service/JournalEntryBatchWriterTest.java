@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Date;
+
+import org.apache.fineract.accounting.glaccount.domain.GLAccount;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntry;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryRepository;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.organisation.office.domain.Office;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.AuditorAware;
+
+public class JournalEntryBatchWriterTest {
+
+    private PreparedStatement statement;
+    private JournalEntryBatchWriter batchWriter;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        this.statement = mock(PreparedStatement.class);
+        final Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(this.statement);
+        when(this.statement.getConnection()).thenReturn(connection);
+        final RoutingDataSource dataSource = mock(RoutingDataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        this.batchWriter = new JournalEntryBatchWriter(dataSource, mock(JournalEntryRepository.class), mock(AuditorAware.class));
+    }
+
+    @Test
+    public void failedNestedScopeDropsOnlyItsOwnEntries() throws Exception {
+        this.batchWriter.begin();
+        this.batchWriter.writeForLoanTransaction(entry(), 1L);
+        this.batchWriter.begin();
+        this.batchWriter.writeForLoanTransaction(entry(), 2L);
+        this.batchWriter.writeForLoanTransaction(entry(), 3L);
+        this.batchWriter.end(false);
+        this.batchWriter.writeForLoanTransaction(entry(), 4L);
+        this.batchWriter.end(true);
+
+        // the connection does not report batch support, so each entry is
+        // written with its own update
+        verify(this.statement, times(2)).executeUpdate();
+    }
+
+    @Test
+    public void failedOutermostScopeWritesNothing() throws Exception {
+        this.batchWriter.begin();
+        this.batchWriter.writeForLoanTransaction(entry(), 1L);
+        this.batchWriter.begin();
+        this.batchWriter.writeForLoanTransaction(entry(), 2L);
+        this.batchWriter.end(true);
+        this.batchWriter.end(false);
+
+        verify(this.statement, never()).executeUpdate();
+    }
+
+    private static JournalEntry entry() {
+        final JournalEntry entry = mock(JournalEntry.class);
+        when(entry.getGlAccount()).thenReturn(mock(GLAccount.class));
+        when(entry.getOffice()).thenReturn(mock(Office.class));
+        when(entry.getTransactionDate()).thenReturn(new Date());
+        return entry;
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.bulkimport.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.apache.fineract.infrastructure.bulkimport.service.BulkImportRecordReader.Record;
+import org.junit.Test;
+
+public class BulkImportRecordReaderTest {
+
+    @Test
+    public void csvRowsBecomeJsonObjectsNamedByTheHeader() throws IOException {
+        final BulkImportRecordReader reader = new BulkImportRecordReader(new StringReader("officeId,firstname,lastname,active\r\n"
+                + "1,Jane,Doe,true\r\n" + "\r\n" + "2,\"Smith, \"\"Jr\"\"\",\"Multi\nLine\",\n"), BulkImportRecordReader.CSV);
+
+        final Record first = reader.next();
+        assertEquals(2, first.getRowNumber());
+        assertEquals("{\"officeId\":\"1\",\"firstname\":\"Jane\",\"lastname\":\"Doe\",\"active\":\"true\"}", first.getJson());
+
+        final Record second = reader.next();
+        assertEquals(4, second.getRowNumber());
+        assertEquals("{\"officeId\":\"2\",\"firstname\":\"Smith, \\\"Jr\\\"\",\"lastname\":\"Multi\\nLine\"}", second.getJson());
+
+        assertNull(reader.next());
+        reader.close();
+    }
+
+    @Test
+    public void jsonLinesAreNumberedByLineAndSkipBlankLines() throws IOException {
+        final BulkImportRecordReader reader = new BulkImportRecordReader(new StringReader("{\"a\":1}\n\n  {\"b\":2}  \n"),
+                BulkImportRecordReader.JSON_LINES);
+
+        final Record first = reader.next();
+        assertEquals(1, first.getRowNumber());
+        assertEquals("{\"a\":1}", first.getJson());
+
+        final Record second = reader.next();
+        assertEquals(3, second.getRowNumber());
+        assertEquals("{\"b\":2}", second.getJson());
+
+        assertNull(reader.next());
+        reader.close();
+    }
+}
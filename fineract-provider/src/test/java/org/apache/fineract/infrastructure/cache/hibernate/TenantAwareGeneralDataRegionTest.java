@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.cache.hibernate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.hibernate.cache.spi.GeneralDataRegion;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class TenantAwareGeneralDataRegionTest {
+
+    private final Map<Object, Object> entries = new HashMap<>();
+    private TenantAwareGeneralDataRegion region;
+    private RegionStatistics statistics;
+
+    @Before
+    public void setUp() {
+        final GeneralDataRegion delegate = Mockito.mock(GeneralDataRegion.class);
+        Mockito.when(delegate.get(Mockito.any())).thenAnswer(new Answer<Object>() {
+
+            @Override
+            public Object answer(final InvocationOnMock invocation) {
+                return TenantAwareGeneralDataRegionTest.this.entries.get(invocation.getArguments()[0]);
+            }
+        });
+        Mockito.doAnswer(new Answer<Void>() {
+
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                TenantAwareGeneralDataRegionTest.this.entries.put(invocation.getArguments()[0], invocation.getArguments()[1]);
+                return null;
+            }
+        }).when(delegate).put(Mockito.any(), Mockito.any());
+        this.statistics = new RegionStatistics("query");
+        this.region = new TenantAwareGeneralDataRegion(delegate, this.statistics);
+        TenantAwareRegionFactory.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        TenantAwareRegionFactory.setEnabled(false);
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void entriesAreKeptApartPerTenant() {
+        useTenant("default");
+        this.region.put("m_currency", 1L);
+        assertEquals(1L, this.region.get("m_currency"));
+
+        useTenant("other");
+        assertNull(this.region.get("m_currency"));
+        this.region.put("m_currency", 2L);
+
+        useTenant("default");
+        assertEquals(1L, this.region.get("m_currency"));
+        assertEquals(2, this.statistics.getHits());
+        assertEquals(1, this.statistics.getMisses());
+    }
+
+    @Test
+    public void regionIsBypassedWhileCachingIsSwitchedOff() {
+        useTenant("default");
+        this.region.put("m_currency", 1L);
+
+        TenantAwareRegionFactory.setEnabled(false);
+        assertNull(this.region.get("m_currency"));
+        this.region.put("m_charge", 2L);
+
+        TenantAwareRegionFactory.setEnabled(true);
+        assertNull(this.region.get("m_charge"));
+        assertEquals(1, this.entries.size());
+    }
+
+    private static void useTenant(final String tenantIdentifier) {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(null, tenantIdentifier, tenantIdentifier, "UTC", null));
+    }
+}
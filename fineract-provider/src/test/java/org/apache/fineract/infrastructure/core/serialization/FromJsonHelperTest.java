@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.serialization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.fineract.infrastructure.core.exception.UnsupportedParameterException;
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.gson.JsonElement;
+import com.google.gson.reflect.TypeToken;
+
+public class FromJsonHelperTest {
+
+    private static final Type TYPE_OF_MAP = new TypeToken<Map<String, Object>>() {}.getType();
+
+    private static final Set<String> COLLECTION_SHEET_PARAMETERS = new HashSet<>(Arrays.asList("dateFormat", "locale",
+            "transactionDate", "actualDisbursementDate", "bulkRepaymentTransactions", "bulkDisbursementTransactions",
+            "bulkSavingsDueTransactions", "note", "calendarId"));
+
+    private final FromJsonHelper fromApiJsonHelper = new FromJsonHelper();
+
+    @After
+    public void tearDown() {
+        this.fromApiJsonHelper.unbindParsedJson();
+    }
+
+    @Test
+    public void shouldReuseBoundParsedJson() {
+        final String json = collectionSheetJson(10);
+        final JsonElement parsedCommand = this.fromApiJsonHelper.parse(json);
+
+        this.fromApiJsonHelper.bindParsedJson(json, parsedCommand);
+
+        assertSame(parsedCommand, this.fromApiJsonHelper.parse(json));
+        assertSame(parsedCommand, this.fromApiJsonHelper.parse(new String(json)));
+    }
+
+    @Test
+    public void shouldParseAgainOnceUnbound() {
+        final String json = collectionSheetJson(10);
+        final JsonElement parsedCommand = this.fromApiJsonHelper.parse(json);
+
+        this.fromApiJsonHelper.bindParsedJson(json, parsedCommand);
+        this.fromApiJsonHelper.unbindParsedJson();
+
+        final JsonElement reparsed = this.fromApiJsonHelper.parse(json);
+        assertNotSame(parsedCommand, reparsed);
+        assertEquals(parsedCommand, reparsed);
+    }
+
+    @Test
+    public void shouldParseDifferentJsonWhileBound() {
+        final String json = collectionSheetJson(10);
+        this.fromApiJsonHelper.bindParsedJson(json, this.fromApiJsonHelper.parse(json));
+
+        final JsonElement other = this.fromApiJsonHelper.parse("{\"note\":\"other\"}");
+        assertEquals("other", this.fromApiJsonHelper.extractStringNamed("note", other));
+    }
+
+    @Test(expected = UnsupportedParameterException.class)
+    public void shouldDetectUnsupportedParametersOnBoundJson() {
+        final String json = "{\"note\":\"test\", \"unknown\":\"value\"}";
+        this.fromApiJsonHelper.bindParsedJson(json, this.fromApiJsonHelper.parse(json));
+
+        this.fromApiJsonHelper.checkForUnsupportedParameters(TYPE_OF_MAP, json, COLLECTION_SHEET_PARAMETERS);
+    }
+
+    @Test
+    public void shouldValidateBoundBulkCollectionSheetLikeUnboundWithoutReparsing() {
+        final String json = collectionSheetJson(2000);
+        final JsonElement unbound = validate(json);
+
+        final JsonElement parsedCommand = this.fromApiJsonHelper.parse(json);
+        this.fromApiJsonHelper.bindParsedJson(json, parsedCommand);
+        for (int i = 0; i < 3; i++) {
+            final JsonElement bound = validate(json);
+            assertSame(parsedCommand, bound);
+            assertEquals(unbound, bound);
+        }
+    }
+
+    private JsonElement validate(final String json) {
+        this.fromApiJsonHelper.checkForUnsupportedParameters(TYPE_OF_MAP, json, COLLECTION_SHEET_PARAMETERS);
+        final JsonElement element = this.fromApiJsonHelper.parse(json);
+        assertEquals(2000, this.fromApiJsonHelper.extractJsonArrayNamed("bulkRepaymentTransactions", element).size());
+        return element;
+    }
+
+    private static String collectionSheetJson(final int numberOfRepayments) {
+        final StringBuilder json = new StringBuilder(
+                "{\"dateFormat\":\"dd MMMM yyyy\",\"locale\":\"en\",\"transactionDate\":\"01 March 2016\",\"calendarId\":1,\"bulkRepaymentTransactions\":[");
+        for (int i = 0; i < numberOfRepayments; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"loanId\":").append(i + 1).append(",\"transactionAmount\":\"125.50\"}");
+        }
+        json.append("],\"bulkDisbursementTransactions\":[],\"bulkSavingsDueTransactions\":[]}");
+        return json.toString();
+    }
+}
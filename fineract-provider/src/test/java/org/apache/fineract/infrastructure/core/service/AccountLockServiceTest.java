@@ -0,0 +1,195 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class AccountLockServiceTest {
+
+    private static final FineractPlatformTenant TENANT = new FineractPlatformTenant(null, "default", "default", "UTC", null);
+
+    private AccountLockService accountLockService;
+    private ExecutorService otherThreads;
+
+    @Before
+    public void setUp() {
+        System.setProperty(AccountLockService.MODE_PROPERTY, "local");
+        System.setProperty(AccountLockService.TIMEOUT_PROPERTY, "1");
+        ThreadLocalContextUtil.setTenant(TENANT);
+        this.accountLockService = new AccountLockService(mock(RoutingDataSource.class), mock(PlatformTransactionManager.class));
+        this.otherThreads = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        this.otherThreads.shutdownNow();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        ThreadLocalContextUtil.clearTenant();
+        System.clearProperty(AccountLockService.MODE_PROPERTY);
+        System.clearProperty(AccountLockService.TIMEOUT_PROPERTY);
+    }
+
+    @Test
+    public void shouldNotAcquireKeysHeldByTheCurrentThreadAgain() {
+        final String result = this.accountLockService.executeLocked(keys("loan:1", "savings:2"), new Callable<String>() {
+
+            @Override
+            public String call() {
+                return AccountLockServiceTest.this.accountLockService.executeLocked(keys("savings:2", "loan:3"), new Callable<String>() {
+
+                    @Override
+                    public String call() {
+                        return "nested";
+                    }
+                });
+            }
+        });
+
+        assertEquals("nested", result);
+        assertTrue(lockableFromOtherThread("loan:1", "savings:2", "loan:3"));
+    }
+
+    @Test
+    public void shouldAcquireKeysInTheSameOrderWhateverOrderTheyAreGivenIn() throws Exception {
+        final Future<Integer> forwards = this.otherThreads.submit(lockRepeatedly(keys("loan:1", "loan:2", "savings:3")));
+        final Future<Integer> backwards = this.otherThreads.submit(lockRepeatedly(keys("savings:3", "loan:2", "loan:1")));
+
+        // a thread waiting on the other one for more than the timeout would
+        // fail with CannotAcquireLockException
+        assertEquals(Integer.valueOf(500), forwards.get(30, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(500), backwards.get(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldHoldLocksUntilTheTransactionCompletes() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.accountLockService.executeLocked(keys("loan:1"), new Callable<Void>() {
+
+            @Override
+            public Void call() {
+                return null;
+            }
+        });
+
+        assertFalse(lockableFromOtherThread("loan:1"));
+
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertTrue(lockableFromOtherThread("loan:1"));
+    }
+
+    @Test
+    public void shouldReleaseLocksWhenTheWorkFailsOutsideATransaction() throws Exception {
+        try {
+            this.accountLockService.executeLocked(keys("loan:1"), new Callable<Void>() {
+
+                @Override
+                public Void call() {
+                    throw new IllegalArgumentException("failed");
+                }
+            });
+            fail();
+        } catch (final IllegalArgumentException e) {
+            assertEquals("failed", e.getMessage());
+        }
+
+        assertTrue(lockableFromOtherThread("loan:1"));
+    }
+
+    private boolean lockableFromOtherThread(final String... accountKeys) {
+        final Future<Boolean> lockable = this.otherThreads.submit(new Callable<Boolean>() {
+
+            @Override
+            public Boolean call() {
+                ThreadLocalContextUtil.setTenant(TENANT);
+                try {
+                    return AccountLockServiceTest.this.accountLockService.executeLocked(keys(accountKeys), new Callable<Boolean>() {
+
+                        @Override
+                        public Boolean call() {
+                            return Boolean.TRUE;
+                        }
+                    });
+                } catch (final CannotAcquireLockException e) {
+                    return Boolean.FALSE;
+                } finally {
+                    ThreadLocalContextUtil.clearTenant();
+                }
+            }
+        });
+        return TenantAwareTaskExecutor.getResult(lockable);
+    }
+
+    private Callable<Integer> lockRepeatedly(final Collection<String> accountKeys) {
+        return new Callable<Integer>() {
+
+            @Override
+            public Integer call() {
+                ThreadLocalContextUtil.setTenant(TENANT);
+                try {
+                    int completed = 0;
+                    for (int i = 0; i < 500; i++) {
+                        completed += AccountLockServiceTest.this.accountLockService.executeLocked(accountKeys, new Callable<Integer>() {
+
+                            @Override
+                            public Integer call() {
+                                Thread.yield();
+                                return 1;
+                            }
+                        });
+                    }
+                    return completed;
+                } finally {
+                    ThreadLocalContextUtil.clearTenant();
+                }
+            }
+        };
+    }
+
+    private static Collection<String> keys(final String... accountKeys) {
+        return Arrays.asList(accountKeys);
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.fineract.infrastructure.core.exception.UnrecognizedQueryParamException;
+import org.junit.Test;
+
+public class PaginationHelperTest {
+
+    @Test
+    public void shouldStartFirstKeysetPageAtTheLowestKey() {
+        final StringBuilder sql = new StringBuilder("select c.id from m_client c where c.status_enum = 300");
+        final List<Object> params = new ArrayList<>();
+
+        PaginationHelper.appendKeysetCriteria(sql, "c.id", SearchParameters.forPagination(null, 50).withKeysetPagination(null), params);
+
+        assertEquals("select c.id from m_client c where c.status_enum = 300 order by c.id asc limit 51", sql.toString());
+        assertEquals(0, params.size());
+    }
+
+    @Test
+    public void shouldContinueKeysetPageAfterTheCursor() {
+        final String cursor = PaginationHelper.encodeCursor(4711L);
+        final StringBuilder sql = new StringBuilder("select l.id from m_loan l where 1=1");
+        final List<Object> params = new ArrayList<>();
+
+        PaginationHelper.appendKeysetCriteria(sql, "l.id", SearchParameters.forPagination(null, 20, null, "DESC")
+                .withKeysetPagination(cursor), params);
+
+        assertEquals("select l.id from m_loan l where 1=1 and l.id < ? order by l.id desc limit 21", sql.toString());
+        assertEquals(Arrays.<Object> asList(4711L), params);
+    }
+
+    @Test
+    public void shouldRoundTripCursor() {
+        assertEquals(Long.valueOf(123456789L), PaginationHelper.decodeCursor(PaginationHelper.encodeCursor(123456789L)));
+        assertNull(PaginationHelper.decodeCursor(null));
+    }
+
+    @Test(expected = UnrecognizedQueryParamException.class)
+    public void shouldRejectEditedCursor() {
+        final char[] cursor = PaginationHelper.encodeCursor(4711L).toCharArray();
+        cursor[5] = cursor[5] == 'A' ? 'B' : 'A';
+
+        PaginationHelper.decodeCursor(new String(cursor));
+    }
+
+    @Test
+    public void shouldNotExposeTheKeyInTheCursor() {
+        final String cursor = PaginationHelper.encodeCursor(4711L);
+
+        assertFalse(cursor.contains("4711"));
+        assertFalse(cursor.contains(Long.toHexString(4711L)));
+    }
+
+    @Test(expected = UnrecognizedQueryParamException.class)
+    public void shouldRejectMalformedCursor() {
+        PaginationHelper.decodeCursor("not-a-cursor");
+    }
+
+    @Test(expected = UnrecognizedQueryParamException.class)
+    public void shouldRejectOrderingByOtherColumnsThanTheKey() {
+        PaginationHelper.appendKeysetCriteria(new StringBuilder(), "c.id", SearchParameters.forPagination(null, 20, "display_name", null)
+                .withKeysetPagination(null), new ArrayList<Object>());
+    }
+}
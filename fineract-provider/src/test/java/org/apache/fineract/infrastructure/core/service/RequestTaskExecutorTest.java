@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RequestTaskExecutorTest {
+
+    private RequestTaskExecutor executor;
+
+    @Before
+    public void setUp() {
+        System.setProperty(RequestTaskExecutor.POOL_SIZE_PROPERTY, "1");
+        this.executor = new RequestTaskExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        this.executor.destroy();
+        System.clearProperty(RequestTaskExecutor.POOL_SIZE_PROPERTY);
+    }
+
+    @Test
+    public void shouldRunOnWorkerWhenIdle() {
+        final Future<String> result = this.executor.submit(currentThreadName());
+
+        assertTrue(TenantAwareTaskExecutor.getResult(result).startsWith("fineract-request-"));
+    }
+
+    @Test
+    public void shouldRunOnSubmittingThreadWhenSaturated() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Future<Void> blocking = this.executor.submit(new Callable<Void>() {
+
+            @Override
+            public Void call() throws Exception {
+                started.countDown();
+                release.await();
+                return null;
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        try {
+            final Future<String> result = this.executor.submit(currentThreadName());
+
+            assertTrue(result.isDone());
+            assertEquals(Thread.currentThread().getName(), TenantAwareTaskExecutor.getResult(result));
+        } finally {
+            release.countDown();
+        }
+        TenantAwareTaskExecutor.getResult(blocking);
+    }
+
+    private static Callable<String> currentThreadName() {
+        return new Callable<String>() {
+
+            @Override
+            public String call() {
+                return Thread.currentThread().getName();
+            }
+        };
+    }
+}
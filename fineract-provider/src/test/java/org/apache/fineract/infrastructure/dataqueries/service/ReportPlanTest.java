@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.junit.Test;
+
+public class ReportPlanTest {
+
+    @Test
+    public void quotedAndUnquotedPlaceholdersBecomeBindMarkers() {
+        final ReportPlan plan = ReportPlan.compile("select * from m_loan l where l.id = ${loanId} and l.disbursedon_date >= '${startDate}'"
+                + " and o.hierarchy like concat('${currentUserHierarchy}', '%')");
+
+        assertEquals("select * from m_loan l where l.id = ? and l.disbursedon_date >= ? and o.hierarchy like concat(?, '%')",
+                plan.getPreparedSql());
+
+        final ReportPlan.BoundQuery query = plan.bind(params("${loanId}", "12", "${startDate}", "2016-01-01",
+                "${currentUserHierarchy}", "."));
+        assertEquals(plan.getPreparedSql(), query.getSql());
+        assertArrayEquals(new Object[] { 12L, "2016-01-01", "." }, query.getArgs());
+    }
+
+    @Test
+    public void placeholderInsideLongerLiteralBecomesConcat() {
+        final ReportPlan plan = ReportPlan.compile("select 'it''s' as a from m_office o where o.hierarchy like '${currentUserHierarchy}%'");
+
+        assertEquals("select 'it''s' as a from m_office o where o.hierarchy like concat(?, '%')", plan.getPreparedSql());
+    }
+
+    @Test
+    public void valuesAreBoundNotSpliced() {
+        final ReportPlan plan = ReportPlan.compile("select * from m_client where display_name = '${name}' and office_id = ${officeId}");
+
+        final ReportPlan.BoundQuery query = plan.bind(params("${name}", "x' or '1'='1", "${officeId}", "1 or 1=1"));
+
+        assertEquals("select * from m_client where display_name = ? and office_id = ?", query.getSql());
+        assertArrayEquals(new Object[] { "x' or '1'='1", "1 or 1=1" }, query.getArgs());
+    }
+
+    @Test
+    public void unquotedListIsExpanded() {
+        final ReportPlan plan = ReportPlan.compile("select * from stretchy_report sr where sr.report_name in(${reportListing}) -- '${ignored}'");
+
+        final ReportPlan.BoundQuery query = plan.bind(params("${reportListing}", "'Active Loans', 'Client Listing'"));
+
+        assertEquals("select * from stretchy_report sr where sr.report_name in(?, ?) -- '${ignored}'", query.getSql());
+        assertArrayEquals(new Object[] { "Active Loans", "Client Listing" }, query.getArgs());
+    }
+
+    @Test(expected = PlatformDataIntegrityException.class)
+    public void missingParameterIsRejected() {
+        ReportPlan.compile("select * from m_office where id = ${officeId}").bind(new HashMap<String, String>());
+    }
+
+    private static Map<String, String> params(final String... namesAndValues) {
+        final Map<String, String> params = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            params.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return params;
+    }
+}
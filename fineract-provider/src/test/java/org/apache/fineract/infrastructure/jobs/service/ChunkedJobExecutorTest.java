@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.apache.fineract.infrastructure.core.service.TenantAwareTaskExecutor;
+import org.apache.fineract.infrastructure.jobs.service.ChunkedJobExecutor.ChunkItemProcessor;
+import org.apache.fineract.infrastructure.jobs.service.ChunkedJobExecutor.ChunkProcessorFactory;
+import org.apache.fineract.infrastructure.jobs.service.JobChunkQueue.QueuedChunk;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChunkedJobExecutorTest {
+
+    private static final String RUN_KEY = "unfinished-run";
+
+    private final List<Long> processed = Collections.synchronizedList(new ArrayList<Long>());
+
+    private JobChunkQueue chunkQueue;
+    private TenantAwareTaskExecutor taskExecutor;
+    private ChunkedJobExecutor chunkedJobExecutor;
+
+    @Before
+    public void setUp() {
+        System.setProperty(SchedulerServiceConstants.CLUSTERED_PROPERTY, "true");
+        this.chunkQueue = mock(JobChunkQueue.class);
+        this.taskExecutor = new TenantAwareTaskExecutor();
+        this.chunkedJobExecutor = new ChunkedJobExecutor(this.taskExecutor, this.chunkQueue);
+        this.chunkedJobExecutor.registerDistributedJob(JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT, new ChunkProcessorFactory() {
+
+            @Override
+            public ChunkItemProcessor processorFor(@SuppressWarnings("unused") final List<Long> entityIds) {
+                return new ChunkItemProcessor() {
+
+                    @Override
+                    public boolean process(final Long entityId, @SuppressWarnings("unused") final StringBuilder errors) {
+                        ChunkedJobExecutorTest.this.processed.add(entityId);
+                        return true;
+                    }
+                };
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        this.taskExecutor.destroy();
+        System.clearProperty(SchedulerServiceConstants.CLUSTERED_PROPERTY);
+    }
+
+    @Test
+    public void resumedRunTakesOnTheEntitiesOfTheCurrentTriggerItDoesNotHaveYet() {
+        when(this.chunkQueue.retrieveUnfinishedRun(JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT)).thenReturn(RUN_KEY);
+        when(this.chunkQueue.retrieveEntityIds(RUN_KEY)).thenReturn(new HashSet<>(Arrays.asList(1L, 2L)));
+
+        this.chunkedJobExecutor.execute(JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT, Arrays.asList(3L, 1L, 4L, 2L));
+
+        verify(this.chunkQueue).publish(RUN_KEY, JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT,
+                Arrays.asList(Arrays.asList(3L, 4L)));
+    }
+
+    @Test
+    public void renewsTheClaimWhileProcessingAndStopsOnceItIsLost() {
+        final List<Long> entityIds = new ArrayList<>();
+        for (long id = 1; id <= 3 * ChunkedJobExecutor.CLAIM_RENEWAL_INTERVAL_ENTITIES + 5; id++) {
+            entityIds.add(id);
+        }
+        final QueuedChunk chunk = new QueuedChunk(7L, 1, entityIds);
+        when(this.chunkQueue.claim(eq(RUN_KEY), anyString())).thenReturn(chunk, (QueuedChunk) null);
+        when(this.chunkQueue.renew(eq(chunk), anyString())).thenReturn(true, false);
+
+        this.chunkedJobExecutor.processQueuedChunks(RUN_KEY, this.chunkedJobExecutor
+                .findDistributedJob(JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT));
+
+        // renewed after the first block, lost after the second
+        assertEquals(entityIds.subList(0, 2 * ChunkedJobExecutor.CLAIM_RENEWAL_INTERVAL_ENTITIES), this.processed);
+        verify(this.chunkQueue).complete(eq(chunk), anyString(), eq(ChunkedJobExecutor.CLAIM_RENEWAL_INTERVAL_ENTITIES + 5),
+                anyString());
+    }
+
+    @Test
+    public void releasesStaleClaimsByTheClaimTimeout() {
+        when(this.chunkQueue.retrieveUnfinishedRun(JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT)).thenReturn(RUN_KEY);
+        when(this.chunkQueue.retrieveEntityIds(RUN_KEY)).thenReturn(new HashSet<>(Arrays.asList(1L)));
+        when(this.chunkQueue.countUnfinished(RUN_KEY)).thenReturn(1, 0);
+        System.setProperty(ChunkedJobExecutor.CHUNK_CLAIM_TIMEOUT_PROPERTY, "42");
+        try {
+            this.chunkedJobExecutor.execute(JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT, Arrays.asList(1L));
+        } finally {
+            System.clearProperty(ChunkedJobExecutor.CHUNK_CLAIM_TIMEOUT_PROPERTY);
+        }
+
+        verify(this.chunkQueue).releaseStale(RUN_KEY, 42);
+    }
+}
@@ -0,0 +1,427 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.sms.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.fineract.infrastructure.core.service.TenantAwareTaskExecutor;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.sms.domain.SmsMessageStatusType;
+import org.apache.fineract.infrastructure.sms.gateway.SmsGateway;
+import org.apache.fineract.infrastructure.sms.gateway.SmsGatewayMessage;
+import org.apache.fineract.infrastructure.sms.gateway.SmsGatewayResult;
+import org.apache.fineract.infrastructure.sms.gateway.StubSmsGateway;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Runs the dispatch job against an in memory <code>sms_messages_outbound</code>
+ * that applies the claim update and the write back the way MySQL would, with
+ * a clock that only moves when a test moves it.
+ */
+public class SmsDispatchServiceImplTest {
+
+    private static final int CLAIM_TIMEOUT_SECONDS = 600;
+
+    private final Map<Long, OutboundRow> table = new TreeMap<>();
+    private final AtomicInteger claims = new AtomicInteger();
+    private final AtomicInteger writeBacks = new AtomicInteger();
+    private long now = 1000000000L;
+    private Runnable beforeRenewal;
+
+    private JdbcTemplate jdbcTemplate;
+    private StubSmsGateway gateway;
+    private TenantAwareTaskExecutor taskExecutor;
+    private SmsDispatchServiceImpl dispatchService;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        System.setProperty(SmsDispatchServiceImpl.GATEWAY_PROPERTY, StubSmsGateway.NAME);
+        System.setProperty(SmsDispatchServiceImpl.CLAIM_SIZE_PROPERTY, "100");
+        System.setProperty(SmsDispatchServiceImpl.GATEWAY_BATCH_SIZE_PROPERTY, "30");
+        System.setProperty(SmsDispatchServiceImpl.CONCURRENCY_PROPERTY, "3");
+        System.setProperty(SmsDispatchServiceImpl.CLAIM_TIMEOUT_PROPERTY, String.valueOf(CLAIM_TIMEOUT_SECONDS));
+
+        this.jdbcTemplate = mock(JdbcTemplate.class);
+        when(this.jdbcTemplate.update(anyString(), anyString(), eq(SmsMessageStatusType.PENDING.getValue()), anyInt(), anyInt())).thenAnswer(
+                new Answer<Integer>() {
+
+                    @Override
+                    public Integer answer(final InvocationOnMock invocation) {
+                        final Object[] arguments = invocation.getArguments();
+                        return claim((String) arguments[1], (Integer) arguments[3], (Integer) arguments[4]);
+                    }
+                });
+        when(this.jdbcTemplate.update(anyString(), anyString(), eq(SmsMessageStatusType.PENDING.getValue()))).thenAnswer(
+                new Answer<Integer>() {
+
+                    @Override
+                    public Integer answer(final InvocationOnMock invocation) {
+                        return renew((String) invocation.getArguments()[1]);
+                    }
+                });
+        when(this.jdbcTemplate.query(anyString(), any(RowMapper.class), anyString())).thenAnswer(new Answer<List<SmsGatewayMessage>>() {
+
+            @Override
+            public List<SmsGatewayMessage> answer(final InvocationOnMock invocation) throws Exception {
+                final RowMapper<SmsGatewayMessage> mapper = (RowMapper<SmsGatewayMessage>) invocation.getArguments()[1];
+                final List<SmsGatewayMessage> messages = new ArrayList<>();
+                for (final OutboundRow row : claimedBy((String) invocation.getArguments()[2])) {
+                    messages.add(mapper.mapRow(resultSetOf(row), messages.size()));
+                }
+                return messages;
+            }
+        });
+        when(this.jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenAnswer(new Answer<int[]>() {
+
+            @Override
+            public int[] answer(final InvocationOnMock invocation) throws Exception {
+                return writeBack((BatchPreparedStatementSetter) invocation.getArguments()[1]);
+            }
+        });
+
+        this.gateway = new StubSmsGateway();
+        this.taskExecutor = new TenantAwareTaskExecutor();
+        this.dispatchService = new SmsDispatchServiceImpl(this.jdbcTemplate, this.taskExecutor, Arrays.<SmsGateway> asList(this.gateway));
+    }
+
+    @After
+    public void tearDown() {
+        this.taskExecutor.destroy();
+        System.clearProperty(SmsDispatchServiceImpl.GATEWAY_PROPERTY);
+        System.clearProperty(SmsDispatchServiceImpl.CLAIM_SIZE_PROPERTY);
+        System.clearProperty(SmsDispatchServiceImpl.GATEWAY_BATCH_SIZE_PROPERTY);
+        System.clearProperty(SmsDispatchServiceImpl.CONCURRENCY_PROPERTY);
+        System.clearProperty(SmsDispatchServiceImpl.CLAIM_TIMEOUT_PROPERTY);
+        System.clearProperty(SmsDispatchServiceImpl.RATE_PER_SECOND_PROPERTY);
+    }
+
+    @Test
+    public void claimsPendingMessagesInBlocksAndWritesResultsBackPerGatewayBatch() throws Exception {
+        for (long id = 1; id <= 250; id++) {
+            pending(id, id == 7 ? "unknown" : "+2547000" + id);
+        }
+
+        this.dispatchService.dispatchPendingMessages();
+
+        // blocks of 100, 100 and 50 split into gateway batches of 30
+        assertEquals(3, this.claims.get());
+        assertEquals(4 + 4 + 2, this.writeBacks.get());
+        assertEquals(249, this.gateway.getSentCount());
+        for (final OutboundRow row : this.table.values()) {
+            assertNull(row.claimToken);
+            if (row.id == 7) {
+                assertEquals(SmsMessageStatusType.FAILED.getValue(), row.status);
+                assertNull(row.externalId);
+                assertNull(row.sentOn);
+            } else {
+                assertEquals(SmsMessageStatusType.SENT.getValue(), row.status);
+                assertNotNull(row.externalId);
+                assertNotNull(row.sentOn);
+            }
+        }
+    }
+
+    @Test
+    public void leavesMessagesClaimedByAnotherRunAlone() throws Exception {
+        for (long id = 1; id <= 20; id++) {
+            pending(id, "+2547000" + id);
+        }
+        for (long id = 1; id <= 10; id++) {
+            claimed(id, "other-run", this.now - 1000L * (CLAIM_TIMEOUT_SECONDS - 1));
+        }
+
+        this.dispatchService.dispatchPendingMessages();
+
+        assertEquals(10, this.gateway.getSentCount());
+        for (final OutboundRow row : this.table.values()) {
+            if (row.id <= 10) {
+                assertEquals(SmsMessageStatusType.PENDING.getValue(), row.status);
+                assertEquals("other-run", row.claimToken);
+            } else {
+                assertEquals(SmsMessageStatusType.SENT.getValue(), row.status);
+                assertNull(row.claimToken);
+            }
+        }
+    }
+
+    @Test
+    public void reclaimsMessagesWhoseClaimHasTimedOut() throws Exception {
+        for (long id = 1; id <= 20; id++) {
+            pending(id, "+2547000" + id);
+            claimed(id, "crashed-run", this.now - 1000L * (CLAIM_TIMEOUT_SECONDS + 1));
+        }
+
+        this.dispatchService.dispatchPendingMessages();
+
+        assertEquals(20, this.gateway.getSentCount());
+        for (final OutboundRow row : this.table.values()) {
+            assertEquals(SmsMessageStatusType.SENT.getValue(), row.status);
+            assertNull(row.claimToken);
+        }
+    }
+
+    @Test
+    public void keepsTheClaimWhenTheGatewayFailsAndSendsOnceItTimesOut() throws Exception {
+        for (long id = 1; id <= 20; id++) {
+            pending(id, "+2547000" + id);
+        }
+        final AtomicInteger calls = new AtomicInteger();
+        this.dispatchService = new SmsDispatchServiceImpl(this.jdbcTemplate, this.taskExecutor,
+                Arrays.<SmsGateway> asList(new StubSmsGateway() {
+
+                    @Override
+                    public List<SmsGatewayResult> send(final List<SmsGatewayMessage> messages) {
+                        if (calls.getAndIncrement() == 0) { throw new IllegalStateException("gateway unavailable"); }
+                        return super.send(messages);
+                    }
+                }));
+        System.setProperty(SmsDispatchServiceImpl.GATEWAY_BATCH_SIZE_PROPERTY, "20");
+
+        try {
+            this.dispatchService.dispatchPendingMessages();
+            fail("expected the failed gateway call to fail the job");
+        } catch (final JobExecutionException e) {
+            // expected
+        }
+        for (final OutboundRow row : this.table.values()) {
+            assertEquals(SmsMessageStatusType.PENDING.getValue(), row.status);
+            assertNotNull(row.claimToken);
+        }
+
+        this.dispatchService.dispatchPendingMessages();
+        assertEquals(1, calls.get());
+
+        this.now += 1000L * (CLAIM_TIMEOUT_SECONDS + 1);
+        this.dispatchService.dispatchPendingMessages();
+        assertEquals(2, calls.get());
+        for (final OutboundRow row : this.table.values()) {
+            assertEquals(SmsMessageStatusType.SENT.getValue(), row.status);
+            assertNull(row.claimToken);
+        }
+    }
+
+    @Test
+    public void throttledClaimsAreNoLargerThanCanBeSentWithinHalfTheClaimTimeout() throws Exception {
+        for (long id = 1; id <= 250; id++) {
+            pending(id, "+2547000" + id);
+        }
+        System.setProperty(SmsDispatchServiceImpl.CLAIM_SIZE_PROPERTY, "1000");
+        System.setProperty(SmsDispatchServiceImpl.RATE_PER_SECOND_PROPERTY, "200");
+        System.setProperty(SmsDispatchServiceImpl.CLAIM_TIMEOUT_PROPERTY, "1");
+
+        this.dispatchService.dispatchPendingMessages();
+
+        // 200 per second for half a second
+        assertEquals(3, this.claims.get());
+        assertEquals(250, this.gateway.getSentCount());
+    }
+
+    @Test
+    public void doesNotSendABatchWhoseClaimWasTakenOver() throws Exception {
+        for (long id = 1; id <= 20; id++) {
+            pending(id, "+2547000" + id);
+        }
+        this.beforeRenewal = new Runnable() {
+
+            @Override
+            public void run() {
+                for (long id = 1; id <= 20; id++) {
+                    claimed(id, "other-run", SmsDispatchServiceImplTest.this.now);
+                }
+            }
+        };
+
+        this.dispatchService.dispatchPendingMessages();
+
+        assertEquals(0, this.gateway.getSentCount());
+        assertEquals(0, this.writeBacks.get());
+        for (final OutboundRow row : this.table.values()) {
+            assertEquals(SmsMessageStatusType.PENDING.getValue(), row.status);
+            assertEquals("other-run", row.claimToken);
+        }
+    }
+
+    @Test
+    public void writesBackOnlyResultsAPendingMessageCanMoveTo() throws Exception {
+        for (long id = 1; id <= 2; id++) {
+            pending(id, "+2547000" + id);
+        }
+        this.dispatchService = new SmsDispatchServiceImpl(this.jdbcTemplate, this.taskExecutor,
+                Arrays.<SmsGateway> asList(new StubSmsGateway() {
+
+                    @Override
+                    public List<SmsGatewayResult> send(final List<SmsGatewayMessage> messages) {
+                        final List<SmsGatewayResult> results = super.send(messages);
+                        final SmsGatewayResult delivered = mock(SmsGatewayResult.class);
+                        when(delivered.getMessageId()).thenReturn(messages.get(1).getId());
+                        when(delivered.getStatus()).thenReturn(SmsMessageStatusType.DELIVERED);
+                        return Arrays.asList(results.get(0), delivered);
+                    }
+                }));
+
+        this.dispatchService.dispatchPendingMessages();
+
+        assertEquals(SmsMessageStatusType.SENT.getValue(), this.table.get(1L).status);
+        assertNull(this.table.get(1L).claimToken);
+        assertEquals(SmsMessageStatusType.PENDING.getValue(), this.table.get(2L).status);
+        assertNotNull(this.table.get(2L).claimToken);
+    }
+
+    private void pending(final long id, final String mobileNo) {
+        final OutboundRow row = new OutboundRow(id, mobileNo);
+        this.table.put(id, row);
+    }
+
+    private void claimed(final long id, final String claimToken, final long claimedAt) {
+        final OutboundRow row = this.table.get(id);
+        row.claimToken = claimToken;
+        row.claimedAt = claimedAt;
+    }
+
+    private synchronized int claim(final String claimToken, final int claimTimeoutSeconds, final int claimSize) {
+        this.claims.incrementAndGet();
+        int claimed = 0;
+        for (final OutboundRow row : this.table.values()) {
+            if (claimed == claimSize) {
+                break;
+            }
+            if (SmsMessageStatusType.PENDING.getValue().equals(row.status)
+                    && (row.claimToken == null || row.claimedAt < this.now - 1000L * claimTimeoutSeconds)) {
+                row.claimToken = claimToken;
+                row.claimedAt = this.now;
+                claimed++;
+            }
+        }
+        return claimed;
+    }
+
+    private synchronized int renew(final String claimToken) {
+        if (this.beforeRenewal != null) {
+            this.beforeRenewal.run();
+        }
+        int renewed = 0;
+        for (final OutboundRow row : this.table.values()) {
+            if (SmsMessageStatusType.PENDING.getValue().equals(row.status) && claimToken.equals(row.claimToken)) {
+                row.claimedAt = this.now;
+                renewed++;
+            }
+        }
+        return renewed;
+    }
+
+    private synchronized List<OutboundRow> claimedBy(final String claimToken) {
+        final List<OutboundRow> rows = new ArrayList<>();
+        for (final OutboundRow row : this.table.values()) {
+            if (claimToken.equals(row.claimToken)) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private synchronized int[] writeBack(final BatchPreparedStatementSetter setter) throws Exception {
+        this.writeBacks.incrementAndGet();
+        final int[] counts = new int[setter.getBatchSize()];
+        for (int i = 0; i < counts.length; i++) {
+            final Object[] parameters = new Object[6];
+            setter.setValues(preparedStatementInto(parameters), i);
+            final OutboundRow row = this.table.get(parameters[4]);
+            if (row != null && parameters[5].equals(row.claimToken)) {
+                row.status = (Integer) parameters[1];
+                row.externalId = (String) parameters[2];
+                row.sentOn = parameters[3];
+                row.claimToken = null;
+                row.claimedAt = 0;
+                counts[i] = 1;
+            }
+        }
+        return counts;
+    }
+
+    private static PreparedStatement preparedStatementInto(final Object[] parameters) {
+        return mock(PreparedStatement.class, new Answer<Object>() {
+
+            @Override
+            public Object answer(final InvocationOnMock invocation) {
+                final Object[] arguments = invocation.getArguments();
+                if (invocation.getMethod().getName().startsWith("set") && arguments.length == 2) {
+                    parameters[(Integer) arguments[0]] = arguments[1];
+                }
+                return null;
+            }
+        });
+    }
+
+    private static ResultSet resultSetOf(final OutboundRow row) {
+        final Map<String, Object> columns = new TreeMap<>();
+        columns.put("id", row.id);
+        columns.put("mobile_no", row.mobileNo);
+        columns.put("message", "message " + row.id);
+        columns.put("claim_token", row.claimToken);
+        return mock(ResultSet.class, new Answer<Object>() {
+
+            @Override
+            public Object answer(final InvocationOnMock invocation) {
+                return columns.get(invocation.getArguments()[0]);
+            }
+        });
+    }
+
+    private static final class OutboundRow {
+
+        private final long id;
+        private final String mobileNo;
+        private Integer status = SmsMessageStatusType.PENDING.getValue();
+        private String claimToken;
+        private long claimedAt;
+        private String externalId;
+        private Object sentOn;
+
+        private OutboundRow(final long id, final String mobileNo) {
+            this.id = id;
+            this.mobileNo = mobileNo;
+        }
+    }
+}
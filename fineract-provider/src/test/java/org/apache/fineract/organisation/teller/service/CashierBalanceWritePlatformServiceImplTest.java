@@ -0,0 +1,166 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.teller.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+/**
+ * Runs the cashier balance sync against an in memory stand in for the
+ * posting and balance tables. The savings transaction table never sees the
+ * reversal, as it is not flushed when accounting runs.
+ */
+public class CashierBalanceWritePlatformServiceImplTest {
+
+    private static final Long DEPOSIT_ID = Long.valueOf(1);
+    private static final Long CASHIER_ID = Long.valueOf(7);
+    private static final Date TXN_DATE = new Date(1451606400000L);
+
+    private final Map<Long, Object[]> savingsTransactionTable = new HashMap<>();
+    private final Map<String, Object[]> postings = new LinkedHashMap<>();
+    private final Map<String, BigDecimal> balanceTotals = new HashMap<>();
+    private final Map<String, Integer> balanceCounts = new HashMap<>();
+
+    private CashierBalanceWritePlatformServiceImpl service;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        this.savingsTransactionTable.put(DEPOSIT_ID, new Object[] { "savings", DEPOSIT_ID, CASHIER_ID, "USD", Long.valueOf(1),
+                Integer.valueOf(103), TXN_DATE, new BigDecimal("100.00") });
+
+        final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyListOf(Object[].class))).thenAnswer(new Answer<int[]>() {
+
+            @Override
+            public int[] answer(final InvocationOnMock invocation) {
+                final String sql = (String) invocation.getArguments()[0];
+                final List<Object[]> rows = (List<Object[]>) invocation.getArguments()[1];
+                for (final Object[] row : rows) {
+                    if (sql.startsWith("insert into m_cashier_account_posting")) {
+                        postings.put(postingKey(row), row);
+                    } else if (sql.startsWith("delete from m_cashier_account_posting")) {
+                        postings.remove(postingKey(row));
+                    } else if (sql.startsWith("insert into m_cashier_balance")) {
+                        final String key = row[0] + "|" + row[1] + "|" + row[2] + "|" + row[3] + "|" + row[4];
+                        final BigDecimal total = balanceTotals.containsKey(key) ? balanceTotals.get(key) : BigDecimal.ZERO;
+                        final Integer count = balanceCounts.containsKey(key) ? balanceCounts.get(key) : Integer.valueOf(0);
+                        balanceTotals.put(key, total.add((BigDecimal) row[5]));
+                        balanceCounts.put(key, count + (Integer) row[6]);
+                    }
+                }
+                return new int[rows.size()];
+            }
+        });
+
+        final NamedParameterJdbcTemplate namedParameterJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        when(namedParameterJdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class))).thenAnswer(
+                new Answer<List<Object[]>>() {
+
+                    @Override
+                    public List<Object[]> answer(final InvocationOnMock invocation) {
+                        final String sql = (String) invocation.getArguments()[0];
+                        final SqlParameterSource parameters = (SqlParameterSource) invocation.getArguments()[1];
+                        final Collection<Long> transactionIds = (Collection<Long>) parameters.getValue("transactionIds");
+                        final List<Object[]> rows = new ArrayList<>();
+                        for (final Long transactionId : transactionIds) {
+                            final Object[] posting = postings.get("savings|" + transactionId + "|" + CASHIER_ID);
+                            if (sql.contains("not exists")) {
+                                if (posting == null && savingsTransactionTable.containsKey(transactionId)) {
+                                    rows.add(savingsTransactionTable.get(transactionId));
+                                }
+                            } else if (posting != null && !sql.contains("is_reversed")) {
+                                // the transaction table would still say not reversed
+                                rows.add(posting);
+                            }
+                        }
+                        return rows;
+                    }
+                });
+
+        this.service = new CashierBalanceWritePlatformServiceImpl(jdbcTemplate, namedParameterJdbcTemplate);
+    }
+
+    @Test
+    public void shouldCountDepositInCashierSummaryOnce() {
+        this.service.syncSavingsTransactions(Arrays.asList(bridgeTransaction(DEPOSIT_ID, false)));
+        this.service.syncSavingsTransactions(Arrays.asList(bridgeTransaction(DEPOSIT_ID, false)));
+
+        assertEquals(new BigDecimal("100.00"), summaryTotal());
+        assertEquals(Integer.valueOf(1), summaryCount());
+    }
+
+    @Test
+    public void shouldTakeUndoneDepositOutOfCashierSummaryBeforeReversalIsFlushed() {
+        this.service.syncSavingsTransactions(Arrays.asList(bridgeTransaction(DEPOSIT_ID, false)));
+
+        this.service.syncSavingsTransactions(Arrays.asList(bridgeTransaction(DEPOSIT_ID, true)));
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(summaryTotal()));
+        assertEquals(Integer.valueOf(0), summaryCount());
+        assertTrue(this.postings.isEmpty());
+    }
+
+    private static Map<String, Object> bridgeTransaction(final Long id, final boolean reversed) {
+        final Map<String, Object> transaction = new LinkedHashMap<>();
+        transaction.put("id", id);
+        transaction.put("reversed", Boolean.valueOf(reversed));
+        return transaction;
+    }
+
+    private static String postingKey(final Object[] row) {
+        return row[0] + "|" + row[1] + "|" + row[2];
+    }
+
+    private String summaryKey() {
+        return CASHIER_ID + "|USD|1|103|" + TXN_DATE;
+    }
+
+    private BigDecimal summaryTotal() {
+        return this.balanceTotals.get(summaryKey());
+    }
+
+    private Integer summaryCount() {
+        return this.balanceCounts.get(summaryKey());
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.account.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.DefaultScheduledDateGenerator;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.ScheduledDateGenerator;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+
+public class AccountTransferStandingInstructionTest {
+
+    private final ScheduledDateGenerator scheduledDateGenerator = new DefaultScheduledDateGenerator();
+
+    @Test
+    public void shouldStartMonthlyRecurrenceOnRecurrenceDay() {
+        final LocalDate validFrom = new LocalDate(2016, 1, 20);
+
+        assertEquals(new LocalDate(2016, 2, 5),
+                AccountTransferStandingInstruction.nextExecutionDate(PeriodFrequencyType.MONTHS, 1, validFrom, 5, null, validFrom));
+        assertEquals(new LocalDate(2016, 1, 25),
+                AccountTransferStandingInstruction.nextExecutionDate(PeriodFrequencyType.MONTHS, 1, validFrom, 25, null, validFrom));
+    }
+
+    @Test
+    public void shouldSkipToNextOccurrenceOfInterval() {
+        final LocalDate validFrom = new LocalDate(2016, 1, 1);
+
+        assertEquals(new LocalDate(2016, 1, 15), AccountTransferStandingInstruction.nextExecutionDate(PeriodFrequencyType.WEEKS, 2,
+                validFrom, null, null, new LocalDate(2016, 1, 2)));
+        assertEquals(new LocalDate(2016, 4, 10), AccountTransferStandingInstruction.nextExecutionDate(PeriodFrequencyType.MONTHS, 3,
+                validFrom, 10, null, new LocalDate(2016, 2, 1)));
+        assertEquals(new LocalDate(2018, 3, 1), AccountTransferStandingInstruction.nextExecutionDate(PeriodFrequencyType.YEARS, 1,
+                validFrom, 1, 3, new LocalDate(2017, 3, 2)));
+    }
+
+    @Test
+    public void nextExecutionDateShouldAgreeWithScheduledDates() {
+        final LocalDate validFrom = new LocalDate(2015, 11, 17);
+        assertAgreesWithSchedule(PeriodFrequencyType.DAYS, 3, validFrom, null, null);
+        assertAgreesWithSchedule(PeriodFrequencyType.WEEKS, 1, validFrom, null, null);
+        assertAgreesWithSchedule(PeriodFrequencyType.WEEKS, 3, validFrom, null, null);
+        assertAgreesWithSchedule(PeriodFrequencyType.MONTHS, 1, validFrom, 28, null);
+        assertAgreesWithSchedule(PeriodFrequencyType.MONTHS, 2, validFrom, 3, null);
+        assertAgreesWithSchedule(PeriodFrequencyType.YEARS, 1, validFrom, 14, 2);
+    }
+
+    private void assertAgreesWithSchedule(final PeriodFrequencyType frequencyType, final int interval, final LocalDate validFrom,
+            final Integer recurrenceOnDay, final Integer recurrenceOnMonth) {
+        final LocalDate startDate = AccountTransferStandingInstruction.recurrenceStartDate(frequencyType, validFrom, recurrenceOnDay,
+                recurrenceOnMonth);
+        LocalDate date = validFrom;
+        final LocalDate until = validFrom.plusYears(3);
+        while (date.isBefore(until)) {
+            final LocalDate nextExecutionDate = AccountTransferStandingInstruction.nextExecutionDate(frequencyType, interval, validFrom,
+                    recurrenceOnDay, recurrenceOnMonth, date);
+            assertTrue(!nextExecutionDate.isBefore(date));
+            assertEquals(nextExecutionDate.equals(date),
+                    !date.isBefore(startDate) && this.scheduledDateGenerator.isDateFallsInSchedule(frequencyType, interval, startDate, date));
+            date = date.plusDays(1);
+        }
+    }
+}
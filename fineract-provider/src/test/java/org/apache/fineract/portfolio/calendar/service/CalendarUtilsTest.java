@@ -0,0 +1,77 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.calendar.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+
+public class CalendarUtilsTest {
+
+    private static final String WEEKLY_ON_TUESDAY = "FREQ=WEEKLY;INTERVAL=1;BYDAY=TU";
+
+    private final LocalDate seedDate = new LocalDate(2015, 1, 6);
+
+    @Test
+    public void cachedRecurringDatesMatchFreshExpansion() {
+        final LocalDate from = new LocalDate(2015, 3, 1);
+        final LocalDate to = new LocalDate(2015, 6, 1);
+
+        final Collection<LocalDate> first = CalendarUtils.getRecurringDates(WEEKLY_ON_TUESDAY, this.seedDate, from, to, 20);
+        final Collection<LocalDate> second = CalendarUtils.getRecurringDates(WEEKLY_ON_TUESDAY, this.seedDate, from, to, 20);
+
+        assertEquals(13, first.size());
+        assertEquals(new LocalDate(2015, 3, 3), first.iterator().next());
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void returnedRecurringDatesCanBeModifiedByCaller() {
+        final LocalDate from = new LocalDate(2015, 3, 1);
+        final LocalDate to = new LocalDate(2015, 4, 1);
+
+        CalendarUtils.getRecurringDates(WEEKLY_ON_TUESDAY, this.seedDate, from, to, 10).clear();
+
+        assertEquals(5, CalendarUtils.getRecurringDates(WEEKLY_ON_TUESDAY, this.seedDate, from, to, 10).size());
+    }
+
+    @Test
+    public void validRecurringDateUsesRule() {
+        assertTrue(CalendarUtils.isValidRedurringDate(WEEKLY_ON_TUESDAY, this.seedDate, new LocalDate(2015, 3, 10)));
+        assertFalse(CalendarUtils.isValidRedurringDate(WEEKLY_ON_TUESDAY, this.seedDate, new LocalDate(2015, 3, 11)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void malformedRuleIsStillRejected() {
+        CalendarUtils.isValidRedurringDate("FREQ=SOMETIMES", this.seedDate, this.seedDate);
+    }
+
+    @Test
+    public void recurrencesFromGetICalRecurAreNotShared() {
+        CalendarUtils.getICalRecur(WEEKLY_ON_TUESDAY).setInterval(3);
+
+        assertEquals(1, CalendarUtils.getInterval(WEEKLY_ON_TUESDAY));
+        assertEquals(1, CalendarUtils.getICalRecur(WEEKLY_ON_TUESDAY).getInterval());
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.calendar.service;
+
+import net.fortuna.ical4j.model.Date;
+import net.fortuna.ical4j.model.DateTime;
+import net.fortuna.ical4j.model.Recur;
+
+import org.joda.time.LocalDate;
+
+/**
+ * Rough timing of the recurrence work done while generating a collection sheet
+ * for a large center: every loan of every member checks the meeting date
+ * against the center meeting rule and looks up the following meeting.
+ * 
+ * Compares parsing the rule on every call (previous behaviour) with the cached
+ * recurrences and expansions in {@link CalendarUtils}. Run with
+ * <code>java ... CollectionSheetRecurrenceBenchmark [groups] [members per group] [rounds]</code>.
+ */
+public class CollectionSheetRecurrenceBenchmark {
+
+    private static final String[] CENTER_RULES = { "FREQ=WEEKLY;INTERVAL=1;BYDAY=TU", "FREQ=WEEKLY;INTERVAL=2;BYDAY=TH",
+            "FREQ=MONTHLY;INTERVAL=1;BYMONTHDAY=15" };
+
+    public static void main(final String[] args) {
+        final int groups = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        final int membersPerGroup = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        final int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        final LocalDate seedDate = new LocalDate(2014, 1, 7);
+        final LocalDate meetingDate = new LocalDate(2015, 3, 10);
+
+        // warm up both paths
+        runUncached(groups, membersPerGroup, seedDate, meetingDate);
+        runCached(groups, membersPerGroup, seedDate, meetingDate);
+
+        long uncachedNanos = 0;
+        long cachedNanos = 0;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            runUncached(groups, membersPerGroup, seedDate, meetingDate);
+            uncachedNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            runCached(groups, membersPerGroup, seedDate, meetingDate);
+            cachedNanos += System.nanoTime() - start;
+        }
+
+        final int loans = groups * membersPerGroup;
+        System.out.println("center with " + groups + " groups, " + loans + " loans, " + rounds + " rounds");
+        System.out.println("parse per call: " + uncachedNanos / rounds / 1000000 + " ms per collection sheet");
+        System.out.println("cached        : " + cachedNanos / rounds / 1000000 + " ms per collection sheet");
+    }
+
+    private static int runUncached(final int groups, final int membersPerGroup, final LocalDate seedDate, final LocalDate meetingDate) {
+        int valid = 0;
+        for (int group = 0; group < groups; group++) {
+            final String rule = CENTER_RULES[group % CENTER_RULES.length];
+            for (int member = 0; member < membersPerGroup; member++) {
+                final Recur recur = CalendarUtils.getICalRecur(rule);
+                if (CalendarUtils.isValidRecurringDate(recur, seedDate, meetingDate)) {
+                    valid++;
+                }
+                final Date nextDate = CalendarUtils.getICalRecur(rule).getNextDate(new Date(seedDate.toDate()),
+                        new DateTime(meetingDate.toDate()));
+                final LocalDate next = new LocalDate(nextDate);
+                if (next.isAfter(meetingDate)) {
+                    valid++;
+                }
+            }
+        }
+        return valid;
+    }
+
+    private static int runCached(final int groups, final int membersPerGroup, final LocalDate seedDate, final LocalDate meetingDate) {
+        int valid = 0;
+        for (int group = 0; group < groups; group++) {
+            final String rule = CENTER_RULES[group % CENTER_RULES.length];
+            for (int member = 0; member < membersPerGroup; member++) {
+                if (CalendarUtils.isValidRedurringDate(rule, seedDate, meetingDate)) {
+                    valid++;
+                }
+                final LocalDate next = CalendarUtils.getNextRecurringDate(rule, seedDate, meetingDate);
+                if (next.isAfter(meetingDate)) {
+                    valid++;
+                }
+            }
+        }
+        return valid;
+    }
+}
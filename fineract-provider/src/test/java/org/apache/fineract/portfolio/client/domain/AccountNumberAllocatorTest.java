@@ -0,0 +1,197 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.client.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.fineract.infrastructure.accountnumberformat.domain.EntityAccountType;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Runs the allocator against an in memory <code>m_account_number_sequence</code>
+ * that applies <code>next_value = last_insert_id(next_value + ?)</code>
+ * atomically and keeps <code>last_insert_id()</code> per thread, as MySQL
+ * keeps it per connection.
+ */
+public class AccountNumberAllocatorTest {
+
+    private static final FineractPlatformTenant TENANT = new FineractPlatformTenant(null, "default", "default", "UTC", null);
+
+    private final ConcurrentMap<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+    private final ThreadLocal<Long> lastInsertId = new ThreadLocal<>();
+    private final AtomicInteger reservations = new AtomicInteger();
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() {
+        this.sequences.put("client", new AtomicLong(1));
+        this.sequences.put("loan", new AtomicLong(1001));
+
+        this.jdbcTemplate = mock(JdbcTemplate.class);
+        when(this.jdbcTemplate.update(anyString(), eq(AccountNumberAllocator.BLOCK_SIZE), anyString())).thenAnswer(new Answer<Integer>() {
+
+            @Override
+            public Integer answer(final InvocationOnMock invocation) {
+                final Object[] arguments = invocation.getArguments();
+                final AtomicLong nextValue = AccountNumberAllocatorTest.this.sequences.get(arguments[2]);
+                AccountNumberAllocatorTest.this.lastInsertId.set(nextValue.addAndGet((Integer) arguments[1]));
+                AccountNumberAllocatorTest.this.reservations.incrementAndGet();
+                return 1;
+            }
+        });
+        when(this.jdbcTemplate.queryForObject("select last_insert_id()", Long.class)).thenAnswer(new Answer<Long>() {
+
+            @Override
+            public Long answer(@SuppressWarnings("unused") final InvocationOnMock invocation) {
+                return AccountNumberAllocatorTest.this.lastInsertId.get();
+            }
+        });
+
+        ThreadLocalContextUtil.setTenant(TENANT);
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void shouldHandOutTheWholeBlockBeforeReservingTheNext() {
+        final AccountNumberAllocator allocator = newAllocator();
+
+        for (long expected = 1; expected <= AccountNumberAllocator.BLOCK_SIZE; expected++) {
+            assertEquals(Long.valueOf(expected), allocator.next(EntityAccountType.CLIENT));
+        }
+        assertEquals(1, this.reservations.get());
+        assertEquals(1 + AccountNumberAllocator.BLOCK_SIZE, this.sequences.get("client").get());
+
+        assertEquals(Long.valueOf(AccountNumberAllocator.BLOCK_SIZE + 1), allocator.next(EntityAccountType.CLIENT));
+        assertEquals(2, this.reservations.get());
+        assertEquals(1 + 2 * AccountNumberAllocator.BLOCK_SIZE, this.sequences.get("client").get());
+    }
+
+    @Test
+    public void shouldKeepSequencesApart() {
+        final AccountNumberAllocator allocator = newAllocator();
+
+        assertEquals(Long.valueOf(1), allocator.next(EntityAccountType.CLIENT));
+        assertEquals(Long.valueOf(1001), allocator.next(EntityAccountType.LOAN));
+        assertEquals(Long.valueOf(2), allocator.next(EntityAccountType.CLIENT));
+        assertEquals(Long.valueOf(1002), allocator.next(EntityAccountType.LOAN));
+    }
+
+    @Test
+    public void shouldHandOutEveryNumberOnceToConcurrentCallers() throws Exception {
+        final List<Long> numbers = allocateConcurrently(Collections.nCopies(8, newAllocator()), 200);
+
+        assertContiguousFromOne(numbers, 8 * 200);
+        assertEquals(8 * 200 / AccountNumberAllocator.BLOCK_SIZE, this.reservations.get());
+    }
+
+    @Test
+    public void shouldNotOverlapBlocksOfAllocatorsOnDifferentNodes() throws Exception {
+        final List<AccountNumberAllocator> nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            final AccountNumberAllocator node = newAllocator();
+            nodes.add(node);
+            nodes.add(node);
+        }
+
+        final List<Long> numbers = allocateConcurrently(nodes, 175);
+
+        final TreeSet<Long> distinct = new TreeSet<>(numbers);
+        assertEquals(numbers.size(), distinct.size());
+        // each node leaves at most the rest of its current block unused
+        assertTrue(distinct.last() <= this.reservations.get() * (long) AccountNumberAllocator.BLOCK_SIZE);
+    }
+
+    private AccountNumberAllocator newAllocator() {
+        return new AccountNumberAllocator(this.jdbcTemplate, mock(PlatformTransactionManager.class));
+    }
+
+    private static List<Long> allocateConcurrently(final List<AccountNumberAllocator> allocators, final int numbersPerThread)
+            throws Exception {
+        final ExecutorService threads = Executors.newFixedThreadPool(allocators.size());
+        try {
+            final List<Future<List<Long>>> results = new ArrayList<>();
+            for (final AccountNumberAllocator allocator : allocators) {
+                results.add(threads.submit(new Callable<List<Long>>() {
+
+                    @Override
+                    public List<Long> call() {
+                        ThreadLocalContextUtil.setTenant(TENANT);
+                        try {
+                            final List<Long> numbers = new ArrayList<>(numbersPerThread);
+                            for (int i = 0; i < numbersPerThread; i++) {
+                                numbers.add(allocator.next(EntityAccountType.CLIENT));
+                            }
+                            return numbers;
+                        } finally {
+                            ThreadLocalContextUtil.clearTenant();
+                        }
+                    }
+                }));
+            }
+            final List<Long> numbers = new ArrayList<>();
+            for (final Future<List<Long>> result : results) {
+                numbers.addAll(result.get(30, TimeUnit.SECONDS));
+            }
+            return numbers;
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private static void assertContiguousFromOne(final List<Long> numbers, final int count) {
+        final List<Long> sorted = new ArrayList<>(numbers);
+        Collections.sort(sorted);
+        assertEquals(count, sorted.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(Long.valueOf(i + 1), sorted.get(i));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.loanschedule.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+import com.google.gson.JsonParser;
+
+public class LoanSchedulePreviewCacheTest {
+
+    private final JsonParser parser = new JsonParser();
+
+    @Test
+    public void memberOrderDoesNotChangeCanonicalJson() {
+        final String first = LoanSchedulePreviewCache.canonicalJson(this.parser
+                .parse("{\"productId\":1,\"principal\":\"1000\",\"charges\":[{\"chargeId\":2,\"amount\":5}]}"));
+        final String second = LoanSchedulePreviewCache.canonicalJson(this.parser
+                .parse("{\"charges\":[{\"amount\":5,\"chargeId\":2}],\"principal\":\"1000\",\"productId\":1}"));
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void arrayOrderIsKept() {
+        final String first = LoanSchedulePreviewCache.canonicalJson(this.parser.parse("{\"charges\":[{\"chargeId\":1},{\"chargeId\":2}]}"));
+        final String second = LoanSchedulePreviewCache.canonicalJson(this.parser.parse("{\"charges\":[{\"chargeId\":2},{\"chargeId\":1}]}"));
+
+        assertFalse(first.equals(second));
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.data.OverdueLoanScheduleData;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Runs the overdue installment query against an in memory set of overdue
+ * installments and recorded overdue penalties. The fake connection only
+ * honours a "not exists" that looks for the penalty where it is actually
+ * recorded, in <code>m_loan_overdue_installment_charge</code> joined on the
+ * installment and the charge.
+ */
+public class LoanReadPlatformServiceImplTest {
+
+    private static final long PENALTY_CHARGE_ID = 5L;
+
+    private final List<Map<String, Object>> overdueInstallments = new ArrayList<>();
+    private final Set<Long> penalisedScheduleIds = new HashSet<>();
+
+    private LoanReadPlatformServiceImpl loanReadPlatformService;
+
+    @Before
+    public void setUp() throws Exception {
+        final Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(new Answer<PreparedStatement>() {
+
+            @Override
+            public PreparedStatement answer(final InvocationOnMock invocation) throws Exception {
+                final PreparedStatement statement = mock(PreparedStatement.class);
+                when(statement.executeQuery()).thenReturn(resultSetOf(select((String) invocation.getArguments()[0])));
+                return statement;
+            }
+        });
+        final RoutingDataSource dataSource = mock(RoutingDataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        this.loanReadPlatformService = new LoanReadPlatformServiceImpl(null, null, null, null, null, null, null, null, null, null, null,
+                dataSource, null, null, null, null, null, null);
+    }
+
+    @Test
+    public void backdatedPenaltiesSkipInstallmentsThatAlreadyCarryThePenalty() {
+        overdueInstallment(11L, 1L, 1);
+        overdueInstallment(12L, 1L, 2);
+        this.penalisedScheduleIds.add(11L);
+
+        final Collection<OverdueLoanScheduleData> overdue = this.loanReadPlatformService.retrieveAllLoansWithOverdueInstallments(1L,
+                true, Arrays.asList(1L));
+
+        assertEquals(1, overdue.size());
+        final OverdueLoanScheduleData installment = overdue.iterator().next();
+        assertEquals(Long.valueOf(1L), installment.getLoanId());
+        assertEquals(Long.valueOf(PENALTY_CHARGE_ID), installment.getChargeId());
+        assertEquals(Integer.valueOf(2), installment.getPeriodNumber());
+    }
+
+    @Test
+    public void backdatedPenaltiesSelectEveryInstallmentWithoutThePenalty() {
+        overdueInstallment(11L, 1L, 1);
+        overdueInstallment(12L, 1L, 2);
+
+        final Collection<OverdueLoanScheduleData> overdue = this.loanReadPlatformService.retrieveAllLoansWithOverdueInstallments(1L,
+                true, Arrays.asList(1L));
+
+        assertEquals(2, overdue.size());
+    }
+
+    private void overdueInstallment(final Long scheduleId, final Long loanId, final int installment) {
+        final Map<String, Object> row = new LinkedHashMap<>();
+        row.put("scheduleId", scheduleId);
+        row.put("loanId", loanId);
+        row.put("period", installment);
+        row.put("dueDate", "2016-01-0" + installment);
+        row.put("amount", new BigDecimal("10"));
+        row.put("chargeId", PENALTY_CHARGE_ID);
+        row.put("principalDue", new BigDecimal("100"));
+        row.put("interestDue", new BigDecimal("5"));
+        this.overdueInstallments.add(row);
+    }
+
+    private List<Map<String, Object>> select(final String sql) {
+        final boolean skipsPenalised = sql.contains("not exists (select 1 from m_loan_overdue_installment_charge oic")
+                && sql.contains("where oic.loan_schedule_id = ls.id and lc.charge_id = mc.id and lc.is_active = 1");
+        final List<Map<String, Object>> rows = new ArrayList<>();
+        for (final Map<String, Object> row : this.overdueInstallments) {
+            if (!skipsPenalised || !this.penalisedScheduleIds.contains(row.get("scheduleId"))) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static ResultSet resultSetOf(final List<Map<String, Object>> rows) {
+        final List<String> columns = new ArrayList<>(Arrays.asList("scheduleId", "loanId", "period", "dueDate", "amount", "chargeId",
+                "principalDue", "interestDue"));
+        return mock(ResultSet.class, new Answer<Object>() {
+
+            private int current = -1;
+            private Object last;
+
+            @Override
+            public Object answer(final InvocationOnMock invocation) {
+                final String method = invocation.getMethod().getName();
+                final Object[] arguments = invocation.getArguments();
+                if ("next".equals(method)) { return ++this.current < rows.size(); }
+                if ("wasNull".equals(method)) { return this.last == null; }
+                if ("findColumn".equals(method)) { return columns.indexOf(arguments[0]) + 1; }
+                if (!method.startsWith("get") || arguments.length != 1) { return defaultOf(invocation.getMethod().getReturnType()); }
+
+                final String column = arguments[0] instanceof Integer ? columns.get((Integer) arguments[0] - 1) : (String) arguments[0];
+                this.last = rows.get(this.current).get(column);
+                final Class<?> type = invocation.getMethod().getReturnType();
+                if (this.last == null) { return defaultOf(type); }
+                if (type == long.class) { return ((Number) this.last).longValue(); }
+                if (type == int.class) { return ((Number) this.last).intValue(); }
+                if (type == String.class) { return this.last.toString(); }
+                return this.last;
+            }
+        });
+    }
+
+    private static Object defaultOf(final Class<?> type) {
+        if (type == boolean.class) { return false; }
+        if (type == long.class) { return 0L; }
+        if (type == int.class) { return 0; }
+        return null;
+    }
+}
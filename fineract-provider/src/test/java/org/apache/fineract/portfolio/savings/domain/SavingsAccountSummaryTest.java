@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.savings.domain;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.loanaccount.MonetaryCurrencyBuilder;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the totals maintained transaction by transaction end up where
+ * rebuilding the summary from the full transaction history would put them.
+ */
+public class SavingsAccountSummaryTest {
+
+    private final MonetaryCurrency usDollars = new MonetaryCurrencyBuilder().withCode("USD").withDigitsAfterDecimal(2).build();
+    private final LocalDate today = new LocalDate(2016, 3, 1);
+    private final List<SavingsAccountTransaction> transactions = new ArrayList<>();
+
+    private SavingsAccountSummary summary;
+
+    @Before
+    public void setUp() throws Exception {
+        final Field field = MoneyHelper.class.getDeclaredField("roundingMode");
+        field.setAccessible(true);
+        field.set(null, RoundingMode.HALF_EVEN);
+        this.summary = new SavingsAccountSummary();
+    }
+
+    @Test
+    public void runningTotalsMatchTheTotalsRebuiltFromTheTransactions() throws Exception {
+        final SavingsAccountCharge fee = charge(false);
+        final SavingsAccountCharge penalty = charge(true);
+
+        apply(SavingsAccountTransaction.deposit(null, null, null, this.today, money("1000"), new Date(), null));
+        final SavingsAccountTransaction withdrawal = apply(SavingsAccountTransaction.withdrawal(null, null, null, this.today,
+                money("200"), new Date(), null));
+        apply(SavingsAccountTransaction.withdrawal(null, null, null, this.today, money("50"), new Date(), null));
+        apply(SavingsAccountTransaction.withdrawalFee(null, null, this.today, money("2.50"), null));
+        apply(paidBy(SavingsAccountTransaction.charge(null, null, this.today, money("20"), null), fee));
+        apply(paidBy(SavingsAccountTransaction.charge(null, null, this.today, money("7.25"), null), penalty));
+        apply(paidBy(SavingsAccountTransaction.waiver(null, null, this.today, money("10"), null), fee));
+        apply(paidBy(SavingsAccountTransaction.waiver(null, null, this.today, money("3"), null), penalty));
+
+        this.summary.reverseTransaction(this.usDollars, withdrawal);
+        withdrawal.reverse();
+
+        final SavingsAccountSummary rebuilt = new SavingsAccountSummary();
+        rebuilt.updateSummary(this.usDollars, new SavingsAccountTransactionSummaryWrapper(), this.transactions);
+
+        assertSameTotals(rebuilt, this.summary);
+        assertTrue(money("920.25").isEqualTo(this.summary.getAccountBalance(this.usDollars)));
+        assertFalse(this.summary.rebuildSummary(this.usDollars, new SavingsAccountTransactionSummaryWrapper(), this.transactions));
+    }
+
+    private SavingsAccountTransaction apply(final SavingsAccountTransaction transaction) {
+        this.transactions.add(transaction);
+        this.summary.applyTransaction(this.usDollars, transaction);
+        return transaction;
+    }
+
+    private static SavingsAccountTransaction paidBy(final SavingsAccountTransaction transaction, final SavingsAccountCharge charge) {
+        transaction.getSavingsAccountChargesPaid().add(SavingsAccountChargePaidBy.instance(transaction, charge, transaction.getAmount()));
+        return transaction;
+    }
+
+    private static SavingsAccountCharge charge(final boolean penalty) {
+        final SavingsAccountCharge charge = mock(SavingsAccountCharge.class);
+        when(charge.isFeeCharge()).thenReturn(!penalty);
+        when(charge.isPenaltyCharge()).thenReturn(penalty);
+        return charge;
+    }
+
+    private Money money(final String amount) {
+        return Money.of(this.usDollars, new BigDecimal(amount));
+    }
+
+    private void assertSameTotals(final SavingsAccountSummary expected, final SavingsAccountSummary actual) throws Exception {
+        for (final Field field : SavingsAccountSummary.class.getDeclaredFields()) {
+            if (field.getType() != BigDecimal.class) {
+                continue;
+            }
+            field.setAccessible(true);
+            final Money expectedTotal = Money.of(this.usDollars, (BigDecimal) field.get(expected));
+            final Money actualTotal = Money.of(this.usDollars, (BigDecimal) field.get(actual));
+            assertTrue(field.getName() + ": expected " + expectedTotal + " but was " + actualTotal, expectedTotal.isEqualTo(actualTotal));
+        }
+    }
+}
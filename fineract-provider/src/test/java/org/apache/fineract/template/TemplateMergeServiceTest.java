@@ -31,6 +31,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.fineract.infrastructure.core.service.RequestTaskExecutor;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
 import org.apache.fineract.portfolio.loanaccount.LoanScheduleTestDataHelper;
@@ -52,7 +53,7 @@ import com.google.gson.JsonParser;
 
 public class TemplateMergeServiceTest {
 
-    private TemplateMergeService tms = new TemplateMergeService();
+    private TemplateMergeService tms = new TemplateMergeService(new RequestTaskExecutor());
     
     @Before
     public void setUpForEachTestCase() throws Exception {
@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.useradministration.domain;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.fineract.infrastructure.security.exception.NoAuthorizationException;
+import org.junit.Test;
+
+public class AppUserPermissionTest {
+
+    @Test
+    public void permissionChecksFollowRoleChanges() {
+        final Role role = new Role("teller", "teller");
+        role.updatePermission(new Permission("portfolio", "CLIENT", "READ"), true);
+        final AppUser user = userWithRoles(role);
+
+        user.validateHasReadPermission("client");
+        assertTrue(user.hasNotPermissionForAnyOf("CREATE_CLIENT"));
+
+        final Permission createClient = new Permission("portfolio", "CLIENT", "CREATE");
+        role.updatePermission(createClient, true);
+        user.validateHasPermissionTo("CREATE_CLIENT");
+
+        role.updatePermission(createClient, false);
+        try {
+            user.validateHasPermissionTo("CREATE_CLIENT");
+            throw new AssertionError("expected the revoked permission to be refused");
+        } catch (final NoAuthorizationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void permissionCodesMatchInAnyCase() {
+        final Role role = new Role("officer", "officer");
+        role.updatePermission(new Permission("portfolio", "LOAN", "APPROVEINPAST"), true);
+        final AppUser user = userWithRoles(role);
+
+        assertFalse(user.canNotApproveLoanInPast());
+        assertFalse(user.hasNotPermissionForAnyOf("approveinpast_loan"));
+        assertTrue(user.canNotDisburseLoanInPast());
+    }
+
+    private static AppUser userWithRoles(final Role... roles) {
+        final AppUser user = new AppUser();
+        final Set<Role> assigned = new HashSet<>();
+        for (final Role role : roles) {
+            assigned.add(role);
+        }
+        user.updateRoles(assigned);
+        return user;
+    }
+}